@@ -0,0 +1,20 @@
+import axios from "axios";
+
+const TOKEN_KEY = "accessToken";
+
+export const getToken = (): string | null => localStorage.getItem(TOKEN_KEY);
+
+export const setToken = (token: string) => localStorage.setItem(TOKEN_KEY, token);
+
+export const clearToken = () => localStorage.removeItem(TOKEN_KEY);
+
+// Общий клиент для /api: access-токен из login-2fa уходит в заголовке Authorization
+export const api = axios.create({ baseURL: "/api" });
+
+api.interceptors.request.use(config => {
+    const token = getToken();
+    if (token) {
+        config.headers.Authorization = `Bearer ${token}`;
+    }
+    return config;
+});
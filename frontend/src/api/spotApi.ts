@@ -1,7 +1,5 @@
-import axios from 'axios';
 import type { Spot } from '../types/Spot';
-
-const api = axios.create({ baseURL: '/api' });
+import { api } from './client';
 
 export const getAllSpots = async (): Promise<Spot[]> =>
     (await api.get('/spots')).data;
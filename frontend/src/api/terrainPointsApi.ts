@@ -1,7 +1,5 @@
-import axios from "axios";
 import type { TerrainPoint } from "../types/TerrainPoint";
-
-const api = axios.create({ baseURL: "/api" });
+import { api } from "./client";
 
 export const getTerrainPointsBySpot = async (spotId: number): Promise<TerrainPoint[]> =>
     (await api.get(`/terrain_points/spotID/${spotId}`)).data;
@@ -1,7 +1,5 @@
-import axios from "axios";
 import type {User} from "../types/auth";
+import { api } from "./client";
 
-export const getMe = (token: string) =>
-    axios.get<User>("/api/user/me", {
-        headers: { Authorization: `Bearer ${token}` }
-    });
\ No newline at end of file
+export const getMe = () =>
+    api.get<User>("/user/me");
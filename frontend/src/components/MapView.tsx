@@ -27,7 +27,7 @@ L.Icon.Default.mergeOptions({ iconUrl, shadowUrl });
 delete (L.Icon.Default.prototype as any)._getIconUrl;
 
 // Constants
-const ELEVATION_API_TIMEOUT = 10000; // 10 seconds
+const ELEVATION_API_TIMEOUT = 2000; // 2 seconds
 
 // Цветовая схема для типов terrain points
 const TERRAIN_COLORS = {
@@ -222,10 +222,10 @@ const MapView: React.FC = () => {
 
 
     const layers: Record<LayerType, { url: string; label: string }> = {
-        standard: { url: "https://{s}.tile.openstreetmap.org/{z}/{x}/{y}.png", label: "Схематическая карта" },
-        topo: { url: "https://{s}.tile.opentopomap.org/{z}/{x}/{y}.png", label: "Топографическая карта" },
+        standard: { url: "/api/public/tiles/standard/{z}/{x}/{y}", label: "Схематическая карта" },
+        topo: { url: "/api/public/tiles/topo/{z}/{x}/{y}", label: "Топографическая карта" },
         satellite: {
-            url: "https://server.arcgisonline.com/ArcGIS/rest/services/World_Imagery/MapServer/tile/{z}/{y}/{x}",
+            url: "/api/public/tiles/satellite/{z}/{x}/{y}",
             label: "Спутниковая карта",
         },
     };
@@ -322,19 +322,23 @@ const MapView: React.FC = () => {
             const timeoutId = setTimeout(() => controller.abort(), ELEVATION_API_TIMEOUT);
 
             const res = await fetch(
-                `https://api.open-elevation.com/api/v1/lookup?locations=${lat},${lng}`,
+                `/api/public/elevation?lat=${lat}&lon=${lng}`,
                 { signal: controller.signal }
             );
 
             clearTimeout(timeoutId);
 
+            // 404 — для этой точки нет тайла ЦМР, высоту вводят вручную
+            if (res.status === 404) {
+                return null;
+            }
             if (!res.ok) {
                 throw new Error(`HTTP error! status: ${res.status}`);
             }
 
             const data = await res.json();
-            if (data.results && data.results.length > 0) {
-                return Math.round(data.results[0].elevation);
+            if (data.elevation != null) {
+                return Math.round(data.elevation);
             }
         } catch (err) {
             if (err instanceof Error) {
@@ -377,13 +381,15 @@ const MapView: React.FC = () => {
             if(elevationEnabled) {
                 try {
                     const res = await fetch(
-                        `https://api.open-elevation.com/api/v1/lookup?locations=${cursorPos.lat},${cursorPos.lng}`
+                        `/api/public/elevation?lat=${cursorPos.lat}&lon=${cursorPos.lng}`
                     );
-                    const data = await res.json();
-                    if (data.results && data.results.length > 0) {
-                        setCursorElevation(Math.round(data.results[0].elevation));
-                        setLastFetchPos(cursorPos);
+                    if (!res.ok) {
+                        setCursorElevation(null);
+                        return;
                     }
+                    const data = await res.json();
+                    setCursorElevation(Math.round(data.elevation));
+                    setLastFetchPos(cursorPos);
                 } catch (err) {
                     console.error("Elevation fetch error:", err);
                     setCursorElevation(null);
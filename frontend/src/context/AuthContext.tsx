@@ -1,5 +1,7 @@
 // context/AuthContext.tsx
 import React, { createContext, useState, useEffect } from "react";
+import { clearToken, getToken } from "../api/client";
+import { getMe } from "../api/user";
 
 export const AuthContext = createContext({
     user: null,
@@ -10,20 +12,20 @@ export const AuthContext = createContext({
 export const AuthProvider: React.FC<{children: React.ReactNode}> = ({ children }) => {
     const [user, setUser] = useState<any>(null);
 
-    // Главное: всегда запрашиваем пользователя с /api/user/me при загрузке приложения/страницы
+    // Главное: при загрузке приложения/страницы запрашиваем пользователя с /api/user/me по сохранённому токену
     useEffect(() => {
-        fetch("/api/user/me", {
-            headers: {
-                Authorization: "Bearer dev" // можно любое значение для dev-режима
-            }
-        })
-            .then(res => res.ok ? res.json() : null)
-            .then(data => setUser(data))
-            .catch(() => setUser(null));
+        if (!getToken()) return;
+        getMe()
+            .then(res => setUser(res.data))
+            .catch(() => {
+                clearToken(); // токен истёк или недействителен
+                setUser(null);
+            });
     }, []);
 
     function logout() {
-        setUser(null); // Просто "выход" — убираем пользователя из context
+        clearToken();
+        setUser(null); // Просто "выход" — убираем токен и пользователя из context
     }
 
     return (
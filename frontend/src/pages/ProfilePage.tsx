@@ -1,16 +1,12 @@
 import React, { useEffect, useState } from "react";
+import { getMe } from "../api/user";
 
 const ProfilePage: React.FC = () => {
     const [user, setUser] = useState<any>(null);
 
     useEffect(() => {
-        fetch("/api/user/me", {
-            headers: {
-                Authorization: "Bearer any-dev-token" // Любой токен, чтобы фильтр пропустил
-            }
-        })
-            .then(res => res.ok ? res.json() : null)
-            .then(data => setUser(data))
+        getMe()
+            .then(res => setUser(res.data))
             .catch(() => setUser(null));
     }, []);
 
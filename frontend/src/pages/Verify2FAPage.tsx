@@ -1,6 +1,8 @@
 import React, { useState, useContext, useEffect } from "react";
 import { useLocation, useNavigate, useSearchParams } from "react-router-dom";
 import { login2FA, verifyEmail, resendCode } from "../api/auth";
+import { getMe } from "../api/user";
+import { setToken } from "../api/client";
 import { AuthContext } from "../context/AuthContext";
 const RESEND_TIMEOUT = 30; // таймаут между отправками
 
@@ -68,15 +70,10 @@ const Verify2FAPage: React.FC = () => {
                 setTimeout(() => navigate("/login"), 2000);
             } else {
                 const resp = await login2FA(email, code);
-                // Сохрани токен, если нужно (обычно в localStorage/cookie)
-                // localStorage.setItem("token", resp.data.accessToken); // если у тебя есть токены
-                // После этого делаем fetch на /api/user/me
-                const meResp = await fetch("/api/user/me", {
-                    headers: {
-                        Authorization: "Bearer dev" // тот же что и для TopBar/AuthContext
-                    }
-                });
-                const user = meResp.ok ? await meResp.json() : null;
+                setToken(resp.data.accessToken);
+                // С токеном запрашиваем профиль: /api/user/me
+                const meResp = await getMe();
+                const user = meResp.data;
                 setUser(user);
                 setSuccess(true);
                 setTimeout(() => navigate("/profile"), 1500);
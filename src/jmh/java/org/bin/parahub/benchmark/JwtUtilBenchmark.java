@@ -0,0 +1,54 @@
+package org.bin.parahub.benchmark;
+
+import org.bin.parahub.security.JwtUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Выпуск и проверка JWT (HS256) — выполняются на каждом логине и каждом запросе с токеном
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class JwtUtilBenchmark {
+
+	private JwtUtil jwtUtil;
+	private String token;
+
+	@Setup
+	public void setUp() {
+		jwtUtil = new JwtUtil();
+		ReflectionTestUtils.setField(jwtUtil, "jwtSecret", "benchmark-secret-benchmark-secret-benchmark-secret-0123456789");
+		ReflectionTestUtils.setField(jwtUtil, "jwtValidityMs", 3_600_000L);
+		token = jwtUtil.generateToken("pilot@parahub.org", "USER");
+	}
+
+	@Benchmark
+	public String generateToken() {
+		return jwtUtil.generateToken("pilot@parahub.org", "USER");
+	}
+
+	@Benchmark
+	public boolean validateToken() {
+		return jwtUtil.validateToken(token);
+	}
+
+	@Benchmark
+	public String getUsername() {
+		return jwtUtil.getUsername(token);
+	}
+}
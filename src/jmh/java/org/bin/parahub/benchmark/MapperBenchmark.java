@@ -0,0 +1,101 @@
+package org.bin.parahub.benchmark;
+
+import org.bin.parahub.dto.SpotDTO;
+import org.bin.parahub.entity.Spot;
+import org.bin.parahub.mapper.SpotMapper;
+import org.bin.parahub.mapper.TerrainPointMapper;
+import org.bin.parahub.mapper.WindMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Мапперы без прокси: чистая стоимость перекладывания полей Spot/TerrainPoint/Wind ↔ DTO
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class MapperBenchmark {
+
+	@Param({"5", "50"})
+	int terrainPoints;
+
+	private TerrainPointMapper terrainPointMapper;
+	private WindMapper windMapper;
+	private SpotMapper spotMapper;
+
+	private Spot spot;
+	private SpotDTO spotDTO;
+	private List<SpotDTO> spotDTOs;
+
+	@Setup
+	public void setUp() {
+		terrainPointMapper = new TerrainPointMapper();
+		windMapper = new WindMapper();
+		spotMapper = new SpotMapper(terrainPointMapper, windMapper);
+
+		spot = SampleData.spot(1, terrainPoints, 4);
+		spotDTO = spotMapper.toDTO(spot);
+
+		spotDTOs = new ArrayList<>();
+		for (Spot s : SampleData.spots(100)) {
+			spotDTOs.add(spotMapper.toDTO(s));
+		}
+	}
+
+	@Benchmark
+	public SpotDTO spotToDTO() {
+		return spotMapper.toDTO(spot);
+	}
+
+	@Benchmark
+	public Spot spotToEntity() {
+		return spotMapper.toEntity(spotDTO);
+	}
+
+	@Benchmark
+	public Object terrainPointsToDTOList() {
+		return terrainPointMapper.toDTOList(spot.getTerrainPoints());
+	}
+
+	@Benchmark
+	public Object terrainPointsToEntityList() {
+		return terrainPointMapper.toEntityList(spotDTO.getTerrainPoints());
+	}
+
+	@Benchmark
+	public Object windsToDTOList() {
+		return windMapper.toDTOList(spot.getWinds());
+	}
+
+	@Benchmark
+	public Object windsToEntityList() {
+		return windMapper.toEntityList(spotDTO.getWinds());
+	}
+
+	/**
+	 * Сотня спотов за вызов, как при импорте набора спотов
+	 */
+	@Benchmark
+	public void hundredSpotsToEntity(Blackhole blackhole) {
+		for (SpotDTO dto : spotDTOs) {
+			blackhole.consume(spotMapper.toEntity(dto));
+		}
+	}
+}
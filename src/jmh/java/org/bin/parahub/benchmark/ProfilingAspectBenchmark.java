@@ -0,0 +1,122 @@
+package org.bin.parahub.benchmark;
+
+import org.bin.parahub.annotation.Profiled;
+import org.bin.parahub.aspect.ProfilingAspect;
+import org.bin.parahub.enums.ProfilingMode;
+import org.bin.parahub.profiling.ProfilingRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Накладные расходы ProfilingAspect: тот же бин без прокси и за прокси в разных режимах @Profiled.
+ * Разница с plain — цена аспекта на вызов.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ProfilingAspectBenchmark {
+
+	private Target plain;
+	private HistogramTarget histogram;
+	private AggregateTarget aggregate;
+	private SampledLogTarget sampledLog;
+	private AllocationTarget allocations;
+
+	@Setup
+	public void setUp() {
+		ProfilingAspect aspect = new ProfilingAspect(new ProfilingRegistry());
+		plain = new Target();
+		histogram = proxy(new HistogramTarget(), aspect);
+		aggregate = proxy(new AggregateTarget(), aspect);
+		sampledLog = proxy(new SampledLogTarget(), aspect);
+		allocations = proxy(new AllocationTarget(), aspect);
+	}
+
+	@Benchmark
+	public long plain() {
+		return plain.work(42);
+	}
+
+	@Benchmark
+	public long histogram() {
+		return histogram.work(42);
+	}
+
+	@Benchmark
+	public long aggregate() {
+		return aggregate.work(42);
+	}
+
+	@Benchmark
+	public long sampledOutLog() {
+		return sampledLog.work(42);
+	}
+
+	@Benchmark
+	public long histogramWithAllocations() {
+		return allocations.work(42);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T proxy(T target, ProfilingAspect aspect) {
+		AspectJProxyFactory factory = new AspectJProxyFactory(target);
+		factory.setProxyTargetClass(true);
+		factory.addAspect(aspect);
+		return (T) factory.getProxy();
+	}
+
+	public static class Target {
+		private long counter;
+
+		public long work(long value) {
+			counter += value;
+			return counter;
+		}
+	}
+
+	public static class HistogramTarget extends Target {
+		@Override
+		@Profiled(mode = ProfilingMode.HISTOGRAM)
+		public long work(long value) {
+			return super.work(value);
+		}
+	}
+
+	public static class AggregateTarget extends Target {
+		@Override
+		@Profiled(mode = ProfilingMode.AGGREGATE)
+		public long work(long value) {
+			return super.work(value);
+		}
+	}
+
+	public static class SampledLogTarget extends Target {
+		@Override
+		@Profiled(sampleRate = 0.0, logArgs = false, logResult = false)
+		public long work(long value) {
+			return super.work(value);
+		}
+	}
+
+	public static class AllocationTarget extends Target {
+		@Override
+		@Profiled(mode = ProfilingMode.HISTOGRAM, trackAllocations = true)
+		public long work(long value) {
+			return super.work(value);
+		}
+	}
+}
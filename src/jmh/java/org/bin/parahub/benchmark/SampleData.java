@@ -0,0 +1,76 @@
+package org.bin.parahub.benchmark;
+
+import org.bin.parahub.entity.Spot;
+import org.bin.parahub.entity.TerrainPoint;
+import org.bin.parahub.entity.Wind;
+import org.bin.parahub.enums.PointType;
+import org.bin.parahub.enums.WindDirection;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Графы объектов, похожие на реальные данные: спот с несколькими стартами/посадками
+ * и 2–4 подходящими ветрами, описания по паре сотен символов.
+ */
+final class SampleData {
+
+	private static final PointType[] POINT_TYPES = PointType.values();
+	private static final WindDirection[] DIRECTIONS = WindDirection.values();
+
+	private SampleData() {
+	}
+
+	static Spot spot(long id, int terrainPoints, int winds) {
+		Spot spot = new Spot();
+		spot.setId(id);
+		spot.setName("Спот " + id);
+		spot.setLatitude(44.5 + (id % 100) * 0.01);
+		spot.setLongitude(34.1 + (id % 100) * 0.01);
+		spot.setElevation(400.0 + id % 800);
+		spot.setDescription(("Склон юго-западной экспозиции, старт с травы, посадка у дороги. "
+				+ "Термики с полудня, в сильный ветер роторит за гребнем. ").repeat(2));
+		spot.setSuitableWinds("SW, W");
+		spot.setXcDifficulty((int) (id % 5) + 1);
+		spot.setLearningDifficulty((int) (id % 5) + 1);
+		spot.setPopularity("HIGH");
+		spot.setBestSeason("май-сентябрь");
+		spot.setAccessibility("Асфальт до старта");
+
+		List<TerrainPoint> points = new ArrayList<>(terrainPoints);
+		for (int i = 0; i < terrainPoints; i++) {
+			TerrainPoint point = new TerrainPoint();
+			point.setId(id * 100 + i);
+			point.setName("Точка " + i);
+			point.setType(POINT_TYPES[i % POINT_TYPES.length]);
+			point.setLatitude(spot.getLatitude() + i * 0.001);
+			point.setLongitude(spot.getLongitude() - i * 0.001);
+			point.setElevation(spot.getElevation() - i * 50);
+			point.setDescription("Ориентир на грунтовке, видно с воздуха");
+			point.setSpot(spot);
+			points.add(point);
+		}
+		spot.setTerrainPoints(points);
+
+		List<Wind> windList = new ArrayList<>(winds);
+		for (int i = 0; i < winds; i++) {
+			Wind wind = new Wind();
+			wind.setId(id * 10 + i);
+			wind.setDirection(DIRECTIONS[(int) (id + i) % DIRECTIONS.length]);
+			wind.setMinSpeed(2);
+			wind.setMaxSpeed(6 + i);
+			wind.setSpot(spot);
+			windList.add(wind);
+		}
+		spot.setWinds(windList);
+		return spot;
+	}
+
+	static List<Spot> spots(int count) {
+		List<Spot> spots = new ArrayList<>(count);
+		for (int i = 1; i <= count; i++) {
+			spots.add(spot(i, 4 + i % 8, 2 + i % 3));
+		}
+		return spots;
+	}
+}
@@ -0,0 +1,80 @@
+package org.bin.parahub.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.bin.parahub.dto.SpotDTO;
+import org.bin.parahub.entity.Spot;
+import org.bin.parahub.mapper.SpotMapper;
+import org.bin.parahub.mapper.TerrainPointMapper;
+import org.bin.parahub.mapper.WindMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сериализация ответа GET /api/spots: список SpotDTO с точками и ветрами в JSON-байты
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class SpotJsonBenchmark {
+
+	@Param({"10", "1000"})
+	int spots;
+
+	private ObjectMapper objectMapper;
+	private ObjectWriter listWriter;
+	private List<SpotDTO> spotDTOs;
+	private byte[] json;
+
+	@Setup
+	public void setUp() throws Exception {
+		SpotMapper spotMapper = new SpotMapper(new TerrainPointMapper(), new WindMapper());
+		spotDTOs = new ArrayList<>(spots);
+		for (Spot spot : SampleData.spots(spots)) {
+			spotDTOs.add(spotMapper.toDTO(spot));
+		}
+		// тот же набор модулей и настроек, что у ObjectMapper в Spring MVC
+		objectMapper = Jackson2ObjectMapperBuilder.json().build();
+		listWriter = objectMapper.writerFor(new TypeReference<List<SpotDTO>>() { });
+		json = listWriter.writeValueAsBytes(spotDTOs);
+	}
+
+	/**
+	 * Как MappingJackson2HttpMessageConverter: тип берётся из рантайма
+	 */
+	@Benchmark
+	public byte[] serializeWithObjectMapper() throws Exception {
+		return objectMapper.writeValueAsBytes(spotDTOs);
+	}
+
+	/**
+	 * С заранее разрешённым сериализатором для List<SpotDTO>
+	 */
+	@Benchmark
+	public byte[] serializeWithTypedWriter() throws Exception {
+		return listWriter.writeValueAsBytes(spotDTOs);
+	}
+
+	@Benchmark
+	public List<SpotDTO> deserialize() throws Exception {
+		return objectMapper.readValue(json, new TypeReference<List<SpotDTO>>() { });
+	}
+}
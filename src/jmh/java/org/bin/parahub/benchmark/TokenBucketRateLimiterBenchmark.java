@@ -0,0 +1,63 @@
+package org.bin.parahub.benchmark;
+
+import org.bin.parahub.security.TokenBucketRateLimiter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Цена tryAcquire под конкуренцией: 8 потоков по пересекающимся ключам (как IP за одним NAT).
+ * evictingKeys — каждый вызов с новым ключом при заполненной карте, то есть постоянное вытеснение.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@Threads(8)
+public class TokenBucketRateLimiterBenchmark {
+
+	private static final int KEYS = 1_000;
+
+	private TokenBucketRateLimiter limiter;
+	private TokenBucketRateLimiter fullLimiter;
+	private String[] keys;
+
+	@Setup
+	public void setUp() {
+		limiter = new TokenBucketRateLimiter(1_000_000, 1_000_000, 10_000);
+		fullLimiter = new TokenBucketRateLimiter(1_000_000, 1_000_000, KEYS);
+		keys = new String[KEYS];
+		for (int i = 0; i < KEYS; i++) {
+			keys[i] = "ip:10.0." + (i / 256) + "." + (i % 256);
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class Cursor {
+		int next;
+		long unique;
+	}
+
+	@Benchmark
+	public long sharedKeys(Cursor cursor) {
+		cursor.next = (cursor.next + 1) % KEYS;
+		return limiter.tryAcquire(keys[cursor.next]);
+	}
+
+	@Benchmark
+	public long evictingKeys(Cursor cursor) {
+		return fullLimiter.tryAcquire("email:" + Thread.currentThread().threadId() + "-" + cursor.unique++);
+	}
+}
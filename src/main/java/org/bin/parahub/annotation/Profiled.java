@@ -1,5 +1,7 @@
 package org.bin.parahub.annotation;
 
+import org.bin.parahub.enums.ProfilingMode;
+
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
@@ -17,6 +19,9 @@ import java.lang.annotation.Target;
  * На классе (все public методы):
  * @Profiled
  * public class SpotService { ... }
+ *
+ * Только гистограмма, без строки в лог на каждый вызов (для горячих методов):
+ * @Profiled(mode = ProfilingMode.HISTOGRAM)
  */
 @Target({ElementType.METHOD, ElementType.TYPE})
 @Retention(RetentionPolicy.RUNTIME)
@@ -35,4 +40,21 @@ public @interface Profiled {
      * Порог медленного выполнения в миллисекундах
      */
     long slowThresholdMs() default 100;
+
+    /**
+     * Логировать каждый вызов, писать в гистограмму задержек (/api/admin/profiling/metrics) или и то, и другое
+     */
+    ProfilingMode mode() default ProfilingMode.LOG_AND_HISTOGRAM;
+
+    /**
+     * Доля вызовов (0..1), которые логируются полностью: caller, аргументы, результат.
+     * Медленные и упавшие вызовы логируются всегда, гистограмма пишется для всех.
+     */
+    double sampleRate() default 1.0;
+
+    /**
+     * Считать байты, выделенные потоком за вызов (ThreadMXBean), и вести их гистограмму.
+     * Стоит пару десятков наносекунд на вызов, поэтому по умолчанию выключено.
+     */
+    boolean trackAllocations() default false;
 }
@@ -0,0 +1,23 @@
+package org.bin.parahub.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Сколько SQL-выполнений допускается за один HTTP-запрос к эндпоинту (включая аутентификацию).
+ *
+ * Превышения считаются в /api/admin/profiling/metrics всегда; при parahub.sql.budget.enforce=true
+ * (режим тестов) запрос вместо ответа получает 500 — так регрессия по числу запросов роняет тест.
+ *
+ * @GetMapping("/id/{id}")
+ * @QueryBudget(4)
+ * public ResponseEntity<SpotDTO> getSpotById(@PathVariable Long id) { ... }
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface QueryBudget {
+
+    int value();
+}
@@ -5,16 +5,39 @@ import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.reflect.MethodSignature;
 import org.bin.parahub.annotation.Profiled;
+import org.bin.parahub.profiling.AllocationCounter;
+import org.bin.parahub.profiling.CallTree;
+import org.bin.parahub.profiling.MethodStats;
+import org.bin.parahub.profiling.ProfilingRegistry;
+import org.bin.parahub.profiling.jfr.ProfiledMethodEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.stereotype.Component;
 
+import java.lang.reflect.Method;
 import java.util.HashSet;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
 
 /**
  * Aspect for profiling methods/classes annotated with @Profiled
- * Logs to console and to logs/profiling.log file
+ * Logs to console and to logs/profiling.log file (async appenders, see logback-spring.xml),
+ * records latency histograms into ProfilingRegistry (see Profiled#mode)
+ *
+ * Горячий путь дешёвый: метаданные метода (имена, параметры, аннотация, статистика) кешируются
+ * по Method, стек для "CALLED FROM" обходится лениво через StackWalker и только для
+ * сэмплированных (Profiled#sampleRate), медленных или упавших вызовов.
+ * Во время записи JFR каждый вызов дополнительно оборачивается в ProfiledMethodEvent.
+ * С Profiled#trackAllocations считаются байты, выделенные потоком за вызов.
+ * Аргументы (в лог и в JFR) пишутся только при Profiled#logArgs; значения параметров с именами вроде password,
+ * token, code (SENSITIVE_PARAMETER) заменяются на "***".
  */
 @Aspect
 @Component
@@ -23,35 +46,118 @@ public class ProfilingAspect {
     private static final Logger logger = LoggerFactory.getLogger(ProfilingAspect.class);
     private static final Logger profilingLogger = LoggerFactory.getLogger("PROFILING");
 
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+    private static final ParameterNameDiscoverer PARAMETER_NAMES = new DefaultParameterNameDiscoverer();
+    private static final Pattern SENSITIVE_PARAMETER = Pattern.compile("(?i).*(password|token|secret|code).*");
+    private static final String REDACTED = "***";
+
+    /** getId() для форматирования Entity/DTO — ищем рефлексией один раз на класс */
+    private static final ClassValue<Optional<Method>> GET_ID_METHODS = new ClassValue<>() {
+        @Override
+        protected Optional<Method> computeValue(Class<?> type) {
+            try {
+                return Optional.of(type.getMethod("getId"));
+            } catch (NoSuchMethodException e) {
+                return Optional.empty();
+            }
+        }
+    };
+
+    private final ProfilingRegistry profilingRegistry;
+    private final ConcurrentHashMap<Method, MethodProfile> profiles = new ConcurrentHashMap<>();
+
+    public ProfilingAspect(ProfilingRegistry profilingRegistry) {
+        this.profilingRegistry = profilingRegistry;
+    }
+
     /**
-     * Профилирование ТОЛЬКО методов/классов с аннотацией @Profiled
+     * Профилирование ТОЛЬКО методов/классов с аннотацией @Profiled.
+     * Аннотация не биндится в параметр совета, а берётся из кеша MethodProfile.
      */
-    @Around("@annotation(profiled) || (@within(profiled) && execution(* *(..)))")
-    public Object profileAnnotatedMethods(ProceedingJoinPoint joinPoint, Profiled profiled) throws Throwable {
-        return profileMethod(joinPoint, profiled);
+    @Around("@annotation(org.bin.parahub.annotation.Profiled) || (@within(org.bin.parahub.annotation.Profiled) && execution(* *(..)))")
+    public Object profileAnnotatedMethods(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        MethodProfile profile = profiles.get(method);
+        if (profile == null) {
+            profile = profiles.computeIfAbsent(method, this::createProfile);
+        }
+
+        // Если для запроса строится дерево вызовов (CallTreeFilter) — добавляем узел
+        CallTree callTree = CallTree.current();
+        if (callTree == null) {
+            return invoke(joinPoint, profile);
+        }
+        callTree.enter(profile.fullMethodName());
+        try {
+            return invoke(joinPoint, profile);
+        } finally {
+            callTree.exit();
+        }
     }
 
-    private Object profileMethod(ProceedingJoinPoint joinPoint, Profiled profiled) throws Throwable {
-        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
-        String className = signature.getDeclaringType().getSimpleName();
-        String methodName = signature.getName();
-        String fullMethodName = className + "#" + methodName;
+    private Object invoke(ProceedingJoinPoint joinPoint, MethodProfile profile) throws Throwable {
+        if (profile.allocationStats() == null) {
+            return invokeWithJfr(joinPoint, profile);
+        }
+        long allocatedBefore = AllocationCounter.currentThreadAllocatedBytes();
+        try {
+            return invokeWithJfr(joinPoint, profile);
+        } finally {
+            profile.allocationStats().recordAllocation(AllocationCounter.currentThreadAllocatedBytes() - allocatedBefore);
+        }
+    }
 
-        // 1. ОТКУДА ВЫЗВАН (Caller information)
-        String caller = getCallerInfo();
+    private Object invokeWithJfr(ProceedingJoinPoint joinPoint, MethodProfile profile) throws Throwable {
+        ProfiledMethodEvent event = new ProfiledMethodEvent();
+        if (!event.isEnabled()) {
+            return profileMethod(joinPoint, profile);
+        }
+        return profileWithJfrEvent(joinPoint, profile, event);
+    }
+
+    /**
+     * Вызов внутри JFR-события. Поля события заполняются только если оно прошло порог записи.
+     */
+    private Object profileWithJfrEvent(ProceedingJoinPoint joinPoint, MethodProfile profile, ProfiledMethodEvent event) throws Throwable {
+        event.begin();
+        Throwable failure = null;
+        try {
+            return profileMethod(joinPoint, profile);
+        } catch (Throwable e) {
+            failure = e;
+            throw e;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.className = profile.className();
+                event.methodName = profile.methodName();
+                event.outcome = failure == null ? "OK" : failure.getClass().getSimpleName();
+                if (profile.profiled().logArgs()) {
+                    event.arguments = formatArguments(joinPoint.getArgs(), profile);
+                }
+                event.commit();
+            }
+        }
+    }
 
-        // 2. АРГУМЕНТЫ метода
-        Object[] args = joinPoint.getArgs();
-        String[] paramNames = signature.getParameterNames();
-        String argsStr = formatArguments(args, paramNames);
+    private Object profileMethod(ProceedingJoinPoint joinPoint, MethodProfile profile) throws Throwable {
+        Profiled profiled = profile.profiled();
 
-        // 3. Логируем НАЧАЛО с caller и аргументами
-        logBoth(String.format("▶ [%s] CALLED FROM: %s", fullMethodName, caller));
-        if (profiled.logArgs() && args.length > 0) {
-            logBoth(String.format("  📥 Arguments: %s", argsStr));
+        if (!profiled.mode().logs() || !loggingEnabled()) {
+            return recordOnly(joinPoint, profile);
         }
 
-        long startTime = System.currentTimeMillis();
+        // 1. Сэмплирование: полный лог (caller, аргументы, результат) только для доли вызовов
+        boolean sampled = isSampled(profiled.sampleRate());
+        if (sampled) {
+            // 2. ОТКУДА ВЫЗВАН и АРГУМЕНТЫ
+            logBoth("▶ [{}] CALLED FROM: {}", profile.fullMethodName(), getCallerInfo());
+            if (profiled.logArgs() && joinPoint.getArgs().length > 0) {
+                logBoth("  📥 Arguments: {}", formatArguments(joinPoint.getArgs(), profile));
+            }
+        }
+
+        long startTime = System.nanoTime();
         Object result = null;
         Throwable exception = null;
 
@@ -62,68 +168,127 @@ public class ProfilingAspect {
             exception = e;
             throw e;
         } finally {
-            long executionTime = System.currentTimeMillis() - startTime;
-
-            // 4. Логируем РЕЗУЛЬТАТ
-            if (exception != null) {
-                logBoth(String.format("✗ [%s] FAILED in %d ms", fullMethodName, executionTime));
-                logBoth(String.format("  ❌ Exception: %s - %s", 
-                    exception.getClass().getSimpleName(), 
-                    exception.getMessage()));
-            } else {
-                if (executionTime > profiled.slowThresholdMs()) {
-                    logBoth(String.format("⚠ SLOW: [%s] took %d ms (threshold: %d ms)", 
-                        fullMethodName, executionTime, profiled.slowThresholdMs()));
-                } else {
-                    logBoth(String.format("✓ [%s] COMPLETED in %d ms", fullMethodName, executionTime));
+            long executionNanos = System.nanoTime() - startTime;
+            if (profile.stats() != null) {
+                profile.stats().record(executionNanos, exception != null);
+            }
+            boolean slow = executionNanos > profile.slowThresholdNanos();
+
+            // 3. Несэмплированный вызов попадает в лог только если он медленный или упал
+            if (!sampled && (slow || exception != null)) {
+                logBoth("▶ [{}] CALLED FROM: {}", profile.fullMethodName(), getCallerInfo());
+                if (profiled.logArgs() && joinPoint.getArgs().length > 0) {
+                    logBoth("  📥 Arguments: {}", formatArguments(joinPoint.getArgs(), profile));
                 }
+            }
+
+            if (sampled || slow || exception != null) {
+                String executionTime = formatMillis(executionNanos);
+
+                // 4. Логируем РЕЗУЛЬТАТ
+                if (exception != null) {
+                    logBoth("✗ [{}] FAILED in {} ms", profile.fullMethodName(), executionTime);
+                    logBoth("  ❌ Exception: {} - {}", exception.getClass().getSimpleName(), exception.getMessage());
+                } else {
+                    if (slow) {
+                        logBoth("⚠ SLOW: [{}] took {} ms (threshold: {} ms)",
+                                profile.fullMethodName(), executionTime, profiled.slowThresholdMs());
+                    } else {
+                        logBoth("✓ [{}] COMPLETED in {} ms", profile.fullMethodName(), executionTime);
+                    }
 
-                // 5. ВОЗВРАЩАЕМОЕ ЗНАЧЕНИЕ
-                if (profiled.logResult() && result != null) {
-                    String resultStr = formatResult(result);
-                    logBoth(String.format("  📤 Result: %s", resultStr));
+                    // 5. ВОЗВРАЩАЕМОЕ ЗНАЧЕНИЕ
+                    if (profiled.logResult() && result != null) {
+                        logBoth("  📤 Result: {}", formatResult(result));
+                    }
                 }
             }
         }
     }
 
     /**
-     * Получить информацию о том, ОТКУДА вызван метод (caller)
+     * Режимы HISTOGRAM/AGGREGATE (или выключенные логгеры): только замер в наносекундах, без строк в лог
      */
-    private String getCallerInfo() {
-        StackTraceElement[] stackTrace = Thread.currentThread().getStackTrace();
-        
-        // Пропускаем первые элементы стека:
-        // [0] = getStackTrace
-        // [1] = getCallerInfo
-        // [2] = profileMethod
-        // [3] = profileAnnotatedMethods (AOP proxy method)
-        // Начинаем с индекса 4 для поиска реального вызывающего кода
-        for (int i = 4; i < stackTrace.length; i++) {
-            StackTraceElement element = stackTrace[i];
-            String className = element.getClassName();
-            
-            // Пропускаем Spring и JDK классы
-            if (!className.startsWith("org.springframework") 
-                && !className.startsWith("java.") 
-                && !className.startsWith("jdk.") 
-                && !className.contains("$$") // Пропускаем прокси
-                && !className.contains("CGLIB")) {
-                
-                return String.format("%s.%s:%d", 
-                    element.getClassName().substring(element.getClassName().lastIndexOf('.') + 1),
-                    element.getMethodName(),
-                    element.getLineNumber());
-            }
+    private Object recordOnly(ProceedingJoinPoint joinPoint, MethodProfile profile) throws Throwable {
+        if (profile.stats() == null) {
+            return joinPoint.proceed();
+        }
+        long startTime = System.nanoTime();
+        boolean failed = true;
+        try {
+            Object result = joinPoint.proceed();
+            failed = false;
+            return result;
+        } finally {
+            profile.stats().record(System.nanoTime() - startTime, failed);
+        }
+    }
+
+    private MethodProfile createProfile(Method method) {
+        Profiled profiled = AnnotatedElementUtils.findMergedAnnotation(method, Profiled.class);
+        if (profiled == null) {
+            profiled = AnnotatedElementUtils.findMergedAnnotation(method.getDeclaringClass(), Profiled.class);
         }
-        
-        return "Unknown";
+        if (profiled == null) {
+            // метод унаследован от непомеченного класса — значения аннотации по умолчанию
+            profiled = AnnotationUtils.synthesizeAnnotation(Profiled.class);
+        }
+        String[] paramNames = PARAMETER_NAMES.getParameterNames(method);
+        boolean[] sensitive = new boolean[method.getParameterCount()];
+        for (int i = 0; paramNames != null && i < Math.min(paramNames.length, sensitive.length); i++) {
+            sensitive[i] = SENSITIVE_PARAMETER.matcher(paramNames[i]).matches();
+        }
+        MethodStats stats = profiled.mode().records() ? profilingRegistry.forMethod(method) : null;
+        MethodStats allocationStats = profiled.trackAllocations() && AllocationCounter.isSupported()
+                ? profilingRegistry.forMethod(method)
+                : null;
+        return new MethodProfile(
+                method.getDeclaringClass().getSimpleName() + "#" + method.getName(),
+                method.getDeclaringClass().getName(),
+                method.getName(),
+                paramNames,
+                sensitive,
+                profiled,
+                profiled.slowThresholdMs() * 1_000_000L,
+                stats,
+                allocationStats);
+    }
+
+    private static boolean isSampled(double sampleRate) {
+        return sampleRate >= 1.0 || (sampleRate > 0.0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+
+    private static boolean loggingEnabled() {
+        return logger.isInfoEnabled() || profilingLogger.isInfoEnabled();
     }
 
     /**
-     * Форматировать аргументы с именами параметров
+     * Получить информацию о том, ОТКУДА вызван метод (caller).
+     * StackWalker обходит стек лениво и останавливается на первом подходящем кадре.
      */
-    private String formatArguments(Object[] args, String[] paramNames) {
+    private String getCallerInfo() {
+        return STACK_WALKER.walk(frames -> frames
+                .filter(frame -> {
+                    String className = frame.getClassName();
+                    // Пропускаем сам аспект, Spring, JDK и прокси
+                    return !className.equals(ProfilingAspect.class.getName())
+                            && !className.startsWith("org.springframework")
+                            && !className.startsWith("org.aspectj")
+                            && !className.startsWith("java.")
+                            && !className.startsWith("jdk.")
+                            && !className.contains("$$")
+                            && !className.contains("CGLIB");
+                })
+                .findFirst()
+                .map(frame -> frame.getClassName().substring(frame.getClassName().lastIndexOf('.') + 1)
+                        + "." + frame.getMethodName() + ":" + frame.getLineNumber())
+                .orElse("Unknown"));
+    }
+
+    /**
+     * Форматировать аргументы с именами параметров; секретные (MethodProfile#sensitive) не раскрываются
+     */
+    private String formatArguments(Object[] args, MethodProfile profile) {
         if (args == null || args.length == 0) {
             return "[]";
         }
@@ -131,18 +296,17 @@ public class ProfilingAspect {
         StringBuilder sb = new StringBuilder("[");
         for (int i = 0; i < args.length; i++) {
             if (i > 0) sb.append(", ");
-            
-            String paramName = (paramNames != null && i < paramNames.length) 
-                ? paramNames[i] 
+
+            String[] paramNames = profile.paramNames();
+            String paramName = (paramNames != null && i < paramNames.length)
+                ? paramNames[i]
                 : "arg" + i;
-            
-            Object arg = args[i];
-            String argValue = formatValue(arg);
-            
-            sb.append(paramName).append("=").append(argValue);
+            boolean sensitive = i < profile.sensitive().length && profile.sensitive()[i];
+
+            sb.append(paramName).append("=").append(sensitive ? REDACTED : formatValue(args[i]));
         }
         sb.append("]");
-        
+
         return sb.toString();
     }
 
@@ -169,14 +333,11 @@ public class ProfilingAspect {
         // Защита от циклических ссылок
         int identityHash = System.identityHashCode(value);
         if (visited.contains(identityHash)) {
-            return String.format("%s@%s[CIRCULAR]",
-                    value.getClass().getSimpleName(),
-                    Integer.toHexString(identityHash));
+            return value.getClass().getSimpleName() + "@" + Integer.toHexString(identityHash) + "[CIRCULAR]";
         }
 
         // Примитивы и строки
-        if (value instanceof String) {
-            String str = (String) value;
+        if (value instanceof String str) {
             if (str.length() > 100) {
                 return "\"" + str.substring(0, 97) + "...\"";
             }
@@ -193,49 +354,65 @@ public class ProfilingAspect {
         }
 
         // Коллекции
-        if (value instanceof java.util.Collection) {
-            java.util.Collection<?> coll = (java.util.Collection<?>) value;
-            return String.format("%s[size=%d]", value.getClass().getSimpleName(), coll.size());
+        if (value instanceof java.util.Collection<?> coll) {
+            return value.getClass().getSimpleName() + "[size=" + coll.size() + "]";
         }
 
         // Map
-        if (value instanceof java.util.Map) {
-            java.util.Map<?, ?> map = (java. util.Map<?, ?>) value;
-            return String.format("%s[size=%d]", value.getClass().getSimpleName(), map.size());
+        if (value instanceof java.util.Map<?, ?> map) {
+            return value.getClass().getSimpleName() + "[size=" + map.size() + "]";
         }
 
         // Массивы
-        if (value. getClass().isArray()) {
-            return String.format("%s[length=%d]",
-                    value.getClass().getSimpleName(),
-                    java.lang.reflect.Array.getLength(value));
+        if (value.getClass().isArray()) {
+            return value.getClass().getSimpleName() + "[length=" + java.lang.reflect.Array.getLength(value) + "]";
         }
 
         // Entity/DTO объекты - БЕЗ вызова toString()!
-        // Только тип + id если есть
+        // Только тип + id если есть (метод getId кеширован по классу)
         visited.add(identityHash);
         try {
-            // Попытка найти getId через рефлексию
-            try {
-                java.lang.reflect.Method getIdMethod = value.getClass().getMethod("getId");
-                Object id = getIdMethod.invoke(value);
-                return String.format("%s[id=%s]", value.getClass().getSimpleName(), id);
-            } catch (Exception e) {
-                // Нет getId - просто тип
-                return String.format("%s@%s",
-                        value.getClass().getSimpleName(),
-                        Integer.toHexString(identityHash));
+            Optional<Method> getIdMethod = GET_ID_METHODS.get(value.getClass());
+            if (getIdMethod.isPresent()) {
+                try {
+                    return value.getClass().getSimpleName() + "[id=" + getIdMethod.get().invoke(value) + "]";
+                } catch (Exception e) {
+                    // getId недоступен — просто тип
+                }
             }
+            return value.getClass().getSimpleName() + "@" + Integer.toHexString(identityHash);
         } finally {
             visited.remove(identityHash);
         }
     }
 
+    private static String formatMillis(long nanos) {
+        long micros = nanos / 1_000;
+        long fraction = micros % 1_000;
+        return (micros / 1_000) + "." + (fraction < 10 ? "00" : fraction < 100 ? "0" : "") + fraction;
+    }
+
+    /**
+     * Логирование одновременно в консоль и в файл.
+     * Форматирование параметризованное (SLF4J), запись — через асинхронные аппендеры.
+     */
+    private void logBoth(String pattern, Object... args) {
+        logger.info(pattern, args);
+        profilingLogger.info(pattern, args);
+    }
+
     /**
-     * Логирование одновременно в консоль и в файл
+     * Закешированные метаданные одного метода
      */
-    private void logBoth(String message) {
-        logger.info(message);
-        profilingLogger.info(message);
+    private record MethodProfile(
+            String fullMethodName,
+            String className,
+            String methodName,
+            String[] paramNames,
+            boolean[] sensitive,
+            Profiled profiled,
+            long slowThresholdNanos,
+            MethodStats stats,
+            MethodStats allocationStats) {
     }
 }
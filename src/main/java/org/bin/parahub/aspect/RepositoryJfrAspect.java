@@ -0,0 +1,54 @@
+package org.bin.parahub.aspect;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.bin.parahub.profiling.jfr.RepositoryCallEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * JFR-события для вызовов Spring Data репозиториев.
+ * Без активной записи JFR совет сводится к проверке isEnabled().
+ */
+@Aspect
+@Component
+public class RepositoryJfrAspect {
+
+    /** Имя нашего интерфейса репозитория по классу прокси (прокси реализует и интерфейсы Spring Data) */
+    private static final ClassValue<String> REPOSITORY_NAMES = new ClassValue<>() {
+        @Override
+        protected String computeValue(Class<?> proxyClass) {
+            for (Class<?> type : proxyClass.getInterfaces()) {
+                if (type.getPackageName().startsWith("org.bin.parahub")) {
+                    return type.getSimpleName();
+                }
+            }
+            return proxyClass.getSimpleName();
+        }
+    };
+
+    @Around("this(org.springframework.data.repository.Repository)")
+    public Object recordRepositoryCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        RepositoryCallEvent event = new RepositoryCallEvent();
+        if (!event.isEnabled()) {
+            return joinPoint.proceed();
+        }
+
+        event.begin();
+        Throwable failure = null;
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            failure = e;
+            throw e;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.repository = REPOSITORY_NAMES.get(joinPoint.getThis().getClass());
+                event.methodName = joinPoint.getSignature().getName();
+                event.outcome = failure == null ? "OK" : failure.getClass().getSimpleName();
+                event.commit();
+            }
+        }
+    }
+}
@@ -1,13 +1,60 @@
 package org.bin.parahub.config;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
 @Configuration
 public class SecurityBeans {
+
+    private static final Logger logger = LoggerFactory.getLogger(SecurityBeans.class);
+
+    /**
+     * Стоимость BCrypt подбирается при старте под целевое время хеширования на этом железе.
+     * security.password.strength > 0 отключает калибровку и задаёт стоимость явно.
+     * Отдельный бин, чтобы PasswordHashingService знал текущую стоимость без пробного хеша.
+     */
+    @Bean
+    public Integer bcryptStrength(
+            @Value("${security.password.strength:0}") int fixedStrength,
+            @Value("${security.password.target-hash-ms:300}") long targetHashMs,
+            @Value("${security.password.min-strength:12}") int minStrength, // минимум 12 раундов!
+            @Value("${security.password.max-strength:15}") int maxStrength) {
+        if (fixedStrength > 0) {
+            return fixedStrength;
+        }
+        return calibrateStrength(targetHashMs, minStrength, maxStrength);
+    }
+
     @Bean
-    public BCryptPasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(12); // минимум 12 раундов!
+    public BCryptPasswordEncoder passwordEncoder(@Qualifier("bcryptStrength") Integer strength) {
+        return new BCryptPasswordEncoder(strength);
+    }
+
+    /**
+     * Каждый шаг стоимости удваивает время, поэтому достаточно замерить одну базовую стоимость
+     */
+    private static int calibrateStrength(long targetHashMs, int minStrength, int maxStrength) {
+        int baseStrength = 10;
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(baseStrength);
+        probe.encode("warmup");
+
+        long start = System.nanoTime();
+        probe.encode("calibration");
+        double baseMs = Math.max((System.nanoTime() - start) / 1_000_000.0, 0.1);
+
+        int strength = baseStrength;
+        while (strength < maxStrength && baseMs * (1L << (strength + 1 - baseStrength)) <= targetHashMs) {
+            strength++;
+        }
+        strength = Math.max(minStrength, Math.min(maxStrength, strength));
+
+        logger.info("BCrypt calibration: cost {} ≈ {} ms, target {} ms -> cost {}",
+                baseStrength, String.format("%.1f", baseMs), targetHashMs, strength);
+        return strength;
     }
-}
\ No newline at end of file
+}
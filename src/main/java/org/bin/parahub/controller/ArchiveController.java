@@ -0,0 +1,52 @@
+package org.bin.parahub.controller;
+
+import org.bin.parahub.annotation.Profiled;
+import org.bin.parahub.dto.ArchiveDTO;
+import org.bin.parahub.service.ArchiveService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Архив давно выключенных спотов и точек: ручной запуск переноса, список и восстановление
+ */
+@RestController
+@RequestMapping("/api/admin/archive")
+@Profiled(logArgs = true, logResult = false)
+public class ArchiveController {
+
+    private final ArchiveService archiveService;
+
+    public ArchiveController(ArchiveService archiveService) {
+        this.archiveService = archiveService;
+    }
+
+    @PostMapping("/run")
+    public ResponseEntity<ArchiveDTO.Run> run() {
+        ArchiveDTO.Run run = archiveService.archive();
+        return ResponseEntity.status(HttpStatus.OK).body(run);
+    }
+
+    @GetMapping("/spots")
+    public ResponseEntity<List<ArchiveDTO>> getArchivedSpots(@RequestParam(defaultValue = "100") int limit) {
+        if (limit < 1) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+        List<ArchiveDTO> spots = archiveService.getArchivedSpots(limit);
+        return ResponseEntity.status(HttpStatus.OK).body(spots);
+    }
+
+    @PostMapping("/spots/{id}/restore")
+    public ResponseEntity<Void> restoreSpot(@PathVariable long id) {
+        archiveService.restoreSpot(id);
+        return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
+    }
+
+    @PostMapping("/terrain_points/{id}/restore")
+    public ResponseEntity<Void> restoreTerrainPoint(@PathVariable long id) {
+        archiveService.restoreTerrainPoint(id);
+        return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
+    }
+}
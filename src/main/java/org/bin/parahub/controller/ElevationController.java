@@ -0,0 +1,54 @@
+package org.bin.parahub.controller;
+
+import jakarta.validation.Valid;
+import org.bin.parahub.dto.ElevationDTO;
+import org.bin.parahub.exception.ElevationNotAvailableException;
+import org.bin.parahub.service.ElevationService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Высоты по локальной ЦМР вместо внешнего open-elevation: курсор на карте и автозаполнение форм.
+ * Открыты без токена, как и тайлы подложки (/api/public/**).
+ */
+@RestController
+@RequestMapping("/api/public/elevation")
+public class ElevationController {
+
+    private final ElevationService elevationService;
+    private final int maxBatchSize;
+
+    public ElevationController(
+            ElevationService elevationService,
+            @Value("${parahub.elevation.max-batch-size:1000}") int maxBatchSize) {
+        this.elevationService = elevationService;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    @GetMapping
+    public ResponseEntity<ElevationDTO> getElevation(@RequestParam("lat") double latitude, @RequestParam("lon") double longitude) {
+        Double elevation = elevationService.getElevation(latitude, longitude);
+        if (elevation == null) {
+            throw new ElevationNotAvailableException(latitude, longitude);
+        }
+        return ResponseEntity.status(HttpStatus.OK).body(new ElevationDTO(latitude, longitude, elevation));
+    }
+
+    /**
+     * Для точек без данных elevation остаётся null, ответ в том же порядке, что и запрос
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<ElevationDTO>> getElevations(@RequestBody List<@Valid ElevationDTO> points) {
+        if (points.size() > maxBatchSize) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+        for (ElevationDTO point : points) {
+            point.setElevation(elevationService.getElevation(point.getLatitude(), point.getLongitude()));
+        }
+        return ResponseEntity.status(HttpStatus.OK).body(points);
+    }
+}
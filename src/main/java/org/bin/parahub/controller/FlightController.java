@@ -0,0 +1,64 @@
+package org.bin.parahub.controller;
+
+import org.bin.parahub.annotation.Profiled;
+import org.bin.parahub.dto.FlightDTO;
+import org.bin.parahub.service.FlightService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/flights")
+@Profiled(logArgs = false, logResult = false)
+public class FlightController {
+
+    private final FlightService flightService;
+
+    public FlightController(FlightService flightService) {
+        this.flightService = flightService;
+    }
+
+    @PostMapping("/spot/{spotId}")
+    public ResponseEntity<FlightDTO> uploadFlight(@PathVariable long spotId, @RequestParam("file") MultipartFile file)
+            throws IOException {
+        try (InputStream igc = file.getInputStream()) {
+            FlightDTO flight = flightService.upload(spotId, file.getOriginalFilename(), igc);
+            return ResponseEntity.status(HttpStatus.CREATED).body(flight);
+        }
+    }
+
+    @PostMapping("/spot/{spotId}/batch")
+    public ResponseEntity<List<FlightDTO.UploadResult>> uploadFlights(
+            @PathVariable long spotId,
+            @RequestParam("files") List<MultipartFile> files) {
+        List<FlightDTO.UploadResult> results = flightService.uploadBatch(spotId, files);
+
+        return ResponseEntity.status(HttpStatus.OK).body(results);
+    }
+
+    @GetMapping("/spot/{spotId}")
+    public ResponseEntity<List<FlightDTO>> getFlightsBySpot(@PathVariable long spotId) {
+        List<FlightDTO> flights = flightService.getFlightsBySpot(spotId);
+
+        return ResponseEntity.status(HttpStatus.OK).body(flights);
+    }
+
+    @GetMapping("/id/{id}")
+    public ResponseEntity<FlightDTO> getFlightById(@PathVariable long id) {
+        FlightDTO flight = flightService.getFlightById(id);
+
+        return ResponseEntity.status(HttpStatus.OK).body(flight);
+    }
+
+    @GetMapping("/id/{id}/track")
+    public ResponseEntity<FlightDTO.Track> getTrack(@PathVariable long id) {
+        FlightDTO.Track track = flightService.getTrack(id);
+
+        return ResponseEntity.status(HttpStatus.OK).body(track);
+    }
+}
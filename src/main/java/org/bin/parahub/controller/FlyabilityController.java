@@ -0,0 +1,44 @@
+package org.bin.parahub.controller;
+
+import org.bin.parahub.annotation.Profiled;
+import org.bin.parahub.dto.FlyabilityDTO;
+import org.bin.parahub.service.FlyabilityService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/spots")
+@Profiled(logArgs = true, logResult = false)
+public class FlyabilityController {
+
+    private final FlyabilityService flyabilityService;
+
+    public FlyabilityController(FlyabilityService flyabilityService) {
+        this.flyabilityService = flyabilityService;
+    }
+
+    @GetMapping("/id/{id}/flyability")
+    public ResponseEntity<FlyabilityDTO> getSpotFlyability(@PathVariable long id) {
+        FlyabilityDTO flyability = flyabilityService.getSpotFlyability(id);
+
+        return ResponseEntity.status(HttpStatus.OK).body(flyability);
+    }
+
+    @GetMapping("/flyability/best")
+    public ResponseEntity<List<FlyabilityDTO.DayBest>> getBestSpots(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(required = false) Integer maxXcDifficulty) {
+        if (limit < 1 || limit > 100) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+        List<FlyabilityDTO.DayBest> best = flyabilityService.getBestSpots(date, limit, maxXcDifficulty);
+
+        return ResponseEntity.status(HttpStatus.OK).body(best);
+    }
+}
@@ -0,0 +1,70 @@
+package org.bin.parahub.controller;
+
+import org.bin.parahub.annotation.Profiled;
+import org.bin.parahub.dto.GlideReachabilityDTO;
+import org.bin.parahub.enums.WindDirection;
+import org.bin.parahub.service.GlideReachabilityService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/spots")
+@Profiled(logArgs = true, logResult = false)
+public class GlideReachabilityController {
+
+    private final GlideReachabilityService glideReachabilityService;
+    private final double maxRegionDegrees;
+
+    public GlideReachabilityController(
+            GlideReachabilityService glideReachabilityService,
+            @Value("${parahub.glide.max-region-degrees:2}") double maxRegionDegrees) {
+        this.glideReachabilityService = glideReachabilityService;
+        this.maxRegionDegrees = maxRegionDegrees;
+    }
+
+    @GetMapping("/id/{id}/reachability")
+    public ResponseEntity<GlideReachabilityDTO> getReachability(
+            @PathVariable long id,
+            @RequestParam(defaultValue = "8") double glideRatio,
+            @RequestParam(defaultValue = "0") double windSpeed,
+            @RequestParam(defaultValue = "N") WindDirection windDirection) {
+        if (!isValid(glideRatio, windSpeed)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+        GlideReachabilityDTO reachability = glideReachabilityService.getReachability(id, glideRatio, windSpeed, windDirection);
+
+        return ResponseEntity.status(HttpStatus.OK).body(reachability);
+    }
+
+    /**
+     * Прямоугольник шире max-region-degrees по любой стороне или с числом спотов больше max-region-spots
+     * отклоняется — клиенту нужно приблизить карту
+     */
+    @GetMapping("/reachability")
+    public ResponseEntity<List<GlideReachabilityDTO>> getRegionReachability(
+            @RequestParam double minLat,
+            @RequestParam double maxLat,
+            @RequestParam double minLon,
+            @RequestParam double maxLon,
+            @RequestParam(defaultValue = "8") double glideRatio,
+            @RequestParam(defaultValue = "0") double windSpeed,
+            @RequestParam(defaultValue = "N") WindDirection windDirection) {
+        if (!isValid(glideRatio, windSpeed) || minLat < -90 || maxLat > 90 || minLon < -180 || maxLon > 180
+                || !(maxLat - minLat >= 0 && maxLat - minLat <= maxRegionDegrees)
+                || !(maxLon - minLon >= 0 && maxLon - minLon <= maxRegionDegrees)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+        List<GlideReachabilityDTO> reachability = glideReachabilityService.getRegionReachability(
+                minLat, maxLat, minLon, maxLon, glideRatio, windSpeed, windDirection);
+
+        return ResponseEntity.status(HttpStatus.OK).body(reachability);
+    }
+
+    private static boolean isValid(double glideRatio, double windSpeed) {
+        return glideRatio >= 1 && glideRatio <= 20 && windSpeed >= 0 && windSpeed <= 30;
+    }
+}
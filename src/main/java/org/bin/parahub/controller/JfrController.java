@@ -0,0 +1,56 @@
+package org.bin.parahub.controller;
+
+import org.bin.parahub.profiling.jfr.JfrRecordingService;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Управление записью Java Flight Recorder. Файлы .jfr отдаются для открытия в JDK Mission Control.
+ */
+@RestController
+@RequestMapping("/api/admin/jfr")
+public class JfrController {
+
+    private final JfrRecordingService jfrRecordingService;
+
+    public JfrController(JfrRecordingService jfrRecordingService) { this.jfrRecordingService = jfrRecordingService; }
+
+    @PostMapping("/start")
+    public ResponseEntity<Map<String, String>> start(
+            @RequestParam(defaultValue = "profile") String settings,
+            @RequestParam(defaultValue = "30") long maxAgeMinutes) {
+        String name = jfrRecordingService.start(settings, Duration.ofMinutes(maxAgeMinutes));
+        return ResponseEntity.status(HttpStatus.CREATED).body(Map.of("recording", name));
+    }
+
+    @PostMapping("/stop")
+    public ResponseEntity<Resource> stop() {
+        return download(jfrRecordingService.stop());
+    }
+
+    @GetMapping("/dump")
+    public ResponseEntity<Resource> dump() {
+        return download(jfrRecordingService.dump());
+    }
+
+    @GetMapping("/status")
+    public ResponseEntity<Map<String, Boolean>> status() {
+        return ResponseEntity.ok(Map.of("running", jfrRecordingService.isRunning()));
+    }
+
+    private ResponseEntity<Resource> download(Path file) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + file.getFileName() + "\"")
+                .body(new FileSystemResource(file));
+    }
+}
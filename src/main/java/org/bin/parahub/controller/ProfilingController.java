@@ -0,0 +1,47 @@
+package org.bin.parahub.controller;
+
+import org.bin.parahub.profiling.HibernateCacheMetrics;
+import org.bin.parahub.profiling.ProfilingRegistry;
+import org.bin.parahub.profiling.SqlStatsRegistry;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.StringWriter;
+
+/**
+ * Метрики @Profiled методов, SQL по эндпоинтам и кэша второго уровня Hibernate в текстовом формате Prometheus.
+ * Сам контроллер не помечен @Profiled, чтобы не попадать в собственные метрики.
+ */
+@RestController
+@RequestMapping("/api/admin/profiling")
+public class ProfilingController {
+
+    private final ProfilingRegistry profilingRegistry;
+    private final SqlStatsRegistry sqlStatsRegistry;
+    private final HibernateCacheMetrics cacheMetrics;
+
+    public ProfilingController(ProfilingRegistry profilingRegistry, SqlStatsRegistry sqlStatsRegistry,
+                               HibernateCacheMetrics cacheMetrics) {
+        this.profilingRegistry = profilingRegistry;
+        this.sqlStatsRegistry = sqlStatsRegistry;
+        this.cacheMetrics = cacheMetrics;
+    }
+
+    @GetMapping(value = "/metrics", produces = "text/plain; version=0.0.4; charset=utf-8")
+    public String getMetrics() {
+        StringWriter out = new StringWriter();
+        profilingRegistry.writePrometheus(out);
+        sqlStatsRegistry.writePrometheus(out);
+        cacheMetrics.writePrometheus(out);
+        return out.toString();
+    }
+
+    @DeleteMapping("/metrics")
+    public ResponseEntity<Void> resetMetrics() {
+        profilingRegistry.reset();
+        sqlStatsRegistry.reset();
+        cacheMetrics.reset();
+        return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
+    }
+}
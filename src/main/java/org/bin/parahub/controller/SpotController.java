@@ -3,12 +3,20 @@ package org.bin.parahub.controller;
 
 import jakarta.validation.Valid;
 import org.bin.parahub.annotation.Profiled;
+import org.bin.parahub.annotation.QueryBudget;
+import org.bin.parahub.dto.BulkUpdateDTO;
 import org.bin.parahub.dto.SpotDTO;
+import org.bin.parahub.dto.TrendingSpotDTO;
+import org.bin.parahub.repository.JsonStreamRepository;
+import org.bin.parahub.service.SpotPopularityService;
 import org.bin.parahub.service.SpotService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -19,20 +27,38 @@ import java.util.List;
 public class SpotController {
 
     private final SpotService spotService;
-
-
-    public SpotController(SpotService spotService) {
+    private final SpotPopularityService spotPopularityService;
+    private final JsonStreamRepository jsonStreamRepository;
+    private final boolean jsonStreaming;
+    private final int bulkMaxIds;
+
+
+    public SpotController(
+            SpotService spotService,
+            SpotPopularityService spotPopularityService,
+            JsonStreamRepository jsonStreamRepository,
+            @Value("${parahub.api.json-streaming.enabled:false}") boolean jsonStreaming,
+            @Value("${parahub.bulk.max-ids:10000}") int bulkMaxIds) {
         this.spotService = spotService;
+        this.spotPopularityService = spotPopularityService;
+        this.jsonStreamRepository = jsonStreamRepository;
+        this.jsonStreaming = jsonStreaming;
+        this.bulkMaxIds = bulkMaxIds;
     }
 
     @GetMapping
-    public ResponseEntity<List<SpotDTO>> getSpots() {
+    public ResponseEntity<?> getSpots() {
+        if (jsonStreaming) {
+            StreamingResponseBody body = jsonStreamRepository::writeEnabledSpots;
+            return ResponseEntity.status(HttpStatus.OK).contentType(MediaType.APPLICATION_JSON).body(body);
+        }
         List<SpotDTO> spots = spotService.getAllSpots();
 
         return ResponseEntity.status(HttpStatus.OK).body(spots);
     }
 
     @GetMapping("/id/{id}")
+    @QueryBudget(4)
     public ResponseEntity<SpotDTO> getSpotById(@PathVariable Long id) {
         SpotDTO spotDTO = spotService.getSpotById(id);
 
@@ -52,6 +78,16 @@ public class SpotController {
         return ResponseEntity.status(HttpStatus.OK).body(spots);
     }
 
+    @GetMapping("/trending")
+    public ResponseEntity<List<TrendingSpotDTO>> getTrendingSpots(@RequestParam(defaultValue = "10") int limit) {
+        if (limit < 1) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+        List<TrendingSpotDTO> trending = spotPopularityService.getTrending(limit);
+
+        return ResponseEntity.status(HttpStatus.OK).body(trending);
+    }
+
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<SpotDTO> createSpot(@Valid @RequestBody SpotDTO spot) {
@@ -66,6 +102,19 @@ public class SpotController {
         return ResponseEntity.status(HttpStatus.OK).body(updatedSpotDTO);
     }
 
+    /**
+     * Мягкое удаление, восстановление или правка полей по списку id или прямоугольнику — одним UPDATE
+     */
+    @PatchMapping("/bulk")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkUpdateDTO.Result> bulkUpdateSpots(@Valid @RequestBody BulkUpdateDTO request) {
+        if (!request.validForSpots(bulkMaxIds)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+        BulkUpdateDTO.Result result = spotService.bulkUpdate(request);
+        return ResponseEntity.status(HttpStatus.OK).body(result);
+    }
+
     @DeleteMapping("/id/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Void> deleteSpot(@PathVariable long id) {
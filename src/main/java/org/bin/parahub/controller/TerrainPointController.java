@@ -3,13 +3,20 @@ package org.bin.parahub.controller;
 
 import jakarta.validation.Valid;
 import org.bin.parahub.annotation.Profiled;
+import org.bin.parahub.annotation.QueryBudget;
+import org.bin.parahub.dto.BulkUpdateDTO;
+import org.bin.parahub.dto.TerrainPointBatchDTO;
 import org.bin.parahub.dto.TerrainPointDTO;
 import org.bin.parahub.entity.TerrainPoint;
+import org.bin.parahub.repository.JsonStreamRepository;
 import org.bin.parahub.service.TerrainPointService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -20,17 +27,34 @@ import java.util.List;
 public class TerrainPointController {
 
     private final TerrainPointService terrainPointService;
-
-    public TerrainPointController(TerrainPointService terrainPointService) { this.terrainPointService = terrainPointService; }
+    private final JsonStreamRepository jsonStreamRepository;
+    private final boolean jsonStreaming;
+    private final int bulkMaxIds;
+
+    public TerrainPointController(
+            TerrainPointService terrainPointService,
+            JsonStreamRepository jsonStreamRepository,
+            @Value("${parahub.api.json-streaming.enabled:false}") boolean jsonStreaming,
+            @Value("${parahub.bulk.max-ids:10000}") int bulkMaxIds) {
+        this.terrainPointService = terrainPointService;
+        this.jsonStreamRepository = jsonStreamRepository;
+        this.jsonStreaming = jsonStreaming;
+        this.bulkMaxIds = bulkMaxIds;
+    }
 
     @GetMapping
-    public ResponseEntity<List<TerrainPointDTO>> getAllTerrainPoints() {
+    public ResponseEntity<?> getAllTerrainPoints() {
+        if (jsonStreaming) {
+            StreamingResponseBody body = jsonStreamRepository::writeEnabledTerrainPoints;
+            return ResponseEntity.status(HttpStatus.OK).contentType(MediaType.APPLICATION_JSON).body(body);
+        }
         List<TerrainPointDTO> terrainPointDTOs = terrainPointService.getAllTerrainPoints();
 
         return ResponseEntity.status(HttpStatus.OK).body(terrainPointDTOs);
     }
 
     @GetMapping("/spotID/{spotID}")
+    @QueryBudget(2)
     public ResponseEntity<List<TerrainPointDTO>> getAllTerrainPointsBySpotID(@PathVariable long spotID) {
         List<TerrainPointDTO> terrainPointDTOS = terrainPointService.getAllTerrainPointsBySpotID(spotID);
 
@@ -65,6 +89,29 @@ public class TerrainPointController {
         return ResponseEntity.status(HttpStatus.CREATED).body(saved);
     }
 
+    /**
+     * Сессия рисования на карте одним запросом: создать, изменить и удалить точки спота в одной транзакции
+     */
+    @PostMapping("/spotID/{spotID}/batch")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<TerrainPointBatchDTO.Result> saveTerrainPointBatch(@Valid @RequestBody TerrainPointBatchDTO batch, @PathVariable long spotID){
+        TerrainPointBatchDTO.Result result = terrainPointService.saveBatch(spotID, batch);
+        return ResponseEntity.status(HttpStatus.OK).body(result);
+    }
+
+    /**
+     * Мягкое удаление, восстановление или правка полей по списку id или прямоугольнику, или у всех точек спота — одним UPDATE
+     */
+    @PatchMapping("/bulk")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkUpdateDTO.Result> bulkUpdateTerrainPoints(@Valid @RequestBody BulkUpdateDTO request) {
+        if (!request.validForTerrainPoints(bulkMaxIds)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+        BulkUpdateDTO.Result result = terrainPointService.bulkUpdate(request);
+        return ResponseEntity.status(HttpStatus.OK).body(result);
+    }
+
     @DeleteMapping("/id/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Void> deleteTerrainPoint(@PathVariable Long id){
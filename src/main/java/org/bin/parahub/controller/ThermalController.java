@@ -0,0 +1,47 @@
+package org.bin.parahub.controller;
+
+import org.bin.parahub.annotation.Profiled;
+import org.bin.parahub.dto.ThermalGridDTO;
+import org.bin.parahub.service.ThermalHeatmapService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Тепловая карта потоков для слоя карты: ячейки сетки в видимом прямоугольнике
+ */
+@RestController
+@RequestMapping("/api/thermals")
+@Profiled(logArgs = true, logResult = false)
+public class ThermalController {
+
+    private final ThermalHeatmapService thermalHeatmapService;
+    private final long maxCells;
+
+    public ThermalController(
+            ThermalHeatmapService thermalHeatmapService,
+            @Value("${parahub.thermals.max-cells:20000}") long maxCells) {
+        this.thermalHeatmapService = thermalHeatmapService;
+        this.maxCells = maxCells;
+    }
+
+    /**
+     * Прямоугольник больше max-cells ячеек сетки отклоняется — клиенту нужно приблизить карту
+     */
+    @GetMapping("/grid")
+    public ResponseEntity<ThermalGridDTO> getGrid(
+            @RequestParam double minLat,
+            @RequestParam double maxLat,
+            @RequestParam double minLon,
+            @RequestParam double maxLon) {
+        double cell = thermalHeatmapService.getCellDegrees();
+        if (minLat > maxLat || minLon > maxLon || minLat < -90 || maxLat > 90 || minLon < -180 || maxLon > 180
+                || Math.ceil((maxLat - minLat) / cell) * Math.ceil((maxLon - minLon) / cell) > maxCells) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+        ThermalGridDTO grid = thermalHeatmapService.getGrid(minLat, maxLat, minLon, maxLon);
+
+        return ResponseEntity.status(HttpStatus.OK).body(grid);
+    }
+}
@@ -0,0 +1,69 @@
+package org.bin.parahub.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.bin.parahub.service.TileProxyService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Тайлы карты через кэширующий прокси (см. TileProxyService).
+ * Файл из кэша отдаётся через sendfile Tomcat (ядро копирует файл в сокет без буферов JVM),
+ * если коннектор его не поддерживает — через FileChannel#transferTo.
+ * Не помечен @Profiled: десятки запросов на каждое движение карты.
+ */
+@RestController
+@RequestMapping("/api/public/tiles")
+public class TileProxyController {
+
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final TileProxyService tileProxyService;
+
+    public TileProxyController(TileProxyService tileProxyService) { this.tileProxyService = tileProxyService; }
+
+    @GetMapping("/{layer}/{z}/{x}/{y}")
+    public void getTile(
+            @PathVariable String layer,
+            @PathVariable int z,
+            @PathVariable int x,
+            @PathVariable int y,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
+        TileProxyService.Tile tile = tileProxyService.getTile(layer, z, x, y);
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "public, max-age=" + tile.maxAgeSeconds());
+        if (tile.etag() != null) {
+            response.setHeader(HttpHeaders.ETAG, tile.etag());
+            if (tile.etag().equals(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+                response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                return;
+            }
+        }
+        response.setContentType(tile.contentType());
+        response.setContentLengthLong(tile.size());
+
+        if (tile.file() == null) {
+            response.getOutputStream().write(tile.body());
+            return;
+        }
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            request.setAttribute(SENDFILE_FILENAME, tile.file().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, tile.size());
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(tile.file(), StandardOpenOption.READ)) {
+            channel.transferTo(0, tile.size(), Channels.newChannel(response.getOutputStream()));
+        }
+    }
+}
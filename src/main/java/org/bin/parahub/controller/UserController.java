@@ -3,49 +3,52 @@ package org.bin.parahub.controller;
 import lombok.RequiredArgsConstructor;
 import org.bin.parahub.annotation.Profiled;
 import org.bin.parahub.dto.UserDTO;
-import org.bin.parahub.entity.User;
+import org.bin.parahub.dto.UserPageDTO;
+import org.bin.parahub.enums.UserRole;
 import org.bin.parahub.repository.UserRepository;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/user")
 @RequiredArgsConstructor
 @Profiled(logArgs = true, logResult = false)
 public class UserController {
+    private static final int MAX_PAGE_SIZE = 500;
+
     private final UserRepository userRepository;
 
-    // Профиль текущего пользователя
+    // Профиль текущего пользователя: principal — это email (см. JwtAuthFilter)
     @GetMapping("/me")
-    public UserDTO getMe() {
-        User user = userRepository.findAll().stream().findFirst()
+    public UserDTO getMe(Authentication auth) {
+        if (auth == null) {
+            throw new IllegalStateException("Пользователь не аутентифицирован");
+        }
+        return userRepository.findDTOByEmail(auth.getName())
                 .orElseThrow(() -> new IllegalStateException("Нет пользователя в базе"));
-
-        return UserDTO.builder()
-                .id(user.getId())
-                .username(user.getUsername())
-                .email(user.getEmail())
-                .role(user.getRole().name())
-                .enabled(user.isEnabled())
-                .createdAt(user.getCreatedAt() != null ? user.getCreatedAt().toString() : null)
-                .build();
     }
 
-    // Только для админов: список всех пользователей
+    // Только для админов: keyset-пагинация по id с фильтрами
     @GetMapping
-    public List<UserDTO> getAll(Authentication auth) {
-        // Проверь роль, если нужно — либо Security дает доступ по .hasRole("ADMIN")
-        return userRepository.findAll().stream().map(user -> UserDTO.builder()
-                        .id(user.getId())
-                        .username(user.getUsername())
-                        .email(user.getEmail())
-                        .role(user.getRole().name())
-                        .enabled(user.isEnabled())
-                        .createdAt(user.getCreatedAt() != null ? user.getCreatedAt().toString() : null)
-                        .build())
-                .collect(Collectors.toList());
+    @PreAuthorize("hasRole('ADMIN')")
+    public UserPageDTO getAll(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) UserRole role,
+            @RequestParam(required = false) Boolean enabled,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        List<UserDTO> users = userRepository.findPage(after, pageSize, role, enabled, createdFrom, createdTo);
+
+        return UserPageDTO.builder()
+                .items(users)
+                .nextCursor(users.size() == pageSize ? users.get(users.size() - 1).getId() : null)
+                .build();
     }
-}
\ No newline at end of file
+}
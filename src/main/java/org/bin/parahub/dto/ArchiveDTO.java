@@ -0,0 +1,36 @@
+package org.bin.parahub.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Спот в архиве (см. ArchiveService): сводка, чтобы найти id для восстановления
+ */
+@Data
+@NoArgsConstructor
+public class ArchiveDTO {
+
+    private Long id;
+
+    private String name;
+
+    private Double latitude;
+
+    private Double longitude;
+
+    private Instant disabledAt;
+
+    private Instant archivedAt;
+
+    /**
+     * Сколько строк перенесено в архив
+     */
+    public record Run(int spots, int terrainPoints, int winds) {
+
+        public Run plus(Run other) {
+            return new Run(spots + other.spots, terrainPoints + other.terrainPoints, winds + other.winds);
+        }
+    }
+}
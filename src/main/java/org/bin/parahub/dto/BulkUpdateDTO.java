@@ -0,0 +1,96 @@
+package org.bin.parahub.dto;
+
+import jakarta.validation.constraints.*;
+import lombok.Data;
+import lombok.ToString;
+import org.bin.parahub.enums.PointType;
+
+import java.util.List;
+
+/**
+ * Массовая правка спотов или точек рельефа одним UPDATE.
+ *
+ * Какие строки — ровно одно из: ids, spotId (только для точек), прямоугольник minLat..maxLat × minLon..maxLon.
+ * Что поменять — поля ниже; null — поле не трогать. Мягкое удаление — isEnabled=false, восстановление — true.
+ * xcDifficulty, learningDifficulty, popularity, bestSeason, accessibility — только для спотов;
+ * type и description — только для точек.
+ */
+@Data
+@ToString
+public class BulkUpdateDTO {
+
+    private List<Long> ids;
+
+    private Long spotId;
+
+    @Min(value = -90) @Max(value = 90)
+    private Double minLat;
+
+    @Min(value = -90) @Max(value = 90)
+    private Double maxLat;
+
+    @Min(value = -180) @Max(value = 180)
+    private Double minLon;
+
+    @Min(value = -180) @Max(value = 180)
+    private Double maxLon;
+
+    private Boolean isEnabled;
+
+    @Min(value = 1)
+    @Max(value = 5)
+    private Integer xcDifficulty;
+
+    @Min(value = 1)
+    @Max(value = 5)
+    private Integer learningDifficulty;
+
+    private String popularity;
+
+    private String bestSeason;
+
+    private String accessibility;
+
+    private PointType type;
+
+    @Size(max = 2048)
+    private String description;
+
+    public boolean validForSpots(int maxIds) {
+        return spotId == null && validSelector(maxIds) && type == null && description == null
+                && (isEnabled != null || xcDifficulty != null || learningDifficulty != null
+                || popularity != null || bestSeason != null || accessibility != null);
+    }
+
+    public boolean validForTerrainPoints(int maxIds) {
+        return validSelector(maxIds)
+                && xcDifficulty == null && learningDifficulty == null
+                && popularity == null && bestSeason == null && accessibility == null
+                && (isEnabled != null || type != null || description != null);
+    }
+
+    /**
+     * Задан ровно один способ выбора: непустой список id не длиннее maxIds, spotId или прямоугольник целиком
+     */
+    private boolean validSelector(int maxIds) {
+        boolean bbox = minLat != null || maxLat != null || minLon != null || maxLon != null;
+        int selectors = (ids != null ? 1 : 0) + (spotId != null ? 1 : 0) + (bbox ? 1 : 0);
+        if (selectors != 1) {
+            return false;
+        }
+        if (ids != null) {
+            return !ids.isEmpty() && ids.size() <= maxIds && !ids.contains(null);
+        }
+        if (bbox) {
+            return minLat != null && maxLat != null && minLon != null && maxLon != null
+                    && minLat <= maxLat && minLon <= maxLon;
+        }
+        return true;
+    }
+
+    /**
+     * @param updated сколько строк реально изменилось (строки, где всё уже совпадало, не переписываются)
+     */
+    public record Result(int updated) {
+    }
+}
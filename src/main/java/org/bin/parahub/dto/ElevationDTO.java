@@ -0,0 +1,23 @@
+package org.bin.parahub.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Точка и её высота над уровнем моря по ЦМР; elevation == null, если для точки нет данных
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ElevationDTO {
+
+    @NotNull(message = "широта обязательна")
+    private Double latitude;
+
+    @NotNull(message = "долгота обязательна")
+    private Double longitude;
+
+    private Double elevation;
+}
@@ -0,0 +1,94 @@
+package org.bin.parahub.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Сводка полёта из IGC (без точек трека)
+ */
+@Data
+@NoArgsConstructor
+public class FlightDTO {
+
+    private Long id;
+
+    private Long spotId;
+
+    private Long takeoffId;
+
+    /** от первой точки трека до takeoff, м */
+    private Double takeoffDistance;
+
+    private String fileName;
+
+    private String pilotName;
+
+    private String gliderType;
+
+    private LocalDate flightDate;
+
+    private Instant startTime;
+
+    private Instant endTime;
+
+    private Long durationSeconds;
+
+    private Integer fixCount;
+
+    private Integer rejectedRecords;
+
+    private Double launchLatitude;
+
+    private Double launchLongitude;
+
+    private Double landingLatitude;
+
+    private Double landingLongitude;
+
+    private Integer maxAltitude;
+
+    private Integer minAltitude;
+
+    private Integer altitudeGain;
+
+    private Double trackDistance;
+
+    private Double maxDistanceFromLaunch;
+
+    private Long rawSize;
+
+    private Long trackSize;
+
+    /**
+     * Результат загрузки одного файла из пачки: flight или error
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class UploadResult {
+
+        private String fileName;
+
+        private FlightDTO flight;
+
+        private String error;
+    }
+
+    /**
+     * Точки трека: [epoch seconds, широта, долгота, барометрическая высота, GPS-высота]
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Track {
+
+        private Long flightId;
+
+        private List<double[]> fixes;
+    }
+}
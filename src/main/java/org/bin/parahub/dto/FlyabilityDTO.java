@@ -0,0 +1,76 @@
+package org.bin.parahub.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.bin.parahub.enums.WindDirection;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Почасовая оценка лётности спота по прогнозу ветра
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FlyabilityDTO {
+
+    private Long spotId;
+
+    private String spotName;
+
+    /** время запуска модели, по которой посчитан прогноз */
+    private Instant forecastRun;
+
+    private List<Hour> hours;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Hour {
+
+        private Instant time;
+
+        /** м/с */
+        private double windSpeed;
+
+        /** откуда дует, градусы */
+        private double windDirectionDegrees;
+
+        /** ближайший румб */
+        private WindDirection windDirection;
+
+        /** 0..1 */
+        private double score;
+    }
+
+    /**
+     * Лучший час спота за день
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DayBest {
+
+        private Long spotId;
+
+        private String spotName;
+
+        private double latitude;
+
+        private double longitude;
+
+        private Integer xcDifficulty;
+
+        private LocalDate date;
+
+        private double bestScore;
+
+        private Instant bestTime;
+
+        /** часов с оценкой не ниже parahub.forecast.flyable-score */
+        private int flyableHours;
+    }
+}
@@ -0,0 +1,66 @@
+package org.bin.parahub.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.bin.parahub.enums.WindDirection;
+
+import java.util.List;
+
+/**
+ * Достижимость посадок со стартов спота при заданном качестве и ветре
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GlideReachabilityDTO {
+
+    private Long spotId;
+
+    private double glideRatio;
+
+    private double windSpeed;
+
+    private WindDirection windDirection;
+
+    private List<Takeoff> takeoffs;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Takeoff {
+
+        private Long id;
+
+        private String name;
+
+        private double latitude;
+
+        private double longitude;
+
+        private double elevation;
+
+        /** граница достижимой области: [широта, долгота] по лучам через равные углы, по часовой от севера */
+        private List<double[]> reachablePolygon;
+
+        private List<LandingZone> landingZones;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class LandingZone {
+
+        private Long id;
+
+        private String name;
+
+        /** по прямой, м */
+        private double distance;
+
+        /** запас высоты над площадкой при прилёте, м (отрицательный — не долетаем) */
+        private double arrivalHeight;
+
+        private boolean reachable;
+    }
+}
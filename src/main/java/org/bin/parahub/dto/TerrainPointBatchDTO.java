@@ -0,0 +1,33 @@
+package org.bin.parahub.dto;
+
+import jakarta.validation.Valid;
+import lombok.Data;
+import lombok.ToString;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Пакет правок точек одного спота (например, сессия рисования на карте): что создать, что изменить (по id)
+ * и что удалить (мягко, по id). Применяется целиком или не применяется вовсе.
+ */
+@Data
+@ToString
+public class TerrainPointBatchDTO {
+
+    @Valid
+    private List<TerrainPointDTO> create = new ArrayList<>();
+
+    @Valid
+    private List<TerrainPointDTO> update = new ArrayList<>();
+
+    private List<Long> delete = new ArrayList<>();
+
+    /**
+     * @param created созданные точки с их id
+     * @param updated изменённые точки в записанном виде
+     * @param deleted id выключенных точек
+     */
+    public record Result(List<TerrainPointDTO> created, List<TerrainPointDTO> updated, List<Long> deleted) {
+    }
+}
@@ -29,7 +29,7 @@ public class TerrainPointDTO {
     @Min(value = -180, message =  "долгота не может быть меньше -180")
     private Double longitude;
 
-    @NotNull(message = "высота обязательна")
+    /** если не задана, заполняется по ЦМР при сохранении (ElevationService) */
     @Min(value = 0, message = "Высота не может быть отрицательной")
     private Double elevation;
 
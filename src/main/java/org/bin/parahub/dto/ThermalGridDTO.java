@@ -0,0 +1,77 @@
+package org.bin.parahub.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Тепловая карта потоков в прямоугольнике в виде GeoJSON FeatureCollection: ячейка сетки — Polygon
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ThermalGridDTO {
+
+    private String type = "FeatureCollection";
+
+    /** размер ячейки, градусы */
+    private double cellDegrees;
+
+    private List<Feature> features;
+
+    public ThermalGridDTO(double cellDegrees, List<Feature> features) {
+        this.cellDegrees = cellDegrees;
+        this.features = features;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Feature {
+
+        private String type = "Feature";
+
+        private Geometry geometry;
+
+        private Properties properties;
+
+        public Feature(Geometry geometry, Properties properties) {
+            this.geometry = geometry;
+            this.properties = properties;
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Geometry {
+
+        private String type = "Polygon";
+
+        /** одно кольцо [[долгота, широта], …], замкнутое */
+        private List<List<double[]>> coordinates;
+
+        public Geometry(List<List<double[]>> coordinates) {
+            this.coordinates = coordinates;
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Properties {
+
+        /** средняя вертикальная скорость в наборе, м/с */
+        private double averageClimb;
+
+        private double maxClimb;
+
+        /** фиксов в наборе */
+        private long samples;
+
+        /** отдельных наборов (потоков) */
+        private int thermals;
+    }
+}
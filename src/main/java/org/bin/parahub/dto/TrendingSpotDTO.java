@@ -0,0 +1,25 @@
+package org.bin.parahub.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Старт в рейтинге популярности: score — просмотры с экспоненциальным затуханием (поиск весит меньше)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrendingSpotDTO {
+
+    private Long spotId;
+
+    private String name;
+
+    private double score;
+
+    /** за всё время, на момент последнего сброса счётчиков */
+    private long viewCount;
+
+    private long searchHits;
+}
@@ -1,10 +1,17 @@
 package org.bin.parahub.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.bin.parahub.enums.UserRole;
+
+import java.time.LocalDateTime;
 
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class UserDTO {
     private Long id;
     private String username;
@@ -12,4 +19,16 @@ public class UserDTO {
     private String role;
     private boolean enabled;
     private String createdAt;
-}
\ No newline at end of file
+
+    /**
+     * Конструктор для JPQL-проекции (select new ...), чтобы не загружать сущность с хешем пароля
+     */
+    public UserDTO(Long id, String username, String email, UserRole role, boolean enabled, LocalDateTime createdAt) {
+        this.id = id;
+        this.username = username;
+        this.email = email;
+        this.role = role != null ? role.name() : null;
+        this.enabled = enabled;
+        this.createdAt = createdAt != null ? createdAt.toString() : null;
+    }
+}
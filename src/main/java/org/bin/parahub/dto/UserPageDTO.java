@@ -0,0 +1,16 @@
+package org.bin.parahub.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Страница пользователей для keyset-пагинации: следующую страницу запрашивать с after = nextCursor
+ */
+@Data
+@Builder
+public class UserPageDTO {
+    private List<UserDTO> items;
+    private Long nextCursor;
+}
@@ -0,0 +1,60 @@
+package org.bin.parahub.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.Instant;
+
+/**
+ * Спот, перенесённый ArchiveService из spots после срока хранения выключенных строк.
+ * Колонки те же, что у Spot (строки копируются INSERT … SELECT), id сохраняется — по нему спот восстанавливается.
+ */
+@Data
+@Entity
+@Table(name = "spots_archive")
+public class ArchivedSpot {
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private Boolean isEnabled;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Column(nullable = false)
+    private Double latitude;
+
+    @Column(nullable = false)
+    private Double longitude;
+
+    private Double elevation;
+
+    private String suitableWinds;
+
+    private Integer xcDifficulty;
+
+    private Integer learningDifficulty;
+
+    private String popularity;
+
+    @Column(nullable = false)
+    private Long viewCount;
+
+    @Column(nullable = false)
+    private Long searchHits;
+
+    private Instant disabledAt;
+
+    private String bestSeason;
+
+    private String accessibility;
+
+    @Column(length = 2048)
+    private String description;
+
+    /** точки и ветра спота архивируются той же транзакцией и с тем же archivedAt */
+    @Column(nullable = false)
+    private Instant archivedAt;
+}
@@ -0,0 +1,49 @@
+package org.bin.parahub.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.bin.parahub.enums.PointType;
+
+import java.time.Instant;
+
+/**
+ * Точка рельефа в архиве (см. ArchivedSpot); spotId без внешнего ключа — спот может быть и в spots, и в spots_archive
+ */
+@Data
+@Entity
+@Table(name = "terrain_points_archive", indexes = {
+        @Index(name = "idx_terrain_points_archive_spot_id", columnList = "spot_id")
+})
+public class ArchivedTerrainPoint {
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private Boolean isEnabled;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Column(nullable = false)
+    private PointType type;
+
+    @Column(nullable = false)
+    private Double latitude;
+
+    @Column(nullable = false)
+    private Double longitude;
+
+    private Double elevation;
+
+    @Column(length = 2048)
+    private String description;
+
+    private Instant disabledAt;
+
+    @Column(name = "spot_id", nullable = false)
+    private Long spotId;
+
+    @Column(nullable = false)
+    private Instant archivedAt;
+}
@@ -0,0 +1,37 @@
+package org.bin.parahub.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.bin.parahub.enums.WindDirection;
+
+import java.time.Instant;
+
+/**
+ * Ветер спота в архиве (см. ArchivedSpot)
+ */
+@Data
+@Entity
+@Table(name = "winds_archive", indexes = {
+        @Index(name = "idx_winds_archive_spot_id", columnList = "spot_id")
+})
+public class ArchivedWind {
+
+    @Id
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private WindDirection direction;
+
+    @Column(nullable = false)
+    private Integer minSpeed;
+
+    @Column(nullable = false)
+    private Integer maxSpeed;
+
+    @Column(name = "spot_id", nullable = false)
+    private Long spotId;
+
+    @Column(nullable = false)
+    private Instant archivedAt;
+}
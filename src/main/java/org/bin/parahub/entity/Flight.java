@@ -0,0 +1,85 @@
+package org.bin.parahub.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.ToString;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Полёт, загруженный из IGC: сводка по треку. Сам трек лежит отдельно в FlightTrack,
+ * чтобы списки полётов не тянули бинарные данные.
+ */
+@Data
+@ToString(exclude = {"spot", "takeoff"})
+@Entity
+@Table(name = "flights", indexes = {
+        @Index(name = "idx_flights_spot_id", columnList = "spot_id")
+})
+public class Flight {
+
+    /** последовательность с шагом 50, чтобы вставки пачки загрузок шли JDBC-батчами (IDENTITY батчи отключает) */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "flights_seq")
+    @SequenceGenerator(name = "flights_seq", sequenceName = "flights_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "spot_id", nullable = false)
+    private Spot spot;
+
+    /** ближайший к точке старта трека TAKEOFF спота */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "takeoff_id")
+    private TerrainPoint takeoff;
+
+    /** от первой точки трека до takeoff, м */
+    private Double takeoffDistance;
+
+    private String fileName;
+
+    private String pilotName;
+
+    private String gliderType;
+
+    @Column(nullable = false)
+    private LocalDate flightDate;
+
+    @Column(nullable = false)
+    private Instant startTime;
+
+    @Column(nullable = false)
+    private Instant endTime;
+
+    private Integer fixCount;
+
+    /** B-записи, отброшенные при проверке (повреждённые, не 3D, выбросы GPS) */
+    private Integer rejectedRecords;
+
+    private Double launchLatitude;
+
+    private Double launchLongitude;
+
+    private Double landingLatitude;
+
+    private Double landingLongitude;
+
+    private Integer maxAltitude; // м
+
+    private Integer minAltitude; // м
+
+    private Integer altitudeGain; // м, сумма наборов
+
+    private Double trackDistance; // м
+
+    private Double maxDistanceFromLaunch; // м
+
+    /** размер исходного IGC и закодированного трека, байт */
+    private Long rawSize;
+
+    private Long trackSize;
+
+    @Column(nullable = false)
+    private Instant uploadedAt;
+}
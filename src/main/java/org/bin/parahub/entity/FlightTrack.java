@@ -0,0 +1,26 @@
+package org.bin.parahub.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.ToString;
+
+/**
+ * Точки трека полёта в формате TrackCodec (дельты + varint + Deflate)
+ */
+@Data
+@ToString(exclude = {"flight", "data"})
+@Entity
+@Table(name = "flight_tracks")
+public class FlightTrack {
+
+    @Id
+    private Long flightId;
+
+    @MapsId
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "flight_id")
+    private Flight flight;
+
+    @Column(nullable = false)
+    private byte[] data;
+}
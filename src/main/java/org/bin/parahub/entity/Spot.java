@@ -4,7 +4,11 @@ import jakarta.persistence.*;
 import lombok.Data;
 import lombok.ToString;
 import org.bin.parahub.enums.PointType;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -16,7 +20,11 @@ import java.util.List;
 @Data
 @ToString(exclude = {"terrainPoints", "winds"})
 @Entity
-@Table(name = "Spots")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "spot")
+@Table(name = "Spots", indexes = {
+        @Index(name = "idx_spots_name", columnList = "name")
+})
 public class Spot {
 
     /** id старта. генерируется автоматически*/
@@ -47,6 +55,22 @@ public class Spot {
 
     private String popularity;
 
+    /**
+     * просмотры карточки старта; пишутся только пачками из SpotPopularityService, save() их не перезаписывает.
+     * Пачка идёт мимо Hibernate, поэтому SpotPopularityRepository сам выселяет эти споты из кэша второго уровня
+     */
+    @Column(nullable = false, updatable = false)
+    @ColumnDefault("0")
+    private Long viewCount = 0L;
+
+    /** сколько раз старт попадал в результаты поиска; пишется так же, как viewCount */
+    @Column(nullable = false, updatable = false)
+    @ColumnDefault("0")
+    private Long searchHits = 0L;
+
+    /** когда старт выключили; по нему ArchiveService переносит давно выключенные строки в архив */
+    private Instant disabledAt;
+
     private String bestSeason;
 
     private String accessibility;
@@ -55,9 +79,24 @@ public class Spot {
     private String description;
 
     @OneToMany(mappedBy = "spot", cascade = CascadeType.ALL, orphanRemoval = true)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "spot.terrainPoints")
     private List<TerrainPoint> terrainPoints = new ArrayList<>();
 
     @OneToMany(mappedBy = "spot", cascade = CascadeType.ALL, orphanRemoval = true)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "spot.winds")
     private List<Wind> winds = new ArrayList<>();
 
+    /**
+     * disabledAt ставится при выключении и сбрасывается при включении; массовые правки делают то же
+     * в самом UPDATE (BulkUpdateRepository)
+     */
+    @PrePersist
+    @PreUpdate
+    void trackDisabledAt() {
+        if (Boolean.TRUE.equals(isEnabled)) {
+            disabledAt = null;
+        } else if (disabledAt == null) {
+            disabledAt = Instant.now();
+        }
+    }
 }
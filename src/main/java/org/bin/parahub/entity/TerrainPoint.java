@@ -4,10 +4,18 @@ package org.bin.parahub.entity;
 import jakarta.persistence.*;
 import lombok.Data;
 import org.bin.parahub.enums.PointType;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import java.time.Instant;
 
 @Data
 @Entity
-@Table(name = "terrain_points")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "terrainPoint")
+@Table(name = "terrain_points", indexes = {
+        @Index(name = "idx_terrain_points_spot_id", columnList = "spot_id")
+})
 public class TerrainPoint {
 
     @Id
@@ -33,9 +41,21 @@ public class TerrainPoint {
     @Column(length = 2048)
     private String description;
 
+    /** когда точку выключили; по нему ArchiveService переносит давно выключенные строки в архив */
+    private Instant disabledAt;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "spot_id", nullable = false)
     private Spot spot;
 
-
+    /** как у Spot */
+    @PrePersist
+    @PreUpdate
+    void trackDisabledAt() {
+        if (Boolean.TRUE.equals(isEnabled)) {
+            disabledAt = null;
+        } else if (disabledAt == null) {
+            disabledAt = Instant.now();
+        }
+    }
 }
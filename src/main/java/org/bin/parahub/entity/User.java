@@ -12,7 +12,10 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Builder
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+        @Index(name = "idx_users_created_at", columnList = "created_at"),
+        @Index(name = "idx_users_role_enabled", columnList = "role, enabled")
+})
 public class User {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
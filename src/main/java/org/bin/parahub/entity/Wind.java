@@ -3,10 +3,16 @@ package org.bin.parahub.entity;
 import jakarta.persistence.*;
 import lombok.Data;
 import org.bin.parahub.enums.WindDirection;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Data
 @Entity
-@Table(name = "winds")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "wind")
+@Table(name = "winds", indexes = {
+        @Index(name = "idx_winds_spot_id", columnList = "spot_id")
+})
 public class Wind {
     
     @Id
@@ -0,0 +1,26 @@
+package org.bin.parahub.enums;
+
+/**
+ * Что делает ProfilingAspect с вызовом метода, помеченного @Profiled
+ */
+public enum ProfilingMode {
+    /** только строки в лог (▶/✓/⚠) */
+    LOG,
+    /** только гистограмма задержек, без логирования каждого вызова */
+    HISTOGRAM,
+    /** и лог, и гистограмма */
+    LOG_AND_HISTOGRAM,
+    /**
+     * без лога на каждый вызов: гистограмма + агрегированное дерево вызовов запроса,
+     * которое CallTreeFilter выводит один раз в конце запроса (для методов во внутренних циклах)
+     */
+    AGGREGATE;
+
+    public boolean logs() {
+        return this == LOG || this == LOG_AND_HISTOGRAM;
+    }
+
+    public boolean records() {
+        return this != LOG;
+    }
+}
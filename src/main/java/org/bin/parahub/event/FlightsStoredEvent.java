@@ -0,0 +1,9 @@
+package org.bin.parahub.event;
+
+import java.util.List;
+
+/**
+ * Полёты и их треки сохранены (транзакция закоммичена)
+ */
+public record FlightsStoredEvent(List<Long> flightIds) {
+}
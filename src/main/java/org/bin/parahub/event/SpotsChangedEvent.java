@@ -0,0 +1,7 @@
+package org.bin.parahub.event;
+
+/**
+ * Спот создан, изменён или отключён — его координаты, ветра или сложность могли поменяться
+ */
+public record SpotsChangedEvent(Long spotId) {
+}
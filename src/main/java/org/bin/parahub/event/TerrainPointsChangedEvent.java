@@ -0,0 +1,7 @@
+package org.bin.parahub.event;
+
+/**
+ * Точки рельефа старта изменились (создание, правка старта, удаление точек) — производные расчёты устарели
+ */
+public record TerrainPointsChangedEvent(Long spotId) {
+}
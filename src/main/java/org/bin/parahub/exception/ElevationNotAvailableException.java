@@ -0,0 +1,6 @@
+package org.bin.parahub.exception;
+
+public class ElevationNotAvailableException extends RuntimeException {
+
+    public ElevationNotAvailableException(double latitude, double longitude) { super("No elevation data for " + latitude + ", " + longitude); }
+}
@@ -0,0 +1,6 @@
+package org.bin.parahub.exception;
+
+public class FlightNotFoundException extends RuntimeException {
+
+    public FlightNotFoundException(Long id) { super("Flight with id " + id + " not found"); }
+}
@@ -0,0 +1,6 @@
+package org.bin.parahub.exception;
+
+public class ForecastNotAvailableException extends RuntimeException {
+
+    public ForecastNotAvailableException(long spotId) { super("No wind forecast covers spot " + spotId); }
+}
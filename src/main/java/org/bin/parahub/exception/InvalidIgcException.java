@@ -0,0 +1,6 @@
+package org.bin.parahub.exception;
+
+public class InvalidIgcException extends RuntimeException {
+
+    public InvalidIgcException(String reason) { super("Invalid IGC file: " + reason); }
+}
@@ -0,0 +1,6 @@
+package org.bin.parahub.exception;
+
+public class InvalidTerrainPointBatchException extends RuntimeException {
+
+    public InvalidTerrainPointBatchException(String reason) { super("Invalid terrain point batch: " + reason); }
+}
@@ -0,0 +1,6 @@
+package org.bin.parahub.exception;
+
+public class JfrRecordingStateException extends RuntimeException {
+
+    public JfrRecordingStateException(String message) { super(message); }
+}
@@ -0,0 +1,6 @@
+package org.bin.parahub.exception;
+
+public class PasswordHashingRejectedException extends RuntimeException {
+
+    public PasswordHashingRejectedException() { super("Password hashing capacity exhausted, retry later"); }
+}
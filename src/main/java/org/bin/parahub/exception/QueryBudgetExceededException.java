@@ -0,0 +1,6 @@
+package org.bin.parahub.exception;
+
+public class QueryBudgetExceededException extends RuntimeException {
+
+    public QueryBudgetExceededException(String message) { super(message); }
+}
@@ -0,0 +1,6 @@
+package org.bin.parahub.exception;
+
+public class RegionTooLargeException extends RuntimeException {
+
+    public RegionTooLargeException(int spots, int maxSpots) { super("Too many spots in region: " + spots + " > " + maxSpots); }
+}
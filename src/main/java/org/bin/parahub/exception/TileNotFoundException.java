@@ -0,0 +1,6 @@
+package org.bin.parahub.exception;
+
+public class TileNotFoundException extends RuntimeException {
+
+    public TileNotFoundException(String key) { super("Tile " + key + " not found"); }
+}
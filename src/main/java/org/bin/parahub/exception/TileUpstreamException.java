@@ -0,0 +1,6 @@
+package org.bin.parahub.exception;
+
+public class TileUpstreamException extends RuntimeException {
+
+    public TileUpstreamException(String key, String reason) { super("Tile " + key + " upstream failure: " + reason); }
+}
@@ -0,0 +1,58 @@
+package org.bin.parahub.forecast;
+
+/**
+ * Оценка лётности 0..1 для всех спотов × всех часов прогноза одним проходом по колонкам.
+ *
+ * Ветер между двумя соседними румбами делит вес между ними линейно по углу (ровно NE — только NE,
+ * 22.5° — пополам N и NE). Внутри диапазона [minSpeed, maxSpeed] румба скорость даёт 1, за его
+ * пределами оценка линейно падает до 0 на SPEED_MARGIN м/с. Час без данных прогноза — NaN.
+ *
+ * Внутренний цикл — по часам одного спота и одного румба: непрерывные float[], только
+ * abs/min/max/умножения без ветвлений, так что C2 разворачивает его в SIMD-инструкции (SuperWord).
+ */
+public final class FlyabilityScorer {
+
+    public static final int SECTORS = 8;
+
+    /** на сколько м/с за пределами диапазона оценка падает до 0 */
+    static final float SPEED_MARGIN = 2f;
+
+    private static final float SECTOR_DEGREES = 360f / SECTORS;
+
+    private FlyabilityScorer() {
+    }
+
+    /**
+     * @param speed         скорость ветра, [spot * hours + hour]
+     * @param directionFrom откуда дует, градусы, [spot * hours + hour]
+     * @param minSpeed      нижняя граница румба спота, [spot * SECTORS + sector]; NaN — румб не подходит
+     * @param maxSpeed      верхняя граница румба спота, [spot * SECTORS + sector]
+     * @param scores        результат, [spot * hours + hour]
+     */
+    public static void score(int spots, int hours, float[] speed, float[] directionFrom,
+                             float[] minSpeed, float[] maxSpeed, float[] scores) {
+        for (int spot = 0; spot < spots; spot++) {
+            int from = spot * hours;
+            int to = from + hours;
+            for (int i = from; i < to; i++) {
+                scores[i] = speed[i] * 0f; // 0, а для часа без данных NaN
+            }
+            for (int sector = 0; sector < SECTORS; sector++) {
+                float min = minSpeed[spot * SECTORS + sector];
+                if (Float.isNaN(min)) {
+                    continue;
+                }
+                float max = maxSpeed[spot * SECTORS + sector];
+                float center = sector * SECTOR_DEGREES;
+                for (int i = from; i < to; i++) {
+                    float delta = Math.abs(directionFrom[i] - center);
+                    delta = Math.min(delta, 360f - delta);
+                    float weight = Math.max(0f, 1f - delta / SECTOR_DEGREES);
+                    float outside = Math.max(Math.max(min - speed[i], speed[i] - max), 0f);
+                    float fit = Math.max(0f, 1f - outside / SPEED_MARGIN);
+                    scores[i] += weight * fit;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package org.bin.parahub.forecast;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Прогноз ветра на регулярной сетке широта × долгота × час, в колонках float[] u и v (м/с, компоненты
+ * на восток и на север, как в GRIB). Индекс ячейки: (hour * rows + row) * cols + col.
+ *
+ * Формат файла (CSV, выгрузка из GRIB через wgrib2/cdo):
+ * <pre>
+ * # run=2026-10-19T06:00:00Z lat0=44.0 lon0=33.0 step=0.25 rows=9 cols=13 hours=48
+ * hour,lat,lon,u,v
+ * 0,44.00,33.00,1.2,-3.4
+ * </pre>
+ * Час 0 — время запуска модели, lat0/lon0 — юго-западный узел. Узлы, которых нет в файле, остаются NaN.
+ */
+public final class ForecastGrid {
+
+    private final Instant run;
+    private final double lat0;
+    private final double lon0;
+    private final double step;
+    private final int rows;
+    private final int cols;
+    private final int hours;
+    private final float[] u;
+    private final float[] v;
+
+    public ForecastGrid(Instant run, double lat0, double lon0, double step, int rows, int cols, int hours,
+                        float[] u, float[] v) {
+        if (u.length != rows * cols * hours || v.length != u.length) {
+            throw new IllegalArgumentException("Размер колонок не совпадает с сеткой " + rows + "×" + cols + "×" + hours);
+        }
+        this.run = run;
+        this.lat0 = lat0;
+        this.lon0 = lon0;
+        this.step = step;
+        this.rows = rows;
+        this.cols = cols;
+        this.hours = hours;
+        this.u = u;
+        this.v = v;
+    }
+
+    public static ForecastGrid read(Path file) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String header = reader.readLine();
+            if (header == null || !header.startsWith("#")) {
+                throw new IOException(file + ": нет заголовка сетки");
+            }
+            Map<String, String> params = new HashMap<>();
+            for (String token : header.substring(1).trim().split("\\s+")) {
+                int eq = token.indexOf('=');
+                if (eq > 0) {
+                    params.put(token.substring(0, eq), token.substring(eq + 1));
+                }
+            }
+            Instant run;
+            double lat0;
+            double lon0;
+            double step;
+            int rows;
+            int cols;
+            int hours;
+            try {
+                run = Instant.parse(params.get("run"));
+                lat0 = Double.parseDouble(params.get("lat0"));
+                lon0 = Double.parseDouble(params.get("lon0"));
+                step = Double.parseDouble(params.get("step"));
+                rows = Integer.parseInt(params.get("rows"));
+                cols = Integer.parseInt(params.get("cols"));
+                hours = Integer.parseInt(params.get("hours"));
+            } catch (RuntimeException e) {
+                throw new IOException(file + ": некорректный заголовок сетки: " + header, e);
+            }
+
+            float[] u = new float[rows * cols * hours];
+            float[] v = new float[u.length];
+            Arrays.fill(u, Float.NaN);
+            Arrays.fill(v, Float.NaN);
+
+            String line;
+            int lineNumber = 1;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || !Character.isDigit(line.charAt(0))) {
+                    continue; // строка с названиями колонок
+                }
+                String[] fields = line.split(",");
+                try {
+                    int hour = Integer.parseInt(fields[0].trim());
+                    int row = (int) Math.round((Double.parseDouble(fields[1]) - lat0) / step);
+                    int col = (int) Math.round((Double.parseDouble(fields[2]) - lon0) / step);
+                    if (hour < 0 || hour >= hours || row < 0 || row >= rows || col < 0 || col >= cols) {
+                        continue;
+                    }
+                    int index = (hour * rows + row) * cols + col;
+                    u[index] = Float.parseFloat(fields[3]);
+                    v[index] = Float.parseFloat(fields[4]);
+                } catch (RuntimeException e) {
+                    throw new IOException(file + ":" + lineNumber + ": некорректная строка: " + line, e);
+                }
+            }
+            return new ForecastGrid(run, lat0, lon0, step, rows, cols, hours, u, v);
+        }
+    }
+
+    public Instant getRun() {
+        return run;
+    }
+
+    public int getHours() {
+        return hours;
+    }
+
+    public boolean covers(double lat, double lon) {
+        double row = (lat - lat0) / step;
+        double col = (lon - lon0) / step;
+        return row >= 0 && row <= rows - 1 && col >= 0 && col <= cols - 1;
+    }
+
+    /**
+     * Скорость (м/с) и направление, ОТКУДА дует ветер (°, метеорологическое), в точке для всех часов.
+     * Компоненты интерполируются билинейно; час без данных — NaN в обоих массивах.
+     */
+    public void sample(double lat, double lon, float[] speed, float[] directionFrom, int offset) {
+        double row = Math.min(Math.max((lat - lat0) / step, 0), rows - 1);
+        double col = Math.min(Math.max((lon - lon0) / step, 0), cols - 1);
+        int r0 = Math.min((int) row, Math.max(rows - 2, 0));
+        int c0 = Math.min((int) col, Math.max(cols - 2, 0));
+        int r1 = Math.min(r0 + 1, rows - 1);
+        int c1 = Math.min(c0 + 1, cols - 1);
+        float fr = (float) (row - r0);
+        float fc = (float) (col - c0);
+        float w00 = (1 - fr) * (1 - fc);
+        float w01 = (1 - fr) * fc;
+        float w10 = fr * (1 - fc);
+        float w11 = fr * fc;
+
+        int plane = rows * cols;
+        int i00 = r0 * cols + c0;
+        int i01 = r0 * cols + c1;
+        int i10 = r1 * cols + c0;
+        int i11 = r1 * cols + c1;
+        for (int h = 0; h < hours; h++) {
+            int base = h * plane;
+            float eastward = w00 * u[base + i00] + w01 * u[base + i01] + w10 * u[base + i10] + w11 * u[base + i11];
+            float northward = w00 * v[base + i00] + w01 * v[base + i01] + w10 * v[base + i10] + w11 * v[base + i11];
+            speed[offset + h] = (float) Math.sqrt(eastward * eastward + northward * northward);
+            double from = Math.toDegrees(Math.atan2(-eastward, -northward));
+            directionFrom[offset + h] = (float) (from < 0 ? from + 360 : from + 0.0); // + 0.0: -0.0 -> 0.0
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package org.bin.parahub.igc;
+
+import org.bin.parahub.exception.InvalidIgcException;
+
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+/**
+ * Потоковый разбор IGC: файл читается построчно, каждая принятая B-запись сразу уходит в TrackCodec.Encoder
+ * и в сводку полёта, так что память не зависит от размера файла.
+ *
+ * Проверки: формат B-записи (поля, диапазоны координат и времени), только 3D-фиксы (validity A),
+ * время не убывает (переход через полночь UTC — следующий день), скачки быстрее MAX_SPEED отбрасываются
+ * как сбой GPS. Дата берётся из HFDTE и обязательна; файл без единого принятого фикса отклоняется.
+ */
+public final class IgcParser {
+
+    /** м/с; параплан с попутным ветром не летит быстрее, всё выше — выброс GPS */
+    static final double MAX_SPEED = 100;
+
+    private static final double METERS_PER_DEGREE = 111_320;
+    private static final int B_RECORD_LENGTH = 35;
+
+    private IgcParser() {
+    }
+
+    /**
+     * Сводка полёта и закодированный трек
+     */
+    public record IgcFlight(
+            String pilotName,
+            String gliderType,
+            LocalDate date,
+            Instant startTime,
+            Instant endTime,
+            int fixCount,
+            int rejectedRecords,
+            double launchLatitude,
+            double launchLongitude,
+            double landingLatitude,
+            double landingLongitude,
+            int maxAltitude,
+            int minAltitude,
+            int altitudeGain,
+            double trackDistance,
+            double maxDistanceFromLaunch,
+            long rawSize,
+            byte[] track) {
+    }
+
+    public static IgcFlight parse(InputStream input) {
+        CountingInputStream counting = new CountingInputStream(input);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(counting, StandardCharsets.UTF_8), 64 * 1024);
+
+        String pilotName = null;
+        String gliderType = null;
+        LocalDate date = null;
+        TrackCodec.Encoder encoder = new TrackCodec.Encoder();
+        int rejected = 0;
+
+        long dayOffset = 0;
+        TrackCodec.Fix first = null;
+        TrackCodec.Fix last = null;
+        int maxAltitude = Integer.MIN_VALUE;
+        int minAltitude = Integer.MAX_VALUE;
+        int lastAltitude = 0;
+        long gain = 0;
+        double distance = 0;
+        double maxFromLaunch = 0;
+
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("HFDTE")) {
+                    date = parseDate(line);
+                } else if (line.startsWith("HFPLT")) {
+                    pilotName = headerValue(line);
+                } else if (line.startsWith("HFGTY")) {
+                    gliderType = headerValue(line);
+                } else if (line.startsWith("B")) {
+                    if (date == null) {
+                        throw new InvalidIgcException("B record before HFDTE date header");
+                    }
+                    TrackCodec.Fix fix = parseFix(line, date, dayOffset);
+                    if (fix == null) {
+                        rejected++;
+                        continue;
+                    }
+                    if (last != null && fix.time() < last.time() - 12 * 3600) {
+                        // полночь UTC: время в B-записях началось заново
+                        dayOffset += 86_400;
+                        fix = new TrackCodec.Fix(fix.time() + 86_400, fix.latitude(), fix.longitude(),
+                                fix.pressureAltitude(), fix.gpsAltitude());
+                    }
+                    if (last != null) {
+                        long dt = fix.time() - last.time();
+                        double step = distance(last, fix);
+                        if (dt <= 0 || step / dt > MAX_SPEED) {
+                            rejected++;
+                            continue;
+                        }
+                        distance += step;
+                    }
+                    int altitude = fix.gpsAltitude() != 0 ? fix.gpsAltitude() : fix.pressureAltitude();
+                    if (first == null) {
+                        first = fix;
+                    } else if (altitude > lastAltitude) {
+                        gain += altitude - lastAltitude;
+                    }
+                    maxAltitude = Math.max(maxAltitude, altitude);
+                    minAltitude = Math.min(minAltitude, altitude);
+                    maxFromLaunch = Math.max(maxFromLaunch, distance(first, fix));
+                    lastAltitude = altitude;
+                    last = fix;
+                    encoder.add(fix);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        if (first == null) {
+            encoder.finish();
+            throw new InvalidIgcException(date == null ? "no HFDTE date header" : "no valid B records");
+        }
+        return new IgcFlight(pilotName, gliderType, date,
+                Instant.ofEpochSecond(first.time()), Instant.ofEpochSecond(last.time()),
+                encoder.getCount(), rejected,
+                first.latitudeDegrees(), first.longitudeDegrees(), last.latitudeDegrees(), last.longitudeDegrees(),
+                maxAltitude, minAltitude, (int) gain, distance, maxFromLaunch,
+                counting.count, encoder.finish());
+    }
+
+    /**
+     * BHHMMSSDDMMmmmNDDDMMmmmEVPPPPPGGGGG; null, если запись повреждена или фикс не 3D
+     */
+    static TrackCodec.Fix parseFix(String line, LocalDate date, long dayOffset) {
+        if (line.length() < B_RECORD_LENGTH) {
+            return null;
+        }
+        int hours = digits(line, 1, 3);
+        int minutes = digits(line, 3, 5);
+        int seconds = digits(line, 5, 7);
+        int latDegrees = digits(line, 7, 9);
+        int latMinutes = digits(line, 9, 14);
+        char ns = line.charAt(14);
+        int lonDegrees = digits(line, 15, 18);
+        int lonMinutes = digits(line, 18, 23);
+        char ew = line.charAt(23);
+        char validity = line.charAt(24);
+        int pressureAltitude = altitude(line, 25, 30);
+        int gpsAltitude = altitude(line, 30, 35);
+
+        if (hours < 0 || hours > 23 || minutes < 0 || minutes > 59 || seconds < 0 || seconds > 59
+                || latDegrees < 0 || latDegrees > 90 || latMinutes < 0 || latMinutes >= 60_000
+                || lonDegrees < 0 || lonDegrees > 180 || lonMinutes < 0 || lonMinutes >= 60_000
+                || (ns != 'N' && ns != 'S') || (ew != 'E' && ew != 'W')
+                || validity != 'A' || pressureAltitude == Integer.MIN_VALUE || gpsAltitude == Integer.MIN_VALUE) {
+            return null;
+        }
+        int latitude = latDegrees * 60_000 + latMinutes;
+        int longitude = lonDegrees * 60_000 + lonMinutes;
+        if (latitude > 90 * 60_000 || longitude > 180 * 60_000) {
+            return null;
+        }
+        long time = date.atStartOfDay(ZoneOffset.UTC).toEpochSecond() + dayOffset
+                + hours * 3600L + minutes * 60L + seconds;
+        return new TrackCodec.Fix(time, ns == 'S' ? -latitude : latitude, ew == 'W' ? -longitude : longitude,
+                pressureAltitude, gpsAltitude);
+    }
+
+    /**
+     * HFDTE280709 или HFDTEDATE:280709,01
+     */
+    static LocalDate parseDate(String line) {
+        StringBuilder ddmmyy = new StringBuilder(6);
+        for (int i = 5; i < line.length() && ddmmyy.length() < 6; i++) {
+            char c = line.charAt(i);
+            if (c >= '0' && c <= '9') {
+                ddmmyy.append(c);
+            } else if (!ddmmyy.isEmpty()) {
+                break;
+            }
+        }
+        if (ddmmyy.length() != 6) {
+            throw new InvalidIgcException("malformed date header: " + line);
+        }
+        int day = Integer.parseInt(ddmmyy.substring(0, 2));
+        int month = Integer.parseInt(ddmmyy.substring(2, 4));
+        int year = Integer.parseInt(ddmmyy.substring(4, 6));
+        try {
+            return LocalDate.of(year < 80 ? 2000 + year : 1900 + year, month, day);
+        } catch (RuntimeException e) {
+            throw new InvalidIgcException("malformed date header: " + line);
+        }
+    }
+
+    private static String headerValue(String line) {
+        int colon = line.indexOf(':');
+        String value = (colon >= 0 ? line.substring(colon + 1) : line.substring(5)).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static int digits(String line, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            char c = line.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    /**
+     * Высота в 5 символах, может быть отрицательной ("-0012"); Integer.MIN_VALUE, если поле повреждено
+     */
+    private static int altitude(String line, int from, int to) {
+        boolean negative = line.charAt(from) == '-';
+        int value = digits(line, negative ? from + 1 : from, to);
+        if (value < 0) {
+            return Integer.MIN_VALUE;
+        }
+        return negative ? -value : value;
+    }
+
+    private static double distance(TrackCodec.Fix a, TrackCodec.Fix b) {
+        double dy = (b.latitudeDegrees() - a.latitudeDegrees()) * METERS_PER_DEGREE;
+        double dx = (b.longitudeDegrees() - a.longitudeDegrees()) * METERS_PER_DEGREE
+                * Math.cos(Math.toRadians((a.latitudeDegrees() + b.latitudeDegrees()) / 2));
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+    }
+}
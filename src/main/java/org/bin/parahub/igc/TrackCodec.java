@@ -0,0 +1,161 @@
+package org.bin.parahub.igc;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Компактное хранение трека: каждая точка — разности с предыдущей (время, широта, долгота, барометрическая
+ * и GPS-высота) в varint, знаковые через zigzag, всё вместе сжато Deflate.
+ *
+ * Координаты хранятся в родных единицах IGC — тысячных долях минуты (1/60000°), поэтому без потерь.
+ * Между соседними фиксами (1–5 с) разности укладываются в 1–2 байта, и вместо 35+ байт B-записи
+ * точка занимает около 5 байт до сжатия и 2–3 после.
+ *
+ * Формат: байт версии, затем поток Deflate: varint время первой точки (epoch seconds), далее точки до конца потока.
+ */
+public final class TrackCodec {
+
+    private static final int VERSION = 1;
+
+    public static final double UNITS_PER_DEGREE = 60_000;
+
+    private TrackCodec() {
+    }
+
+    public record Fix(long time, int latitude, int longitude, int pressureAltitude, int gpsAltitude) {
+
+        public double latitudeDegrees() {
+            return latitude / UNITS_PER_DEGREE;
+        }
+
+        public double longitudeDegrees() {
+            return longitude / UNITS_PER_DEGREE;
+        }
+    }
+
+    /**
+     * Кодирует точки по мере поступления, весь трек в памяти не держит
+     */
+    public static final class Encoder {
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 * 1024);
+        private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        private final DeflaterOutputStream out;
+        private Fix previous;
+        private int count;
+
+        public Encoder() {
+            bytes.write(VERSION);
+            out = new DeflaterOutputStream(bytes, deflater, 8 * 1024);
+        }
+
+        public void add(Fix fix) {
+            try {
+                if (previous == null) {
+                    writeVarint(out, fix.time());
+                    previous = new Fix(fix.time(), 0, 0, 0, 0);
+                }
+                writeVarint(out, fix.time() - previous.time());
+                writeVarint(out, zigzag(fix.latitude() - previous.latitude()));
+                writeVarint(out, zigzag(fix.longitude() - previous.longitude()));
+                writeVarint(out, zigzag(fix.pressureAltitude() - previous.pressureAltitude()));
+                writeVarint(out, zigzag(fix.gpsAltitude() - previous.gpsAltitude()));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            previous = fix;
+            count++;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public byte[] finish() {
+            try {
+                out.finish();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                deflater.end();
+            }
+            return bytes.toByteArray();
+        }
+    }
+
+    public static List<Fix> decode(byte[] data) {
+        if (data.length == 0 || data[0] != VERSION) {
+            throw new IllegalArgumentException("Неизвестный формат трека");
+        }
+        List<Fix> fixes = new ArrayList<>();
+        try (InputStream in = new InflaterInputStream(new ByteArrayInputStream(data, 1, data.length - 1))) {
+            long time;
+            try {
+                time = readVarint(in);
+            } catch (EOFException empty) {
+                return fixes;
+            }
+            int latitude = 0;
+            int longitude = 0;
+            int pressureAltitude = 0;
+            int gpsAltitude = 0;
+            while (true) {
+                long dt;
+                try {
+                    dt = readVarint(in);
+                } catch (EOFException end) {
+                    return fixes;
+                }
+                time += dt;
+                latitude += unzigzag(readVarint(in));
+                longitude += unzigzag(readVarint(in));
+                pressureAltitude += unzigzag(readVarint(in));
+                gpsAltitude += unzigzag(readVarint(in));
+                fixes.add(new Fix(time, latitude, longitude, pressureAltitude, gpsAltitude));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static int unzigzag(long value) {
+        return (int) ((value >>> 1) ^ -(value & 1));
+    }
+
+    static void writeVarint(OutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    static long readVarint(InputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException();
+            }
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Слишком длинный varint");
+    }
+}
@@ -0,0 +1,42 @@
+package org.bin.parahub.mapper;
+
+import org.bin.parahub.dto.FlightDTO;
+import org.bin.parahub.entity.Flight;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+public class FlightMapper {
+
+    public FlightDTO toDTO(Flight entity) {
+        FlightDTO flightDTO = new FlightDTO();
+
+        flightDTO.setId(entity.getId());
+        flightDTO.setSpotId(entity.getSpot() != null ? entity.getSpot().getId() : null);
+        flightDTO.setTakeoffId(entity.getTakeoff() != null ? entity.getTakeoff().getId() : null);
+        flightDTO.setTakeoffDistance(entity.getTakeoffDistance());
+        flightDTO.setFileName(entity.getFileName());
+        flightDTO.setPilotName(entity.getPilotName());
+        flightDTO.setGliderType(entity.getGliderType());
+        flightDTO.setFlightDate(entity.getFlightDate());
+        flightDTO.setStartTime(entity.getStartTime());
+        flightDTO.setEndTime(entity.getEndTime());
+        flightDTO.setDurationSeconds(Duration.between(entity.getStartTime(), entity.getEndTime()).toSeconds());
+        flightDTO.setFixCount(entity.getFixCount());
+        flightDTO.setRejectedRecords(entity.getRejectedRecords());
+        flightDTO.setLaunchLatitude(entity.getLaunchLatitude());
+        flightDTO.setLaunchLongitude(entity.getLaunchLongitude());
+        flightDTO.setLandingLatitude(entity.getLandingLatitude());
+        flightDTO.setLandingLongitude(entity.getLandingLongitude());
+        flightDTO.setMaxAltitude(entity.getMaxAltitude());
+        flightDTO.setMinAltitude(entity.getMinAltitude());
+        flightDTO.setAltitudeGain(entity.getAltitudeGain());
+        flightDTO.setTrackDistance(entity.getTrackDistance());
+        flightDTO.setMaxDistanceFromLaunch(entity.getMaxDistanceFromLaunch());
+        flightDTO.setRawSize(entity.getRawSize());
+        flightDTO.setTrackSize(entity.getTrackSize());
+
+        return flightDTO;
+    }
+}
@@ -4,6 +4,7 @@ import org.bin.parahub.annotation.Profiled;
 import org.bin.parahub.dto.SpotDTO;
 import org.bin.parahub.entity.Spot;
 import org.bin.parahub.entity.TerrainPoint;
+import org.bin.parahub.enums.ProfilingMode;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
@@ -17,7 +18,7 @@ import java.util.ArrayList;
  * @see SpotDTO
  */
 @Component
-@Profiled(logArgs = true, logResult = false, slowThresholdMs = 50)
+@Profiled(logArgs = true, logResult = false, slowThresholdMs = 50, mode = ProfilingMode.AGGREGATE, trackAllocations = true)
 public class SpotMapper {
 
     private final TerrainPointMapper terrainPointMapper;
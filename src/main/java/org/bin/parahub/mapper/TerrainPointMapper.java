@@ -3,13 +3,14 @@ package org.bin.parahub.mapper;
 import org.bin.parahub.annotation.Profiled;
 import org.bin.parahub.dto.TerrainPointDTO;
 import org.bin.parahub.entity.TerrainPoint;
+import org.bin.parahub.enums.ProfilingMode;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Component
-@Profiled(logArgs = true, logResult = false, slowThresholdMs = 50)
+@Profiled(logArgs = true, logResult = false, slowThresholdMs = 50, mode = ProfilingMode.AGGREGATE, trackAllocations = true)
 public class TerrainPointMapper {
 
     public TerrainPoint toEntity(TerrainPointDTO dto){
@@ -0,0 +1,37 @@
+package org.bin.parahub.profiling;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Счётчик байт, выделенных текущим потоком (HotSpot ThreadMXBean).
+ * Разница двух замеров — аллокации между ними; вызов стоит десятки наносекунд и сам ничего не аллоцирует.
+ */
+public final class AllocationCounter {
+
+    private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN = init();
+
+    private AllocationCounter() {
+    }
+
+    private static com.sun.management.ThreadMXBean init() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                && bean.isThreadAllocatedMemorySupported()) {
+            if (!bean.isThreadAllocatedMemoryEnabled()) {
+                bean.setThreadAllocatedMemoryEnabled(true);
+            }
+            return bean;
+        }
+        return null;
+    }
+
+    public static boolean isSupported() {
+        return THREAD_MX_BEAN != null;
+    }
+
+    /**
+     * @return сколько байт выделил текущий поток с момента старта, -1 если JVM это не поддерживает
+     */
+    public static long currentThreadAllocatedBytes() {
+        return THREAD_MX_BEAN != null ? THREAD_MX_BEAN.getCurrentThreadAllocatedBytes() : -1;
+    }
+}
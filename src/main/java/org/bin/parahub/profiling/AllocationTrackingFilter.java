@@ -0,0 +1,57 @@
+package org.bin.parahub.profiling;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Байты, выделенные потоком запроса, по эндпоинтам (метод + шаблон маппинга).
+ * Видно, какой эндпоинт разгоняет young GC, и регрессии аллокаций после изменений.
+ */
+@Component
+public class AllocationTrackingFilter extends OncePerRequestFilter {
+
+    private final ProfilingRegistry profilingRegistry;
+    private final boolean enabled;
+
+    public AllocationTrackingFilter(
+            ProfilingRegistry profilingRegistry,
+            @Value("${parahub.profiling.allocations.endpoints.enabled:false}") boolean enabled) {
+        this.profilingRegistry = profilingRegistry;
+        this.enabled = enabled && AllocationCounter.isSupported();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain chain
+    ) throws ServletException, IOException {
+        long before = AllocationCounter.currentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            chain.doFilter(request, response);
+            failed = response.getStatus() >= 500;
+        } finally {
+            long allocated = AllocationCounter.currentThreadAllocatedBytes() - before;
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            MethodStats stats = profilingRegistry.forEndpoint(
+                    request.getMethod() + " " + (pattern != null ? pattern : "UNMATCHED"));
+            stats.record(System.nanoTime() - start, failed);
+            stats.recordAllocation(allocated);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package org.bin.parahub.profiling;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Агрегированное дерево вызовов @Profiled методов в рамках одного HTTP-запроса.
+ *
+ * Узел — путь вызова (родитель → метод), а не отдельный вызов: 5000 вызовов SpotMapper#toDTO
+ * внутри SpotService#getAllSpots складываются в один узел со счётчиком, общим и собственным временем.
+ * Дерево живёт в ThreadLocal потока запроса (см. CallTreeFilter) и не синхронизируется.
+ */
+public final class CallTree {
+
+    private static final ThreadLocal<CallTree> CURRENT = new ThreadLocal<>();
+
+    /** защита от бесконечной рекурсии: глубже этого уровня вызовы сливаются в последний узел */
+    private static final int MAX_DEPTH = 64;
+
+    private final Node root;
+    private final Node[] stack = new Node[MAX_DEPTH + 1];
+    private final long[] startNanos = new long[MAX_DEPTH + 1];
+    private int depth;
+    private int overflow;
+
+    private CallTree(String rootName) {
+        this.root = new Node(rootName);
+        this.stack[0] = root;
+        this.startNanos[0] = System.nanoTime();
+    }
+
+    /**
+     * Начать дерево для текущего потока
+     */
+    public static CallTree start(String rootName) {
+        CallTree tree = new CallTree(rootName);
+        CURRENT.set(tree);
+        return tree;
+    }
+
+    /**
+     * Дерево текущего запроса или null, если агрегирование не включено
+     */
+    public static CallTree current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Закончить дерево текущего потока и отвязать его
+     */
+    public Node finish() {
+        CURRENT.remove();
+        root.count = 1;
+        root.totalNanos = System.nanoTime() - startNanos[0];
+        return root;
+    }
+
+    public void enter(String name) {
+        if (depth == MAX_DEPTH) {
+            overflow++;
+            return;
+        }
+        Node child = stack[depth].child(name);
+        depth++;
+        stack[depth] = child;
+        startNanos[depth] = System.nanoTime();
+    }
+
+    public void exit() {
+        if (overflow > 0) {
+            overflow--;
+            return;
+        }
+        if (depth == 0) {
+            return;
+        }
+        Node node = stack[depth];
+        node.count++;
+        node.totalNanos += System.nanoTime() - startNanos[depth];
+        stack[depth] = null;
+        depth--;
+    }
+
+    /**
+     * Узел дерева: путь вызова с агрегированными счётчиками
+     */
+    public static final class Node {
+        private final String name;
+        private final Map<String, Node> children = new HashMap<>(4);
+        private long count;
+        private long totalNanos;
+
+        private Node(String name) {
+            this.name = name;
+        }
+
+        private Node child(String childName) {
+            Node child = children.get(childName);
+            if (child == null) {
+                child = new Node(childName);
+                children.put(childName, child);
+            }
+            return child;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+        public long getSelfNanos() {
+            long childrenNanos = 0;
+            for (Node child : children.values()) {
+                childrenNanos += child.totalNanos;
+            }
+            return Math.max(0, totalNanos - childrenNanos);
+        }
+
+        /**
+         * Дети по убыванию общего времени
+         */
+        public List<Node> getChildren() {
+            List<Node> sorted = new ArrayList<>(children.values());
+            sorted.sort((a, b) -> Long.compare(b.totalNanos, a.totalNanos));
+            return sorted;
+        }
+    }
+}
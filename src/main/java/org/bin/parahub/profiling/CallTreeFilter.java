@@ -0,0 +1,99 @@
+package org.bin.parahub.profiling;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Строит дерево вызовов @Profiled методов на время запроса (см. CallTree) и пишет его
+ * в PROFILING лог один раз в конце запроса: отступами и/или в collapsed-формате
+ * ("a;b;c <self µs>"), который понимают flamegraph.pl и speedscope.
+ */
+@Component
+public class CallTreeFilter extends OncePerRequestFilter {
+
+    private static final Logger profilingLogger = LoggerFactory.getLogger("PROFILING");
+
+    private final boolean enabled;
+    private final long minDurationNanos;
+    private final boolean tree;
+    private final boolean collapsed;
+
+    public CallTreeFilter(
+            @Value("${parahub.profiling.call-tree.enabled:false}") boolean enabled,
+            @Value("${parahub.profiling.call-tree.min-duration-ms:0}") long minDurationMs,
+            @Value("${parahub.profiling.call-tree.format:tree}") String format) {
+        this.enabled = enabled;
+        this.minDurationNanos = minDurationMs * 1_000_000L;
+        this.tree = "tree".equals(format) || "both".equals(format);
+        this.collapsed = "collapsed".equals(format) || "both".equals(format);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain chain
+    ) throws ServletException, IOException {
+        CallTree callTree = CallTree.start(request.getMethod() + " " + request.getRequestURI());
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            CallTree.Node root = callTree.finish();
+            if (root.getTotalNanos() >= minDurationNanos && !root.getChildren().isEmpty()) {
+                if (tree) {
+                    StringBuilder sb = new StringBuilder("🌳 [").append(root.getName()).append("] ")
+                            .append(millis(root.getTotalNanos())).append(" ms");
+                    for (CallTree.Node child : root.getChildren()) {
+                        appendTree(sb, child, 1);
+                    }
+                    profilingLogger.info(sb.toString());
+                }
+                if (collapsed) {
+                    StringBuilder sb = new StringBuilder("🔥 collapsed [").append(root.getName()).append("]");
+                    appendCollapsed(sb, root, root.getName().replace(' ', '_'));
+                    profilingLogger.info(sb.toString());
+                }
+            }
+        }
+    }
+
+    private static void appendTree(StringBuilder sb, CallTree.Node node, int level) {
+        sb.append('\n').append("  ".repeat(level))
+                .append(node.getName())
+                .append("  calls=").append(node.getCount())
+                .append("  total=").append(millis(node.getTotalNanos())).append(" ms")
+                .append("  self=").append(millis(node.getSelfNanos())).append(" ms");
+        for (CallTree.Node child : node.getChildren()) {
+            appendTree(sb, child, level + 1);
+        }
+    }
+
+    private static void appendCollapsed(StringBuilder sb, CallTree.Node node, String path) {
+        long selfMicros = node.getSelfNanos() / 1_000;
+        if (selfMicros > 0) {
+            sb.append('\n').append(path).append(' ').append(selfMicros);
+        }
+        for (CallTree.Node child : node.getChildren()) {
+            appendCollapsed(sb, child, path + ";" + child.getName());
+        }
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1_000_000.0);
+    }
+}
@@ -0,0 +1,81 @@
+package org.bin.parahub.profiling;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.Arrays;
+
+/**
+ * Попадания и промахи кэша второго уровня и query cache Hibernate по регионам (hibernate.generate_statistics),
+ * в том же текстовом формате Prometheus, что и ProfilingRegistry
+ */
+@Component
+public class HibernateCacheMetrics {
+
+    private final Statistics statistics;
+
+    public HibernateCacheMetrics(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    public void reset() {
+        statistics.clear();
+    }
+
+    public void writePrometheus(Writer out) {
+        String[] regions = statistics.getSecondLevelCacheRegionNames();
+        Arrays.sort(regions);
+        try {
+            out.write("# HELP parahub_cache_hits_total Second-level cache hits by region\n");
+            out.write("# TYPE parahub_cache_hits_total counter\n");
+            for (String region : regions) {
+                CacheRegionStatistics stats = statistics.getCacheRegionStatistics(region);
+                if (stats != null) {
+                    out.write("parahub_cache_hits_total{region=\"" + region + "\"} " + stats.getHitCount() + "\n");
+                }
+            }
+
+            out.write("# HELP parahub_cache_misses_total Second-level cache misses by region\n");
+            out.write("# TYPE parahub_cache_misses_total counter\n");
+            for (String region : regions) {
+                CacheRegionStatistics stats = statistics.getCacheRegionStatistics(region);
+                if (stats != null) {
+                    out.write("parahub_cache_misses_total{region=\"" + region + "\"} " + stats.getMissCount() + "\n");
+                }
+            }
+
+            out.write("# HELP parahub_cache_puts_total Second-level cache puts by region\n");
+            out.write("# TYPE parahub_cache_puts_total counter\n");
+            for (String region : regions) {
+                CacheRegionStatistics stats = statistics.getCacheRegionStatistics(region);
+                if (stats != null) {
+                    out.write("parahub_cache_puts_total{region=\"" + region + "\"} " + stats.getPutCount() + "\n");
+                }
+            }
+
+            out.write("# HELP parahub_cache_entries Entries currently held by region\n");
+            out.write("# TYPE parahub_cache_entries gauge\n");
+            for (String region : regions) {
+                CacheRegionStatistics stats = statistics.getCacheRegionStatistics(region);
+                if (stats != null && stats.getElementCountInMemory() >= 0) {
+                    out.write("parahub_cache_entries{region=\"" + region + "\"} " + stats.getElementCountInMemory() + "\n");
+                }
+            }
+
+            out.write("# HELP parahub_query_cache_hits_total Query cache hits\n");
+            out.write("# TYPE parahub_query_cache_hits_total counter\n");
+            out.write("parahub_query_cache_hits_total " + statistics.getQueryCacheHitCount() + "\n");
+            out.write("# HELP parahub_query_cache_misses_total Query cache misses\n");
+            out.write("# TYPE parahub_query_cache_misses_total counter\n");
+            out.write("parahub_query_cache_misses_total " + statistics.getQueryCacheMissCount() + "\n");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
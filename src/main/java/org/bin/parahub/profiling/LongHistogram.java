@@ -0,0 +1,143 @@
+package org.bin.parahub.profiling;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Гистограмма неотрицательных long-значений в духе HdrHistogram.
+ *
+ * Бакеты лог-линейные: каждая степень двойки делится на 32 равных поддиапазона,
+ * поэтому относительная ошибка перцентиля не больше ~3% на всём диапазоне
+ * (от наносекунд до десятков минут). Значения больше {@link #MAX_VALUE} обрезаются.
+ *
+ * Запись без блокировок и без аллокаций: счётчики разбиты на страйпы по id потока,
+ * каждый страйп — свой AtomicLongArray. Чтение ({@link #snapshot()}) складывает страйпы.
+ */
+public class LongHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    /** 2^40 нс ≈ 18 минут */
+    public static final long MAX_VALUE = (1L << 40) - 1;
+
+    private static final int BUCKET_COUNT = bucketIndex(MAX_VALUE) + 1;
+
+    private final AtomicLongArray[] stripes;
+    private final int stripeMask;
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    public LongHistogram() {
+        int cpus = Math.min(Runtime.getRuntime().availableProcessors(), 8);
+        int stripeCount = Integer.highestOneBit(Math.max(1, cpus - 1)) << 1;
+        this.stripes = new AtomicLongArray[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new AtomicLongArray(BUCKET_COUNT);
+        }
+        this.stripeMask = stripeCount - 1;
+    }
+
+    public void record(long value) {
+        long clamped = value < 0 ? 0 : Math.min(value, MAX_VALUE);
+        int stripe = (int) Thread.currentThread().threadId() & stripeMask;
+        stripes[stripe].incrementAndGet(bucketIndex(clamped));
+        sum.add(clamped);
+
+        long currentMax = max.get();
+        while (clamped > currentMax && !max.compareAndSet(currentMax, clamped)) {
+            currentMax = max.get();
+        }
+    }
+
+    public void reset() {
+        for (AtomicLongArray stripe : stripes) {
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                stripe.set(i, 0);
+            }
+        }
+        sum.reset();
+        max.set(0);
+    }
+
+    public Snapshot snapshot() {
+        long[] counts = new long[BUCKET_COUNT];
+        long total = 0;
+        for (AtomicLongArray stripe : stripes) {
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                long c = stripe.get(i);
+                counts[i] += c;
+                total += c;
+            }
+        }
+        return new Snapshot(counts, total, sum.sum(), max.get());
+    }
+
+    static int bucketIndex(long value) {
+        int msb = 63 - Long.numberOfLeadingZeros(value | 1);
+        int shift = Math.max(0, msb - SUB_BUCKET_BITS);
+        return (shift << SUB_BUCKET_BITS) + (int) (value >>> shift);
+    }
+
+    static long bucketLowerBound(int index) {
+        int shift = Math.max(0, (index >> SUB_BUCKET_BITS) - 1);
+        return (long) (index - (shift << SUB_BUCKET_BITS)) << shift;
+    }
+
+    static long bucketMidpoint(int index) {
+        int shift = Math.max(0, (index >> SUB_BUCKET_BITS) - 1);
+        return bucketLowerBound(index) + ((1L << shift) >> 1);
+    }
+
+    /**
+     * Согласованный срез гистограммы для вычисления перцентилей
+     */
+    public static final class Snapshot {
+        private final long[] counts;
+        private final long count;
+        private final long sum;
+        private final long max;
+
+        private Snapshot(long[] counts, long count, long sum, long max) {
+            this.counts = counts;
+            this.count = count;
+            this.sum = sum;
+            this.max = max;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getSum() {
+            return sum;
+        }
+
+        public long getMax() {
+            return max;
+        }
+
+        public double getMean() {
+            return count == 0 ? 0 : (double) sum / count;
+        }
+
+        /**
+         * @param percentile от 0 до 100
+         */
+        public long getValueAtPercentile(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(bucketMidpoint(i), max);
+                }
+            }
+            return max;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package org.bin.parahub.profiling;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Агрегированная статистика одного @Profiled метода: гистограмма задержек в наносекундах, число ошибок
+ * и (если включено Profiled#trackAllocations) гистограмма выделенных за вызов байт
+ */
+public class MethodStats {
+
+    private final String name;
+    private final LongHistogram latencyNanos = new LongHistogram();
+    private final LongAdder errors = new LongAdder();
+    /** создаётся при первой записи, чтобы не держать лишнюю гистограмму у методов без трекинга */
+    private volatile LongHistogram allocatedBytes;
+    private volatile long sinceNanos = System.nanoTime();
+
+    public MethodStats(String name) {
+        this.name = name;
+    }
+
+    public void record(long durationNanos, boolean failed) {
+        latencyNanos.record(durationNanos);
+        if (failed) {
+            errors.increment();
+        }
+    }
+
+    public void recordAllocation(long bytes) {
+        LongHistogram histogram = allocatedBytes;
+        if (histogram == null) {
+            synchronized (this) {
+                histogram = allocatedBytes;
+                if (histogram == null) {
+                    histogram = new LongHistogram();
+                    allocatedBytes = histogram;
+                }
+            }
+        }
+        histogram.record(bytes);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public LongHistogram.Snapshot latencySnapshot() {
+        return latencyNanos.snapshot();
+    }
+
+    /**
+     * @return null если аллокации для метода не отслеживаются
+     */
+    public LongHistogram.Snapshot allocationSnapshot() {
+        LongHistogram histogram = allocatedBytes;
+        return histogram != null ? histogram.snapshot() : null;
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    /**
+     * Секунды с момента создания или последнего сброса — знаменатель для throughput
+     */
+    public double getWindowSeconds() {
+        return Math.max((System.nanoTime() - sinceNanos) / 1e9, 1e-9);
+    }
+
+    public void reset() {
+        latencyNanos.reset();
+        errors.reset();
+        LongHistogram histogram = allocatedBytes;
+        if (histogram != null) {
+            histogram.reset();
+        }
+        sinceNanos = System.nanoTime();
+    }
+}
@@ -0,0 +1,115 @@
+package org.bin.parahub.profiling;
+
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.lang.reflect.Method;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Реестр статистики @Profiled методов и HTTP-эндпоинтов, выгрузка в текстовом формате Prometheus
+ */
+@Component
+public class ProfilingRegistry {
+
+    private static final double[] QUANTILES = {0.5, 0.95, 0.99};
+
+    /** по Method — чтобы на горячем пути не собирать строковый ключ */
+    private final ConcurrentHashMap<Method, MethodStats> byMethod = new ConcurrentHashMap<>();
+    /** перегруженные методы делят одну запись */
+    private final ConcurrentHashMap<String, MethodStats> byName = new ConcurrentHashMap<>();
+    /** ключ — "GET /api/spots/id/{id}" (шаблон маппинга, а не конкретный URI) */
+    private final ConcurrentHashMap<String, MethodStats> byEndpoint = new ConcurrentHashMap<>();
+
+    public MethodStats forMethod(Method method) {
+        MethodStats stats = byMethod.get(method);
+        if (stats != null) {
+            return stats;
+        }
+        return byMethod.computeIfAbsent(method,
+                m -> byName.computeIfAbsent(m.getDeclaringClass().getSimpleName() + "#" + m.getName(), MethodStats::new));
+    }
+
+    public MethodStats forEndpoint(String endpoint) {
+        MethodStats stats = byEndpoint.get(endpoint);
+        return stats != null ? stats : byEndpoint.computeIfAbsent(endpoint, MethodStats::new);
+    }
+
+    public void reset() {
+        byName.values().forEach(MethodStats::reset);
+        byEndpoint.values().forEach(MethodStats::reset);
+    }
+
+    public void writePrometheus(Writer out) {
+        Map<String, MethodStats> sorted = new TreeMap<>(byName);
+        try {
+            out.write("# HELP parahub_profiled_latency_seconds Latency of @Profiled methods\n");
+            out.write("# TYPE parahub_profiled_latency_seconds summary\n");
+            for (MethodStats stats : sorted.values()) {
+                LongHistogram.Snapshot snapshot = stats.latencySnapshot();
+                String label = "method=\"" + stats.getName() + "\"";
+                for (double q : QUANTILES) {
+                    out.write("parahub_profiled_latency_seconds{" + label + ",quantile=\"" + q + "\"} "
+                            + seconds(snapshot.getValueAtPercentile(q * 100)) + "\n");
+                }
+                out.write("parahub_profiled_latency_seconds_sum{" + label + "} " + seconds(snapshot.getSum()) + "\n");
+                out.write("parahub_profiled_latency_seconds_count{" + label + "} " + snapshot.getCount() + "\n");
+            }
+
+            out.write("# HELP parahub_profiled_latency_max_seconds Max latency of @Profiled methods\n");
+            out.write("# TYPE parahub_profiled_latency_max_seconds gauge\n");
+            for (MethodStats stats : sorted.values()) {
+                out.write("parahub_profiled_latency_max_seconds{method=\"" + stats.getName() + "\"} "
+                        + seconds(stats.latencySnapshot().getMax()) + "\n");
+            }
+
+            out.write("# HELP parahub_profiled_throughput_per_second Calls per second since start or last reset\n");
+            out.write("# TYPE parahub_profiled_throughput_per_second gauge\n");
+            for (MethodStats stats : sorted.values()) {
+                double rate = stats.latencySnapshot().getCount() / stats.getWindowSeconds();
+                out.write("parahub_profiled_throughput_per_second{method=\"" + stats.getName() + "\"} "
+                        + String.format(Locale.ROOT, "%.3f", rate) + "\n");
+            }
+
+            out.write("# HELP parahub_profiled_errors_total Calls of @Profiled methods that threw\n");
+            out.write("# TYPE parahub_profiled_errors_total counter\n");
+            for (MethodStats stats : sorted.values()) {
+                out.write("parahub_profiled_errors_total{method=\"" + stats.getName() + "\"} " + stats.getErrors() + "\n");
+            }
+
+            writeAllocations(out, "parahub_profiled_allocated_bytes", "method",
+                    "Bytes allocated per call of @Profiled methods with trackAllocations", sorted);
+            writeAllocations(out, "parahub_endpoint_allocated_bytes", "endpoint",
+                    "Bytes allocated by the request thread per HTTP request", new TreeMap<>(byEndpoint));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeAllocations(Writer out, String metric, String labelName, String help,
+                                         Map<String, MethodStats> stats) throws IOException {
+        out.write("# HELP " + metric + " " + help + "\n");
+        out.write("# TYPE " + metric + " summary\n");
+        for (MethodStats entry : stats.values()) {
+            LongHistogram.Snapshot snapshot = entry.allocationSnapshot();
+            if (snapshot == null) {
+                continue;
+            }
+            String label = labelName + "=\"" + entry.getName() + "\"";
+            for (double q : QUANTILES) {
+                out.write(metric + "{" + label + ",quantile=\"" + q + "\"} " + snapshot.getValueAtPercentile(q * 100) + "\n");
+            }
+            out.write(metric + "_sum{" + label + "} " + snapshot.getSum() + "\n");
+            out.write(metric + "_count{" + label + "} " + snapshot.getCount() + "\n");
+        }
+    }
+
+    private static String seconds(long nanos) {
+        return String.format(Locale.ROOT, "%.9f", nanos / 1e9);
+    }
+}
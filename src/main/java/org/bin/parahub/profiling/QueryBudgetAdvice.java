@@ -0,0 +1,68 @@
+package org.bin.parahub.profiling;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.bin.parahub.annotation.QueryBudget;
+import org.bin.parahub.exception.QueryBudgetExceededException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.List;
+
+/**
+ * Режим тестов (parahub.sql.budget.enforce): ответ эндпоинта, превысившего @QueryBudget или сделавшего N+1,
+ * заменяется на 500 до записи тела. Проверка — один раз на запрос, чтобы не сработать на теле самой ошибки.
+ */
+@ControllerAdvice
+public class QueryBudgetAdvice implements ResponseBodyAdvice<Object> {
+
+    private static final String CHECKED = QueryBudgetAdvice.class.getName() + ".checked";
+
+    private final boolean enforce;
+    private final int nPlusOneThreshold;
+
+    public QueryBudgetAdvice(
+            @Value("${parahub.sql.enabled:false}") boolean enabled,
+            @Value("${parahub.sql.budget.enforce:false}") boolean enforce,
+            @Value("${parahub.sql.n-plus-one-threshold:5}") int nPlusOneThreshold) {
+        this.enforce = enabled && enforce;
+        this.nPlusOneThreshold = nPlusOneThreshold;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return enforce;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        SqlStats stats = SqlStats.current();
+        if (stats == null || !(request instanceof ServletServerHttpRequest servletRequest)) {
+            return body;
+        }
+        HttpServletRequest httpRequest = servletRequest.getServletRequest();
+        if (httpRequest.getAttribute(CHECKED) != null) {
+            return body;
+        }
+        httpRequest.setAttribute(CHECKED, Boolean.TRUE);
+
+        QueryBudget budget = SqlStatsFilter.budgetOf(httpRequest);
+        if (stats.exceeds(budget)) {
+            throw new QueryBudgetExceededException(
+                    "Query budget exceeded: " + stats.getStatements() + " SQL > " + budget.value());
+        }
+        List<String> repeated = stats.repeatedSelects(nPlusOneThreshold);
+        if (!repeated.isEmpty()) {
+            throw new QueryBudgetExceededException("N+1 detected: " + repeated);
+        }
+        return body;
+    }
+}
@@ -0,0 +1,43 @@
+package org.bin.parahub.profiling;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Оборачивает DataSource в datasource-proxy для SqlStats.
+ * Подсчёт строк проксирует каждый ResultSet (вызов next()/getXxx() идёт через слушатель) — заметно на
+ * потоковой выдаче сотен тысяч строк, поэтому отключается отдельно (parahub.sql.count-rows).
+ */
+@Component
+public class SqlDataSourcePostProcessor implements BeanPostProcessor {
+
+    private final boolean enabled;
+    private final boolean countRows;
+
+    public SqlDataSourcePostProcessor(
+            @Value("${parahub.sql.enabled:false}") boolean enabled,
+            @Value("${parahub.sql.count-rows:false}") boolean countRows) {
+        this.enabled = enabled;
+        this.countRows = countRows;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!enabled || !(bean instanceof DataSource dataSource) || bean instanceof ProxyDataSource) {
+            return bean;
+        }
+        SqlStatsListener listener = new SqlStatsListener();
+        ProxyDataSourceBuilder builder = ProxyDataSourceBuilder.create(dataSource)
+                .name(beanName)
+                .listener(listener);
+        if (countRows) {
+            builder.proxyResultSet().methodListener(listener);
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,117 @@
+package org.bin.parahub.profiling;
+
+import org.bin.parahub.annotation.QueryBudget;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * SQL одного HTTP-запроса: число выполнений, время в JDBC, прочитанные строки и счётчик SELECT'ов по форме.
+ *
+ * Живёт в ThreadLocal потока запроса между SqlStats.start() и finish() (SqlStatsFilter; у потоковых ответов —
+ * ещё и в потоке MVC-исполнителя через bind()), пополняется
+ * SqlStatsListener'ом. Форма запроса — текст с нормализованными пробелами и списками IN (?, ?, …),
+ * так что один и тот же SELECT с разными параметрами — одна форма; много одинаковых форм — N+1.
+ */
+public final class SqlStats {
+
+    private static final ThreadLocal<SqlStats> CURRENT = new ThreadLocal<>();
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(\\s*,\\s*\\?)*\\s*\\)");
+
+    private int statements;
+    private long jdbcNanos;
+    private long rows;
+    private long queryStart;
+    private final Map<String, Integer> selects = new HashMap<>();
+
+    SqlStats() {
+    }
+
+    static SqlStats start() {
+        SqlStats stats = new SqlStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    /**
+     * Тот же SqlStats в потоке, который дописывает ответ запроса (StreamingResponseBody, см. SqlStatsFilter)
+     */
+    void bind() {
+        CURRENT.set(this);
+    }
+
+    /**
+     * null вне HTTP-запроса (планировщик, @Async, старт приложения)
+     */
+    static SqlStats current() {
+        return CURRENT.get();
+    }
+
+    void finish() {
+        CURRENT.remove();
+    }
+
+    void beforeQuery() {
+        queryStart = System.nanoTime();
+    }
+
+    void afterQuery(String sql) {
+        jdbcNanos += System.nanoTime() - queryStart;
+        statements++;
+        if (sql.regionMatches(true, skipBlank(sql), "select", 0, 6)) {
+            selects.merge(shape(sql), 1, Integer::sum);
+        }
+    }
+
+    void addRow() {
+        rows++;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getJdbcNanos() {
+        return jdbcNanos;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    /**
+     * Формы SELECT'ов, выполненные не меньше threshold раз, с числом повторов
+     */
+    public List<String> repeatedSelects(int threshold) {
+        List<String> repeated = new ArrayList<>();
+        selects.forEach((shape, count) -> {
+            if (count >= threshold) {
+                repeated.add(count + "× " + shape);
+            }
+        });
+        return repeated;
+    }
+
+    public boolean exceeds(QueryBudget budget) {
+        return budget != null && statements > budget.value();
+    }
+
+    static String shape(String sql) {
+        String normalized = WHITESPACE.matcher(sql.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+        return IN_LIST.matcher(normalized).replaceAll("(?…)");
+    }
+
+    private static int skipBlank(String sql) {
+        int i = 0;
+        while (i < sql.length() && Character.isWhitespace(sql.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+}
@@ -0,0 +1,218 @@
+package org.bin.parahub.profiling;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.bin.parahub.annotation.QueryBudget;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+
+/**
+ * SQL на HTTP-запрос (см. SqlStats): по эндпоинтам в SqlStatsRegistry, N+1 — предупреждением в PROFILING лог.
+ *
+ * Стоит первым в цепочке, чтобы учесть и запросы аутентификации. С parahub.sql.headers.enabled (dev)
+ * итоги уходят в заголовки X-SQL-*: они выставляются в момент, когда начинается запись тела, — к этому
+ * времени обычный контроллер уже отработал; у потоковых ответов в заголовках только то, что было до первого байта.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SqlStatsFilter extends OncePerRequestFilter {
+
+    private static final Logger profilingLogger = LoggerFactory.getLogger("PROFILING");
+    private static final String ASYNC_INTERCEPTOR = SqlStatsFilter.class.getName();
+
+    private final SqlStatsRegistry sqlStatsRegistry;
+    private final boolean enabled;
+    private final boolean headers;
+    private final int nPlusOneThreshold;
+
+    public SqlStatsFilter(
+            SqlStatsRegistry sqlStatsRegistry,
+            @Value("${parahub.sql.enabled:false}") boolean enabled,
+            @Value("${parahub.sql.headers.enabled:false}") boolean headers,
+            @Value("${parahub.sql.n-plus-one-threshold:5}") int nPlusOneThreshold) {
+        this.sqlStatsRegistry = sqlStatsRegistry;
+        this.enabled = enabled;
+        this.headers = headers;
+        this.nPlusOneThreshold = nPlusOneThreshold;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain chain
+    ) throws ServletException, IOException {
+        SqlStats stats = SqlStats.start();
+        SqlHeadersResponse withHeaders = headers ? new SqlHeadersResponse(response, stats) : null;
+        // StreamingResponseBody и прочие Callable выполняются в потоке MVC-исполнителя — туда же переносим SqlStats
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(ASYNC_INTERCEPTOR, new BindSqlStats(stats));
+        try {
+            chain.doFilter(request, withHeaders != null ? withHeaders : response);
+        } finally {
+            stats.finish();
+            if (withHeaders != null) {
+                withHeaders.writeHeaders();
+            }
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new RecordOnComplete(request, stats));
+            } else {
+                record(request, stats);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, SqlStats stats) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String endpoint = request.getMethod() + " " + (pattern != null ? pattern : "UNMATCHED");
+        List<String> repeated = stats.repeatedSelects(nPlusOneThreshold);
+        QueryBudget budget = budgetOf(request);
+        sqlStatsRegistry.record(endpoint, stats, !repeated.isEmpty(), stats.exceeds(budget));
+        if (!repeated.isEmpty()) {
+            profilingLogger.warn("N+1 [{}] {} SQL: {}", endpoint, stats.getStatements(), repeated);
+        }
+        if (stats.exceeds(budget)) {
+            profilingLogger.warn("Query budget [{}] {} SQL > {}", endpoint, stats.getStatements(), budget.value());
+        }
+    }
+
+    static QueryBudget budgetOf(HttpServletRequest request) {
+        return request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod handler
+                ? handler.getMethodAnnotation(QueryBudget.class)
+                : null;
+    }
+
+    /**
+     * Привязывает SqlStats запроса к потоку, в котором MVC выполняет Callable/StreamingResponseBody
+     */
+    private record BindSqlStats(SqlStats stats) implements CallableProcessingInterceptor {
+
+        @Override
+        public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+            stats.bind();
+        }
+
+        @Override
+        public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+            stats.finish();
+        }
+    }
+
+    /**
+     * Асинхронный запрос учитывается, когда завершится весь ответ, а не первый проход фильтра
+     */
+    private final class RecordOnComplete implements AsyncListener {
+
+        private final HttpServletRequest request;
+        private final SqlStats stats;
+
+        RecordOnComplete(HttpServletRequest request, SqlStats stats) {
+            this.request = request;
+            this.stats = stats;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            record(request, stats);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+
+    /**
+     * Дописывает X-SQL-* перед первым байтом тела (или в конце запроса, если тела нет)
+     */
+    private static final class SqlHeadersResponse extends HttpServletResponseWrapper {
+
+        private final SqlStats stats;
+        private boolean written;
+
+        SqlHeadersResponse(HttpServletResponse response, SqlStats stats) {
+            super(response);
+            this.stats = stats;
+        }
+
+        void writeHeaders() {
+            if (written || isCommitted()) {
+                return;
+            }
+            written = true;
+            setHeader("X-SQL-Statements", String.valueOf(stats.getStatements()));
+            setHeader("X-SQL-Time-Ms", String.format(Locale.ROOT, "%.3f", stats.getJdbcNanos() / 1e6));
+            setHeader("X-SQL-Rows", String.valueOf(stats.getRows()));
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeHeaders();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeHeaders();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeaders();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeHeaders();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeHeaders();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            writeHeaders();
+            super.sendRedirect(location);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package org.bin.parahub.profiling;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.sql.ResultSet;
+import java.util.List;
+
+/**
+ * Слушатель datasource-proxy: пишет выполнения и строки в SqlStats текущего запроса.
+ * Батч (executeBatch) — одно выполнение, как и один round-trip к базе.
+ */
+public class SqlStatsListener implements QueryExecutionListener, MethodExecutionListener {
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        SqlStats stats = SqlStats.current();
+        if (stats != null) {
+            stats.beforeQuery();
+        }
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        SqlStats stats = SqlStats.current();
+        if (stats != null) {
+            stats.afterQuery(queryInfoList.isEmpty() ? "" : queryInfoList.get(0).getQuery());
+        }
+    }
+
+    @Override
+    public void beforeMethod(MethodExecutionContext executionContext) {
+    }
+
+    /**
+     * Вызывается только при parahub.sql.count-rows — для этого оборачиваются ResultSet'ы
+     */
+    @Override
+    public void afterMethod(MethodExecutionContext executionContext) {
+        if (executionContext.getTarget() instanceof ResultSet
+                && "next".equals(executionContext.getMethod().getName())
+                && Boolean.TRUE.equals(executionContext.getResult())) {
+            SqlStats stats = SqlStats.current();
+            if (stats != null) {
+                stats.addRow();
+            }
+        }
+    }
+}
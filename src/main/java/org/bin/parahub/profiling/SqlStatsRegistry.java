@@ -0,0 +1,119 @@
+package org.bin.parahub.profiling;
+
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * SQL по эндпоинтам ("GET /api/spots/id/{id}"): распределение числа выполнений и времени JDBC на запрос,
+ * строки, запросы с N+1 и с превышением @QueryBudget. Выгрузка — в /api/admin/profiling/metrics.
+ */
+@Component
+public class SqlStatsRegistry {
+
+    private static final double[] QUANTILES = {0.5, 0.95, 0.99};
+
+    private final ConcurrentHashMap<String, Endpoint> byEndpoint = new ConcurrentHashMap<>();
+
+    public void record(String endpoint, SqlStats stats, boolean nPlusOne, boolean overBudget) {
+        Endpoint entry = byEndpoint.get(endpoint);
+        if (entry == null) {
+            entry = byEndpoint.computeIfAbsent(endpoint, name -> new Endpoint());
+        }
+        entry.statements.record(stats.getStatements());
+        entry.jdbcNanos.record(stats.getJdbcNanos());
+        entry.rows.add(stats.getRows());
+        if (nPlusOne) {
+            entry.nPlusOne.increment();
+        }
+        if (overBudget) {
+            entry.overBudget.increment();
+        }
+    }
+
+    /**
+     * Среднее число SQL на запрос эндпоинта с последнего reset(), -1 — если запросов не было
+     */
+    public double statementsPerRequest(String endpoint) {
+        Endpoint entry = byEndpoint.get(endpoint);
+        if (entry == null) {
+            return -1;
+        }
+        LongHistogram.Snapshot snapshot = entry.statements.snapshot();
+        return snapshot.getCount() == 0 ? -1 : (double) snapshot.getSum() / snapshot.getCount();
+    }
+
+    public void reset() {
+        byEndpoint.clear();
+    }
+
+    public void writePrometheus(Writer out) {
+        Map<String, Endpoint> sorted = new TreeMap<>(byEndpoint);
+        try {
+            out.write("# HELP parahub_sql_statements_per_request SQL statements executed per HTTP request\n");
+            out.write("# TYPE parahub_sql_statements_per_request summary\n");
+            for (Map.Entry<String, Endpoint> entry : sorted.entrySet()) {
+                LongHistogram.Snapshot snapshot = entry.getValue().statements.snapshot();
+                String label = "endpoint=\"" + entry.getKey() + "\"";
+                for (double q : QUANTILES) {
+                    out.write("parahub_sql_statements_per_request{" + label + ",quantile=\"" + q + "\"} "
+                            + snapshot.getValueAtPercentile(q * 100) + "\n");
+                }
+                out.write("parahub_sql_statements_per_request_sum{" + label + "} " + snapshot.getSum() + "\n");
+                out.write("parahub_sql_statements_per_request_count{" + label + "} " + snapshot.getCount() + "\n");
+            }
+
+            out.write("# HELP parahub_sql_time_seconds Time spent in JDBC execute calls per HTTP request\n");
+            out.write("# TYPE parahub_sql_time_seconds summary\n");
+            for (Map.Entry<String, Endpoint> entry : sorted.entrySet()) {
+                LongHistogram.Snapshot snapshot = entry.getValue().jdbcNanos.snapshot();
+                String label = "endpoint=\"" + entry.getKey() + "\"";
+                for (double q : QUANTILES) {
+                    out.write("parahub_sql_time_seconds{" + label + ",quantile=\"" + q + "\"} "
+                            + seconds(snapshot.getValueAtPercentile(q * 100)) + "\n");
+                }
+                out.write("parahub_sql_time_seconds_sum{" + label + "} " + seconds(snapshot.getSum()) + "\n");
+                out.write("parahub_sql_time_seconds_count{" + label + "} " + snapshot.getCount() + "\n");
+            }
+
+            out.write("# HELP parahub_sql_rows_total Rows read from result sets (parahub.sql.count-rows)\n");
+            out.write("# TYPE parahub_sql_rows_total counter\n");
+            for (Map.Entry<String, Endpoint> entry : sorted.entrySet()) {
+                out.write("parahub_sql_rows_total{endpoint=\"" + entry.getKey() + "\"} " + entry.getValue().rows.sum() + "\n");
+            }
+
+            out.write("# HELP parahub_sql_n_plus_one_total Requests that repeated one SELECT shape at least n-plus-one-threshold times\n");
+            out.write("# TYPE parahub_sql_n_plus_one_total counter\n");
+            for (Map.Entry<String, Endpoint> entry : sorted.entrySet()) {
+                out.write("parahub_sql_n_plus_one_total{endpoint=\"" + entry.getKey() + "\"} " + entry.getValue().nPlusOne.sum() + "\n");
+            }
+
+            out.write("# HELP parahub_sql_over_budget_total Requests that executed more statements than @QueryBudget\n");
+            out.write("# TYPE parahub_sql_over_budget_total counter\n");
+            for (Map.Entry<String, Endpoint> entry : sorted.entrySet()) {
+                out.write("parahub_sql_over_budget_total{endpoint=\"" + entry.getKey() + "\"} " + entry.getValue().overBudget.sum() + "\n");
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String seconds(long nanos) {
+        return String.format(Locale.ROOT, "%.9f", nanos / 1e9);
+    }
+
+    private static final class Endpoint {
+        final LongHistogram statements = new LongHistogram();
+        final LongHistogram jdbcNanos = new LongHistogram();
+        final LongAdder rows = new LongAdder();
+        final LongAdder nPlusOne = new LongAdder();
+        final LongAdder overBudget = new LongAdder();
+    }
+}
@@ -0,0 +1,36 @@
+package org.bin.parahub.profiling.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * JFR-событие на весь жизненный цикл HTTP-запроса (см. JfrRequestFilter)
+ */
+@Name("org.bin.parahub.HttpRequest")
+@Label("HTTP Request")
+@Description("Lifecycle of an HTTP request handled by ParaHub")
+@Category({"ParaHub", "HTTP"})
+@StackTrace(false)
+@Threshold("0 ms")
+public class HttpRequestEvent extends jdk.jfr.Event {
+
+    @Label("Method")
+    public String method;
+
+    @Label("URI")
+    public String uri;
+
+    @Label("Handler Pattern")
+    @Description("Matched request mapping, e.g. /api/spots/id/{id}")
+    public String pattern;
+
+    @Label("Status")
+    public int status;
+
+    @Label("Outcome")
+    public String outcome;
+}
@@ -0,0 +1,191 @@
+package org.bin.parahub.profiling.jfr;
+
+import jakarta.annotation.PostConstruct;
+import jdk.jfr.Configuration;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.bin.parahub.exception.JfrRecordingStateException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Управление записью Java Flight Recorder из приложения: старт, стоп, дамп в файл.
+ * Одновременно ведётся не больше одной записи (повторный старт, стоп без записи — 409). Пороги и включение
+ * событий ParaHub задаются в application.properties (parahub.jfr.*).
+ *
+ * Каталог с дампами чистится после каждого дампа: остаются не больше max-files самых новых .jfr
+ * и не старше max-age-days.
+ */
+@Service
+public class JfrRecordingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(JfrRecordingService.class);
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final Path directory;
+    private final EventSetting profiledMethod;
+    private final EventSetting httpRequest;
+    private final EventSetting repositoryCall;
+    private final int maxFiles;
+    private final Duration maxFileAge;
+
+    private Recording recording;
+
+    public JfrRecordingService(
+            @Value("${parahub.jfr.directory:recordings}") String directory,
+            @Value("${parahub.jfr.profiled-method.enabled:true}") boolean profiledMethodEnabled,
+            @Value("${parahub.jfr.profiled-method.threshold-ms:1}") long profiledMethodThresholdMs,
+            @Value("${parahub.jfr.http-request.enabled:true}") boolean httpRequestEnabled,
+            @Value("${parahub.jfr.http-request.threshold-ms:0}") long httpRequestThresholdMs,
+            @Value("${parahub.jfr.repository-call.enabled:true}") boolean repositoryCallEnabled,
+            @Value("${parahub.jfr.repository-call.threshold-ms:1}") long repositoryCallThresholdMs,
+            @Value("${parahub.jfr.max-files:20}") int maxFiles,
+            @Value("${parahub.jfr.max-age-days:7}") int maxAgeDays) {
+        this.directory = Path.of(directory);
+        this.profiledMethod = new EventSetting(ProfiledMethodEvent.class, profiledMethodEnabled, profiledMethodThresholdMs);
+        this.httpRequest = new EventSetting(HttpRequestEvent.class, httpRequestEnabled, httpRequestThresholdMs);
+        this.repositoryCall = new EventSetting(RepositoryCallEvent.class, repositoryCallEnabled, repositoryCallThresholdMs);
+        this.maxFiles = maxFiles;
+        this.maxFileAge = Duration.ofDays(maxAgeDays);
+    }
+
+    /**
+     * Регистрируем события заранее, чтобы они были видны в JMC и внешних записях (-XX:StartFlightRecording)
+     */
+    @PostConstruct
+    public void registerEvents() {
+        FlightRecorder.register(ProfiledMethodEvent.class);
+        FlightRecorder.register(HttpRequestEvent.class);
+        FlightRecorder.register(RepositoryCallEvent.class);
+    }
+
+    /**
+     * @param settings встроенная конфигурация JFR: "default" (~1% overhead) или "profile"
+     * @param maxAge   сколько хранить данные в буфере записи
+     */
+    public synchronized String start(String settings, Duration maxAge) {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            throw new JfrRecordingStateException("JFR recording is already running: " + recording.getName());
+        }
+        try {
+            recording = new Recording(Configuration.getConfiguration(settings));
+        } catch (IOException | ParseException e) {
+            throw new IllegalArgumentException("Unknown JFR settings: " + settings, e);
+        }
+        recording.setName("parahub-" + LocalDateTime.now().format(FILE_TIMESTAMP));
+        recording.setToDisk(true);
+        recording.setMaxAge(maxAge);
+        profiledMethod.applyTo(recording);
+        httpRequest.applyTo(recording);
+        repositoryCall.applyTo(recording);
+        recording.start();
+        logger.info("JFR recording {} started with '{}' settings", recording.getName(), settings);
+        return recording.getName();
+    }
+
+    /**
+     * Остановить запись и сохранить её в файл
+     */
+    public synchronized Path stop() {
+        Recording current = requireRecording();
+        Path file = dump(current);
+        current.stop();
+        current.close();
+        recording = null;
+        logger.info("JFR recording {} stopped, saved to {}", current.getName(), file);
+        return file;
+    }
+
+    /**
+     * Снимок текущей записи в файл, запись продолжается
+     */
+    public synchronized Path dump() {
+        return dump(requireRecording());
+    }
+
+    public synchronized boolean isRunning() {
+        return recording != null && recording.getState() == RecordingState.RUNNING;
+    }
+
+    private Path dump(Recording current) {
+        try {
+            Files.createDirectories(directory);
+            Path file = directory.resolve(current.getName() + "-" + LocalDateTime.now().format(FILE_TIMESTAMP) + ".jfr");
+            current.dump(file);
+            pruneDumps(file);
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Удалить дампы старше maxFileAge и сверх maxFiles самых новых; только что снятый не трогается
+     */
+    private void pruneDumps(Path keep) {
+        List<Path> dumps;
+        try (Stream<Path> files = Files.list(directory)) {
+            dumps = files.filter(path -> path.getFileName().toString().endsWith(".jfr") && !path.equals(keep))
+                    .sorted(Comparator.comparing(JfrRecordingService::lastModified).reversed())
+                    .toList();
+        } catch (IOException e) {
+            logger.warn("Не удалось прочитать каталог записей JFR {}: {}", directory, e.getMessage());
+            return;
+        }
+        Instant cutoff = Instant.now().minus(maxFileAge);
+        for (int i = 0; i < dumps.size(); i++) {
+            Path dump = dumps.get(i);
+            // keep уже занимает одно место из maxFiles
+            if (i + 1 >= maxFiles || lastModified(dump).isBefore(cutoff)) {
+                try {
+                    Files.deleteIfExists(dump);
+                } catch (IOException e) {
+                    logger.warn("Не удалось удалить запись JFR {}: {}", dump, e.getMessage());
+                }
+            }
+        }
+    }
+
+    private static Instant lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toInstant();
+        } catch (IOException e) {
+            return Instant.EPOCH;
+        }
+    }
+
+    private Recording requireRecording() {
+        if (recording == null) {
+            throw new JfrRecordingStateException("No JFR recording is running");
+        }
+        return recording;
+    }
+
+    private record EventSetting(Class<? extends Event> eventClass, boolean enabled, long thresholdMs) {
+
+        void applyTo(Recording recording) {
+            if (enabled) {
+                recording.enable(eventClass).withThreshold(Duration.ofMillis(thresholdMs));
+            } else {
+                recording.disable(eventClass);
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package org.bin.parahub.profiling.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * JFR-событие на каждый вызов @Profiled метода (см. ProfilingAspect).
+ * Длительность и поток JFR записывает сам, поэтому событие коррелирует с GC, аллокациями и блокировками.
+ */
+@Name("org.bin.parahub.ProfiledMethod")
+@Label("Profiled Method")
+@Description("Invocation of a method annotated with @Profiled")
+@Category({"ParaHub", "Profiling"})
+@StackTrace(false)
+@Threshold("1 ms")
+public class ProfiledMethodEvent extends jdk.jfr.Event {
+
+    @Label("Class")
+    public String className;
+
+    @Label("Method")
+    public String methodName;
+
+    @Label("Outcome")
+    @Description("OK or the simple name of the thrown exception")
+    public String outcome;
+
+    @Label("Arguments")
+    public String arguments;
+}
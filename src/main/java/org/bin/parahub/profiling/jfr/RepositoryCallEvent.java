@@ -0,0 +1,29 @@
+package org.bin.parahub.profiling.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * JFR-событие на вызов Spring Data репозитория (см. RepositoryJfrAspect)
+ */
+@Name("org.bin.parahub.RepositoryCall")
+@Label("Repository Call")
+@Description("Invocation of a Spring Data repository method")
+@Category({"ParaHub", "Database"})
+@StackTrace(true)
+@Threshold("1 ms")
+public class RepositoryCallEvent extends jdk.jfr.Event {
+
+    @Label("Repository")
+    public String repository;
+
+    @Label("Method")
+    public String methodName;
+
+    @Label("Outcome")
+    public String outcome;
+}
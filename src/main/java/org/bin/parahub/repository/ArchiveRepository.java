@@ -0,0 +1,211 @@
+package org.bin.parahub.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.bin.parahub.dto.ArchiveDTO;
+import org.bin.parahub.entity.Spot;
+import org.bin.parahub.entity.TerrainPoint;
+import org.bin.parahub.entity.Wind;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Перенос давно выключенных спотов и точек в *_archive и обратно (см. ArchiveService). PostgreSQL.
+ *
+ * Строки копируются INSERT … SELECT с явным списком колонок и удаляются DELETE … RETURNING, всё на стороне базы.
+ * Пачка выбирается FOR UPDATE SKIP LOCKED: строки, которые в этот момент правит админ, ждут следующего запуска,
+ * а правка, начатая после выбора, дождётся коммита и уже не найдёт строку. Спот со своими точками и ветрами
+ * уходит целиком; споты с полётами и точки, на которые ссылаются полёты, остаются на месте.
+ *
+ * SQL идёт мимо Hibernate, поэтому перенесённые сущности, коллекции их спотов и query cache сбрасываются вручную.
+ * Методы вызывать в транзакции.
+ */
+@Repository
+public class ArchiveRepository {
+
+    private static final String SPOT_COLUMNS = "id, name, latitude, longitude, elevation, suitable_winds, xc_difficulty, "
+            + "learning_difficulty, popularity, view_count, search_hits, best_season, accessibility, description";
+    private static final String POINT_COLUMNS = "id, name, type, latitude, longitude, elevation, description, spot_id";
+    private static final String WIND_COLUMNS = "id, direction, min_speed, max_speed, spot_id";
+
+    private static final String TERRAIN_POINTS_ROLE = Spot.class.getName() + ".terrainPoints";
+    private static final String WINDS_ROLE = Spot.class.getName() + ".winds";
+
+    private static final String ARCHIVABLE_SPOTS_SQL = """
+            SELECT s.id FROM spots s
+            WHERE NOT s.is_enabled AND s.disabled_at < :cutoff AND s.id > :afterId
+              AND NOT EXISTS (SELECT 1 FROM flights f WHERE f.spot_id = s.id)
+            ORDER BY s.id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED""";
+
+    private static final String ARCHIVABLE_POINTS_SQL = """
+            SELECT p.id FROM terrain_points p
+            WHERE NOT p.is_enabled AND p.disabled_at < :cutoff AND p.id > :afterId
+              AND NOT EXISTS (SELECT 1 FROM flights f WHERE f.takeoff_id = p.id)
+            ORDER BY p.id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED""";
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final Cache cache;
+
+    public ArchiveRepository(NamedParameterJdbcTemplate jdbc, EntityManagerFactory entityManagerFactory) {
+        this.jdbc = jdbc;
+        this.cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+
+    /**
+     * Выключенные до появления disabled_at строки: отсчёт срока хранения начинается с этого момента
+     */
+    public int stampDisabled() {
+        int stamped = jdbc.getJdbcOperations().update(
+                "UPDATE spots SET disabled_at = now() WHERE NOT is_enabled AND disabled_at IS NULL");
+        stamped += jdbc.getJdbcOperations().update(
+                "UPDATE terrain_points SET disabled_at = now() WHERE NOT is_enabled AND disabled_at IS NULL");
+        if (stamped > 0) {
+            cache.evict(Spot.class);
+            cache.evict(TerrainPoint.class);
+        }
+        return stamped;
+    }
+
+    public List<Long> lockArchivableSpots(Timestamp cutoff, long afterId, int limit) {
+        return jdbc.queryForList(ARCHIVABLE_SPOTS_SQL, window(cutoff, afterId, limit), Long.class);
+    }
+
+    public List<Long> lockArchivableTerrainPoints(Timestamp cutoff, long afterId, int limit) {
+        return jdbc.queryForList(ARCHIVABLE_POINTS_SQL, window(cutoff, afterId, limit), Long.class);
+    }
+
+    /**
+     * Споты вместе со всеми их точками и ветрами; archived_at у всех — время начала транзакции (now())
+     */
+    public ArchiveDTO.Run moveSpots(List<Long> spotIds) {
+        Map<String, List<Long>> ids = Map.of("ids", spotIds);
+        jdbc.update("INSERT INTO spots_archive (" + SPOT_COLUMNS + ", is_enabled, disabled_at, archived_at) "
+                + "SELECT " + SPOT_COLUMNS + ", is_enabled, disabled_at, now() FROM spots WHERE id IN (:ids)", ids);
+        jdbc.update("INSERT INTO terrain_points_archive (" + POINT_COLUMNS + ", is_enabled, disabled_at, archived_at) "
+                + "SELECT " + POINT_COLUMNS + ", is_enabled, disabled_at, now() FROM terrain_points WHERE spot_id IN (:ids)", ids);
+        jdbc.update("INSERT INTO winds_archive (" + WIND_COLUMNS + ", archived_at) "
+                + "SELECT " + WIND_COLUMNS + ", now() FROM winds WHERE spot_id IN (:ids)", ids);
+
+        List<Long> windIds = jdbc.queryForList("DELETE FROM winds WHERE spot_id IN (:ids) RETURNING id", ids, Long.class);
+        List<Long> pointIds = jdbc.queryForList("DELETE FROM terrain_points WHERE spot_id IN (:ids) RETURNING id", ids, Long.class);
+        jdbc.update("DELETE FROM spots WHERE id IN (:ids)", ids);
+
+        windIds.forEach(id -> cache.evict(Wind.class, id));
+        pointIds.forEach(id -> cache.evict(TerrainPoint.class, id));
+        for (Long spotId : spotIds) {
+            cache.evict(Spot.class, spotId);
+            cache.evictCollectionData(TERRAIN_POINTS_ROLE, spotId);
+            cache.evictCollectionData(WINDS_ROLE, spotId);
+        }
+        cache.evictQueryRegions();
+        return new ArchiveDTO.Run(spotIds.size(), pointIds.size(), windIds.size());
+    }
+
+    /**
+     * Отдельно выключенные точки живых спотов
+     */
+    public int moveTerrainPoints(List<Long> pointIds) {
+        Map<String, List<Long>> ids = Map.of("ids", pointIds);
+        jdbc.update("INSERT INTO terrain_points_archive (" + POINT_COLUMNS + ", is_enabled, disabled_at, archived_at) "
+                + "SELECT " + POINT_COLUMNS + ", is_enabled, disabled_at, now() FROM terrain_points WHERE id IN (:ids)", ids);
+        List<Long> spotIds = jdbc.queryForList(
+                "DELETE FROM terrain_points WHERE id IN (:ids) RETURNING spot_id", ids, Long.class);
+
+        pointIds.forEach(id -> cache.evict(TerrainPoint.class, id));
+        spotIds.stream().distinct().forEach(spotId -> cache.evictCollectionData(TERRAIN_POINTS_ROLE, spotId));
+        cache.evictQueryRegions();
+        return spotIds.size();
+    }
+
+    /**
+     * Вернуть спот включённым вместе с точками и ветрами, архивированными с ним; выключенные точки получают
+     * новый disabled_at, чтобы не уйти в архив следующим же запуском
+     *
+     * @return false, если спота нет в архиве
+     */
+    public boolean restoreSpot(long spotId) {
+        List<Timestamp> archivedAt = jdbc.queryForList(
+                "SELECT archived_at FROM spots_archive WHERE id = :id FOR UPDATE", Map.of("id", spotId), Timestamp.class);
+        if (archivedAt.isEmpty()) {
+            return false;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource("id", spotId).addValue("archivedAt", archivedAt.get(0));
+        jdbc.update("INSERT INTO spots (" + SPOT_COLUMNS + ", is_enabled, disabled_at) "
+                + "SELECT " + SPOT_COLUMNS + ", true, NULL FROM spots_archive WHERE id = :id", params);
+        jdbc.update("INSERT INTO terrain_points (" + POINT_COLUMNS + ", is_enabled, disabled_at) "
+                + "SELECT " + POINT_COLUMNS + ", is_enabled, CASE WHEN is_enabled THEN NULL ELSE now() END "
+                + "FROM terrain_points_archive WHERE spot_id = :id AND archived_at = :archivedAt", params);
+        jdbc.update("INSERT INTO winds (" + WIND_COLUMNS + ") "
+                + "SELECT " + WIND_COLUMNS + " FROM winds_archive WHERE spot_id = :id AND archived_at = :archivedAt", params);
+        jdbc.update("DELETE FROM winds_archive WHERE spot_id = :id AND archived_at = :archivedAt", params);
+        jdbc.update("DELETE FROM terrain_points_archive WHERE spot_id = :id AND archived_at = :archivedAt", params);
+        jdbc.update("DELETE FROM spots_archive WHERE id = :id", params);
+
+        // поиск по имени и по spotId мог закэшировать пустой результат
+        cache.evictQueryRegions();
+        return true;
+    }
+
+    /**
+     * Вернуть точку включённой к её споту
+     *
+     * @return spotId точки; null, если точки нет в архиве
+     */
+    public Long restoreTerrainPoint(long pointId) {
+        List<Long> spotIds = jdbc.queryForList(
+                "SELECT spot_id FROM terrain_points_archive WHERE id = :id FOR UPDATE", Map.of("id", pointId), Long.class);
+        if (spotIds.isEmpty()) {
+            return null;
+        }
+        Map<String, Long> id = Map.of("id", pointId);
+        int restored = jdbc.update("INSERT INTO terrain_points (" + POINT_COLUMNS + ", is_enabled, disabled_at) "
+                + "SELECT " + POINT_COLUMNS + ", true, NULL FROM terrain_points_archive a WHERE a.id = :id "
+                + "AND EXISTS (SELECT 1 FROM spots s WHERE s.id = a.spot_id)", id);
+        if (restored > 0) {
+            jdbc.update("DELETE FROM terrain_points_archive WHERE id = :id", id);
+            cache.evictCollectionData(TERRAIN_POINTS_ROLE, spotIds.get(0));
+            cache.evictQueryRegions();
+        }
+        return spotIds.get(0);
+    }
+
+    public boolean spotExists(long spotId) {
+        return Boolean.TRUE.equals(jdbc.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM spots WHERE id = :id)", Map.of("id", spotId), Boolean.class));
+    }
+
+    /**
+     * Последние архивированные споты, новые первыми
+     */
+    public List<ArchiveDTO> findArchivedSpots(int limit) {
+        return jdbc.query("""
+                SELECT id, name, latitude, longitude, disabled_at, archived_at
+                FROM spots_archive
+                ORDER BY archived_at DESC, id
+                LIMIT :limit""", Map.of("limit", limit), (rs, row) -> {
+            ArchiveDTO dto = new ArchiveDTO();
+            dto.setId(rs.getLong("id"));
+            dto.setName(rs.getString("name"));
+            dto.setLatitude(rs.getDouble("latitude"));
+            dto.setLongitude(rs.getDouble("longitude"));
+            Timestamp disabledAt = rs.getTimestamp("disabled_at");
+            dto.setDisabledAt(disabledAt != null ? disabledAt.toInstant() : null);
+            dto.setArchivedAt(rs.getTimestamp("archived_at").toInstant());
+            return dto;
+        });
+    }
+
+    private static MapSqlParameterSource window(Timestamp cutoff, long afterId, int limit) {
+        return new MapSqlParameterSource("cutoff", cutoff).addValue("afterId", afterId).addValue("limit", limit);
+    }
+}
@@ -0,0 +1,133 @@
+package org.bin.parahub.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.bin.parahub.dto.BulkUpdateDTO;
+import org.bin.parahub.entity.Spot;
+import org.bin.parahub.entity.TerrainPoint;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Массовые правки спотов и точек рельефа (см. BulkUpdateDTO): один UPDATE по набору строк без загрузки сущностей.
+ *
+ * В SET попадают только заданные поля, а в WHERE — условие «хотя бы одно из них отличается», так что
+ * строки, где всё уже совпадает, не переписываются (и не плодят мёртвые версии строк в PostgreSQL).
+ * Запрос строится через Criteria API, а не мимо Hibernate: на executeUpdate он сам сбрасывает кэш второго
+ * уровня затронутой сущности (регион целиком) и её коллекций, и query cache по этой таблице.
+ * Смена isEnabled ведёт и disabledAt, как Spot.trackDisabledAt(). Вызывать в транзакции.
+ */
+@Repository
+public class BulkUpdateRepository {
+
+    private final EntityManager entityManager;
+
+    public BulkUpdateRepository(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * id спотов под выбором — кому рассылать события об изменении
+     */
+    public List<Long> findSpotIds(BulkUpdateDTO request) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Spot> spot = query.from(Spot.class);
+        query.select(spot.<Long>get("id")).where(spotSelector(cb, spot, request));
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    /**
+     * id спотов, к которым относятся выбранные точки
+     */
+    public List<Long> findTerrainPointSpotIds(BulkUpdateDTO request) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<TerrainPoint> point = query.from(TerrainPoint.class);
+        query.select(point.get("spot").<Long>get("id")).distinct(true).where(pointSelector(cb, point, request));
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    public int updateSpots(BulkUpdateDTO request) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Spot> update = cb.createCriteriaUpdate(Spot.class);
+        Root<Spot> spot = update.from(Spot.class);
+        List<Predicate> changes = new ArrayList<>();
+        set(cb, update, spot, "isEnabled", request.getIsEnabled(), changes);
+        setDisabledAt(cb, update, spot, request.getIsEnabled());
+        set(cb, update, spot, "xcDifficulty", request.getXcDifficulty(), changes);
+        set(cb, update, spot, "learningDifficulty", request.getLearningDifficulty(), changes);
+        set(cb, update, spot, "popularity", request.getPopularity(), changes);
+        set(cb, update, spot, "bestSeason", request.getBestSeason(), changes);
+        set(cb, update, spot, "accessibility", request.getAccessibility(), changes);
+        update.where(spotSelector(cb, spot, request), cb.or(changes.toArray(Predicate[]::new)));
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    public int updateTerrainPoints(BulkUpdateDTO request) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<TerrainPoint> update = cb.createCriteriaUpdate(TerrainPoint.class);
+        Root<TerrainPoint> point = update.from(TerrainPoint.class);
+        List<Predicate> changes = new ArrayList<>();
+        set(cb, update, point, "isEnabled", request.getIsEnabled(), changes);
+        setDisabledAt(cb, update, point, request.getIsEnabled());
+        set(cb, update, point, "type", request.getType(), changes);
+        set(cb, update, point, "description", request.getDescription(), changes);
+        update.where(pointSelector(cb, point, request), cb.or(changes.toArray(Predicate[]::new)));
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    private static <E, V> void set(CriteriaBuilder cb, CriteriaUpdate<E> update, Root<E> root, String attribute,
+                                   V value, List<Predicate> changes) {
+        if (value == null) {
+            return;
+        }
+        Path<V> path = root.get(attribute);
+        update.set(path, value);
+        changes.add(cb.or(cb.isNull(path), cb.notEqual(path, value)));
+    }
+
+    /**
+     * SET видит строку до изменения: disabledAt трогается только там, где isEnabled действительно меняется
+     */
+    private static <E> void setDisabledAt(CriteriaBuilder cb, CriteriaUpdate<E> update, Root<E> root, Boolean isEnabled) {
+        if (isEnabled == null) {
+            return;
+        }
+        Path<Instant> disabledAt = root.get("disabledAt");
+        Expression<Instant> changed = isEnabled ? cb.nullLiteral(Instant.class) : cb.literal(Instant.now());
+        update.set(disabledAt, cb.<Instant>selectCase()
+                .when(cb.equal(root.get("isEnabled"), isEnabled), disabledAt)
+                .otherwise(changed));
+    }
+
+    private static Predicate spotSelector(CriteriaBuilder cb, Root<Spot> spot, BulkUpdateDTO request) {
+        if (request.getIds() != null) {
+            return spot.get("id").in(request.getIds());
+        }
+        return cb.and(
+                cb.between(spot.<Double>get("latitude"), request.getMinLat(), request.getMaxLat()),
+                cb.between(spot.<Double>get("longitude"), request.getMinLon(), request.getMaxLon()));
+    }
+
+    private static Predicate pointSelector(CriteriaBuilder cb, Root<TerrainPoint> point, BulkUpdateDTO request) {
+        if (request.getIds() != null) {
+            return point.get("id").in(request.getIds());
+        }
+        if (request.getSpotId() != null) {
+            return cb.equal(point.get("spot").get("id"), request.getSpotId());
+        }
+        return cb.and(
+                cb.between(point.<Double>get("latitude"), request.getMinLat(), request.getMaxLat()),
+                cb.between(point.<Double>get("longitude"), request.getMinLon(), request.getMaxLon()));
+    }
+}
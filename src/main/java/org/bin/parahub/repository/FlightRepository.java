@@ -0,0 +1,13 @@
+package org.bin.parahub.repository;
+
+import org.bin.parahub.entity.Flight;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface FlightRepository extends JpaRepository<Flight, Long> {
+
+    List<Flight> findBySpotIdOrderByStartTimeDesc(Long spotId);
+}
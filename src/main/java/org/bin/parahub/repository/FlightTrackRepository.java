@@ -0,0 +1,9 @@
+package org.bin.parahub.repository;
+
+import org.bin.parahub.entity.FlightTrack;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface FlightTrackRepository extends JpaRepository<FlightTrack, Long> {
+}
@@ -0,0 +1,217 @@
+package org.bin.parahub.repository;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.bin.parahub.enums.PointType;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Быстрый путь для больших списков на карту: JSON пишется прямо из ResultSet в поток ответа,
+ * минуя сущности Hibernate, DTO и промежуточный List.
+ *
+ * Схема ответа та же, что у сериализации SpotDTO / TerrainPointDTO (те же поля в том же порядке).
+ * Строки читаются курсором (fetchSize) в read-only транзакции, поэтому память не зависит от числа строк.
+ * Генератор берётся из JsonFactory Spring-овского ObjectMapper: буферы переиспользуются его пулом.
+ */
+@Repository
+public class JsonStreamRepository {
+
+    private static final int FETCH_SIZE = 1_000;
+    private static final PointType[] POINT_TYPES = PointType.values();
+
+    private static final String SPOTS_SQL = """
+            SELECT id, is_enabled, name, latitude, longitude, elevation, description, suitable_winds,
+                   xc_difficulty, learning_difficulty, popularity, best_season, accessibility
+            FROM spots
+            WHERE is_enabled
+            ORDER BY id""";
+
+    private static final String SPOT_WINDS_SQL = """
+            SELECT w.id, w.direction, w.min_speed, w.max_speed, w.spot_id
+            FROM winds w JOIN spots s ON s.id = w.spot_id
+            WHERE s.is_enabled
+            ORDER BY w.spot_id, w.id""";
+
+    private static final String SPOT_TERRAIN_POINTS_SQL = """
+            SELECT tp.id, tp.is_enabled, tp.name, tp.latitude, tp.longitude, tp.elevation, tp.type, tp.description, tp.spot_id
+            FROM terrain_points tp JOIN spots s ON s.id = tp.spot_id
+            WHERE s.is_enabled
+            ORDER BY tp.spot_id, tp.id""";
+
+    private static final String TERRAIN_POINTS_SQL = """
+            SELECT id, is_enabled, name, latitude, longitude, elevation, type, description, spot_id
+            FROM terrain_points
+            WHERE is_enabled
+            ORDER BY id""";
+
+    private final DataSource dataSource;
+    private final JsonFactory jsonFactory;
+
+    public JsonStreamRepository(DataSource dataSource, ObjectMapper objectMapper) {
+        this.dataSource = dataSource;
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    /**
+     * Активные споты с ветрами и всеми точками — как GET /api/spots.
+     * Три курсора, отсортированных по id спота, склеиваются слиянием за один проход.
+     */
+    public void writeEnabledSpots(OutputStream out) throws IOException {
+        try (Connection connection = readOnlyConnection();
+             PreparedStatement spotsStatement = cursor(connection, SPOTS_SQL);
+             PreparedStatement windsStatement = cursor(connection, SPOT_WINDS_SQL);
+             PreparedStatement pointsStatement = cursor(connection, SPOT_TERRAIN_POINTS_SQL);
+             ResultSet spots = spotsStatement.executeQuery();
+             ResultSet winds = windsStatement.executeQuery();
+             ResultSet points = pointsStatement.executeQuery();
+             JsonGenerator json = generator(out)) {
+
+            boolean hasWind = winds.next();
+            boolean hasPoint = points.next();
+
+            json.writeStartArray();
+            while (spots.next()) {
+                long spotId = spots.getLong(1);
+                json.writeStartObject();
+                json.writeNumberField("id", spotId);
+                json.writeBooleanField("isEnabled", spots.getBoolean(2));
+                json.writeStringField("name", spots.getString(3));
+                writeDouble(json, "latitude", spots, 4);
+                writeDouble(json, "longitude", spots, 5);
+                writeDouble(json, "elevation", spots, 6);
+                json.writeStringField("description", spots.getString(7));
+                json.writeStringField("suitableWinds", spots.getString(8));
+                writeInteger(json, "xcDifficulty", spots, 9);
+                writeInteger(json, "learningDifficulty", spots, 10);
+                json.writeStringField("popularity", spots.getString(11));
+                json.writeStringField("bestSeason", spots.getString(12));
+                json.writeStringField("accessibility", spots.getString(13));
+
+                json.writeArrayFieldStart("winds");
+                while (hasWind && winds.getLong(5) <= spotId) {
+                    if (winds.getLong(5) == spotId) {
+                        writeWind(json, winds);
+                    }
+                    hasWind = winds.next();
+                }
+                json.writeEndArray();
+
+                json.writeArrayFieldStart("terrainPoints");
+                while (hasPoint && points.getLong(9) <= spotId) {
+                    if (points.getLong(9) == spotId) {
+                        writeTerrainPoint(json, points);
+                    }
+                    hasPoint = points.next();
+                }
+                json.writeEndArray();
+
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+            connection.rollback();
+        } catch (SQLException e) {
+            throw new IOException("Ошибка чтения спотов из БД", e);
+        }
+    }
+
+    /**
+     * Все активные точки рельефа — как GET /api/terrain_points
+     */
+    public void writeEnabledTerrainPoints(OutputStream out) throws IOException {
+        try (Connection connection = readOnlyConnection();
+             PreparedStatement statement = cursor(connection, TERRAIN_POINTS_SQL);
+             ResultSet points = statement.executeQuery();
+             JsonGenerator json = generator(out)) {
+            json.writeStartArray();
+            while (points.next()) {
+                writeTerrainPoint(json, points);
+            }
+            json.writeEndArray();
+            connection.rollback();
+        } catch (SQLException e) {
+            throw new IOException("Ошибка чтения точек рельефа из БД", e);
+        }
+    }
+
+    /**
+     * Курсор в PostgreSQL работает только вне autocommit; соединение вернётся в пул с откатом
+     */
+    private Connection readOnlyConnection() throws SQLException {
+        Connection connection = dataSource.getConnection();
+        try {
+            connection.setAutoCommit(false);
+            connection.setReadOnly(true);
+            return connection;
+        } catch (SQLException e) {
+            connection.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Поток ответа закрывает контейнер, генератор его только дописывает
+     */
+    private JsonGenerator generator(OutputStream out) throws IOException {
+        return jsonFactory.createGenerator(out, JsonEncoding.UTF8)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    private static PreparedStatement cursor(Connection connection, String sql) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        statement.setFetchSize(FETCH_SIZE);
+        return statement;
+    }
+
+    private static void writeWind(JsonGenerator json, ResultSet rs) throws IOException, SQLException {
+        json.writeStartObject();
+        json.writeNumberField("id", rs.getLong(1));
+        json.writeStringField("direction", rs.getString(2));
+        writeInteger(json, "minSpeed", rs, 3);
+        writeInteger(json, "maxSpeed", rs, 4);
+        json.writeNumberField("spotId", rs.getLong(5));
+        json.writeEndObject();
+    }
+
+    private static void writeTerrainPoint(JsonGenerator json, ResultSet rs) throws IOException, SQLException {
+        json.writeStartObject();
+        json.writeNumberField("id", rs.getLong(1));
+        json.writeBooleanField("isEnabled", rs.getBoolean(2));
+        json.writeStringField("name", rs.getString(3));
+        writeDouble(json, "latitude", rs, 4);
+        writeDouble(json, "longitude", rs, 5);
+        writeDouble(json, "elevation", rs, 6);
+        // PointType хранится как ordinal
+        json.writeStringField("type", POINT_TYPES[rs.getInt(7)].name());
+        json.writeStringField("description", rs.getString(8));
+        json.writeNumberField("spotId", rs.getLong(9));
+        json.writeEndObject();
+    }
+
+    private static void writeDouble(JsonGenerator json, String field, ResultSet rs, int column) throws IOException, SQLException {
+        double value = rs.getDouble(column);
+        if (rs.wasNull()) {
+            json.writeNullField(field);
+        } else {
+            json.writeNumberField(field, value);
+        }
+    }
+
+    private static void writeInteger(JsonGenerator json, String field, ResultSet rs, int column) throws IOException, SQLException {
+        int value = rs.getInt(column);
+        if (rs.wasNull()) {
+            json.writeNullField(field);
+        } else {
+            json.writeNumberField(field, value);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package org.bin.parahub.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.bin.parahub.entity.Spot;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Счётчики популярности стартов: приращения, а не абсолютные значения, чтобы пачка не затирала
+ * записи других узлов и не зависела от того, что в этот момент держит Hibernate.
+ * UPDATE идёт мимо Hibernate, так что затронутые споты выселяются из кэша второго уровня вручную.
+ */
+@Repository
+public class SpotPopularityRepository {
+
+    private static final String INCREMENT_SQL =
+            "UPDATE spots SET view_count = view_count + ?, search_hits = search_hits + ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+
+    public SpotPopularityRepository(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    /**
+     * Одним JDBC-батчем; строка — {spotId, views, searchHits}
+     */
+    public void addCounts(List<long[]> deltas) {
+        jdbcTemplate.batchUpdate(INCREMENT_SQL, deltas, deltas.size(), (statement, delta) -> {
+            statement.setLong(1, delta[1]);
+            statement.setLong(2, delta[2]);
+            statement.setLong(3, delta[0]);
+        });
+        for (long[] delta : deltas) {
+            entityManagerFactory.getCache().evict(Spot.class, delta[0]);
+        }
+    }
+}
@@ -1,7 +1,11 @@
 package org.bin.parahub.repository;
 
+import jakarta.persistence.QueryHint;
 import org.bin.parahub.entity.Spot;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -16,7 +20,9 @@ public interface SpotRepository extends JpaRepository<Spot, Long> {
      * @param name название старта
      * @return Старт(объект Spot)
      * функция для возвращение старта по ТОЧНОМУ совпадению названия
+     * результат (id) — в query cache, сам старт — в кэше второго уровня
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Spot> findByName(String name);
 
     Optional<Spot> findById(Long id);
@@ -28,5 +34,16 @@ public interface SpotRepository extends JpaRepository<Spot, Long> {
      */
     List<Spot> findByNameContainingIgnoreCase(String name);
 
+    /**
+     * активные старты в прямоугольнике координат
+     */
+    List<Spot> findByIsEnabledTrueAndLatitudeBetweenAndLongitudeBetween(double minLat, double maxLat, double minLon, double maxLon);
+
+    /**
+     * активные старты вместе с ветрами одним запросом
+     */
+    @EntityGraph(attributePaths = "winds")
+    List<Spot> findByIsEnabledTrue();
+
 
 }
@@ -0,0 +1,163 @@
+package org.bin.parahub.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.bin.parahub.dto.TerrainPointDTO;
+import org.bin.parahub.entity.Spot;
+import org.bin.parahub.entity.TerrainPoint;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Запись пакета точек одного спота (см. TerrainPointService.saveBatch) JDBC-батчами: у TerrainPoint id IDENTITY,
+ * и такие вставки Hibernate в батчи не собирает — каждая точка была бы отдельным INSERT. id новых строк
+ * возвращает тот же батч (getGeneratedKeys).
+ *
+ * SQL идёт мимо Hibernate, поэтому изменённые точки, коллекция точек спота и регион query cache findBySpotId
+ * сбрасываются вручную (evict); остальные кэшированные запросы не затрагиваются. Методы вызывать в транзакции.
+ */
+@Repository
+public class TerrainPointBatchRepository {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO terrain_points (is_enabled, name, type, latitude, longitude, elevation, description, spot_id, disabled_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)""";
+
+    /** SET видит строку до изменения: disabled_at ставится, только если точку выключают сейчас */
+    private static final String UPDATE_SQL = """
+            UPDATE terrain_points
+            SET name = ?, type = ?, latitude = ?, longitude = ?, elevation = ?, description = ?,
+                disabled_at = CASE WHEN ? THEN NULL WHEN is_enabled THEN now() ELSE disabled_at END,
+                is_enabled = ?
+            WHERE id = ? AND spot_id = ?""";
+
+    private static final String TERRAIN_POINTS_ROLE = Spot.class.getName() + ".terrainPoints";
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final Cache cache;
+
+    public TerrainPointBatchRepository(NamedParameterJdbcTemplate jdbc, EntityManagerFactory entityManagerFactory) {
+        this.jdbc = jdbc;
+        this.cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+
+    /**
+     * Есть ли спот; до конца транзакции его не удалит и не перенесёт в архив никто другой
+     */
+    public boolean lockSpot(long spotId) {
+        return !jdbc.queryForList("SELECT id FROM spots WHERE id = :id FOR KEY SHARE", Map.of("id", spotId), Long.class)
+                .isEmpty();
+    }
+
+    /**
+     * id -> spot_id для существующих из ids, строки заблокированы до конца транзакции
+     */
+    public Map<Long, Long> lockOwners(Collection<Long> ids) {
+        Map<Long, Long> owners = new HashMap<>();
+        if (ids.isEmpty()) {
+            return owners;
+        }
+        jdbc.query("SELECT id, spot_id FROM terrain_points WHERE id IN (:ids) FOR UPDATE", Map.of("ids", ids),
+                rs -> {
+                    owners.put(rs.getLong("id"), rs.getLong("spot_id"));
+                });
+        return owners;
+    }
+
+    /**
+     * @return id новых строк в порядке points
+     */
+    public List<Long> insert(long spotId, List<TerrainPointDTO> points) {
+        if (points.isEmpty()) {
+            return List.of();
+        }
+        Timestamp now = Timestamp.from(Instant.now());
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbc.getJdbcOperations().batchUpdate(
+                connection -> connection.prepareStatement(INSERT_SQL, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement statement, int i) throws SQLException {
+                        TerrainPointDTO point = points.get(i);
+                        statement.setBoolean(1, point.getIsEnabled());
+                        setFields(statement, 2, point);
+                        statement.setLong(8, spotId);
+                        statement.setTimestamp(9, point.getIsEnabled() ? null : now);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return points.size();
+                    }
+                },
+                keys);
+        List<Long> ids = new ArrayList<>(points.size());
+        for (Map<String, Object> key : keys.getKeyList()) {
+            ids.add(((Number) key.get("id")).longValue());
+        }
+        return ids;
+    }
+
+    /**
+     * @return число изменённых строк по каждой точке
+     */
+    public int[] update(long spotId, List<TerrainPointDTO> points) {
+        if (points.isEmpty()) {
+            return new int[0];
+        }
+        return jdbc.getJdbcOperations().batchUpdate(UPDATE_SQL, points, points.size(), (statement, point) -> {
+            setFields(statement, 1, point);
+            statement.setBoolean(7, point.getIsEnabled());
+            statement.setBoolean(8, point.getIsEnabled());
+            statement.setLong(9, point.getId());
+            statement.setLong(10, spotId);
+        })[0];
+    }
+
+    /**
+     * Мягкое удаление одним UPDATE; уже выключенные не трогаются
+     */
+    public int disable(long spotId, List<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return jdbc.update("""
+                UPDATE terrain_points SET is_enabled = false, disabled_at = now()
+                WHERE id IN (:ids) AND spot_id = :spotId AND is_enabled""",
+                new MapSqlParameterSource("ids", ids).addValue("spotId", spotId));
+    }
+
+    public void evict(long spotId, Collection<Long> changedIds) {
+        changedIds.forEach(id -> cache.evict(TerrainPoint.class, id));
+        cache.evictCollectionData(TERRAIN_POINTS_ROLE, spotId);
+        cache.evictQueryRegion(TerrainPointRepository.BY_SPOT_QUERY_REGION);
+    }
+
+    /**
+     * name, type, latitude, longitude, elevation, description начиная с параметра first
+     */
+    private static void setFields(PreparedStatement statement, int first, TerrainPointDTO point) throws SQLException {
+        statement.setString(first, point.getName());
+        statement.setInt(first + 1, point.getType().ordinal());
+        statement.setDouble(first + 2, point.getLatitude());
+        statement.setDouble(first + 3, point.getLongitude());
+        statement.setObject(first + 4, point.getElevation(), Types.DOUBLE);
+        statement.setString(first + 5, point.getDescription());
+    }
+}
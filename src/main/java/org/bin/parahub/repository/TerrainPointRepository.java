@@ -1,7 +1,10 @@
 package org.bin.parahub.repository;
 
+import jakarta.persistence.QueryHint;
 import org.bin.parahub.entity.TerrainPoint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -9,9 +12,21 @@ import java.util.List;
 @Repository
 public interface TerrainPointRepository extends JpaRepository<TerrainPoint, Long> {
 
+    /** Отдельный регион query cache: запись мимо Hibernate сбрасывает только его (см. TerrainPointBatchRepository) */
+    String BY_SPOT_QUERY_REGION = "terrainPoint.bySpot";
+
+    /**
+     * id точек — в query cache (сбрасывается любой записью в terrain_points), сами точки — в кэше второго уровня
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = BY_SPOT_QUERY_REGION)
+    })
     List<TerrainPoint> findBySpotId(Long spotID);
 
     List<TerrainPoint> findBySpotName(String spotName);
 
+    boolean existsBySpotId(Long spotID);
+
     TerrainPoint findTerrainPointById(Long id);
 }
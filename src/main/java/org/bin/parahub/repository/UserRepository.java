@@ -1,13 +1,23 @@
 package org.bin.parahub.repository;
 
+import org.bin.parahub.dto.UserDTO;
 import org.bin.parahub.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
     Optional<User> findByEmail(String email);
     Optional<User> findByUsername(String username);
     boolean existsByEmail(String email);
     boolean existsByUsername(String username);
-}
\ No newline at end of file
+
+    /**
+     * Профиль по email (уникальный индекс) без загрузки хеша пароля
+     */
+    @Query("select new org.bin.parahub.dto.UserDTO(u.id, u.username, u.email, u.role, u.enabled, u.createdAt) " +
+            "from User u where u.email = :email")
+    Optional<UserDTO> findDTOByEmail(@Param("email") String email);
+}
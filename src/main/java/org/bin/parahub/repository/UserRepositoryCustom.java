@@ -0,0 +1,17 @@
+package org.bin.parahub.repository;
+
+import org.bin.parahub.dto.UserDTO;
+import org.bin.parahub.enums.UserRole;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface UserRepositoryCustom {
+
+    /**
+     * Keyset-страница пользователей (id > afterId, по возрастанию id) с необязательными фильтрами.
+     * Возвращает проекцию UserDTO — хеш пароля не читается.
+     */
+    List<UserDTO> findPage(Long afterId, int limit, UserRole role, Boolean enabled,
+                           LocalDateTime createdFrom, LocalDateTime createdTo);
+}
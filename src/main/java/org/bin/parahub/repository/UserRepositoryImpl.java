@@ -0,0 +1,54 @@
+package org.bin.parahub.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.bin.parahub.dto.UserDTO;
+import org.bin.parahub.entity.User;
+import org.bin.parahub.enums.UserRole;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Criteria вместо JPQL с "(:param is null or ...)": в запрос попадают только заданные фильтры,
+ * и Postgres не приходится угадывать тип null-параметров.
+ */
+class UserRepositoryImpl implements UserRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<UserDTO> findPage(Long afterId, int limit, UserRole role, Boolean enabled,
+                                  LocalDateTime createdFrom, LocalDateTime createdTo) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<UserDTO> query = cb.createQuery(UserDTO.class);
+        Root<User> user = query.from(User.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (afterId != null) predicates.add(cb.greaterThan(user.get("id"), afterId));
+        if (role != null) predicates.add(cb.equal(user.get("role"), role));
+        if (enabled != null) predicates.add(cb.equal(user.get("enabled"), enabled));
+        if (createdFrom != null) predicates.add(cb.greaterThanOrEqualTo(user.get("createdAt"), createdFrom));
+        if (createdTo != null) predicates.add(cb.lessThan(user.get("createdAt"), createdTo));
+
+        query.select(cb.construct(UserDTO.class,
+                        user.get("id"),
+                        user.get("username"),
+                        user.get("email"),
+                        user.get("role"),
+                        user.get("enabled"),
+                        user.get("createdAt")))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.asc(user.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
@@ -0,0 +1,179 @@
+package org.bin.parahub.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ограничение частоты запросов к дорогим auth-эндпоинтам (BCrypt, запись в БД, письмо).
+ * Лимит считается отдельно по IP клиента и по email из тела запроса; при превышении — 429 + Retry-After.
+ */
+@Component
+public class AuthRateLimitFilter extends OncePerRequestFilter {
+
+    private static final Set<String> LIMITED_PATHS = Set.of(
+            "/api/auth/register",
+            "/api/auth/request-2fa",
+            "/api/auth/resend"
+    );
+
+    /** Тела этих запросов — маленький JSON, больше не читаем */
+    private static final int MAX_BODY_BYTES = 8 * 1024;
+
+    private final TokenBucketRateLimiter ipLimiter;
+    private final TokenBucketRateLimiter emailLimiter;
+    private final ObjectMapper objectMapper;
+    private final boolean trustForwardedFor;
+
+    public AuthRateLimitFilter(
+            ObjectMapper objectMapper,
+            @Value("${security.rate-limit.ip.capacity:20}") int ipCapacity,
+            @Value("${security.rate-limit.ip.refill-per-minute:20}") int ipRefillPerMinute,
+            @Value("${security.rate-limit.email.capacity:5}") int emailCapacity,
+            @Value("${security.rate-limit.email.refill-per-minute:1}") int emailRefillPerMinute,
+            @Value("${security.rate-limit.max-keys:100000}") int maxKeys,
+            @Value("${security.rate-limit.trust-forwarded-for:false}") boolean trustForwardedFor) {
+        this.objectMapper = objectMapper;
+        this.ipLimiter = new TokenBucketRateLimiter(ipCapacity, ipRefillPerMinute, maxKeys);
+        this.emailLimiter = new TokenBucketRateLimiter(emailCapacity, emailRefillPerMinute, maxKeys);
+        this.trustForwardedFor = trustForwardedFor;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod()) || !LIMITED_PATHS.contains(request.getServletPath());
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain chain
+    ) throws ServletException, IOException {
+        long waitNanos = ipLimiter.tryAcquire(clientIp(request));
+        if (waitNanos > 0) {
+            reject(response, waitNanos);
+            return;
+        }
+
+        CachedBodyRequest cachedRequest = new CachedBodyRequest(request, request.getInputStream().readNBytes(MAX_BODY_BYTES));
+        String email = extractEmail(cachedRequest.body);
+        if (email != null) {
+            waitNanos = emailLimiter.tryAcquire(email);
+            if (waitNanos > 0) {
+                reject(response, waitNanos);
+                return;
+            }
+        }
+
+        chain.doFilter(cachedRequest, response);
+    }
+
+    @Scheduled(fixedDelayString = "${security.rate-limit.eviction-interval-ms:60000}")
+    public void evictIdleBuckets() {
+        ipLimiter.evictIdle();
+        emailLimiter.evictIdle();
+    }
+
+    private String clientIp(HttpServletRequest request) {
+        if (trustForwardedFor) {
+            String forwarded = request.getHeader("X-Forwarded-For");
+            if (forwarded != null && !forwarded.isBlank()) {
+                int comma = forwarded.indexOf(',');
+                return (comma > 0 ? forwarded.substring(0, comma) : forwarded).trim();
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    private String extractEmail(byte[] body) {
+        if (body.length == 0) {
+            return null;
+        }
+        try {
+            JsonNode email = objectMapper.readTree(body).get("email");
+            return email != null && email.isTextual() ? email.asText().trim().toLowerCase(Locale.ROOT) : null;
+        } catch (IOException e) {
+            // некорректный JSON — пусть с ним разбирается контроллер
+            return null;
+        }
+    }
+
+    private void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType("text/plain;charset=UTF-8");
+        response.getWriter().write("Too many requests, retry in " + retryAfterSeconds + " s");
+    }
+
+    /**
+     * Запрос с уже прочитанным телом, чтобы контроллер смог прочитать его ещё раз
+     */
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return input.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+    }
+}
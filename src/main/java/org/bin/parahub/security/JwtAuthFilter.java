@@ -5,20 +5,30 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
-import org.bin.parahub.annotation.Profiled;
-import org.bin.parahub.entity.User;
+import org.bin.parahub.dto.UserDTO;
 import org.bin.parahub.repository.UserRepository;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
+import java.util.List;
 
+/**
+ * Аутентификация по access-токену из заголовка Authorization: Bearer. Subject токена — email (см. AuthService);
+ * пользователь и его роль берутся одной выборкой по уникальному индексу email, без загрузки сущности.
+ * Невалидный токен, неизвестный или выключенный пользователь — запрос идёт дальше анонимным.
+ */
 @Component
 @RequiredArgsConstructor
 public class JwtAuthFilter extends org.springframework.web.filter.OncePerRequestFilter {
 
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final JwtUtil jwtUtil;
     private final UserRepository userRepository;
 
     @Override
@@ -27,24 +37,26 @@ public class JwtAuthFilter extends org.springframework.web.filter.OncePerRequest
             HttpServletResponse response,
             FilterChain chain
     ) throws ServletException, IOException {
-        System.out.println("Dev filter: вошли в фильтр!");
-
-        if (SecurityContextHolder.getContext().getAuthentication() == null) {
-            // Возьми любого пользователя (например, первого) — неважно, какой токен!
-            User user = userRepository.findAll().stream().findFirst().orElse(null);
-            if (user != null) {
-                var auth = new UsernamePasswordAuthenticationToken(
-                        user.getEmail(),
-                        null,
-                        user.getRole().name().equals("ADMIN") ?
-                                java.util.List.of(() -> "ROLE_ADMIN", () -> "ROLE_USER") :
-                                java.util.List.of(() -> "ROLE_USER")
-                );
-                auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(auth);
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header != null && header.startsWith(BEARER_PREFIX)
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            String token = header.substring(BEARER_PREFIX.length()).trim();
+            if (jwtUtil.validateToken(token)) {
+                UserDTO user = userRepository.findDTOByEmail(jwtUtil.getUsername(token)).orElse(null);
+                if (user != null && user.isEnabled()) {
+                    var auth = new UsernamePasswordAuthenticationToken(
+                            user.getEmail(),
+                            null,
+                            "ADMIN".equals(user.getRole()) ?
+                                    List.of(new SimpleGrantedAuthority("ROLE_ADMIN"), new SimpleGrantedAuthority("ROLE_USER")) :
+                                    List.of(new SimpleGrantedAuthority("ROLE_USER"))
+                    );
+                    auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    SecurityContextHolder.getContext().setAuthentication(auth);
+                }
             }
         }
 
         chain.doFilter(request, response);
     }
-}
\ No newline at end of file
+}
@@ -26,7 +26,6 @@ public class JwtUtil {
         Date expiryDate = new Date(now.getTime() + jwtValidityMs);
 
         SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
-        System.out.println("JWT secret: " + jwtSecret);
 
         return Jwts.builder()
                 .subject(subject)
@@ -38,7 +37,6 @@ public class JwtUtil {
     }
 
     public String getUsername(String token) {
-        System.out.println("JWT secret during validation: " + jwtSecret);
         Claims claims = extractClaims(token);
         return claims.getSubject();
     }
@@ -50,8 +48,6 @@ public class JwtUtil {
 
     public boolean validateToken(String token) {
         try {
-            System.out.println("JWT secret: " + jwtSecret);
-            System.out.println(token);
             extractClaims(token);
             return true;
         } catch (Exception e) {
@@ -0,0 +1,182 @@
+package org.bin.parahub.security;
+
+import jakarta.annotation.PreDestroy;
+import org.bin.parahub.exception.PasswordHashingRejectedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Хеширование и проверка паролей на отдельном ограниченном пуле потоков.
+ *
+ * BCrypt намеренно медленный, поэтому на потоках Tomcat всплеск логинов занимает все ядра
+ * и тормозит чтение карты. Здесь число потоков и длина очереди ограничены: если очередь
+ * заполнена или задача не успела начаться за {@code security.password.hashing.max-wait-ms},
+ * бросается {@link PasswordHashingRejectedException} (503 + Retry-After).
+ *
+ * Ограничено только ожидание в очереди: начавшийся хеш дорабатывает до конца, и запрос получает его результат,
+ * сколько бы ни длился BCrypt. Брошенная задача сразу убирается из очереди, а если воркер успел её взять —
+ * пропускается без вычисления.
+ */
+@Component
+public class PasswordHashingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHashingService.class);
+
+    private final BCryptPasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final long maxWaitMs;
+    private final int strength;
+
+    public PasswordHashingService(
+            BCryptPasswordEncoder passwordEncoder,
+            @Qualifier("bcryptStrength") Integer strength,
+            @Value("${security.password.hashing.threads:0}") int threads,
+            @Value("${security.password.hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${security.password.hashing.max-wait-ms:2000}") long maxWaitMs) {
+        this.passwordEncoder = passwordEncoder;
+        this.maxWaitMs = maxWaitMs;
+        this.strength = strength;
+
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                poolSize, poolSize,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        logger.info("Password hashing pool: {} threads, queue {}, bcrypt cost {}", poolSize, queueCapacity, strength);
+    }
+
+    public String encode(String rawPassword) {
+        return submit(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return submit(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Нужно ли перехешировать пароль: стоимость хеша ниже текущей (после перекалибровки на более быстром железе).
+     * Только вверх: на медленном узле калибровка даст меньшую стоимость, и понижать ею уже сохранённые хеши нельзя.
+     */
+    public boolean needsRehash(String encodedPassword) {
+        return costOf(encodedPassword) < strength;
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    private <T> T submit(Callable<T> task) {
+        HashingTask<T> hashingTask = new HashingTask<>(task, maxWaitMs);
+        try {
+            executor.execute(hashingTask);
+        } catch (RejectedExecutionException e) {
+            throw new PasswordHashingRejectedException();
+        }
+        try {
+            hashingTask.started.await(maxWaitMs, TimeUnit.MILLISECONDS);
+            if (hashingTask.abandon()) {
+                // освобождаем место в очереди сразу, не дожидаясь, пока воркер дойдёт до задачи
+                executor.remove(hashingTask);
+                throw new PasswordHashingRejectedException();
+            }
+            // задача уже на воркере: BCrypt не прерывается, поэтому ждём результата без таймаута
+            return hashingTask.result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (hashingTask.abandon()) {
+                executor.remove(hashingTask);
+            }
+            throw new PasswordHashingRejectedException();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Стоимость из хеша вида $2a$12$..., -1 если формат не распознан
+     */
+    private static int costOf(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.length() < 7 || encodedPassword.charAt(0) != '$') {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(encodedPassword.substring(4, 6));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Задача в очереди пула. Начать её может либо воркер (start), либо вызывающий поток отказаться от неё (abandon) —
+     * что случилось первым. Воркер сам пропускает задачу, прождавшую в очереди дольше maxWaitMs.
+     */
+    private static final class HashingTask<T> implements Runnable {
+
+        private static final int PENDING = 0;
+        private static final int STARTED = 1;
+        private static final int ABANDONED = 2;
+
+        private final Callable<T> task;
+        private final long deadlineNanos;
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+
+        HashingTask(Callable<T> task, long maxWaitMs) {
+            this.task = task;
+            this.deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+        }
+
+        @Override
+        public void run() {
+            if (System.nanoTime() - deadlineNanos > 0 || !state.compareAndSet(PENDING, STARTED)) {
+                abandon();
+                started.countDown();
+                return;
+            }
+            started.countDown();
+            try {
+                result.complete(task.call());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        }
+
+        /**
+         * @return true, если задача не начата и уже не начнётся; false, если воркер её выполняет
+         */
+        boolean abandon() {
+            return state.compareAndSet(PENDING, ABANDONED) || state.get() == ABANDONED;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package org.bin.parahub.security;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket по ключу (IP, email) без блокировок.
+ *
+ * Каждый бакет — один AtomicLong с "теоретическим временем прибытия" (GCRA):
+ * это эквивалент token bucket, который обновляется одним CAS и не требует отдельного
+ * счётчика токенов и времени пополнения. ConcurrentHashMap внутри разбит на страйпы,
+ * поэтому разные ключи не конкурируют между собой.
+ *
+ * Память ограничена maxKeys: полностью пополненные (простаивающие) бакеты удаляются
+ * в {@link #evictIdle()}, а при переполнении новый ключ вытесняет пачку бакетов с самым ранним TAT —
+ * давно не использованных и ближе всех к пополнению. Общего бакета на «лишние» ключи нет: поток
+ * выдуманных email не может заблокировать чужие ключи, а худшее от вытеснения — ключ начинает с полного
+ * бакета (fail-open для одного ключа; перебор при этом всё равно упирается в лимит по IP).
+ */
+public class TokenBucketRateLimiter {
+
+    /** При переполнении вытесняется 1/EVICTION_FRACTION ключей, чтобы полный проход по карте был не на каждый ключ */
+    private static final int EVICTION_FRACTION = 8;
+
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final Object evictionLock = new Object();
+    private final long emissionIntervalNanos;
+    private final long burstWindowNanos;
+    private final int maxKeys;
+    private final LongSupplier nanoClock;
+
+    /**
+     * @param capacity          сколько запросов можно сделать подряд (размер бакета)
+     * @param refillPerMinute   скорость пополнения, токенов в минуту
+     * @param maxKeys           максимум отслеживаемых ключей
+     */
+    public TokenBucketRateLimiter(int capacity, int refillPerMinute, int maxKeys) {
+        this(capacity, refillPerMinute, maxKeys, System::nanoTime);
+    }
+
+    TokenBucketRateLimiter(int capacity, int refillPerMinute, int maxKeys, LongSupplier nanoClock) {
+        if (capacity <= 0 || refillPerMinute <= 0 || maxKeys <= 0) {
+            throw new IllegalArgumentException("capacity, refillPerMinute и maxKeys должны быть положительными");
+        }
+        this.emissionIntervalNanos = TimeUnit.MINUTES.toNanos(1) / refillPerMinute;
+        this.burstWindowNanos = emissionIntervalNanos * capacity;
+        this.maxKeys = maxKeys;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Попытаться взять токен.
+     *
+     * @return 0 если запрос разрешён, иначе сколько наносекунд ждать до следующего токена
+     */
+    public long tryAcquire(String key) {
+        long now = nanoClock.getAsLong();
+        AtomicLong bucket = bucketFor(key, now);
+
+        while (true) {
+            long tat = bucket.get();
+            long newTat = Math.max(tat, now) + emissionIntervalNanos;
+            long waitNanos = newTat - now - burstWindowNanos;
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (bucket.compareAndSet(tat, newTat)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Удалить бакеты, которые полностью пополнились — они ничем не отличаются от нового
+     */
+    public void evictIdle() {
+        long now = nanoClock.getAsLong();
+        buckets.values().removeIf(bucket -> bucket.get() <= now);
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    private AtomicLong bucketFor(String key, long now) {
+        AtomicLong bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxKeys) {
+            evictOldest(now);
+        }
+        return buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+    }
+
+    /**
+     * Удалить простаивающие бакеты и ещё maxKeys / EVICTION_FRACTION с самым ранним TAT. Поток, который
+     * ещё держит вытесненный бакет, спишет токен с уже отвязанного — один лишний разрешённый запрос
+     */
+    private void evictOldest(long now) {
+        synchronized (evictionLock) {
+            if (buckets.size() < maxKeys) {
+                return;
+            }
+            long[] tats = buckets.values().stream().mapToLong(AtomicLong::get).toArray();
+            if (tats.length == 0) {
+                return;
+            }
+            Arrays.sort(tats);
+            long cutoff = Math.max(now, tats[Math.min(tats.length, Math.max(1, maxKeys / EVICTION_FRACTION)) - 1]);
+            buckets.values().removeIf(bucket -> bucket.get() <= cutoff);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package org.bin.parahub.service;
+
+import org.bin.parahub.annotation.Profiled;
+import org.bin.parahub.dto.ArchiveDTO;
+import org.bin.parahub.event.SpotsChangedEvent;
+import org.bin.parahub.event.TerrainPointsChangedEvent;
+import org.bin.parahub.exception.SpotNotFoundException;
+import org.bin.parahub.exception.TerrainPointNotFoundException;
+import org.bin.parahub.repository.ArchiveRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Архивация мягко удалённых данных: споты и точки, выключенные дольше retention-days, переносятся
+ * в spots_archive / terrain_points_archive / winds_archive (см. ArchiveRepository), так что в живых таблицах
+ * и их индексах остаются только активные строки и недавно выключенные, которые ещё можно просто включить обратно.
+ *
+ * Запуск — по cron и вручную (POST /api/admin/archive/run). Каждая пачка из batch-size строк — своя короткая
+ * транзакция; состояние работы — сами таблицы, поэтому прерванный запуск ничего не теряет, а следующий
+ * продолжает с оставшихся строк. Внутри запуска пачки идут по возрастанию id, занятые строки пропускаются.
+ * Место от удалённых строк PostgreSQL возвращает autovacuum'ом.
+ */
+@Service
+@Profiled(logArgs = true, logResult = false)
+public class ArchiveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArchiveService.class);
+
+    private final ArchiveRepository archiveRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Duration retention;
+    private final int batchSize;
+
+    public ArchiveService(
+            ArchiveRepository archiveRepository,
+            TransactionTemplate transactionTemplate,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${parahub.archive.retention-days:30}") int retentionDays,
+            @Value("${parahub.archive.batch-size:200}") int batchSize) {
+        this.archiveRepository = archiveRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.retention = Duration.ofDays(retentionDays);
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(cron = "${parahub.archive.cron:0 30 3 * * *}")
+    public synchronized ArchiveDTO.Run archive() {
+        long started = System.currentTimeMillis();
+        Timestamp cutoff = Timestamp.from(Instant.now().minus(retention));
+        transactionTemplate.executeWithoutResult(status -> archiveRepository.stampDisabled());
+
+        ArchiveDTO.Run spots = inBatches(afterId -> {
+            List<Long> ids = archiveRepository.lockArchivableSpots(cutoff, afterId, batchSize);
+            return new Batch(ids, ids.isEmpty() ? new ArchiveDTO.Run(0, 0, 0) : archiveRepository.moveSpots(ids));
+        });
+        ArchiveDTO.Run points = inBatches(afterId -> {
+            List<Long> ids = archiveRepository.lockArchivableTerrainPoints(cutoff, afterId, batchSize);
+            return new Batch(ids, new ArchiveDTO.Run(0, ids.isEmpty() ? 0 : archiveRepository.moveTerrainPoints(ids), 0));
+        });
+
+        ArchiveDTO.Run total = spots.plus(points);
+        if (total.spots() + total.terrainPoints() > 0) {
+            logger.info("В архив перенесено: {} спотов, {} точек, {} ветров за {} мс",
+                    total.spots(), total.terrainPoints(), total.winds(), System.currentTimeMillis() - started);
+        }
+        return total;
+    }
+
+    public List<ArchiveDTO> getArchivedSpots(int limit) {
+        return archiveRepository.findArchivedSpots(limit);
+    }
+
+    public void restoreSpot(long spotId) {
+        Boolean restored = transactionTemplate.execute(status -> archiveRepository.restoreSpot(spotId));
+        if (!Boolean.TRUE.equals(restored)) {
+            throw new SpotNotFoundException(spotId);
+        }
+        eventPublisher.publishEvent(new TerrainPointsChangedEvent(spotId));
+        eventPublisher.publishEvent(new SpotsChangedEvent(spotId));
+    }
+
+    /**
+     * Точка возвращается только к живому споту; архивированный спот сначала восстанавливается сам
+     */
+    public void restoreTerrainPoint(long pointId) {
+        Long spotId = transactionTemplate.execute(status -> {
+            Long archivedSpotId = archiveRepository.restoreTerrainPoint(pointId);
+            if (archivedSpotId == null) {
+                throw new TerrainPointNotFoundException(pointId);
+            }
+            if (!archiveRepository.spotExists(archivedSpotId)) {
+                throw new SpotNotFoundException(archivedSpotId);
+            }
+            return archivedSpotId;
+        });
+        eventPublisher.publishEvent(new TerrainPointsChangedEvent(spotId));
+    }
+
+    private ArchiveDTO.Run inBatches(Function<Long, Batch> batch) {
+        ArchiveDTO.Run total = new ArchiveDTO.Run(0, 0, 0);
+        long afterId = 0;
+        while (true) {
+            long from = afterId;
+            Batch moved = transactionTemplate.execute(status -> batch.apply(from));
+            if (moved == null || moved.ids().isEmpty()) {
+                return total;
+            }
+            total = total.plus(moved.run());
+            afterId = moved.ids().get(moved.ids().size() - 1);
+        }
+    }
+
+    private record Batch(List<Long> ids, ArchiveDTO.Run run) {
+    }
+}
@@ -9,7 +9,7 @@ import org.bin.parahub.enums.UserRole;
 import org.bin.parahub.repository.UserRepository;
 import org.bin.parahub.repository.VerificationCodeRepository;
 import org.bin.parahub.security.JwtUtil;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.bin.parahub.security.PasswordHashingService;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -20,13 +20,13 @@ import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
-@Profiled
+@Profiled(logArgs = false)
 public class AuthService {
     private final UserRepository userRepository;
     private final VerificationCodeRepository verificationCodeRepository;
     private final EmailService emailService;
     private final JwtUtil jwtUtil;
-    private final BCryptPasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
 
     private static final int CODE_LENGTH = 6;
     private static final long CODE_VALID_MINUTES = 5;
@@ -43,7 +43,7 @@ public class AuthService {
         User user = User.builder()
                 .email(request.getEmail())
                 .username(request.getUsername())
-                .password(passwordEncoder.encode(request.getPassword()))
+                .password(passwordHashingService.encode(request.getPassword()))
                 .role(UserRole.USER)
                 .enabled(false)
                 .createdAt(LocalDateTime.now())
@@ -107,9 +107,14 @@ public class AuthService {
     public void request2FALoginCode(String email, String password) {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new IllegalArgumentException("Неверные email или пароль"));
-        if (!passwordEncoder.matches(password, user.getPassword())) {
+        if (!passwordHashingService.matches(password, user.getPassword())) {
             throw new IllegalArgumentException("Неверные email или пароль");
         }
+        // стоимость BCrypt изменилась после калибровки — прозрачно перехешируем при успешном входе
+        if (passwordHashingService.needsRehash(user.getPassword())) {
+            user.setPassword(passwordHashingService.encode(password));
+            userRepository.save(user);
+        }
         if (!user.isEnabled()) {
             throw new IllegalArgumentException("E-mail не подтверждён");
         }
@@ -127,7 +132,6 @@ public class AuthService {
 
             String accessToken = jwtUtil.generateToken(user.getEmail(), user.getRole().name());
             String refreshToken = UUID.randomUUID().toString();
-            System.out.println(accessToken);
             return AuthResponse.builder()
                     .accessToken(accessToken)
                     .refreshToken(refreshToken)
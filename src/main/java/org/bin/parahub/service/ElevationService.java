@@ -0,0 +1,224 @@
+package org.bin.parahub.service;
+
+import org.bin.parahub.annotation.Profiled;
+import org.bin.parahub.entity.Spot;
+import org.bin.parahub.entity.TerrainPoint;
+import org.bin.parahub.enums.ProfilingMode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Высота над уровнем моря по локальным тайлам ЦМР в формате .hgt (SRTM1/SRTM3, Copernicus GLO-30 в .hgt).
+ *
+ * Тайл — квадрат 1°×1°, имя по юго-западному углу (N44E034.hgt), внутри n×n big-endian int16
+ * построчно с севера на юг, -32768 — нет данных. Файлы отображаются в память (mmap) и не читаются целиком;
+ * открытые тайлы держатся в кэше на max-open-tiles, отсутствующие тоже запоминаются, чтобы не дёргать
+ * файловую систему. Значение между узлами сетки — билинейная интерполяция по четырём соседям.
+ *
+ * getElevation зовётся на каждый шаг луча (см. GlideReachabilityService), поэтому чтение кэша без блокировок:
+ * ConcurrentHashMap, тайл открывается один раз под блокировкой только своего ключа, а вытеснение — «второй шанс»
+ * по флагу used, который чтение лишь выставляет. Вытесненное отображение освобождает GC, когда его дочитают.
+ * По той же причине @Profiled висит только на fillMissing, а не на каждой выборке.
+ */
+@Service
+public class ElevationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ElevationService.class);
+
+    private static final short NO_DATA = Short.MIN_VALUE;
+
+    private final Path directory;
+    private final int maxOpenTiles;
+    private final ConcurrentHashMap<Integer, Tile> tiles = new ConcurrentHashMap<>();
+
+    public ElevationService(
+            @Value("${parahub.elevation.directory:dem}") String directory,
+            @Value("${parahub.elevation.max-open-tiles:64}") int maxOpenTiles) {
+        this.directory = Path.of(directory);
+        this.maxOpenTiles = maxOpenTiles;
+        if (!Files.isDirectory(this.directory)) {
+            logger.warn("Каталог ЦМР {} не найден, высоты определяться не будут", this.directory.toAbsolutePath());
+        }
+    }
+
+    /**
+     * @return высота в метрах или null, если координаты вне диапазона (или NaN), тайла нет или вокруг точки нет данных
+     */
+    public Double getElevation(double latitude, double longitude) {
+        if (Double.isNaN(latitude) || Double.isNaN(longitude) || latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+            return null;
+        }
+        int latFloor = (int) Math.floor(latitude);
+        int lonFloor = (int) Math.floor(longitude);
+        // северный и восточный края принадлежат соседним тайлам, но в .hgt продублированы в этом
+        if (latFloor == 90) {
+            latFloor = 89;
+        }
+        if (lonFloor == 180) {
+            lonFloor = 179;
+        }
+        Tile tile = tile(latFloor, lonFloor);
+        if (tile.isMissing()) {
+            return null;
+        }
+
+        int last = tile.samples() - 1;
+        double row = (latFloor + 1 - latitude) * last;
+        double col = (longitude - lonFloor) * last;
+        int r0 = Math.min((int) row, last - 1);
+        int c0 = Math.min((int) col, last - 1);
+        double dr = row - r0;
+        double dc = col - c0;
+
+        return interpolate(
+                tile.sample(r0, c0), tile.sample(r0, c0 + 1),
+                tile.sample(r0 + 1, c0), tile.sample(r0 + 1, c0 + 1),
+                dr, dc);
+    }
+
+    /**
+     * Проставить высоту старту и его точкам, если она не задана вручную
+     */
+    @Profiled(mode = ProfilingMode.HISTOGRAM)
+    public void fillMissing(Spot spot) {
+        if (spot.getElevation() == null) {
+            spot.setElevation(getElevation(spot.getLatitude(), spot.getLongitude()));
+        }
+        if (spot.getTerrainPoints() != null) {
+            spot.getTerrainPoints().forEach(this::fillMissing);
+        }
+    }
+
+    @Profiled(mode = ProfilingMode.HISTOGRAM)
+    public void fillMissing(TerrainPoint terrainPoint) {
+        if (terrainPoint.getElevation() == null) {
+            terrainPoint.setElevation(getElevation(terrainPoint.getLatitude(), terrainPoint.getLongitude()));
+        }
+    }
+
+    /**
+     * Билинейная интерполяция; узлы без данных выпадают, веса остальных перенормируются
+     */
+    static Double interpolate(short topLeft, short topRight, short bottomLeft, short bottomRight, double dr, double dc) {
+        double[] weights = {(1 - dr) * (1 - dc), (1 - dr) * dc, dr * (1 - dc), dr * dc};
+        short[] values = {topLeft, topRight, bottomLeft, bottomRight};
+        double sum = 0;
+        double weight = 0;
+        for (int i = 0; i < 4; i++) {
+            if (values[i] != NO_DATA) {
+                sum += values[i] * weights[i];
+                weight += weights[i];
+            }
+        }
+        return weight > 0 ? sum / weight : null;
+    }
+
+    private Tile tile(int latFloor, int lonFloor) {
+        int key = (latFloor + 90) * 360 + (lonFloor + 180);
+        Tile tile = tiles.get(key);
+        if (tile == null) {
+            tile = tiles.computeIfAbsent(key, k -> open(latFloor, lonFloor));
+            if (tiles.size() > maxOpenTiles) {
+                evict();
+            }
+        }
+        tile.touch();
+        return tile;
+    }
+
+    /**
+     * «Второй шанс»: недавно читанные тайлы теряют флаг used и переживают проход, вытесняется первый без него
+     */
+    private synchronized void evict() {
+        while (tiles.size() > maxOpenTiles) {
+            Iterator<Map.Entry<Integer, Tile>> entries = tiles.entrySet().iterator();
+            boolean evicted = false;
+            while (entries.hasNext() && !evicted) {
+                Tile tile = entries.next().getValue();
+                if (tile.used) {
+                    tile.used = false;
+                } else {
+                    entries.remove();
+                    evicted = true;
+                }
+            }
+        }
+    }
+
+    private Tile open(int latFloor, int lonFloor) {
+        Path file = directory.resolve(tileName(latFloor, lonFloor));
+        if (!Files.isRegularFile(file)) {
+            return Tile.missing();
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            int samples = (int) Math.round(Math.sqrt(size / 2.0));
+            if ((long) samples * samples * 2 != size) {
+                logger.warn("Тайл {} размером {} байт не квадратная сетка int16, пропускаем", file, size);
+                return Tile.missing();
+            }
+            // отображение остаётся валидным и после закрытия канала
+            return new Tile(channel.map(FileChannel.MapMode.READ_ONLY, 0, size), samples);
+        } catch (IOException e) {
+            logger.warn("Не удалось открыть тайл {}: {}", file, e.getMessage());
+            return Tile.missing();
+        }
+    }
+
+    static String tileName(int latFloor, int lonFloor) {
+        return String.format(Locale.ROOT, "%s%02d%s%03d.hgt",
+                latFloor >= 0 ? "N" : "S", Math.abs(latFloor),
+                lonFloor >= 0 ? "E" : "W", Math.abs(lonFloor));
+    }
+
+    /**
+     * Абсолютные чтения из ByteBuffer (по умолчанию big-endian) потокобезопасны. Отсутствующий тайл — без data,
+     * у каждого ключа свой, чтобы вытеснялся наравне с открытыми
+     */
+    private static final class Tile {
+        private final ByteBuffer data;
+        private final int samples;
+        private volatile boolean used = true;
+
+        Tile(ByteBuffer data, int samples) {
+            this.data = data;
+            this.samples = samples;
+        }
+
+        static Tile missing() {
+            return new Tile(null, 0);
+        }
+
+        boolean isMissing() {
+            return data == null;
+        }
+
+        int samples() {
+            return samples;
+        }
+
+        /** запись только при смене значения: повторные чтения горячего тайла не пишут в общую память */
+        void touch() {
+            if (!used) {
+                used = true;
+            }
+        }
+
+        short sample(int row, int col) {
+            return data.getShort((row * samples + col) * 2);
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package org.bin.parahub.service;
+
+import jakarta.annotation.PreDestroy;
+import org.bin.parahub.annotation.Profiled;
+import org.bin.parahub.dto.FlightDTO;
+import org.bin.parahub.entity.Flight;
+import org.bin.parahub.entity.FlightTrack;
+import org.bin.parahub.entity.Spot;
+import org.bin.parahub.entity.TerrainPoint;
+import org.bin.parahub.enums.PointType;
+import org.bin.parahub.event.FlightsStoredEvent;
+import org.bin.parahub.exception.FlightNotFoundException;
+import org.bin.parahub.exception.InvalidIgcException;
+import org.bin.parahub.exception.SpotNotFoundException;
+import org.bin.parahub.igc.IgcParser;
+import org.bin.parahub.igc.TrackCodec;
+import org.bin.parahub.mapper.FlightMapper;
+import org.bin.parahub.repository.FlightRepository;
+import org.bin.parahub.repository.FlightTrackRepository;
+import org.bin.parahub.repository.SpotRepository;
+import org.bin.parahub.repository.TerrainPointRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Загрузка полётов из IGC к споту.
+ *
+ * Файл разбирается потоком (IgcParser) прямо из multipart-загрузки; трек хранится в TrackCodec —
+ * примерно в 10–15 раз меньше исходного IGC. Полёт привязывается к ближайшему старту (TAKEOFF) спота
+ * в пределах takeoff-radius-m от первой точки трека.
+ *
+ * Пачка файлов разбирается параллельно в отдельном ForkJoinPool частями по batch-chunk файлов;
+ * каждая часть сохраняется одной транзакцией JDBC-батчами (последовательность flights_seq, batch_size).
+ * Ошибка в одном файле не валит пачку — она возвращается в результате этого файла.
+ */
+@Service
+@Profiled(logArgs = false, logResult = false)
+public class FlightService {
+
+    private static final double METERS_PER_DEGREE = 111_320;
+
+    private final FlightRepository flightRepository;
+    private final FlightTrackRepository flightTrackRepository;
+    private final SpotRepository spotRepository;
+    private final TerrainPointRepository terrainPointRepository;
+    private final FlightMapper flightMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ForkJoinPool pool;
+    private final int batchChunk;
+    private final double takeoffRadiusMeters;
+
+    public FlightService(
+            FlightRepository flightRepository,
+            FlightTrackRepository flightTrackRepository,
+            SpotRepository spotRepository,
+            TerrainPointRepository terrainPointRepository,
+            FlightMapper flightMapper,
+            TransactionTemplate transactionTemplate,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${parahub.flights.parallelism:0}") int parallelism,
+            @Value("${parahub.flights.batch-chunk:64}") int batchChunk,
+            @Value("${parahub.flights.takeoff-radius-m:5000}") double takeoffRadiusMeters) {
+        this.flightRepository = flightRepository;
+        this.flightTrackRepository = flightTrackRepository;
+        this.spotRepository = spotRepository;
+        this.terrainPointRepository = terrainPointRepository;
+        this.flightMapper = flightMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.batchChunk = batchChunk;
+        this.takeoffRadiusMeters = takeoffRadiusMeters;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    public FlightDTO upload(long spotId, String fileName, InputStream igc) {
+        Spot spot = enabledSpot(spotId);
+        Parsed parsed = parse(spot, takeoffs(spotId), fileName, igc);
+        store(List.of(parsed));
+        return flightMapper.toDTO(parsed.flight());
+    }
+
+    public List<FlightDTO.UploadResult> uploadBatch(long spotId, List<MultipartFile> files) {
+        Spot spot = enabledSpot(spotId);
+        List<TerrainPoint> takeoffs = takeoffs(spotId);
+
+        List<FlightDTO.UploadResult> results = new ArrayList<>(files.size());
+        for (int from = 0; from < files.size(); from += batchChunk) {
+            List<MultipartFile> chunk = files.subList(from, Math.min(from + batchChunk, files.size()));
+            List<Object> outcomes = pool.submit(() -> chunk.parallelStream()
+                    .map(file -> parseQuietly(spot, takeoffs, file))
+                    .toList()).join();
+
+            List<Parsed> parsed = new ArrayList<>(outcomes.size());
+            for (Object outcome : outcomes) {
+                if (outcome instanceof Parsed flight) {
+                    parsed.add(flight);
+                }
+            }
+            store(parsed);
+
+            for (int i = 0; i < chunk.size(); i++) {
+                Object outcome = outcomes.get(i);
+                String fileName = chunk.get(i).getOriginalFilename();
+                results.add(outcome instanceof Parsed flight
+                        ? new FlightDTO.UploadResult(fileName, flightMapper.toDTO(flight.flight()), null)
+                        : new FlightDTO.UploadResult(fileName, null, (String) outcome));
+            }
+        }
+        return results;
+    }
+
+    public List<FlightDTO> getFlightsBySpot(long spotId) {
+        if (!spotRepository.existsById(spotId)) {
+            throw new SpotNotFoundException(spotId);
+        }
+        return flightRepository.findBySpotIdOrderByStartTimeDesc(spotId).stream()
+                .map(flightMapper::toDTO)
+                .toList();
+    }
+
+    public FlightDTO getFlightById(long id) {
+        return flightRepository.findById(id)
+                .map(flightMapper::toDTO)
+                .orElseThrow(() -> new FlightNotFoundException(id));
+    }
+
+    public FlightDTO.Track getTrack(long flightId) {
+        FlightTrack track = flightTrackRepository.findById(flightId)
+                .orElseThrow(() -> new FlightNotFoundException(flightId));
+        List<TrackCodec.Fix> fixes = TrackCodec.decode(track.getData());
+        List<double[]> points = new ArrayList<>(fixes.size());
+        for (TrackCodec.Fix fix : fixes) {
+            points.add(new double[]{fix.time(), fix.latitudeDegrees(), fix.longitudeDegrees(),
+                    fix.pressureAltitude(), fix.gpsAltitude()});
+        }
+        return new FlightDTO.Track(flightId, points);
+    }
+
+    /**
+     * Parsed или текст ошибки
+     */
+    private Object parseQuietly(Spot spot, List<TerrainPoint> takeoffs, MultipartFile file) {
+        try (InputStream in = file.getInputStream()) {
+            return parse(spot, takeoffs, file.getOriginalFilename(), in);
+        } catch (InvalidIgcException e) {
+            return e.getMessage();
+        } catch (IOException | UncheckedIOException e) {
+            return "Read error: " + e.getMessage();
+        }
+    }
+
+    private Parsed parse(Spot spot, List<TerrainPoint> takeoffs, String fileName, InputStream igc) {
+        IgcParser.IgcFlight parsed = IgcParser.parse(igc);
+
+        Flight flight = new Flight();
+        flight.setSpot(spot);
+        flight.setFileName(fileName);
+        flight.setPilotName(parsed.pilotName());
+        flight.setGliderType(parsed.gliderType());
+        flight.setFlightDate(parsed.date());
+        flight.setStartTime(parsed.startTime());
+        flight.setEndTime(parsed.endTime());
+        flight.setFixCount(parsed.fixCount());
+        flight.setRejectedRecords(parsed.rejectedRecords());
+        flight.setLaunchLatitude(parsed.launchLatitude());
+        flight.setLaunchLongitude(parsed.launchLongitude());
+        flight.setLandingLatitude(parsed.landingLatitude());
+        flight.setLandingLongitude(parsed.landingLongitude());
+        flight.setMaxAltitude(parsed.maxAltitude());
+        flight.setMinAltitude(parsed.minAltitude());
+        flight.setAltitudeGain(parsed.altitudeGain());
+        flight.setTrackDistance(parsed.trackDistance());
+        flight.setMaxDistanceFromLaunch(parsed.maxDistanceFromLaunch());
+        flight.setRawSize(parsed.rawSize());
+        flight.setTrackSize((long) parsed.track().length);
+        flight.setUploadedAt(Instant.now());
+
+        TerrainPoint nearest = null;
+        double nearestDistance = Double.MAX_VALUE;
+        for (TerrainPoint takeoff : takeoffs) {
+            double distance = distance(parsed.launchLatitude(), parsed.launchLongitude(),
+                    takeoff.getLatitude(), takeoff.getLongitude());
+            if (distance < nearestDistance) {
+                nearest = takeoff;
+                nearestDistance = distance;
+            }
+        }
+        if (nearest != null && nearestDistance <= takeoffRadiusMeters) {
+            flight.setTakeoff(nearest);
+            flight.setTakeoffDistance(nearestDistance);
+        }
+
+        FlightTrack track = new FlightTrack();
+        track.setFlight(flight);
+        track.setData(parsed.track());
+        return new Parsed(flight, track);
+    }
+
+    private void store(List<Parsed> parsed) {
+        if (parsed.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            flightRepository.saveAll(parsed.stream().map(Parsed::flight).toList());
+            flightTrackRepository.saveAll(parsed.stream().map(Parsed::track).toList());
+        });
+        eventPublisher.publishEvent(new FlightsStoredEvent(parsed.stream().map(flight -> flight.flight().getId()).toList()));
+    }
+
+    private Spot enabledSpot(long spotId) {
+        Spot spot = spotRepository.findById(spotId).orElseThrow(() -> new SpotNotFoundException(spotId));
+        if (!spot.getIsEnabled()) {
+            throw new SpotNotFoundException(spotId);
+        }
+        return spot;
+    }
+
+    private List<TerrainPoint> takeoffs(long spotId) {
+        return terrainPointRepository.findBySpotId(spotId).stream()
+                .filter(point -> point.getIsEnabled() && point.getType() == PointType.TAKEOFF)
+                .toList();
+    }
+
+    private static double distance(double lat1, double lon1, double lat2, double lon2) {
+        double dy = (lat2 - lat1) * METERS_PER_DEGREE;
+        double dx = (lon2 - lon1) * METERS_PER_DEGREE * Math.cos(Math.toRadians((lat1 + lat2) / 2));
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
+    private record Parsed(Flight flight, FlightTrack track) {
+    }
+}
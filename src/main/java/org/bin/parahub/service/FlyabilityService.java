@@ -0,0 +1,325 @@
+package org.bin.parahub.service;
+
+import org.bin.parahub.annotation.Profiled;
+import org.bin.parahub.dto.FlyabilityDTO;
+import org.bin.parahub.entity.Spot;
+import org.bin.parahub.entity.Wind;
+import org.bin.parahub.enums.WindDirection;
+import org.bin.parahub.event.SpotsChangedEvent;
+import org.bin.parahub.exception.ForecastNotAvailableException;
+import org.bin.parahub.exception.SpotNotFoundException;
+import org.bin.parahub.forecast.FlyabilityScorer;
+import org.bin.parahub.forecast.ForecastGrid;
+import org.bin.parahub.repository.SpotRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Лётность спотов по сеточному прогнозу ветра.
+ *
+ * Файлы прогноза (*.csv, см. ForecastGrid) кладутся в parahub.forecast.directory; каталог опрашивается
+ * раз в poll-interval-ms. Новый или изменённый файл читается и оценивается один (FlyabilityScorer по
+ * всем спотам в его сетке × всем часам), уже посчитанные файлы не трогаются. Правка спота
+ * (SpotsChangedEvent) перечитывает колонки спотов и переоценивает прогнозы без повторного чтения файлов.
+ *
+ * После каждого изменения строится снимок: для спота берётся самый свежий запуск модели, который его
+ * покрывает, и заранее считаются лучшие споты каждого дня, так что запросы — это поиск в готовых картах.
+ */
+@Service
+@Profiled(logArgs = true, logResult = false)
+public class FlyabilityService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FlyabilityService.class);
+
+    private final SpotRepository spotRepository;
+    private final Path directory;
+    private final ZoneId zone;
+    private final int firstHour;
+    private final int lastHour;
+    private final double flyableScore;
+
+    private final AtomicBoolean spotsChanged = new AtomicBoolean(true);
+
+    /** файл -> прочитанная сетка и её оценки; только из refresh() */
+    private final Map<Path, Run> runs = new HashMap<>();
+    private SpotColumns spots;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    public FlyabilityService(
+            SpotRepository spotRepository,
+            @Value("${parahub.forecast.directory:forecast}") String directory,
+            @Value("${parahub.forecast.zone:Europe/Moscow}") String zone,
+            @Value("${parahub.forecast.first-hour:8}") int firstHour,
+            @Value("${parahub.forecast.last-hour:20}") int lastHour,
+            @Value("${parahub.forecast.flyable-score:0.6}") double flyableScore) {
+        this.spotRepository = spotRepository;
+        this.directory = Path.of(directory);
+        this.zone = ZoneId.of(zone);
+        this.firstHour = firstHour;
+        this.lastHour = lastHour;
+        this.flyableScore = flyableScore;
+    }
+
+    /**
+     * После коммита, иначе refresh() может перечитать споты до того, как правка станет видна
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onSpotsChanged(SpotsChangedEvent event) {
+        spotsChanged.set(true);
+    }
+
+    /**
+     * Подхватить новые, изменённые и удалённые файлы прогноза и правки спотов
+     */
+    @Scheduled(fixedDelayString = "${parahub.forecast.poll-interval-ms:60000}")
+    public synchronized void refresh() {
+        boolean rescoreAll = spotsChanged.getAndSet(false);
+        if (rescoreAll) {
+            try {
+                spots = loadSpots();
+            } catch (RuntimeException e) {
+                spotsChanged.set(true);
+                throw e;
+            }
+        }
+
+        Map<Path, Long> files = listFiles();
+        boolean changed = rescoreAll || runs.keySet().retainAll(files.keySet());
+        for (Map.Entry<Path, Long> file : files.entrySet()) {
+            Run run = runs.get(file.getKey());
+            if (run != null && run.modified() == file.getValue()) {
+                if (rescoreAll) {
+                    runs.put(file.getKey(), new Run(run.modified(), run.grid(), score(run.grid(), spots)));
+                }
+                continue;
+            }
+            try {
+                ForecastGrid grid = ForecastGrid.read(file.getKey());
+                runs.put(file.getKey(), new Run(file.getValue(), grid, score(grid, spots)));
+                changed = true;
+                logger.info("Прогноз {}: запуск {}, {} ч", file.getKey().getFileName(), grid.getRun(), grid.getHours());
+            } catch (IOException e) {
+                logger.warn("Не удалось прочитать прогноз {}: {}", file.getKey(), e.getMessage());
+            }
+        }
+        if (changed) {
+            snapshot = buildSnapshot(spots, runs.values());
+        }
+    }
+
+    public FlyabilityDTO getSpotFlyability(long spotId) {
+        SpotForecast forecast = snapshot.bySpot().get(spotId);
+        if (forecast == null) {
+            if (!spotRepository.existsById(spotId)) {
+                throw new SpotNotFoundException(spotId);
+            }
+            throw new ForecastNotAvailableException(spotId);
+        }
+        Scores scores = forecast.scores();
+        int hours = scores.hours();
+        int offset = forecast.row() * hours;
+        List<FlyabilityDTO.Hour> result = new ArrayList<>(hours);
+        for (int h = 0; h < hours; h++) {
+            float score = scores.score()[offset + h];
+            if (Float.isNaN(score)) {
+                continue;
+            }
+            float direction = scores.directionFrom()[offset + h];
+            result.add(new FlyabilityDTO.Hour(
+                    scores.run().plus(h, ChronoUnit.HOURS),
+                    scores.speed()[offset + h],
+                    direction,
+                    WindDirection.values()[Math.round(direction / 45f) % FlyabilityScorer.SECTORS],
+                    score));
+        }
+        return new FlyabilityDTO(spotId, forecast.name(), scores.run(), result);
+    }
+
+    /**
+     * Лучшие споты дня (по умолчанию сегодня в parahub.forecast.zone) по лучшему часу в лётное время
+     */
+    public List<FlyabilityDTO.DayBest> getBestSpots(LocalDate date, int limit, Integer maxXcDifficulty) {
+        LocalDate day = date != null ? date : LocalDate.now(zone);
+        return snapshot.bestByDay().getOrDefault(day, List.of()).stream()
+                .filter(best -> maxXcDifficulty == null
+                        || (best.getXcDifficulty() != null && best.getXcDifficulty() <= maxXcDifficulty))
+                .limit(limit)
+                .toList();
+    }
+
+    private Map<Path, Long> listFiles() {
+        if (!Files.isDirectory(directory)) {
+            return Map.of();
+        }
+        Map<Path, Long> files = new HashMap<>();
+        try (Stream<Path> list = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) list.filter(path -> path.toString().endsWith(".csv"))::iterator) {
+                files.put(file, Files.getLastModifiedTime(file).toMillis());
+            }
+        } catch (IOException e) {
+            logger.warn("Не удалось прочитать каталог прогнозов {}: {}", directory, e.getMessage());
+        }
+        return files;
+    }
+
+    /**
+     * Колонки спотов: координаты и диапазоны скоростей по румбам. Несколько записей Wind одного румба
+     * объединяются в общий диапазон.
+     */
+    private SpotColumns loadSpots() {
+        List<Spot> enabled = spotRepository.findByIsEnabledTrue();
+        int count = enabled.size();
+        SpotColumns columns = new SpotColumns(new long[count], new String[count], new double[count], new double[count],
+                new Integer[count], new float[count * FlyabilityScorer.SECTORS], new float[count * FlyabilityScorer.SECTORS]);
+        Arrays.fill(columns.minSpeed(), Float.NaN);
+        Arrays.fill(columns.maxSpeed(), Float.NaN);
+        for (int i = 0; i < count; i++) {
+            Spot spot = enabled.get(i);
+            columns.ids()[i] = spot.getId();
+            columns.names()[i] = spot.getName();
+            columns.latitudes()[i] = spot.getLatitude();
+            columns.longitudes()[i] = spot.getLongitude();
+            columns.xcDifficulty()[i] = spot.getXcDifficulty();
+            for (Wind wind : spot.getWinds()) {
+                int index = i * FlyabilityScorer.SECTORS + wind.getDirection().ordinal();
+                float min = columns.minSpeed()[index];
+                float max = columns.maxSpeed()[index];
+                columns.minSpeed()[index] = Float.isNaN(min) ? wind.getMinSpeed() : Math.min(min, wind.getMinSpeed());
+                columns.maxSpeed()[index] = Float.isNaN(max) ? wind.getMaxSpeed() : Math.max(max, wind.getMaxSpeed());
+            }
+        }
+        return columns;
+    }
+
+    /**
+     * Оценки всех спотов в сетке прогноза × всех часов; строки — споты, попавшие в сетку
+     */
+    static Scores score(ForecastGrid grid, SpotColumns spots) {
+        int hours = grid.getHours();
+        int[] covered = new int[spots.ids().length];
+        int count = 0;
+        for (int i = 0; i < spots.ids().length; i++) {
+            if (grid.covers(spots.latitudes()[i], spots.longitudes()[i])) {
+                covered[count++] = i;
+            }
+        }
+        float[] speed = new float[count * hours];
+        float[] directionFrom = new float[count * hours];
+        float[] minSpeed = new float[count * FlyabilityScorer.SECTORS];
+        float[] maxSpeed = new float[count * FlyabilityScorer.SECTORS];
+        for (int row = 0; row < count; row++) {
+            int spot = covered[row];
+            grid.sample(spots.latitudes()[spot], spots.longitudes()[spot], speed, directionFrom, row * hours);
+            System.arraycopy(spots.minSpeed(), spot * FlyabilityScorer.SECTORS, minSpeed, row * FlyabilityScorer.SECTORS, FlyabilityScorer.SECTORS);
+            System.arraycopy(spots.maxSpeed(), spot * FlyabilityScorer.SECTORS, maxSpeed, row * FlyabilityScorer.SECTORS, FlyabilityScorer.SECTORS);
+        }
+        float[] score = new float[count * hours];
+        FlyabilityScorer.score(count, hours, speed, directionFrom, minSpeed, maxSpeed, score);
+        return new Scores(grid.getRun(), hours, Arrays.copyOf(covered, count), speed, directionFrom, score);
+    }
+
+    private Snapshot buildSnapshot(SpotColumns spots, Iterable<Run> loaded) {
+        // самый свежий запуск, покрывающий спот
+        Scores[] latest = new Scores[spots.ids().length];
+        int[] rows = new int[spots.ids().length];
+        for (Run run : loaded) {
+            Scores scores = run.scores();
+            for (int row = 0; row < scores.spots().length; row++) {
+                int spot = scores.spots()[row];
+                if (latest[spot] == null || latest[spot].run().isBefore(scores.run())) {
+                    latest[spot] = scores;
+                    rows[spot] = row;
+                }
+            }
+        }
+
+        Map<Long, SpotForecast> bySpot = new HashMap<>();
+        Map<LocalDate, List<FlyabilityDTO.DayBest>> bestByDay = new HashMap<>();
+        for (int spot = 0; spot < latest.length; spot++) {
+            Scores scores = latest[spot];
+            if (scores == null) {
+                continue;
+            }
+            bySpot.put(spots.ids()[spot], new SpotForecast(spots.names()[spot], scores, rows[spot]));
+
+            Map<LocalDate, FlyabilityDTO.DayBest> days = new HashMap<>();
+            int offset = rows[spot] * scores.hours();
+            for (int h = 0; h < scores.hours(); h++) {
+                float score = scores.score()[offset + h];
+                Instant time = scores.run().plus(h, ChronoUnit.HOURS);
+                ZonedDateTime local = time.atZone(zone);
+                if (Float.isNaN(score) || local.getHour() < firstHour || local.getHour() > lastHour) {
+                    continue;
+                }
+                FlyabilityDTO.DayBest best = days.computeIfAbsent(local.toLocalDate(), date -> new FlyabilityDTO.DayBest(
+                        null, null, 0, 0, null, date, -1, null, 0));
+                if (score > best.getBestScore()) {
+                    best.setBestScore(score);
+                    best.setBestTime(time);
+                }
+                if (score >= flyableScore) {
+                    best.setFlyableHours(best.getFlyableHours() + 1);
+                }
+            }
+            for (FlyabilityDTO.DayBest best : days.values()) {
+                best.setSpotId(spots.ids()[spot]);
+                best.setSpotName(spots.names()[spot]);
+                best.setLatitude(spots.latitudes()[spot]);
+                best.setLongitude(spots.longitudes()[spot]);
+                best.setXcDifficulty(spots.xcDifficulty()[spot]);
+                bestByDay.computeIfAbsent(best.getDate(), date -> new ArrayList<>()).add(best);
+            }
+        }
+        Comparator<FlyabilityDTO.DayBest> order = Comparator
+                .comparingDouble(FlyabilityDTO.DayBest::getBestScore).reversed()
+                .thenComparing(Comparator.comparingInt(FlyabilityDTO.DayBest::getFlyableHours).reversed());
+        bestByDay.replaceAll((date, list) -> {
+            list.sort(order);
+            return List.copyOf(list);
+        });
+        return new Snapshot(Map.copyOf(bySpot), Map.copyOf(bestByDay));
+    }
+
+    record SpotColumns(long[] ids, String[] names, double[] latitudes, double[] longitudes, Integer[] xcDifficulty,
+                       float[] minSpeed, float[] maxSpeed) {
+    }
+
+    /**
+     * Оценки одного запуска модели; spots — индексы в SpotColumns, остальные колонки [row * hours + hour]
+     */
+    record Scores(Instant run, int hours, int[] spots, float[] speed, float[] directionFrom, float[] score) {
+    }
+
+    private record Run(long modified, ForecastGrid grid, Scores scores) {
+    }
+
+    private record SpotForecast(String name, Scores scores, int row) {
+    }
+
+    private record Snapshot(Map<Long, SpotForecast> bySpot, Map<LocalDate, List<FlyabilityDTO.DayBest>> bestByDay) {
+        static final Snapshot EMPTY = new Snapshot(Map.of(), Map.of());
+    }
+}
@@ -0,0 +1,279 @@
+package org.bin.parahub.service;
+
+import org.bin.parahub.annotation.Profiled;
+import org.bin.parahub.dto.GlideReachabilityDTO;
+import org.bin.parahub.entity.Spot;
+import org.bin.parahub.entity.TerrainPoint;
+import org.bin.parahub.enums.PointType;
+import org.bin.parahub.enums.WindDirection;
+import org.bin.parahub.event.TerrainPointsChangedEvent;
+import org.bin.parahub.exception.RegionTooLargeException;
+import org.bin.parahub.exception.SpotNotFoundException;
+import org.bin.parahub.repository.SpotRepository;
+import org.bin.parahub.repository.TerrainPointRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+/**
+ * Какие посадки достижимы со стартов спота при заданном качестве и ветре, и область досягаемости.
+ *
+ * Из каждого старта пускаются лучи через равные углы: пилот летит курсом луча на скорости триммера,
+ * путевая скорость складывается с ветром, высота теряется по качеству; луч обрывается, когда запас над
+ * рельефом (ЦМР, см. ElevationService) становится меньше clearance. Концы лучей — многоугольник области.
+ * Посадка достижима, если на прямом курсе к ней нет препятствий и прилёт выше площадки.
+ *
+ * Лучи, старты и споты считаются параллельно в отдельном ForkJoinPool. Качество и скорость ветра
+ * округляются до GLIDE_RATIO_STEP / WIND_SPEED_STEP, и расчёт идёт уже по округлённым, так что соседние
+ * запросы попадают в одну запись кэша. Кэш — LRU на cache-size записей (спот × параметры); записи спота
+ * сбрасываются по TerrainPointsChangedEvent после коммита изменившей точки транзакции.
+ */
+@Service
+@Profiled(logArgs = true, logResult = false)
+public class GlideReachabilityService {
+
+    private static final double METERS_PER_DEGREE = 111_320;
+    private static final double GLIDE_RATIO_STEP = 0.25;
+    private static final double WIND_SPEED_STEP = 0.5;
+
+    private final SpotRepository spotRepository;
+    private final TerrainPointRepository terrainPointRepository;
+    private final ElevationService elevationService;
+    private final ForkJoinPool pool;
+
+    private final int directions;
+    private final double stepMeters;
+    private final double clearanceMeters;
+    private final double airspeed;
+    private final double maxDistanceMeters;
+    private final int maxRegionSpots;
+
+    /** (spotId, параметры расчёта) -> результат; в порядке доступа, доступ под монитором самой карты */
+    private final LinkedHashMap<Key, GlideReachabilityDTO> cache;
+
+    /** растёт на каждом сбросе: расчёт, начатый до сброса, в кэш не кладётся */
+    private final AtomicLong evictions = new AtomicLong();
+
+    public GlideReachabilityService(
+            SpotRepository spotRepository,
+            TerrainPointRepository terrainPointRepository,
+            ElevationService elevationService,
+            @Value("${parahub.glide.parallelism:0}") int parallelism,
+            @Value("${parahub.glide.directions:72}") int directions,
+            @Value("${parahub.glide.step-m:100}") double stepMeters,
+            @Value("${parahub.glide.clearance-m:30}") double clearanceMeters,
+            @Value("${parahub.glide.airspeed-ms:10}") double airspeed,
+            @Value("${parahub.glide.max-distance-km:60}") double maxDistanceKm,
+            @Value("${parahub.glide.cache-size:1000}") int cacheSize,
+            @Value("${parahub.glide.max-region-spots:200}") int maxRegionSpots) {
+        this.spotRepository = spotRepository;
+        this.terrainPointRepository = terrainPointRepository;
+        this.elevationService = elevationService;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.directions = directions;
+        this.stepMeters = stepMeters;
+        this.clearanceMeters = clearanceMeters;
+        this.airspeed = airspeed;
+        this.maxDistanceMeters = maxDistanceKm * 1000;
+        this.maxRegionSpots = maxRegionSpots;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, GlideReachabilityDTO> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    public GlideReachabilityDTO getReachability(long spotId, double glideRatio, double windSpeed, WindDirection windDirection) {
+        Spot spot = spotRepository.findById(spotId).orElseThrow(() -> new SpotNotFoundException(spotId));
+        if (!spot.getIsEnabled()) {
+            throw new SpotNotFoundException(spotId);
+        }
+        return pool.submit(() -> cached(spotId, Params.of(glideRatio, windSpeed, windDirection))).join();
+    }
+
+    /**
+     * Все активные споты в прямоугольнике; споты считаются параллельно.
+     * Больше max-region-spots — RegionTooLargeException, чтобы один запрос не занял пул надолго
+     */
+    public List<GlideReachabilityDTO> getRegionReachability(double minLat, double maxLat, double minLon, double maxLon,
+                                                            double glideRatio, double windSpeed, WindDirection windDirection) {
+        List<Spot> spots = spotRepository.findByIsEnabledTrueAndLatitudeBetweenAndLongitudeBetween(minLat, maxLat, minLon, maxLon);
+        if (spots.size() > maxRegionSpots) {
+            throw new RegionTooLargeException(spots.size(), maxRegionSpots);
+        }
+        Params params = Params.of(glideRatio, windSpeed, windDirection);
+        return pool.submit(() -> spots.parallelStream()
+                .map(spot -> cached(spot.getId(), params))
+                .toList()).join();
+    }
+
+    /**
+     * После коммита: до него пересчёт прочитал бы старые точки и положил их обратно в кэш.
+     * fallbackExecution — для событий, опубликованных уже вне транзакции (после TransactionTemplate)
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTerrainPointsChanged(TerrainPointsChangedEvent event) {
+        synchronized (cache) {
+            evictions.incrementAndGet();
+            cache.keySet().removeIf(key -> key.spotId() == event.spotId());
+        }
+    }
+
+    /**
+     * Считается вне монитора; если за время расчёта был сброс, результат отдаётся, но не кэшируется
+     */
+    private GlideReachabilityDTO cached(long spotId, Params params) {
+        Key key = new Key(spotId, params);
+        long evictionsBefore;
+        synchronized (cache) {
+            GlideReachabilityDTO result = cache.get(key);
+            if (result != null) {
+                return result;
+            }
+            evictionsBefore = evictions.get();
+        }
+        GlideReachabilityDTO result = compute(spotId, params);
+        synchronized (cache) {
+            if (evictions.get() == evictionsBefore) {
+                cache.put(key, result);
+            }
+        }
+        return result;
+    }
+
+    private GlideReachabilityDTO compute(long spotId, Params params) {
+        List<TerrainPoint> points = terrainPointRepository.findBySpotId(spotId).stream()
+                .filter(TerrainPoint::getIsEnabled)
+                .toList();
+        List<TerrainPoint> landingZones = points.stream()
+                .filter(point -> point.getType() == PointType.LANDING_ZONE)
+                .toList();
+
+        List<GlideReachabilityDTO.Takeoff> takeoffs = points.parallelStream()
+                .filter(point -> point.getType() == PointType.TAKEOFF)
+                .map(takeoff -> takeoff(takeoff, landingZones, params))
+                .toList();
+        return new GlideReachabilityDTO(spotId, params.glideRatio(), params.windSpeed(), params.windDirection(), takeoffs);
+    }
+
+    private GlideReachabilityDTO.Takeoff takeoff(TerrainPoint takeoff, List<TerrainPoint> landingZones, Params params) {
+        double lat = takeoff.getLatitude();
+        double lon = takeoff.getLongitude();
+        double elevation = elevationOf(takeoff);
+
+        List<double[]> polygon = IntStream.range(0, directions).parallel()
+                .mapToObj(i -> {
+                    double bearing = 360.0 * i / directions;
+                    double reach = fly(lat, lon, elevation, bearing, maxDistanceMeters, params, false);
+                    return destination(lat, lon, bearing, reach);
+                })
+                .toList();
+
+        List<GlideReachabilityDTO.LandingZone> zones = new ArrayList<>(landingZones.size());
+        for (TerrainPoint zone : landingZones) {
+            double dy = (zone.getLatitude() - lat) * METERS_PER_DEGREE;
+            double dx = (zone.getLongitude() - lon) * METERS_PER_DEGREE * Math.cos(Math.toRadians(lat));
+            double distance = Math.hypot(dx, dy);
+            double bearing = (Math.toDegrees(Math.atan2(dx, dy)) + 360) % 360;
+
+            double reach = fly(lat, lon, elevation, bearing, distance, params, true);
+            double sinkPerMeter = sinkPerMeter(bearing, params);
+            double arrivalHeight = Double.isInfinite(sinkPerMeter)
+                    ? Double.NEGATIVE_INFINITY
+                    : elevation - distance * sinkPerMeter - elevationOf(zone);
+            zones.add(new GlideReachabilityDTO.LandingZone(zone.getId(), zone.getName(), distance,
+                    arrivalHeight, reach >= distance && arrivalHeight >= 0));
+        }
+        return new GlideReachabilityDTO.Takeoff(takeoff.getId(), takeoff.getName(), lat, lon, elevation, polygon, zones);
+    }
+
+    /**
+     * Полёт по прямой до limit метров
+     *
+     * @param approach последние два шага не проверяются на запас над рельефом — это заход на посадку
+     * @return сколько метров пролетели до того, как запас над рельефом стал меньше clearance
+     */
+    private double fly(double lat, double lon, double startAltitude, double bearing, double limit,
+                       Params params, boolean approach) {
+        double sinkPerMeter = sinkPerMeter(bearing, params);
+        if (Double.isInfinite(sinkPerMeter)) {
+            return 0;
+        }
+        double cosLat = Math.cos(Math.toRadians(lat));
+        double north = Math.cos(Math.toRadians(bearing)) / METERS_PER_DEGREE;
+        double east = Math.sin(Math.toRadians(bearing)) / (METERS_PER_DEGREE * cosLat);
+        double checkedUntil = approach ? limit - 2 * stepMeters : limit;
+
+        double distance = 0;
+        while (distance < limit) {
+            double next = Math.min(distance + stepMeters, limit);
+            double altitude = startAltitude - next * sinkPerMeter;
+            if (next <= checkedUntil) {
+                Double terrain = elevationService.getElevation(lat + north * next, lon + east * next);
+                // без данных ЦМР считаем рельеф на уровне моря
+                if (altitude - (terrain != null ? terrain : 0) < clearanceMeters) {
+                    return distance;
+                }
+            }
+            distance = next;
+        }
+        return distance;
+    }
+
+    /**
+     * Потеря высоты на метр пути: вертикальная скорость по качеству, делённая на путевую скорость с ветром.
+     * Infinity — против ветра пилот стоит на месте или сдувается назад.
+     */
+    private double sinkPerMeter(double bearing, Params params) {
+        // WindDirection — откуда дует, ветер несёт в противоположную сторону
+        double windToward = params.windDirection().ordinal() * 45.0 + 180;
+        double groundSpeed = airspeed + params.windSpeed() * Math.cos(Math.toRadians(bearing - windToward));
+        if (groundSpeed <= 0.5) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return (airspeed / params.glideRatio()) / groundSpeed;
+    }
+
+    private double elevationOf(TerrainPoint point) {
+        if (point.getElevation() != null) {
+            return point.getElevation();
+        }
+        Double dem = elevationService.getElevation(point.getLatitude(), point.getLongitude());
+        return dem != null ? dem : 0;
+    }
+
+    private static double[] destination(double lat, double lon, double bearing, double distance) {
+        double rad = Math.toRadians(bearing);
+        return new double[]{
+                lat + distance * Math.cos(rad) / METERS_PER_DEGREE,
+                lon + distance * Math.sin(rad) / (METERS_PER_DEGREE * Math.cos(Math.toRadians(lat)))
+        };
+    }
+
+    private record Params(double glideRatio, double windSpeed, WindDirection windDirection) {
+
+        static Params of(double glideRatio, double windSpeed, WindDirection windDirection) {
+            return new Params(Math.round(glideRatio / GLIDE_RATIO_STEP) * GLIDE_RATIO_STEP,
+                    Math.round(windSpeed / WIND_SPEED_STEP) * WIND_SPEED_STEP, windDirection);
+        }
+    }
+
+    private record Key(long spotId, Params params) {
+    }
+}
@@ -0,0 +1,179 @@
+package org.bin.parahub.service;
+
+import org.bin.parahub.annotation.Profiled;
+import org.bin.parahub.dto.TrendingSpotDTO;
+import org.bin.parahub.entity.Spot;
+import org.bin.parahub.repository.SpotPopularityRepository;
+import org.bin.parahub.repository.SpotRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Популярность стартов по трафику: просмотры карточки и попадания в поиск.
+ *
+ * Чтение старта только увеличивает LongAdder (полосатый счётчик без общей блокировки), в БД ничего не пишется.
+ * Раз в flush-interval-ms накопленные приращения уходят одним JDBC-батчем в spots.view_count/search_hits.
+ *
+ * Рейтинг — топ-K по весу с экспоненциальным затуханием (период полураспада half-life-hours). Затухание
+ * прямое (forward decay): новые события умножаются на e^(λ·(t − landmark)) вместо того, чтобы на каждом
+ * шаге уменьшать все веса; порядок от этого не меняется. Ключи — только существующие старты, поэтому
+ * хватает точной карты и кучи на K элементов без count-min sketch. Готовый список публикуется целиком,
+ * GET /api/spots/trending просто отдаёт его.
+ */
+@Service
+public class SpotPopularityService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SpotPopularityService.class);
+
+    /** веса с текущим значением ниже этого забываются */
+    private static final double MIN_SCORE = 0.01;
+
+    /** когда множитель e^(λ·(t − landmark)) подходит к пределам double, веса пересчитываются к новой точке отсчёта */
+    private static final double MAX_EXPONENT = 50;
+
+    private final SpotRepository spotRepository;
+    private final SpotPopularityRepository popularityRepository;
+    private final int topK;
+    private final double searchWeight;
+    private final double decayPerMs;
+
+    private final ConcurrentHashMap<Long, Counters> counters = new ConcurrentHashMap<>();
+
+    /** spotId -> вес относительно landmark; только из flush() */
+    private final Map<Long, Double> weights = new HashMap<>();
+    private long landmark = -1;
+
+    private volatile List<TrendingSpotDTO> trending = List.of();
+
+    public SpotPopularityService(
+            SpotRepository spotRepository,
+            SpotPopularityRepository popularityRepository,
+            @Value("${parahub.popularity.top-k:50}") int topK,
+            @Value("${parahub.popularity.search-weight:0.2}") double searchWeight,
+            @Value("${parahub.popularity.half-life-hours:24}") double halfLifeHours) {
+        this.spotRepository = spotRepository;
+        this.popularityRepository = popularityRepository;
+        this.topK = topK;
+        this.searchWeight = searchWeight;
+        this.decayPerMs = Math.log(2) / (halfLifeHours * 3_600_000);
+    }
+
+    public void recordView(long spotId) {
+        counters(spotId).views.increment();
+    }
+
+    public void recordSearchHits(List<Long> spotIds) {
+        for (Long spotId : spotIds) {
+            counters(spotId).searchHits.increment();
+        }
+    }
+
+    /**
+     * Первые limit стартов рейтинга на момент последнего сброса
+     */
+    public List<TrendingSpotDTO> getTrending(int limit) {
+        List<TrendingSpotDTO> current = trending;
+        return current.size() <= limit ? current : current.subList(0, limit);
+    }
+
+    @Scheduled(fixedDelayString = "${parahub.popularity.flush-interval-ms:30000}")
+    @Profiled(logArgs = false, logResult = false)
+    public void flush() {
+        flush(System.currentTimeMillis());
+    }
+
+    synchronized void flush(long now) {
+        List<long[]> deltas = new ArrayList<>();
+        for (Map.Entry<Long, Counters> entry : counters.entrySet()) {
+            long views = entry.getValue().views.sumThenReset();
+            long searchHits = entry.getValue().searchHits.sumThenReset();
+            if (views != 0 || searchHits != 0) {
+                deltas.add(new long[]{entry.getKey(), views, searchHits});
+            }
+        }
+        if (!deltas.isEmpty()) {
+            try {
+                popularityRepository.addCounts(deltas);
+            } catch (RuntimeException e) {
+                // вернуть приращения в счётчики, уйдут следующим батчем
+                for (long[] delta : deltas) {
+                    counters(delta[0]).views.add(delta[1]);
+                    counters(delta[0]).searchHits.add(delta[2]);
+                }
+                logger.warn("Не удалось сохранить счётчики популярности ({} стартов): {}", deltas.size(), e.getMessage());
+                return;
+            }
+        }
+        rank(deltas, now);
+    }
+
+    private void rank(List<long[]> deltas, long now) {
+        if (landmark < 0) {
+            landmark = now;
+        }
+        if (decayPerMs * (now - landmark) > MAX_EXPONENT) {
+            double factor = Math.exp(-decayPerMs * (now - landmark));
+            weights.replaceAll((spotId, weight) -> weight * factor);
+            landmark = now;
+        }
+        double boost = Math.exp(decayPerMs * (now - landmark));
+        for (long[] delta : deltas) {
+            weights.merge(delta[0], (delta[1] + searchWeight * delta[2]) * boost, Double::sum);
+        }
+        weights.values().removeIf(weight -> weight / boost < MIN_SCORE);
+        if (weights.isEmpty()) {
+            trending = List.of();
+            return;
+        }
+
+        PriorityQueue<Map.Entry<Long, Double>> heap = new PriorityQueue<>(topK + 1, Map.Entry.comparingByValue());
+        for (Map.Entry<Long, Double> entry : weights.entrySet()) {
+            if (heap.size() < topK) {
+                heap.add(Map.entry(entry.getKey(), entry.getValue()));
+            } else if (entry.getValue() > heap.peek().getValue()) {
+                heap.poll();
+                heap.add(Map.entry(entry.getKey(), entry.getValue()));
+            }
+        }
+        List<Map.Entry<Long, Double>> top = new ArrayList<>(heap);
+        top.sort(Map.Entry.<Long, Double>comparingByValue(Comparator.reverseOrder()));
+
+        Map<Long, Spot> spots = spotRepository.findAllById(top.stream().map(Map.Entry::getKey).toList()).stream()
+                .collect(Collectors.toMap(Spot::getId, Function.identity()));
+        List<TrendingSpotDTO> ranking = new ArrayList<>(top.size());
+        for (Map.Entry<Long, Double> entry : top) {
+            Spot spot = spots.get(entry.getKey());
+            if (spot == null || !spot.getIsEnabled()) {
+                weights.remove(entry.getKey());
+                continue;
+            }
+            ranking.add(new TrendingSpotDTO(spot.getId(), spot.getName(), entry.getValue() / boost,
+                    spot.getViewCount(), spot.getSearchHits()));
+        }
+        trending = List.copyOf(ranking);
+    }
+
+    private Counters counters(long spotId) {
+        Counters existing = counters.get(spotId);
+        return existing != null ? existing : counters.computeIfAbsent(spotId, id -> new Counters());
+    }
+
+    private static final class Counters {
+        final LongAdder views = new LongAdder();
+        final LongAdder searchHits = new LongAdder();
+    }
+}
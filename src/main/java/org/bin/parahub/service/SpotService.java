@@ -4,16 +4,23 @@ package org.bin.parahub.service;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.bin.parahub.annotation.Profiled;
+import org.bin.parahub.dto.BulkUpdateDTO;
 import org.bin.parahub.dto.SpotDTO;
 import org.bin.parahub.dto.WindDTO;
 import org.bin.parahub.exception.SpotNotFoundException;
 import org.bin.parahub.mapper.SpotMapper;
 import org.bin.parahub.entity.Spot;
+import org.bin.parahub.event.SpotsChangedEvent;
+import org.bin.parahub.event.TerrainPointsChangedEvent;
 import org.bin.parahub.mapper.TerrainPointMapper;
+import org.bin.parahub.repository.BulkUpdateRepository;
 import org.bin.parahub.repository.SpotRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,14 +32,27 @@ public class SpotService {
     private final SpotRepository spotRepository;
     private final SpotMapper spotMapper;
     private final TerrainPointMapper terrainPointMapper;
+    private final ElevationService elevationService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SpotPopularityService popularityService;
+    private final BulkUpdateRepository bulkUpdateRepository;
+    private final TransactionTemplate transactionTemplate;
 
     @Autowired
-    public SpotService(SpotRepository spotRepository, SpotMapper spotMapper) {
+    public SpotService(SpotRepository spotRepository, SpotMapper spotMapper, ElevationService elevationService,
+                       ApplicationEventPublisher eventPublisher, SpotPopularityService popularityService,
+                       BulkUpdateRepository bulkUpdateRepository, TransactionTemplate transactionTemplate) {
         this.spotRepository = spotRepository;
         this.spotMapper = spotMapper;
         this.terrainPointMapper = new TerrainPointMapper();
+        this.elevationService = elevationService;
+        this.eventPublisher = eventPublisher;
+        this.popularityService = popularityService;
+        this.bulkUpdateRepository = bulkUpdateRepository;
+        this.transactionTemplate = transactionTemplate;
     }
 
+    @Profiled(trackAllocations = true)
     public List<SpotDTO> getAllSpots() {
         return spotRepository.findAll().stream()
                 .filter(Spot::getIsEnabled)
@@ -42,7 +62,10 @@ public class SpotService {
 
     public SpotDTO getSpotById(long id) {
         Optional<Spot> spot = spotRepository.findById(id);
-        if(spot.isPresent() && spot.get().getIsEnabled()) return spotMapper.toDTO(spot.get());
+        if(spot.isPresent() && spot.get().getIsEnabled()) {
+            popularityService.recordView(id);
+            return spotMapper.toDTO(spot.get());
+        }
         throw new SpotNotFoundException(id);
     }
 
@@ -52,14 +75,17 @@ public class SpotService {
                 .map(spotMapper::toDTO)
                 .toList();
         if(spotDTO.isEmpty()) throw new SpotNotFoundException(name);
+        popularityService.recordSearchHits(spotDTO.stream().map(SpotDTO::getId).toList());
         return spotDTO;
     }
 
     public List<SpotDTO> getAllSpotsContainingName(String name){
-        return spotRepository.findByNameContainingIgnoreCase(name).stream()
+        List<SpotDTO> spots = spotRepository.findByNameContainingIgnoreCase(name).stream()
                 .filter(Spot::getIsEnabled)
                 .map(spotMapper::toDTO)
                 .toList();
+        popularityService.recordSearchHits(spots.stream().map(SpotDTO::getId).toList());
+        return spots;
     }
 
     @Transactional
@@ -75,18 +101,40 @@ public class SpotService {
         if (spot.getTerrainPoints() != null) {
             spot.getTerrainPoints().forEach(point -> point.setSpot(spot));
         }
-        
+
+        elevationService.fillMissing(spot);
         Spot saved = spotRepository.save(spot);
+        eventPublisher.publishEvent(new SpotsChangedEvent(saved.getId()));
         return spotMapper.toDTO(saved);
     }
 
+    /**
+     * Одним UPDATE, без загрузки спота
+     */
     public void deleteSpotById(long id) {
-        Spot existingSpot = spotRepository.findById(id).orElseThrow(() -> new SpotNotFoundException(id));
-        if(!existingSpot.getIsEnabled()) throw new SpotNotFoundException(id);
-        existingSpot.setIsEnabled(false);
-        spotRepository.save(existingSpot);
+        BulkUpdateDTO request = new BulkUpdateDTO();
+        request.setIds(List.of(id));
+        request.setIsEnabled(false);
+        Integer updated = transactionTemplate.execute(status -> bulkUpdateRepository.updateSpots(request));
+        if (updated == null || updated == 0) throw new SpotNotFoundException(id);
+        publishChanged(List.of(id));
     }
 
+    /**
+     * Мягкое удаление, восстановление или правка полей у многих спотов одним UPDATE (см. BulkUpdateRepository);
+     * события об изменении — по каждому выбранному споту после коммита
+     */
+    public BulkUpdateDTO.Result bulkUpdate(BulkUpdateDTO request) {
+        List<Long> spotIds = new ArrayList<>();
+        Integer updated = transactionTemplate.execute(status -> {
+            spotIds.addAll(request.getIds() != null ? request.getIds() : bulkUpdateRepository.findSpotIds(request));
+            return bulkUpdateRepository.updateSpots(request);
+        });
+        if (updated != null && updated > 0) {
+            publishChanged(spotIds);
+        }
+        return new BulkUpdateDTO.Result(updated == null ? 0 : updated);
+    }
 
     public SpotDTO updateSpot(long id,SpotDTO spotDTO) {
         Spot existingSpot = spotRepository.findById(id).orElseThrow(() -> new SpotNotFoundException(id));
@@ -118,8 +166,21 @@ public class SpotService {
             }
         }
         
+        elevationService.fillMissing(existingSpot);
         Spot saved = spotRepository.save(existingSpot);
+        eventPublisher.publishEvent(new TerrainPointsChangedEvent(saved.getId()));
+        eventPublisher.publishEvent(new SpotsChangedEvent(saved.getId()));
 
         return spotMapper.toDTO(saved);
     }
+
+    /**
+     * Выключение и правка спота меняют и производные расчёты по его точкам
+     */
+    private void publishChanged(List<Long> spotIds) {
+        for (Long spotId : spotIds) {
+            eventPublisher.publishEvent(new TerrainPointsChangedEvent(spotId));
+            eventPublisher.publishEvent(new SpotsChangedEvent(spotId));
+        }
+    }
 }
@@ -1,21 +1,33 @@
 package org.bin.parahub.service;
 
 
-import jakarta.transaction.Transactional;
 import org.bin.parahub.annotation.Profiled;
+import org.bin.parahub.dto.BulkUpdateDTO;
+import org.bin.parahub.dto.TerrainPointBatchDTO;
 import org.bin.parahub.dto.TerrainPointDTO;
 import org.bin.parahub.entity.Spot;
 import org.bin.parahub.entity.TerrainPoint;
+import org.bin.parahub.event.TerrainPointsChangedEvent;
+import org.bin.parahub.exception.InvalidTerrainPointBatchException;
 import org.bin.parahub.exception.SpotNotFoundException;
 import org.bin.parahub.exception.TerrainPointNotFoundException;
 import org.bin.parahub.mapper.TerrainPointMapper;
+import org.bin.parahub.repository.BulkUpdateRepository;
 import org.bin.parahub.repository.SpotRepository;
+import org.bin.parahub.repository.TerrainPointBatchRepository;
 import org.bin.parahub.repository.TerrainPointRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 @Profiled
@@ -24,12 +36,27 @@ public class TerrainPointService {
     private final SpotRepository spotRepository;
     private final TerrainPointRepository terrainPointRepository;
     private final TerrainPointMapper terrainPointMapper;
+    private final ElevationService elevationService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BulkUpdateRepository bulkUpdateRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TerrainPointBatchRepository batchRepository;
+    private final int batchMaxSize;
 
     @Autowired
-    public TerrainPointService(TerrainPointMapper TerrainPointMapper, TerrainPointRepository TerrainPointRepository,  SpotRepository SpotRepository) {
+    public TerrainPointService(TerrainPointMapper TerrainPointMapper, TerrainPointRepository TerrainPointRepository,  SpotRepository SpotRepository, ElevationService elevationService, ApplicationEventPublisher eventPublisher,
+                               BulkUpdateRepository bulkUpdateRepository, TransactionTemplate transactionTemplate,
+                               TerrainPointBatchRepository batchRepository,
+                               @Value("${parahub.terrain-points.batch-max-size:1000}") int batchMaxSize) {
         this.spotRepository = SpotRepository;
         this.terrainPointRepository = TerrainPointRepository;
         this.terrainPointMapper = TerrainPointMapper;
+        this.elevationService = elevationService;
+        this.eventPublisher = eventPublisher;
+        this.bulkUpdateRepository = bulkUpdateRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.batchRepository = batchRepository;
+        this.batchMaxSize = batchMaxSize;
     }
 
     public List<TerrainPointDTO> getAllTerrainPoints(){
@@ -67,7 +94,9 @@ public class TerrainPointService {
                     .orElseThrow(() -> new SpotNotFoundException(terrainPointDTO.getSpotId()));
             terrainPoint.setSpot(spot);
         }
+        elevationService.fillMissing(terrainPoint);
         TerrainPoint saved = terrainPointRepository.save(terrainPoint);
+        publishChanged(saved);
         return terrainPointMapper.toDTO(saved);
     }
 
@@ -77,7 +106,9 @@ public class TerrainPointService {
         Spot spot = spotRepository.findByName(spotName)
                         .orElseThrow(()-> new SpotNotFoundException(spotName));
         terrainPoint.setSpot(spot);
+        elevationService.fillMissing(terrainPoint);
         TerrainPoint saved = terrainPointRepository.save(terrainPoint);
+        publishChanged(saved);
         return terrainPointMapper.toDTO(saved);
     }
 
@@ -87,26 +118,130 @@ public class TerrainPointService {
         Spot spot = spotRepository.findById(spotID)
                         .orElseThrow(()-> new SpotNotFoundException(spotID));
         terrainPoint.setSpot(spot);
+        elevationService.fillMissing(terrainPoint);
         TerrainPoint saved = terrainPointRepository.save(terrainPoint);
+        publishChanged(saved);
         return terrainPointMapper.toDTO(saved);
     }
 
+    /**
+     * Создание, правка и удаление многих точек спота за один запрос. Весь пакет проверяется и высоты по ЦМР
+     * заполняются до записи; спот разрешается один раз; запись — одна транзакция JDBC-батчами
+     * (TerrainPointBatchRepository). Любая ошибка откатывает пакет целиком.
+     */
+    public TerrainPointBatchDTO.Result saveBatch(Long spotID, TerrainPointBatchDTO batch){
+        List<TerrainPointDTO> create = batch.getCreate() != null ? batch.getCreate() : new ArrayList<>();
+        List<TerrainPointDTO> update = batch.getUpdate() != null ? batch.getUpdate() : new ArrayList<>();
+        List<Long> delete = batch.getDelete() != null ? batch.getDelete() : new ArrayList<>();
+        validateBatch(spotID, create, update, delete);
+
+        for (TerrainPointDTO point : create) prepareBatchPoint(spotID, point);
+        for (TerrainPointDTO point : update) prepareBatchPoint(spotID, point);
+
+        List<Long> existing = new ArrayList<>(update.size() + delete.size());
+        update.forEach(point -> existing.add(point.getId()));
+        existing.addAll(delete);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if(!batchRepository.lockSpot(spotID)) throw new SpotNotFoundException(spotID);
+            Map<Long, Long> owners = batchRepository.lockOwners(existing);
+            for (Long id : existing) {
+                if(!spotID.equals(owners.get(id))) throw new TerrainPointNotFoundException(id);
+            }
+
+            batchRepository.disable(spotID, delete);
+            batchRepository.update(spotID, update);
+            List<Long> ids = batchRepository.insert(spotID, create);
+            for (int i = 0; i < create.size(); i++) {
+                create.get(i).setId(ids.get(i));
+            }
+            batchRepository.evict(spotID, existing);
+        });
+        eventPublisher.publishEvent(new TerrainPointsChangedEvent(spotID));
+        return new TerrainPointBatchDTO.Result(create, update, delete);
+    }
+
     public void deleteTerrainPointByID(Long id){
         TerrainPoint existingTerrainPoint = terrainPointRepository.findById(id).orElseThrow(() -> new TerrainPointNotFoundException(id));
         if(!existingTerrainPoint.getIsEnabled()) throw new TerrainPointNotFoundException(id);
         existingTerrainPoint.setIsEnabled(false);
         terrainPointRepository.save(existingTerrainPoint);
+        publishChanged(existingTerrainPoint);
     }
 
-    @Transactional
+    /**
+     * Одним UPDATE по spot_id; точки не загружаются
+     */
     public void deleteTerrainPointsBySpotID(Long spotID){
-        List<TerrainPoint> existingTerrainPoints = terrainPointRepository.findBySpotId(spotID);
+        BulkUpdateDTO request = new BulkUpdateDTO();
+        request.setSpotId(spotID);
+        request.setIsEnabled(false);
+        Integer updated = transactionTemplate.execute(status -> bulkUpdateRepository.updateTerrainPoints(request));
+
+        if((updated == null || updated == 0) && !terrainPointRepository.existsBySpotId(spotID)) throw new TerrainPointNotFoundException("there is no  terrain points linked to this spot ");
+
+        eventPublisher.publishEvent(new TerrainPointsChangedEvent(spotID));
+    }
+
+    /**
+     * Мягкое удаление, восстановление или правка полей у многих точек одним UPDATE (см. BulkUpdateRepository);
+     * затронутые споты узнаются заранее одним запросом по тому же выбору, события — после коммита
+     */
+    public BulkUpdateDTO.Result bulkUpdate(BulkUpdateDTO request) {
+        List<Long> spotIds = new ArrayList<>();
+        Integer updated = transactionTemplate.execute(status -> {
+            spotIds.addAll(request.getSpotId() != null
+                    ? List.of(request.getSpotId())
+                    : bulkUpdateRepository.findTerrainPointSpotIds(request));
+            return bulkUpdateRepository.updateTerrainPoints(request);
+        });
+        if (updated != null && updated > 0) {
+            spotIds.forEach(spotId -> eventPublisher.publishEvent(new TerrainPointsChangedEvent(spotId)));
+        }
+        return new BulkUpdateDTO.Result(updated == null ? 0 : updated);
+    }
 
-        if(existingTerrainPoints.isEmpty()) throw new TerrainPointNotFoundException("there is no  terrain points linked to this spot ");
+    private void validateBatch(Long spotID, List<TerrainPointDTO> create, List<TerrainPointDTO> update, List<Long> delete){
+        if(create.size() + update.size() + delete.size() > batchMaxSize) throw new InvalidTerrainPointBatchException("more than " + batchMaxSize + " points");
+        for (int i = 0; i < create.size(); i++) {
+            TerrainPointDTO point = create.get(i);
+            if(point == null) throw new InvalidTerrainPointBatchException("create[" + i + "] is null");
+            if(point.getId() != null) throw new InvalidTerrainPointBatchException("create[" + i + "]: id must be empty");
+            validateBatchPoint(spotID, point, "create[" + i + "]");
+        }
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < update.size(); i++) {
+            TerrainPointDTO point = update.get(i);
+            if(point == null) throw new InvalidTerrainPointBatchException("update[" + i + "] is null");
+            if(point.getId() == null) throw new InvalidTerrainPointBatchException("update[" + i + "]: id is required");
+            if(!ids.add(point.getId())) throw new InvalidTerrainPointBatchException("update[" + i + "]: duplicate id " + point.getId());
+            validateBatchPoint(spotID, point, "update[" + i + "]");
+        }
+        for (int i = 0; i < delete.size(); i++) {
+            Long id = delete.get(i);
+            if(id == null) throw new InvalidTerrainPointBatchException("delete[" + i + "] is null");
+            if(!ids.add(id)) throw new InvalidTerrainPointBatchException("delete[" + i + "]: duplicate id " + id);
+        }
+    }
 
-        existingTerrainPoints.forEach(existingTerrainPoint -> existingTerrainPoint.setIsEnabled(false));
+    private void validateBatchPoint(Long spotID, TerrainPointDTO point, String position){
+        if(point.getType() == null) throw new InvalidTerrainPointBatchException(position + ": type is required");
+        if(point.getSpotId() != null && !point.getSpotId().equals(spotID)) throw new InvalidTerrainPointBatchException(position + ": belongs to spot " + point.getSpotId());
+    }
+
+    /**
+     * Значения по умолчанию, как у TerrainPointMapper.toEntity(), и высота по ЦМР — до открытия транзакции
+     */
+    private void prepareBatchPoint(Long spotID, TerrainPointDTO point){
+        point.setSpotId(spotID);
+        if(point.getIsEnabled() == null) point.setIsEnabled(true);
+        if(point.getElevation() == null) point.setElevation(elevationService.getElevation(point.getLatitude(), point.getLongitude()));
+    }
 
-        terrainPointRepository.saveAll(existingTerrainPoints);
+    private void publishChanged(TerrainPoint terrainPoint) {
+        if (terrainPoint.getSpot() != null) {
+            eventPublisher.publishEvent(new TerrainPointsChangedEvent(terrainPoint.getSpot().getId()));
+        }
     }
 
 }
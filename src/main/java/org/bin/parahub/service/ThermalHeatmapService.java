@@ -0,0 +1,229 @@
+package org.bin.parahub.service;
+
+import jakarta.annotation.PreDestroy;
+import org.bin.parahub.annotation.Profiled;
+import org.bin.parahub.dto.ThermalGridDTO;
+import org.bin.parahub.entity.FlightTrack;
+import org.bin.parahub.event.FlightsStoredEvent;
+import org.bin.parahub.exception.InvalidIgcException;
+import org.bin.parahub.igc.IgcParser;
+import org.bin.parahub.igc.TrackCodec;
+import org.bin.parahub.repository.FlightTrackRepository;
+import org.bin.parahub.thermal.ClimbDetector;
+import org.bin.parahub.thermal.ThermalGrid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Тепловая карта потоков по всем трекам: где и насколько сильно набирали высоту.
+ *
+ * Источники — сохранённые треки полётов (FlightTrack) и архив *.igc в parahub.thermals.directory.
+ * Каждый трек декодируется и разбирается ClimbDetector'ом в своём потоке в частичную сетку; частичные
+ * сетки сливаются в общую под коротким захватом записи, так что новые полёты (FlightsStoredEvent) и
+ * новые файлы архива добавляются инкрементально, без пересчёта всего набора. Полная сборка — один раз
+ * при старте, постранично по flightId.
+ *
+ * Каждый полёт и каждый файл учитываются один раз.
+ */
+@Service
+@Profiled(logArgs = false, logResult = false)
+public class ThermalHeatmapService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ThermalHeatmapService.class);
+
+    private final FlightTrackRepository flightTrackRepository;
+    private final ClimbDetector detector;
+    private final Path directory;
+    private final int pageSize;
+    private final ForkJoinPool pool;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    /** под lock */
+    private final ThermalGrid grid;
+
+    private final Set<Long> aggregatedFlights = ConcurrentHashMap.newKeySet();
+    /** только из importArchive() */
+    private final Set<Path> importedFiles = new HashSet<>();
+
+    public ThermalHeatmapService(
+            FlightTrackRepository flightTrackRepository,
+            @Value("${parahub.thermals.cell-degrees:0.005}") double cellDegrees,
+            @Value("${parahub.thermals.window-seconds:15}") int windowSeconds,
+            @Value("${parahub.thermals.min-climb:0.5}") double minClimb,
+            @Value("${parahub.thermals.min-duration-seconds:30}") int minDurationSeconds,
+            @Value("${parahub.thermals.directory:thermals}") String directory,
+            @Value("${parahub.thermals.page-size:500}") int pageSize,
+            @Value("${parahub.thermals.parallelism:0}") int parallelism) {
+        this.flightTrackRepository = flightTrackRepository;
+        this.detector = new ClimbDetector(cellDegrees, windowSeconds, minClimb, minDurationSeconds);
+        this.grid = new ThermalGrid(cellDegrees, 1 << 16);
+        this.directory = Path.of(directory);
+        this.pageSize = pageSize;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    public double getCellDegrees() {
+        return grid.getCellDegrees();
+    }
+
+    /**
+     * Полная сборка по всем сохранённым трекам; полёты, уже добавленные событием, пропускаются
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        int flights = 0;
+        Page<FlightTrack> page = flightTrackRepository.findAll(PageRequest.of(0, pageSize, Sort.by("flightId")));
+        while (true) {
+            flights += aggregate(page.getContent());
+            if (!page.hasNext()) {
+                break;
+            }
+            page = flightTrackRepository.findAll(page.nextPageable());
+        }
+        logger.info("Тепловая карта собрана: {} полётов, {} ячеек за {} мс",
+                flights, cells(), System.currentTimeMillis() - started);
+    }
+
+    @Async
+    @EventListener
+    public void onFlightsStored(FlightsStoredEvent event) {
+        aggregate(flightTrackRepository.findAllById(event.flightIds()));
+    }
+
+    /**
+     * Подхватить новые файлы архива
+     */
+    @Scheduled(fixedDelayString = "${parahub.thermals.poll-interval-ms:300000}")
+    public synchronized void importArchive() {
+        List<Path> files = new ArrayList<>();
+        if (Files.isDirectory(directory)) {
+            try (Stream<Path> list = Files.list(directory)) {
+                list.filter(path -> path.toString().toLowerCase().endsWith(".igc") && !importedFiles.contains(path))
+                        .forEach(files::add);
+            } catch (IOException e) {
+                logger.warn("Не удалось прочитать каталог треков {}: {}", directory, e.getMessage());
+                return;
+            }
+        }
+        if (files.isEmpty()) {
+            return;
+        }
+        List<ThermalGrid> partials = pool.submit(() -> files.parallelStream()
+                .map(this::detectFile)
+                .toList()).join();
+        mergeAll(partials);
+        importedFiles.addAll(files);
+        logger.info("Архив треков: добавлено {} файлов, {} ячеек", files.size(), cells());
+    }
+
+    /**
+     * Ячейки, пересекающие прямоугольник
+     */
+    public ThermalGridDTO getGrid(double minLat, double maxLat, double minLon, double maxLon) {
+        List<ThermalGridDTO.Feature> features = new ArrayList<>();
+        double cell = grid.getCellDegrees();
+        lock.readLock().lock();
+        try {
+            grid.forEachIn(minLat, maxLat, minLon, maxLon, (row, col, samples, climbSum, maxClimb, thermals) -> {
+                double south = grid.latitudeOf(row);
+                double west = grid.longitudeOf(col);
+                List<double[]> ring = List.of(
+                        new double[]{west, south},
+                        new double[]{west + cell, south},
+                        new double[]{west + cell, south + cell},
+                        new double[]{west, south + cell},
+                        new double[]{west, south});
+                features.add(new ThermalGridDTO.Feature(
+                        new ThermalGridDTO.Geometry(List.of(ring)),
+                        new ThermalGridDTO.Properties(climbSum / samples, maxClimb, samples, thermals)));
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+        return new ThermalGridDTO(cell, features);
+    }
+
+    /**
+     * Добавить трек в обход хранилища; для тестов
+     */
+    void addFixes(List<TrackCodec.Fix> fixes) {
+        mergeAll(List.of(detector.detect(fixes)));
+    }
+
+    /**
+     * Параллельно разобрать ещё не учтённые треки и слить в общую сетку; возвращает число добавленных
+     */
+    private int aggregate(List<FlightTrack> tracks) {
+        List<FlightTrack> fresh = tracks.stream()
+                .filter(track -> aggregatedFlights.add(track.getFlightId()))
+                .toList();
+        if (fresh.isEmpty()) {
+            return 0;
+        }
+        List<ThermalGrid> partials = pool.submit(() -> fresh.parallelStream()
+                .map(track -> detector.detect(TrackCodec.decode(track.getData())))
+                .toList()).join();
+        mergeAll(partials);
+        return fresh.size();
+    }
+
+    private ThermalGrid detectFile(Path file) {
+        try (InputStream in = Files.newInputStream(file)) {
+            return detector.detect(TrackCodec.decode(IgcParser.parse(in).track()));
+        } catch (IOException | UncheckedIOException | InvalidIgcException e) {
+            logger.warn("Трек {} пропущен: {}", file.getFileName(), e.getMessage());
+            return new ThermalGrid(grid.getCellDegrees(), 0);
+        }
+    }
+
+    private void mergeAll(List<ThermalGrid> partials) {
+        lock.writeLock().lock();
+        try {
+            for (ThermalGrid partial : partials) {
+                grid.merge(partial);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int cells() {
+        lock.readLock().lock();
+        try {
+            return grid.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
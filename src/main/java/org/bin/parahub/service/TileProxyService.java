@@ -0,0 +1,549 @@
+package org.bin.parahub.service;
+
+import org.bin.parahub.exception.TileNotFoundException;
+import org.bin.parahub.exception.TileUpstreamException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+/**
+ * Кэширующий прокси тайлов карты (OSM, OpenTopoMap, ArcGIS).
+ *
+ * Содержимое хранится на диске по SHA-256 (objects/ab/abcd…): одинаковые тайлы (море, пустые области)
+ * лежат одним файлом. Для каждого ключа layer/z/x/y рядом лежат метаданные (keys/…/y.properties):
+ * хэш, тип, ETag/Last-Modified апстрима и срок свежести из его Cache-Control/Expires.
+ * Индекс — LRU в памяти с лимитом по суммарному размеру уникальных файлов; восстанавливается с диска
+ * в порядке времени загрузки фоновым потоком, запущенным первым обращением, — обход каталога не задерживает
+ * ни готовность, ни запросы. Пока он идёт, ключ, которого ещё нет в индексе, читается из своего файла метаданных.
+ *
+ * Tile отдаёт путь, а файл открывают уже после выхода из монитора (контроллер, sendfile Tomcat), поэтому файл
+ * без ссылок удаляется не сразу, а через RELEASE_GRACE_MS — если за это время на него снова никто не сослался.
+ *
+ * Одновременные промахи по одному тайлу схлопываются в один запрос к апстриму: первый запрос качает,
+ * остальные ждут его результат. Протухший тайл перепроверяется условным запросом (304 продлевает срок),
+ * а при недоступности апстрима отдаётся как есть.
+ */
+@Service
+public class TileProxyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TileProxyService.class);
+
+    /** сколько файл без ссылок ещё лежит на диске: за это время уже выданный путь успевают открыть */
+    private static final long RELEASE_GRACE_MS = 60_000;
+
+    private final Map<String, String> layers;
+    private final Path objects;
+    private final Path keys;
+    private final long maxBytes;
+    private final Duration defaultTtl;
+    private final Duration timeout;
+    private final String userAgent;
+    private final HttpClient client;
+
+    /** ключ -> запись, порядок доступа (LRU); вместе с objectRefs, released, totalBytes и indexLoaded под монитором this */
+    private final LinkedHashMap<String, Entry> index = new LinkedHashMap<>(1024, 0.75f, true);
+    /** хэш -> число ключей, ссылающихся на файл */
+    private final Map<String, Integer> objectRefs = new HashMap<>();
+    /** хэш файла без ссылок -> когда его можно удалить */
+    private final Map<String, Long> released = new HashMap<>();
+    private long totalBytes;
+    private boolean indexLoaded;
+
+    private final AtomicReference<CompletableFuture<Void>> indexLoad = new AtomicReference<>();
+
+    private final ConcurrentHashMap<String, CompletableFuture<Tile>> inFlight = new ConcurrentHashMap<>();
+
+    @Autowired
+    public TileProxyService(
+            @Value("${parahub.tiles.layers.standard}") String standard,
+            @Value("${parahub.tiles.layers.topo}") String topo,
+            @Value("${parahub.tiles.layers.satellite}") String satellite,
+            @Value("${parahub.tiles.directory:tile-cache}") String directory,
+            @Value("${parahub.tiles.max-size-mb:2048}") long maxSizeMb,
+            @Value("${parahub.tiles.default-ttl-hours:24}") long defaultTtlHours,
+            @Value("${parahub.tiles.upstream-timeout-ms:10000}") long timeoutMs,
+            @Value("${parahub.tiles.user-agent:ParaHub tile proxy}") String userAgent) {
+        this(Map.of("standard", standard, "topo", topo, "satellite", satellite), Path.of(directory),
+                maxSizeMb * 1024 * 1024, Duration.ofHours(defaultTtlHours), Duration.ofMillis(timeoutMs), userAgent);
+    }
+
+    TileProxyService(Map<String, String> layers, Path directory, long maxBytes, Duration defaultTtl,
+                     Duration timeout, String userAgent) {
+        this.layers = layers;
+        this.objects = directory.resolve("objects");
+        this.keys = directory.resolve("keys");
+        this.maxBytes = maxBytes;
+        this.defaultTtl = defaultTtl;
+        this.timeout = timeout;
+        this.userAgent = userAgent;
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(timeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+    }
+
+    /**
+     * Тайл из кэша или с апстрима.
+     * У некэшируемого (Cache-Control: no-store) тайла file == null, содержимое в body.
+     */
+    public Tile getTile(String layer, int z, int x, int y) {
+        String template = layers.get(layer);
+        if (template == null || z < 0 || z > 22 || x < 0 || y < 0 || x >= (1 << z) || y >= (1 << z)) {
+            throw new TileNotFoundException(layer + "/" + z + "/" + x + "/" + y);
+        }
+        String key = layer + "/" + z + "/" + x + "/" + y;
+
+        Entry cached = lookup(key);
+        if (cached != null && cached.expiresAt() > System.currentTimeMillis()) {
+            return tile(cached);
+        }
+
+        CompletableFuture<Tile> fetch = new CompletableFuture<>();
+        CompletableFuture<Tile> leader = inFlight.putIfAbsent(key, fetch);
+        if (leader != null) {
+            return await(key, leader);
+        }
+        try {
+            String url = template.replace("{z}", String.valueOf(z))
+                    .replace("{x}", String.valueOf(x))
+                    .replace("{y}", String.valueOf(y));
+            fetch.complete(fetch(key, url, cached));
+        } catch (RuntimeException e) {
+            fetch.completeExceptionally(e);
+        } finally {
+            inFlight.remove(key, fetch);
+        }
+        return await(key, fetch);
+    }
+
+    private Tile await(String key, CompletableFuture<Tile> future) {
+        try {
+            return future.get(timeout.toMillis() * 2, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new TileUpstreamException(key, String.valueOf(e.getCause()));
+        } catch (TimeoutException e) {
+            throw new TileUpstreamException(key, "timeout");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TileUpstreamException(key, "interrupted");
+        }
+    }
+
+    private Tile fetch(String key, String url, Entry stale) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(timeout)
+                .header("User-Agent", userAgent);
+        if (stale != null && stale.etag() != null) {
+            request.header("If-None-Match", stale.etag());
+        }
+        if (stale != null && stale.lastModified() != null) {
+            request.header("If-Modified-Since", stale.lastModified());
+        }
+
+        HttpResponse<byte[]> response;
+        try {
+            response = client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException e) {
+            return staleOrFail(key, stale, e.toString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return staleOrFail(key, stale, "interrupted");
+        }
+
+        int status = response.statusCode();
+        if (status == 304 && stale != null) {
+            Entry refreshed = stale.withExpiresAt(expiresAt(response.headers()));
+            store(refreshed, null);
+            return tile(refreshed);
+        }
+        if (status == 404) {
+            throw new TileNotFoundException(key);
+        }
+        if (status != 200) {
+            return staleOrFail(key, stale, "HTTP " + status);
+        }
+
+        byte[] body = response.body();
+        String contentType = response.headers().firstValue("Content-Type").orElse("image/png");
+        if (cacheControl(response.headers()).contains("no-store")) {
+            return new Tile(null, body, body.length, contentType, null, 0);
+        }
+        Entry entry = new Entry(key, sha256(body), body.length, contentType,
+                response.headers().firstValue("ETag").orElse(null),
+                response.headers().firstValue("Last-Modified").orElse(null),
+                expiresAt(response.headers()));
+        store(entry, body);
+        return tile(entry);
+    }
+
+    private Tile staleOrFail(String key, Entry stale, String reason) {
+        if (stale != null && Files.exists(object(stale.hash()))) {
+            logger.warn("Апстрим тайла {} недоступен ({}), отдаём устаревшую копию", key, reason);
+            return tile(stale);
+        }
+        throw new TileUpstreamException(key, reason);
+    }
+
+    /**
+     * Срок свежести: Cache-Control max-age, иначе Expires, иначе default-ttl; no-cache — сразу протухший
+     */
+    private long expiresAt(HttpHeaders headers) {
+        long now = System.currentTimeMillis();
+        String cacheControl = cacheControl(headers);
+        if (cacheControl.contains("no-cache")) {
+            return now;
+        }
+        for (String directive : cacheControl.split(",")) {
+            String trimmed = directive.trim();
+            if (trimmed.startsWith("max-age=")) {
+                try {
+                    return now + Long.parseLong(trimmed.substring("max-age=".length())) * 1000;
+                } catch (NumberFormatException ignored) {
+                    // некорректный max-age — смотрим дальше
+                }
+            }
+        }
+        String expires = headers.firstValue("Expires").orElse(null);
+        if (expires != null) {
+            try {
+                long expiresMillis = ZonedDateTime.parse(expires, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+                long dateMillis = headers.firstValue("Date")
+                        .map(date -> ZonedDateTime.parse(date, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli())
+                        .orElse(now);
+                // по разнице Expires - Date, чтобы не зависеть от расхождения часов
+                return now + Math.max(0, expiresMillis - dateMillis);
+            } catch (DateTimeParseException ignored) {
+                // некорректный Expires равносилен отсутствию
+            }
+        }
+        return now + defaultTtl.toMillis();
+    }
+
+    private static String cacheControl(HttpHeaders headers) {
+        return String.join(",", headers.allValues("Cache-Control")).toLowerCase();
+    }
+
+    /**
+     * Пока индекс грузится, отсутствующий в нём ключ читается с диска, но в индекс не кладётся — это сделает загрузка
+     */
+    private Entry lookup(String key) {
+        startIndexLoad();
+        synchronized (this) {
+            Entry entry = index.get(key);
+            if (entry != null || indexLoaded) {
+                return entry;
+            }
+        }
+        Entry onDisk = readMeta(meta(key));
+        return onDisk != null && Files.exists(object(onDisk.hash())) ? onDisk : null;
+    }
+
+    /**
+     * Файл пишется под тем же монитором, что и вытеснение, иначе его могли бы удалить между записью и учётом ссылки
+     */
+    private synchronized void store(Entry entry, byte[] body) {
+        purgeReleased();
+        if (body != null) {
+            writeObject(entry.hash(), body);
+        }
+        Entry previous = index.put(entry.key(), entry);
+        if (previous == null || !previous.hash().equals(entry.hash())) {
+            addRef(entry.hash(), entry.size());
+            if (previous != null) {
+                release(previous);
+            }
+        }
+        writeMeta(entry);
+        evict();
+    }
+
+    private void addRef(String hash, long size) {
+        if (objectRefs.merge(hash, 1, Integer::sum) == 1) {
+            totalBytes += size;
+        }
+    }
+
+    private void release(Entry entry) {
+        int refs = objectRefs.merge(entry.hash(), -1, Integer::sum);
+        if (refs <= 0) {
+            objectRefs.remove(entry.hash());
+            totalBytes -= entry.size();
+            released.put(entry.hash(), System.currentTimeMillis() + RELEASE_GRACE_MS);
+        }
+    }
+
+    /**
+     * Удалить файлы, у которых истёк RELEASE_GRACE_MS и так и не появилось новых ссылок
+     */
+    @Scheduled(fixedDelay = RELEASE_GRACE_MS)
+    public synchronized void purgeReleased() {
+        long now = System.currentTimeMillis();
+        released.entrySet().removeIf(file -> {
+            if (objectRefs.containsKey(file.getKey())) {
+                return true;
+            }
+            if (file.getValue() > now) {
+                return false;
+            }
+            deleteQuietly(object(file.getKey()));
+            return true;
+        });
+    }
+
+    /**
+     * Вытесняются самые давно запрошенные ключи; файл удаляется, когда на него не осталось ссылок
+     */
+    private void evict() {
+        var iterator = index.values().iterator();
+        while (totalBytes > maxBytes && iterator.hasNext()) {
+            Entry eldest = iterator.next();
+            iterator.remove();
+            deleteQuietly(meta(eldest.key()));
+            release(eldest);
+        }
+    }
+
+    long getTotalBytes() {
+        startIndexLoad().join();
+        synchronized (this) {
+            return totalBytes;
+        }
+    }
+
+    int getEntryCount() {
+        startIndexLoad().join();
+        synchronized (this) {
+            return index.size();
+        }
+    }
+
+    private Tile tile(Entry entry) {
+        long maxAge = Math.max(0, (entry.expiresAt() - System.currentTimeMillis()) / 1000);
+        return new Tile(object(entry.hash()), null, entry.size(), entry.contentType(), "\"" + entry.hash() + "\"", maxAge);
+    }
+
+    private Path object(String hash) {
+        return objects.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    private Path meta(String key) {
+        return keys.resolve(key + ".properties");
+    }
+
+    /**
+     * Запись через временный файл и атомарный rename: читатель никогда не видит недописанный тайл
+     */
+    private void writeObject(String hash, byte[] body) {
+        Path target = object(hash);
+        if (Files.exists(target)) {
+            return;
+        }
+        try {
+            Files.createDirectories(target.getParent());
+            Path tmp = Files.createTempFile(target.getParent(), hash, ".tmp");
+            Files.write(tmp, body);
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeMeta(Entry entry) {
+        Properties properties = new Properties();
+        properties.setProperty("hash", entry.hash());
+        properties.setProperty("size", String.valueOf(entry.size()));
+        properties.setProperty("contentType", entry.contentType());
+        properties.setProperty("expiresAt", String.valueOf(entry.expiresAt()));
+        if (entry.etag() != null) {
+            properties.setProperty("etag", entry.etag());
+        }
+        if (entry.lastModified() != null) {
+            properties.setProperty("lastModified", entry.lastModified());
+        }
+        Path file = meta(entry.key());
+        try {
+            Files.createDirectories(file.getParent());
+            try (OutputStream out = Files.newOutputStream(file)) {
+                properties.store(out, null);
+            }
+        } catch (IOException e) {
+            logger.warn("Не удалось записать метаданные тайла {}: {}", entry.key(), e.getMessage());
+        }
+    }
+
+    /**
+     * Запустить загрузку индекса, если её ещё не было
+     */
+    private CompletableFuture<Void> startIndexLoad() {
+        CompletableFuture<Void> load = indexLoad.get();
+        if (load != null) {
+            return load;
+        }
+        CompletableFuture<Void> created = new CompletableFuture<>();
+        if (!indexLoad.compareAndSet(null, created)) {
+            return indexLoad.get();
+        }
+        Thread thread = new Thread(() -> {
+            try {
+                loadIndex();
+            } catch (RuntimeException e) {
+                logger.warn("Не удалось загрузить индекс кэша тайлов: {}", e.getMessage());
+            } finally {
+                synchronized (this) {
+                    indexLoaded = true;
+                }
+                created.complete(null);
+            }
+        }, "tile-index-load");
+        thread.setDaemon(true);
+        thread.start();
+        return created;
+    }
+
+    /**
+     * Обход каталога и чтение метаданных — без монитора; под ним только слияние с тем, что успели сохранить
+     * за время загрузки: такие ключи свежее диска и остаются самыми недавними в LRU
+     */
+    private void loadIndex() {
+        if (!Files.isDirectory(keys)) {
+            return;
+        }
+        List<Path> metas;
+        try (Stream<Path> files = Files.walk(keys)) {
+            metas = new ArrayList<>(files.filter(path -> path.toString().endsWith(".properties")).toList());
+            metas.sort((a, b) -> Long.compare(a.toFile().lastModified(), b.toFile().lastModified()));
+        } catch (IOException e) {
+            logger.warn("Не удалось прочитать индекс кэша тайлов: {}", e.getMessage());
+            return;
+        }
+        List<Entry> loaded = new ArrayList<>(metas.size());
+        for (Path file : metas) {
+            Entry entry = readMeta(file);
+            if (entry == null) {
+                continue;
+            }
+            if (!Files.exists(object(entry.hash()))) {
+                deleteQuietly(file);
+                continue;
+            }
+            loaded.add(entry);
+        }
+
+        synchronized (this) {
+            LinkedHashMap<String, Entry> stored = new LinkedHashMap<>(index);
+            index.clear();
+            Set<String> superseded = new HashSet<>();
+            for (Entry entry : loaded) {
+                if (stored.containsKey(entry.key())) {
+                    superseded.add(entry.hash());
+                    continue;
+                }
+                index.put(entry.key(), entry);
+                addRef(entry.hash(), entry.size());
+            }
+            index.putAll(stored);
+            long now = System.currentTimeMillis();
+            superseded.stream()
+                    .filter(hash -> !objectRefs.containsKey(hash))
+                    .forEach(hash -> released.putIfAbsent(hash, now + RELEASE_GRACE_MS));
+            evict();
+            logger.info("Кэш тайлов: {} ключей, {} МБ", index.size(), totalBytes / (1024 * 1024));
+        }
+    }
+
+    /**
+     * @return запись из файла метаданных; null, если его нет или он не читается
+     */
+    private Entry readMeta(Path file) {
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            properties.load(in);
+        } catch (IOException e) {
+            return null;
+        }
+        if (properties.getProperty("hash") == null) {
+            return null;
+        }
+        String key = keys.relativize(file).toString().replace('\\', '/').replaceFirst("\\.properties$", "");
+        try {
+            return new Entry(key, properties.getProperty("hash"), Long.parseLong(properties.getProperty("size")),
+                    properties.getProperty("contentType"), properties.getProperty("etag"),
+                    properties.getProperty("lastModified"), Long.parseLong(properties.getProperty("expiresAt")));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.warn("Не удалось удалить {}: {}", path, e.getMessage());
+        }
+    }
+
+    private static String sha256(byte[] body) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Entry(String key, String hash, long size, String contentType, String etag, String lastModified,
+                         long expiresAt) {
+        Entry withExpiresAt(long newExpiresAt) {
+            return new Entry(key, hash, size, contentType, etag, lastModified, newExpiresAt);
+        }
+    }
+
+    /**
+     * @param file          файл тайла в хранилище, null для некэшируемого ответа
+     * @param body          содержимое некэшируемого ответа
+     * @param etag          ETag для клиента (хэш содержимого)
+     * @param maxAgeSeconds сколько ещё тайл свеж по данным апстрима
+     */
+    public record Tile(Path file, byte[] body, long size, String contentType, String etag, long maxAgeSeconds) {
+    }
+}
@@ -0,0 +1,87 @@
+package org.bin.parahub.thermal;
+
+import org.bin.parahub.igc.TrackCodec;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Поиск наборов высоты в треке и раскладка их по ячейкам сетки.
+ *
+ * Вертикальная скорость фикса — по окну не короче windowSeconds (сглаживает шум высотомера).
+ * Набор — непрерывная серия фиксов с вариометром не ниже minClimb длительностью не меньше minDurationSeconds;
+ * каждый фикс набора даёт отсчёт в свою ячейку, а сам набор — +1 к числу потоков каждой задетой ячейки.
+ * Высота — барометрическая, если есть, иначе GPS.
+ */
+public final class ClimbDetector {
+
+    private final double cellDegrees;
+    private final int windowSeconds;
+    private final double minClimb;
+    private final int minDurationSeconds;
+
+    public ClimbDetector(double cellDegrees, int windowSeconds, double minClimb, int minDurationSeconds) {
+        this.cellDegrees = cellDegrees;
+        this.windowSeconds = windowSeconds;
+        this.minClimb = minClimb;
+        this.minDurationSeconds = minDurationSeconds;
+    }
+
+    /**
+     * Частичная сетка одного трека, для слияния в общую
+     */
+    public ThermalGrid detect(List<TrackCodec.Fix> fixes) {
+        int n = fixes.size();
+        ThermalGrid grid = new ThermalGrid(cellDegrees, 64);
+        if (n < 2) {
+            return grid;
+        }
+        long[] times = new long[n];
+        int[] altitudes = new int[n];
+        for (int i = 0; i < n; i++) {
+            TrackCodec.Fix fix = fixes.get(i);
+            times[i] = fix.time();
+            altitudes[i] = fix.pressureAltitude() != 0 ? fix.pressureAltitude() : fix.gpsAltitude();
+        }
+
+        float[] vario = new float[n];
+        int lag = 0;
+        for (int i = 0; i < n; i++) {
+            while (lag + 1 < i && times[i] - times[lag + 1] >= windowSeconds) {
+                lag++;
+            }
+            long dt = times[i] - times[lag];
+            vario[i] = dt >= windowSeconds ? (float) (altitudes[i] - altitudes[lag]) / dt : Float.NaN;
+        }
+
+        int start = -1;
+        for (int i = 0; i <= n; i++) {
+            boolean climbing = i < n && vario[i] >= minClimb;
+            if (climbing && start < 0) {
+                start = i;
+            } else if (!climbing && start >= 0) {
+                if (times[i - 1] - times[start] >= minDurationSeconds) {
+                    addClimb(grid, fixes, vario, start, i);
+                }
+                start = -1;
+            }
+        }
+        return grid;
+    }
+
+    private void addClimb(ThermalGrid grid, List<TrackCodec.Fix> fixes, float[] vario, int from, int to) {
+        long[] cells = new long[to - from];
+        for (int i = from; i < to; i++) {
+            TrackCodec.Fix fix = fixes.get(i);
+            long key = ThermalGrid.key(grid.row(fix.latitudeDegrees()), grid.col(fix.longitudeDegrees()));
+            cells[i - from] = key;
+            grid.add(key, 1, vario[i], vario[i], 0);
+        }
+        Arrays.sort(cells);
+        for (int i = 0; i < cells.length; i++) {
+            if (i == 0 || cells[i] != cells[i - 1]) {
+                grid.add(cells[i], 0, 0, 0, 1);
+            }
+        }
+    }
+}
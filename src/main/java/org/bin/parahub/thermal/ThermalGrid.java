@@ -0,0 +1,182 @@
+package org.bin.parahub.thermal;
+
+import java.util.Arrays;
+
+/**
+ * Статистика набора высоты по ячейкам географической сетки (cellDegrees × cellDegrees).
+ *
+ * Хранение без упаковки: открытая адресация с линейным пробированием по long-ключу ячейки
+ * и параллельные массивы значений — около 50 байт на ячейку вместо сотен у HashMap<Long, объект>.
+ * Класс не потокобезопасен; синхронизация — на стороне владельца (ThermalHeatmapService).
+ */
+public final class ThermalGrid {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+    private static final double MAX_LOAD = 0.6;
+
+    private final double cellDegrees;
+
+    private long[] keys;
+    /** число фиксов в наборе */
+    private long[] samples;
+    /** сумма вертикальных скоростей этих фиксов, м/с */
+    private double[] climbSum;
+    private float[] maxClimb;
+    /** сколько отдельных наборов (потоков) задело ячейку */
+    private int[] thermals;
+    private int size;
+
+    public ThermalGrid(double cellDegrees, int expectedCells) {
+        this.cellDegrees = cellDegrees;
+        int capacity = Integer.highestOneBit(Math.max(16, (int) (expectedCells / MAX_LOAD)) - 1) << 1;
+        allocate(capacity);
+    }
+
+    public interface CellConsumer {
+        void accept(int row, int col, long samples, double climbSum, float maxClimb, int thermals);
+    }
+
+    public double getCellDegrees() {
+        return cellDegrees;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int row(double latitude) {
+        return (int) Math.floor((latitude + 90) / cellDegrees);
+    }
+
+    public int col(double longitude) {
+        return (int) Math.floor((longitude + 180) / cellDegrees);
+    }
+
+    /** юго-западный угол ячейки */
+    public double latitudeOf(int row) {
+        return row * cellDegrees - 90;
+    }
+
+    public double longitudeOf(int col) {
+        return col * cellDegrees - 180;
+    }
+
+    public static long key(int row, int col) {
+        return ((long) row << 32) | (col & 0xFFFFFFFFL);
+    }
+
+    public void add(long key, long sampleCount, double climb, float max, int thermalCount) {
+        int slot = slot(key);
+        if (keys[slot] == EMPTY) {
+            keys[slot] = key;
+            maxClimb[slot] = max;
+            size++;
+        } else {
+            maxClimb[slot] = Math.max(maxClimb[slot], max);
+        }
+        samples[slot] += sampleCount;
+        climbSum[slot] += climb;
+        thermals[slot] += thermalCount;
+        if (size > keys.length * MAX_LOAD) {
+            resize(keys.length << 1);
+        }
+    }
+
+    /**
+     * Добавить частичный результат (например, одного трека); трогаются только его ячейки
+     */
+    public void merge(ThermalGrid other) {
+        for (int i = 0; i < other.keys.length; i++) {
+            if (other.keys[i] != EMPTY) {
+                add(other.keys[i], other.samples[i], other.climbSum[i], other.maxClimb[i], other.thermals[i]);
+            }
+        }
+    }
+
+    /**
+     * Ячейки, пересекающие прямоугольник. Маленький прямоугольник обходится по ключам, большой — по всей таблице.
+     */
+    public void forEachIn(double minLat, double maxLat, double minLon, double maxLon, CellConsumer consumer) {
+        int minRow = row(minLat);
+        int maxRow = row(maxLat);
+        int minCol = col(minLon);
+        int maxCol = col(maxLon);
+        if ((long) (maxRow - minRow + 1) * (maxCol - minCol + 1) <= size) {
+            for (int row = minRow; row <= maxRow; row++) {
+                for (int col = minCol; col <= maxCol; col++) {
+                    int slot = slot(key(row, col));
+                    if (keys[slot] != EMPTY) {
+                        consumer.accept(row, col, samples[slot], climbSum[slot], maxClimb[slot], thermals[slot]);
+                    }
+                }
+            }
+            return;
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] == EMPTY) {
+                continue;
+            }
+            int row = (int) (keys[i] >> 32);
+            int col = (int) keys[i];
+            if (row >= minRow && row <= maxRow && col >= minCol && col <= maxCol) {
+                consumer.accept(row, col, samples[i], climbSum[i], maxClimb[i], thermals[i]);
+            }
+        }
+    }
+
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        Arrays.fill(samples, 0);
+        Arrays.fill(climbSum, 0);
+        Arrays.fill(maxClimb, 0);
+        Arrays.fill(thermals, 0);
+        size = 0;
+    }
+
+    /**
+     * Слот ключа или пустой слот, куда его вставлять
+     */
+    private int slot(long key) {
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        samples = new long[capacity];
+        climbSum = new double[capacity];
+        maxClimb = new float[capacity];
+        thermals = new int[capacity];
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        long[] oldSamples = samples;
+        double[] oldClimbSum = climbSum;
+        float[] oldMaxClimb = maxClimb;
+        int[] oldThermals = thermals;
+        allocate(capacity);
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = slot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                samples[slot] = oldSamples[i];
+                climbSum[slot] = oldClimbSum[i];
+                maxClimb[slot] = oldMaxClimb[i];
+                thermals[slot] = oldThermals[i];
+                size++;
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+-- Схема до появления миграций: то, что ddl-auto=update создавал для users, verification_codes, spots,
+-- terrain_points, winds. На уже работающей базе не выполняется (baseline-version=1, см. профиль db-migrate в pom.xml),
+-- на пустой — создаёт исходные таблицы.
+
+CREATE TABLE users (
+    id         bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username   varchar(100) NOT NULL UNIQUE,
+    email      varchar(150) NOT NULL UNIQUE,
+    password   varchar(255) NOT NULL,
+    role       varchar(10)  NOT NULL,
+    enabled    boolean      NOT NULL,
+    created_at timestamp(6),
+    last_login timestamp(6)
+);
+
+CREATE TABLE verification_codes (
+    id         bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    email      varchar(150) NOT NULL,
+    code       varchar(6)   NOT NULL,
+    expires_at timestamp(6) NOT NULL,
+    verified   boolean      NOT NULL,
+    created_at timestamp(6)
+);
+
+CREATE TABLE spots (
+    id                  bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    is_enabled          boolean      NOT NULL,
+    name                varchar(255) NOT NULL,
+    latitude            float(53)    NOT NULL,
+    longitude           float(53)    NOT NULL,
+    elevation           float(53),
+    suitable_winds      varchar(255),
+    xc_difficulty       integer,
+    learning_difficulty integer,
+    popularity          varchar(255),
+    best_season         varchar(255),
+    accessibility       varchar(255),
+    description         varchar(2048)
+);
+
+-- type — порядковый номер PointType
+CREATE TABLE terrain_points (
+    id          bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    is_enabled  boolean      NOT NULL,
+    name        varchar(255) NOT NULL,
+    type        smallint     NOT NULL CHECK (type BETWEEN 0 AND 3),
+    latitude    float(53)    NOT NULL,
+    longitude   float(53)    NOT NULL,
+    elevation   float(53),
+    description varchar(2048),
+    spot_id     bigint       NOT NULL REFERENCES spots (id)
+);
+
+CREATE TABLE winds (
+    id        bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    direction varchar(255) NOT NULL,
+    min_speed integer      NOT NULL,
+    max_speed integer      NOT NULL,
+    spot_id   bigint       NOT NULL REFERENCES spots (id)
+);
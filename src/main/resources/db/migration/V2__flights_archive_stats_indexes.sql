@@ -0,0 +1,101 @@
+-- Всё, что появилось после V1: счётчики популярности и disabled_at, полёты и их треки, архив выключенных
+-- спотов и точек, индексы под выборки. IF NOT EXISTS — база могла частично получить это от ddl-auto=update.
+
+-- популярность спота (SpotPopularityService)
+ALTER TABLE spots ADD COLUMN IF NOT EXISTS view_count bigint NOT NULL DEFAULT 0;
+ALTER TABLE spots ADD COLUMN IF NOT EXISTS search_hits bigint NOT NULL DEFAULT 0;
+
+-- мягкое удаление с отметкой времени (ArchiveService); уже выключенным строкам её проставит первый запуск архивации
+ALTER TABLE spots ADD COLUMN IF NOT EXISTS disabled_at timestamp(6) with time zone;
+ALTER TABLE terrain_points ADD COLUMN IF NOT EXISTS disabled_at timestamp(6) with time zone;
+
+-- полёты из IGC (FlightService); id из последовательности шагом allocationSize
+CREATE SEQUENCE IF NOT EXISTS flights_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS flights (
+    id                       bigint       NOT NULL PRIMARY KEY,
+    spot_id                  bigint       NOT NULL REFERENCES spots (id),
+    takeoff_id               bigint       REFERENCES terrain_points (id),
+    takeoff_distance         float(53),
+    file_name                varchar(255),
+    pilot_name               varchar(255),
+    glider_type              varchar(255),
+    flight_date              date         NOT NULL,
+    start_time               timestamp(6) with time zone NOT NULL,
+    end_time                 timestamp(6) with time zone NOT NULL,
+    fix_count                integer,
+    rejected_records         integer,
+    launch_latitude          float(53),
+    launch_longitude         float(53),
+    landing_latitude         float(53),
+    landing_longitude        float(53),
+    max_altitude             integer,
+    min_altitude             integer,
+    altitude_gain            integer,
+    track_distance           float(53),
+    max_distance_from_launch float(53),
+    raw_size                 bigint,
+    track_size               bigint,
+    uploaded_at              timestamp(6) with time zone NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS flight_tracks (
+    flight_id bigint NOT NULL PRIMARY KEY REFERENCES flights (id),
+    data      bytea  NOT NULL
+);
+
+-- архив (ArchiveRepository): те же колонки и id, что в живых таблицах, без внешних ключей
+CREATE TABLE IF NOT EXISTS spots_archive (
+    id                  bigint       NOT NULL PRIMARY KEY,
+    is_enabled          boolean      NOT NULL,
+    name                varchar(255) NOT NULL,
+    latitude            float(53)    NOT NULL,
+    longitude           float(53)    NOT NULL,
+    elevation           float(53),
+    suitable_winds      varchar(255),
+    xc_difficulty       integer,
+    learning_difficulty integer,
+    popularity          varchar(255),
+    view_count          bigint       NOT NULL,
+    search_hits         bigint       NOT NULL,
+    disabled_at         timestamp(6) with time zone,
+    best_season         varchar(255),
+    accessibility       varchar(255),
+    description         varchar(2048),
+    archived_at         timestamp(6) with time zone NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS terrain_points_archive (
+    id          bigint       NOT NULL PRIMARY KEY,
+    is_enabled  boolean      NOT NULL,
+    name        varchar(255) NOT NULL,
+    type        smallint     NOT NULL CHECK (type BETWEEN 0 AND 3),
+    latitude    float(53)    NOT NULL,
+    longitude   float(53)    NOT NULL,
+    elevation   float(53),
+    description varchar(2048),
+    disabled_at timestamp(6) with time zone,
+    spot_id     bigint       NOT NULL,
+    archived_at timestamp(6) with time zone NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS winds_archive (
+    id          bigint       NOT NULL PRIMARY KEY,
+    direction   varchar(255) NOT NULL,
+    min_speed   integer      NOT NULL,
+    max_speed   integer      NOT NULL,
+    spot_id     bigint       NOT NULL,
+    archived_at timestamp(6) with time zone NOT NULL
+);
+
+-- листинг пользователей с keyset-пагинацией и фильтром по роли (UserController)
+CREATE INDEX IF NOT EXISTS idx_users_created_at ON users (created_at);
+CREATE INDEX IF NOT EXISTS idx_users_role_enabled ON users (role, enabled);
+
+-- выборки по имени и по споту (планы проверяет RepositoryQueryBenchmarkTest)
+CREATE INDEX IF NOT EXISTS idx_spots_name ON spots (name);
+CREATE INDEX IF NOT EXISTS idx_terrain_points_spot_id ON terrain_points (spot_id);
+CREATE INDEX IF NOT EXISTS idx_winds_spot_id ON winds (spot_id);
+CREATE INDEX IF NOT EXISTS idx_flights_spot_id ON flights (spot_id);
+CREATE INDEX IF NOT EXISTS idx_terrain_points_archive_spot_id ON terrain_points_archive (spot_id);
+CREATE INDEX IF NOT EXISTS idx_winds_archive_spot_id ON winds_archive (spot_id);
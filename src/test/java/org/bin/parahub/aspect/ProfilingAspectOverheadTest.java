@@ -0,0 +1,78 @@
+package org.bin.parahub.aspect;
+
+import org.bin.parahub.annotation.Profiled;
+import org.bin.parahub.enums.ProfilingMode;
+import org.bin.parahub.profiling.ProfilingRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Грубый бенчмарк накладных расходов ProfilingAspect: advised-бин против того же бина без прокси.
+ * Точные цифры — в JMH-профиле (ProfilingAspectBenchmark), здесь ловим регрессии на порядок.
+ * Замер по часам зависит от машины, поэтому идёт с нагрузочными тестами (-Pload-test), а не в обычной сборке.
+ */
+@Tag("load")
+class ProfilingAspectOverheadTest {
+
+	private static final int WARMUP = 200_000;
+	private static final int ITERATIONS = 1_000_000;
+	private static final double MICROSECOND_NANOS = 1_000;
+
+	@Test
+	void sampledOutLoggingAndHistogramCostWellUnderAMicrosecond() {
+		ProfilingAspect aspect = new ProfilingAspect(new ProfilingRegistry());
+
+		HistogramTarget histogram = proxy(new HistogramTarget(), aspect);
+		SampledLogTarget sampledLog = proxy(new SampledLogTarget(), aspect);
+		HistogramTarget plain = new HistogramTarget();
+
+		double plainNanos = measure(plain::work);
+		double histogramNanos = measure(histogram::work);
+		double sampledNanos = measure(sampledLog::work);
+
+		System.out.printf("ProfilingAspect overhead: plain %.1f ns, HISTOGRAM +%.1f ns, LOG(sampleRate=0) +%.1f ns%n",
+				plainNanos, histogramNanos - plainNanos, sampledNanos - plainNanos);
+		assertTrue(histogramNanos - plainNanos < MICROSECOND_NANOS, "HISTOGRAM overhead " + (histogramNanos - plainNanos) + " ns");
+		assertTrue(sampledNanos - plainNanos < MICROSECOND_NANOS, "sampled LOG overhead " + (sampledNanos - plainNanos) + " ns");
+	}
+
+	private static double measure(Runnable call) {
+		for (int i = 0; i < WARMUP; i++) {
+			call.run();
+		}
+		long start = System.nanoTime();
+		for (int i = 0; i < ITERATIONS; i++) {
+			call.run();
+		}
+		return (double) (System.nanoTime() - start) / ITERATIONS;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T proxy(T target, ProfilingAspect aspect) {
+		AspectJProxyFactory factory = new AspectJProxyFactory(target);
+		factory.setProxyTargetClass(true);
+		factory.addAspect(aspect);
+		return (T) factory.getProxy();
+	}
+
+	public static class HistogramTarget {
+		private long counter;
+
+		@Profiled(mode = ProfilingMode.HISTOGRAM)
+		public long work() {
+			return ++counter;
+		}
+	}
+
+	public static class SampledLogTarget {
+		private long counter;
+
+		@Profiled(sampleRate = 0.0, logArgs = false, logResult = false)
+		public long work() {
+			return ++counter;
+		}
+	}
+}
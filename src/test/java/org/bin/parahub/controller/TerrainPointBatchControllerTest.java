@@ -0,0 +1,202 @@
+package org.bin.parahub.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.bin.parahub.entity.TerrainPoint;
+import org.bin.parahub.load.LoadTestInfrastructure;
+import org.bin.parahub.repository.SpotRepository;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * POST /api/terrain_points/spotID/{spotID}/batch на embedded PostgreSQL: смешанный пакет, откат целиком при чужой
+ * точке, 400 на невалидный пакет. Пакет пишется мимо Hibernate, поэтому отдельно проверяется, что чтения через
+ * query cache (findBySpotId) и кэш коллекции Spot.terrainPoints видят его сразу.
+ * Свойства контекста те же, что у ArchiveServiceTest.
+ */
+@SpringBootTest(properties = {
+		"spring.config.on-not-found=ignore",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.jpa.show-sql=false",
+		"spring.mail.test-connection=false",
+		"logging.level.PROFILING=WARN",
+		"logging.level.org.bin.parahub.aspect.ProfilingAspect=WARN"
+})
+@WithMockUser(roles = "ADMIN")
+class TerrainPointBatchControllerTest {
+
+	@Autowired
+	WebApplicationContext context;
+
+	@Autowired
+	ObjectMapper objectMapper;
+
+	@Autowired
+	SpotRepository spotRepository;
+
+	@Autowired
+	JdbcTemplate jdbc;
+
+	@Autowired
+	PlatformTransactionManager transactionManager;
+
+	@Autowired
+	EntityManagerFactory entityManagerFactory;
+
+	@Value("${parahub.terrain-points.batch-max-size:1000}")
+	int batchMaxSize;
+
+	private MockMvc mockMvc;
+	private long spotId;
+	private long kept;
+	private long removed;
+	private long foreign;
+
+	@DynamicPropertySource
+	static void infrastructure(DynamicPropertyRegistry registry) {
+		LoadTestInfrastructure.registerProperties(registry);
+	}
+
+	@BeforeEach
+	void seed() {
+		mockMvc = MockMvcBuilders.webAppContextSetup(context).apply(springSecurity()).build();
+		// JCache CacheManager общий для всех контекстов JVM, а схема пересоздаётся (create-drop) с теми же id
+		entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+		spotId = insertSpot();
+		kept = insertPoint(spotId, "kept");
+		removed = insertPoint(spotId, "removed");
+		foreign = insertPoint(insertSpot(), "foreign");
+	}
+
+	@Test
+	void mixedBatchIsVisibleThroughCachedReads() throws Exception {
+		// прогреваем query cache findBySpotId и кэш коллекции Spot.terrainPoints
+		assertEquals(Map.of(kept, "kept", removed, "removed"), enabledPoints(spotId));
+		assertEquals(List.of(kept, removed), collection(spotId));
+
+		JsonNode result = batch(spotId, """
+				{"create": [%s, %s], "update": [%s], "delete": [%d]}""".formatted(
+				json(null, "created-1"), json(null, "created-2"), json(kept, "renamed"), removed), status().isOk());
+
+		assertEquals(List.of("created-1", "created-2"), result.get("created").findValuesAsText("name"));
+		List<Long> created = new ArrayList<>();
+		for (JsonNode point : result.get("created")) {
+			created.add(point.get("id").asLong());
+			// id из getGeneratedKeys сопоставлены точкам в порядке create
+			assertEquals(point.get("name").asText(), jdbc.queryForObject(
+					"SELECT name FROM terrain_points WHERE id = ?", String.class, point.get("id").asLong()));
+		}
+		assertEquals(removed, result.get("deleted").get(0).asLong());
+
+		assertEquals(Map.of(kept, "renamed", created.get(0), "created-1", created.get(1), "created-2"), enabledPoints(spotId));
+		assertEquals(List.of(kept, removed, created.get(0), created.get(1)), collection(spotId));
+		assertEquals(Boolean.FALSE, jdbc.queryForObject(
+				"SELECT is_enabled FROM terrain_points WHERE id = ?", Boolean.class, removed));
+	}
+
+	@Test
+	void pointOfAnotherSpotRollsBackWholeBatch() throws Exception {
+		enabledPoints(spotId);
+		batch(spotId, """
+				{"create": [%s], "update": [%s], "delete": [%d]}""".formatted(
+				json(null, "created"), json(foreign, "stolen"), removed), status().isNotFound());
+
+		assertEquals(Map.of(kept, "kept", removed, "removed"), enabledPoints(spotId));
+		assertEquals(2, jdbc.queryForObject("SELECT count(*) FROM terrain_points WHERE spot_id = ?", Integer.class, spotId));
+		assertEquals("foreign", jdbc.queryForObject("SELECT name FROM terrain_points WHERE id = ?", String.class, foreign));
+	}
+
+	@Test
+	void invalidBatchIsRejectedBeforeWriting() throws Exception {
+		// больше parahub.terrain-points.batch-max-size
+		List<String> create = new ArrayList<>();
+		for (int i = 0; i <= batchMaxSize; i++) {
+			create.add(json(null, "created-" + i));
+		}
+		batch(spotId, "{\"create\": [" + String.join(", ", create) + "]}", status().isBadRequest());
+		// одна и та же точка и в update, и в delete
+		batch(spotId, """
+				{"update": [%s], "delete": [%d]}""".formatted(json(kept, "renamed"), kept), status().isBadRequest());
+
+		assertEquals(Map.of(kept, "kept", removed, "removed"), enabledPoints(spotId));
+		assertEquals(2, jdbc.queryForObject("SELECT count(*) FROM terrain_points WHERE spot_id = ?", Integer.class, spotId));
+	}
+
+	private JsonNode batch(long spot, String json, ResultMatcher expectedStatus) throws Exception {
+		String body = mockMvc.perform(post("/api/terrain_points/spotID/" + spot + "/batch")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(json))
+				.andExpect(expectedStatus)
+				.andReturn().getResponse().getContentAsString();
+		return body.startsWith("{") ? objectMapper.readTree(body) : null;
+	}
+
+	/**
+	 * GET /api/terrain_points/spotID/{spotID}: id -> name включённых точек
+	 */
+	private Map<Long, String> enabledPoints(long spot) throws Exception {
+		String body = mockMvc.perform(get("/api/terrain_points/spotID/" + spot))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		Map<Long, String> points = new TreeMap<>();
+		objectMapper.readTree(body).forEach(point -> points.put(point.get("id").asLong(), point.get("name").asText()));
+		return points;
+	}
+
+	/**
+	 * id точек из коллекции Spot.terrainPoints, включая выключенные
+	 */
+	private List<Long> collection(long spot) {
+		TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+		readOnly.setReadOnly(true);
+		return readOnly.execute(tx -> spotRepository.findById(spot).orElseThrow().getTerrainPoints().stream()
+				.map(TerrainPoint::getId)
+				.sorted()
+				.toList());
+	}
+
+	private long insertSpot() {
+		return jdbc.queryForObject("""
+				INSERT INTO spots (is_enabled, name, latitude, longitude, view_count, search_hits)
+				VALUES (true, ?, 44.5, 34.2, 0, 0) RETURNING id""", Long.class, "Batch " + System.nanoTime());
+	}
+
+	private long insertPoint(long spot, String name) {
+		return jdbc.queryForObject("""
+				INSERT INTO terrain_points (is_enabled, name, type, latitude, longitude, elevation, spot_id)
+				VALUES (true, ?, 0, 44.5, 34.2, 300, ?) RETURNING id""", Long.class, name, spot);
+	}
+
+	private static String json(Long id, String name) {
+		return """
+				{"id": %s, "name": "%s", "latitude": 44.51, "longitude": 34.21, "elevation": 310, "type": "TAKEOFF"}"""
+				.formatted(id, name);
+	}
+}
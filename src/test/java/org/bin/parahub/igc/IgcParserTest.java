@@ -0,0 +1,114 @@
+package org.bin.parahub.igc;
+
+import org.bin.parahub.exception.InvalidIgcException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IgcParserTest {
+
+	private static final String HEADER = """
+			AXCT7a5b0e1f
+			HFDTEDATE:190726,01
+			HFPLTPILOTINCHARGE: Иван Петров
+			HFGTYGLIDERTYPE:Ozone Rush 6
+			""";
+
+	@Test
+	void parsesHeadersAndSummary() {
+		String igc = HEADER
+				+ "B1000004425000N03412000EA0050000520\n"
+				+ "B1000054425100N03412000EA0051000530\n"
+				// не 3D и повреждённая запись
+				+ "B1000104425200N03412000EV0052000540\n"
+				+ "B10001544252\n"
+				+ "B1000204425200N03412000EA0050000510\n";
+
+		IgcParser.IgcFlight flight = parse(igc);
+
+		assertEquals("Иван Петров", flight.pilotName());
+		assertEquals("Ozone Rush 6", flight.gliderType());
+		assertEquals(LocalDate.of(2026, 7, 19), flight.date());
+		assertEquals(Instant.parse("2026-07-19T10:00:00Z"), flight.startTime());
+		assertEquals(Instant.parse("2026-07-19T10:00:20Z"), flight.endTime());
+		assertEquals(3, flight.fixCount());
+		assertEquals(2, flight.rejectedRecords());
+		assertEquals(44 + 25.0 / 60, flight.launchLatitude(), 1e-9);
+		assertEquals(530, flight.maxAltitude());
+		assertEquals(510, flight.minAltitude());
+		assertEquals(10, flight.altitudeGain());
+		// 0.2' широты = 370 м
+		assertEquals(371, flight.trackDistance(), 1);
+	}
+
+	@Test
+	void handlesSouthWestMidnightAndGpsSpikes() {
+		String igc = HEADER
+				+ "B2359583330000S07030000WA0300003000\n"
+				// 50 км за секунду — выброс
+				+ "B2359593357000S07030000WA0300003000\n"
+				+ "B0000023330010S07030000WA0300003001\n";
+
+		IgcParser.IgcFlight flight = parse(igc);
+
+		assertEquals(2, flight.fixCount());
+		assertEquals(1, flight.rejectedRecords());
+		assertEquals(-(33 + 30.0 / 60), flight.launchLatitude(), 1e-9);
+		assertEquals(-(70 + 30.0 / 60), flight.launchLongitude(), 1e-9);
+		assertEquals(Instant.parse("2026-07-20T00:00:02Z"), flight.endTime());
+	}
+
+	@Test
+	void rejectsFilesWithoutDateOrFixes() {
+		assertThrows(InvalidIgcException.class, () -> parse("AXCT1\nB1000004425000N03412000EA0050000520\n"));
+		assertThrows(InvalidIgcException.class, () -> parse(HEADER + "B1000004425000N03412000EV0050000520\n"));
+		assertThrows(InvalidIgcException.class, () -> parse("HFDTE321326\n"));
+	}
+
+	@Test
+	void trackRoundTripsLosslesslyAndIsTenTimesSmallerThanIgc() {
+		// три часа полёта с фиксом раз в секунду: спираль в термике со сносом
+		StringBuilder igc = new StringBuilder(HEADER);
+		for (int i = 0; i < 3 * 3600; i++) {
+			int seconds = 9 * 3600 + i;
+			int latitude = 44 * 60_000 + 25_000 + (int) (i * 0.4 + 30 * Math.sin(i / 20.0));
+			int longitude = 34 * 60_000 + 12_000 + (int) (i * 0.3 + 30 * Math.cos(i / 20.0));
+			int altitude = 1000 + (int) (400 * Math.sin(i / 600.0) + i % 7);
+			igc.append(String.format(Locale.ROOT, "B%02d%02d%02d%02d%05dN%03d%05dEA%05d%05d%n",
+					seconds / 3600, seconds / 60 % 60, seconds % 60,
+					latitude / 60_000, latitude % 60_000, longitude / 60_000, longitude % 60_000,
+					altitude - 20, altitude));
+		}
+
+		IgcParser.IgcFlight flight = parse(igc.toString());
+		List<TrackCodec.Fix> fixes = TrackCodec.decode(flight.track());
+
+		assertEquals(3 * 3600, fixes.size());
+		assertEquals(flight.startTime().getEpochSecond(), fixes.get(0).time());
+		assertEquals(44 + 25.0 / 60, fixes.get(0).latitudeDegrees(), 1e-9);
+		TrackCodec.Fix last = fixes.get(fixes.size() - 1);
+		assertEquals(flight.endTime().getEpochSecond(), last.time());
+		assertEquals(flight.landingLongitude(), last.longitudeDegrees(), 1e-12);
+		assertTrue(flight.rawSize() > 10L * flight.track().length,
+				"raw " + flight.rawSize() + " bytes, track " + flight.track().length + " bytes");
+	}
+
+	@Test
+	void emptyTrackDecodesToNoFixes() {
+		TrackCodec.Encoder encoder = new TrackCodec.Encoder();
+		assertTrue(TrackCodec.decode(encoder.finish()).isEmpty());
+	}
+
+	private static IgcParser.IgcFlight parse(String igc) {
+		return IgcParser.parse(new ByteArrayInputStream(igc.getBytes(StandardCharsets.UTF_8)));
+	}
+}
@@ -0,0 +1,205 @@
+package org.bin.parahub.load;
+
+import org.bin.parahub.dto.SpotDTO;
+import org.bin.parahub.entity.User;
+import org.bin.parahub.enums.UserRole;
+import org.bin.parahub.profiling.SqlStatsRegistry;
+import org.bin.parahub.repository.UserRepository;
+import org.bin.parahub.security.JwtUtil;
+import org.bin.parahub.service.SpotService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Сквозная HTTP-нагрузка на Spot/TerrainPoint/Auth контроллеры: приложение целиком,
+ * embedded PostgreSQL, GreenMail вместо SMTP, смесь чтений и записей с открытой моделью нагрузки.
+ *
+ * Параметры — системные свойства load.rps, load.duration-seconds, load.warmup-seconds,
+ * load.p99-budget-ms, load.max-error-rate. Отчёт печатается и пишется в target/load-test-report.json.
+ */
+@Tag("load")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@SpringBootTest(
+		webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+		properties = {
+				"spring.config.on-not-found=ignore",
+				"spring.jpa.hibernate.ddl-auto=create-drop",
+				"spring.jpa.show-sql=false",
+				// SQL на запрос — из datasource-proxy (SqlStatsRegistry): он видит и JDBC потоковых ответов
+				"parahub.sql.enabled=true",
+				"spring.mail.username=",
+				"spring.mail.password=",
+				"spring.mail.properties.mail.smtp.auth=false",
+				"spring.mail.properties.mail.smtp.starttls.enable=false",
+				"spring.mail.properties.mail.debug=false",
+				"spring.mail.test-connection=false",
+				// хеширование паролей здесь не предмет замера: на боевой стоимости /register упирается в CPU
+				"security.password.strength=4",
+				"security.rate-limit.ip.capacity=1000000",
+				"security.rate-limit.ip.refill-per-minute=1000000",
+				"security.rate-limit.email.capacity=1000000",
+				"security.rate-limit.email.refill-per-minute=1000000",
+				"logging.level.PROFILING=WARN",
+				"logging.level.org.bin.parahub.aspect.ProfilingAspect=WARN",
+				"parahub.profiling.call-tree.enabled=false",
+				"parahub.jfr.profiled-method.enabled=false"
+		})
+class ApiLoadTest {
+
+	private static final int SEED_SPOTS = 200;
+	private static final String PILOT_EMAIL = "pilot@load.test";
+	private static final String PILOT_PASSWORD = "load-test-password";
+
+	@LocalServerPort
+	int port;
+
+	@Autowired
+	UserRepository userRepository;
+
+	@Autowired
+	SpotService spotService;
+
+	@Autowired
+	PasswordEncoder passwordEncoder;
+
+	@Autowired
+	JwtUtil jwtUtil;
+
+	@Autowired
+	SqlStatsRegistry sqlStatsRegistry;
+
+	private OpenLoopLoadGenerator generator;
+
+	/** access-токен админа: записи спотов и точек требуют ROLE_ADMIN */
+	private String token;
+
+	@DynamicPropertySource
+	static void infrastructure(DynamicPropertyRegistry registry) {
+		LoadTestInfrastructure.registerProperties(registry);
+	}
+
+	@BeforeAll
+	void seed() {
+		userRepository.save(User.builder()
+				.email(PILOT_EMAIL)
+				.username("load-pilot")
+				.password(passwordEncoder.encode(PILOT_PASSWORD))
+				.role(UserRole.ADMIN)
+				.enabled(true)
+				.createdAt(LocalDateTime.now())
+				.build());
+		token = jwtUtil.generateToken(PILOT_EMAIL, UserRole.ADMIN.name());
+		for (int i = 1; i <= SEED_SPOTS; i++) {
+			spotService.save(spot("Seed " + i, i));
+		}
+
+		String base = "http://localhost:" + port;
+		long runId = System.currentTimeMillis();
+		generator = new OpenLoopLoadGenerator(sqlStatsRegistry::statementsPerRequest)
+				.operation("GET /api/spots/id/{id}", 35, i -> get(base + "/api/spots/id/" + (1 + i % SEED_SPOTS)))
+				.operation("GET /api/spots", 10, i -> get(base + "/api/spots"))
+				.operation("GET /api/spots/search", 10, i -> get(base + "/api/spots/search?name=Seed%20" + (i % 20)))
+				.operation("GET /api/terrain_points/spotID/{spotID}", 20,
+						i -> get(base + "/api/terrain_points/spotID/" + (1 + i % SEED_SPOTS)))
+				.operation("POST /api/spots", 8, i -> post(base + "/api/spots", spotJson("Load " + runId + "-" + i, i)))
+				.operation("POST /api/terrain_points/spotID/{spotID}", 8,
+						i -> post(base + "/api/terrain_points/spotID/" + (1 + i % SEED_SPOTS), terrainPointJson(i)))
+				.operation("POST /api/auth/register", 5, i -> post(base + "/api/auth/register", String.format(Locale.ROOT,
+						"{\"username\":\"load-%d-%d\",\"email\":\"load-%d-%d@load.test\",\"password\":\"secret-%d\"}",
+						runId, i, runId, i, i)))
+				.operation("POST /api/auth/request-2fa", 4, i -> post(base + "/api/auth/request-2fa", String.format(Locale.ROOT,
+						"{\"email\":\"%s\",\"password\":\"%s\"}", PILOT_EMAIL, PILOT_PASSWORD)));
+	}
+
+	@AfterAll
+	void closeGenerator() {
+		if (generator != null) {
+			generator.close();
+		}
+	}
+
+	@Test
+	void mixedWorkloadMeetsLatencyBudget() throws Exception {
+		double rps = Double.parseDouble(System.getProperty("load.rps", "200"));
+		Duration duration = Duration.ofSeconds(Long.getLong("load.duration-seconds", 30));
+		Duration warmup = Duration.ofSeconds(Long.getLong("load.warmup-seconds", 10));
+		double p99BudgetMs = Double.parseDouble(System.getProperty("load.p99-budget-ms", "250"));
+		double maxErrorRate = Double.parseDouble(System.getProperty("load.max-error-rate", "0.01"));
+
+		generator.run(rps, warmup);
+		sqlStatsRegistry.reset();
+		LoadReport report = generator.run(rps, duration);
+
+		System.out.println(report.toTable());
+		report.writeJson(Path.of("target", "load-test-report.json"));
+
+		assertTrue(LoadTestInfrastructure.receivedMessages() > 0, "письма с кодами не дошли до SMTP");
+		for (LoadReport.Endpoint endpoint : report.endpoints()) {
+			assertTrue(endpoint.errorRate() <= maxErrorRate,
+					endpoint.endpoint() + ": доля ошибок " + endpoint.errorRate());
+			assertTrue(endpoint.p99Ms() <= p99BudgetMs,
+					endpoint.endpoint() + ": p99 " + endpoint.p99Ms() + " ms > " + p99BudgetMs + " ms");
+		}
+	}
+
+	private static SpotDTO spot(String name, int seed) {
+		SpotDTO spot = new SpotDTO();
+		spot.setName(name);
+		spot.setLatitude(43.0 + (seed % 300) * 0.01);
+		spot.setLongitude(40.0 + (seed % 300) * 0.01);
+		spot.setElevation(500.0 + seed % 1500);
+		spot.setDescription("Склон для нагрузочного теста");
+		spot.setXcDifficulty(1 + seed % 5);
+		spot.setLearningDifficulty(1 + seed % 5);
+		return spot;
+	}
+
+	private static String spotJson(String name, int seed) {
+		return String.format(Locale.ROOT,
+				"{\"name\":\"%s\",\"latitude\":%.4f,\"longitude\":%.4f,\"elevation\":%d,"
+						+ "\"xcDifficulty\":%d,\"learningDifficulty\":%d,\"description\":\"Склон для нагрузочного теста\"}",
+				name, 43.0 + (seed % 300) * 0.01, 40.0 + (seed % 300) * 0.01, 500 + seed % 1500,
+				1 + seed % 5, 1 + seed % 5);
+	}
+
+	private static String terrainPointJson(int seed) {
+		return String.format(Locale.ROOT,
+				"{\"name\":\"Point %d\",\"latitude\":%.4f,\"longitude\":%.4f,\"elevation\":%d,\"type\":\"LANDING_ZONE\"}",
+				seed, 43.0 + (seed % 300) * 0.01, 40.0 + (seed % 300) * 0.01, 300 + seed % 1000);
+	}
+
+	private HttpRequest get(String uri) {
+		return HttpRequest.newBuilder(URI.create(uri))
+				.timeout(Duration.ofSeconds(10))
+				.header("Authorization", "Bearer " + token)
+				.GET()
+				.build();
+	}
+
+	private HttpRequest post(String uri, String json) {
+		return HttpRequest.newBuilder(URI.create(uri))
+				.timeout(Duration.ofSeconds(10))
+				.header("Authorization", "Bearer " + token)
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString(json))
+				.build();
+	}
+}
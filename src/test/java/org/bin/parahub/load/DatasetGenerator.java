@@ -0,0 +1,206 @@
+package org.bin.parahub.load;
+
+import org.bin.parahub.enums.PointType;
+import org.bin.parahub.enums.WindDirection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Синтетический набор спотов, ветров и точек рельефа с реалистичным распределением:
+ * споты кучкуются вокруг горных районов, высоты и описания зависят от района,
+ * у спота 10–50 точек и 1–4 ветра, часть строк "мягко удалена" (is_enabled = false).
+ *
+ * Пишет напрямую в таблицы через JDBC-батчи с явными id (в обход JPA, иначе 2М точек вставляются часами)
+ * и затем сдвигает identity-последовательности. Генерация детерминирована при одинаковом seed.
+ *
+ * Можно залить и в свою базу: DatasetGenerator jdbc:postgresql://localhost:5432/parahub user password 100000
+ */
+final class DatasetGenerator {
+
+	private static final int BATCH_SIZE = 5_000;
+
+	/** центр района, разброс в градусах, типичная высота стартов */
+	private record Region(String name, double latitude, double longitude, double spread, double baseElevation) {
+	}
+
+	private static final Region[] REGIONS = {
+			new Region("Крым", 44.60, 34.10, 0.45, 450),
+			new Region("Кавказ", 43.35, 42.45, 0.80, 2100),
+			new Region("Алтай", 50.50, 86.50, 1.20, 1300),
+			new Region("Хибины", 67.70, 33.70, 0.30, 600),
+			new Region("Урал", 55.00, 59.50, 1.50, 700),
+			new Region("Саяны", 52.50, 96.00, 1.10, 1500),
+			new Region("Альпы", 46.50, 10.00, 1.80, 1800),
+			new Region("Тянь-Шань", 42.60, 76.50, 1.40, 2400),
+	};
+
+	private static final String[] NAME_PARTS = {
+			"Орлиная ", "Ветреная ", "Солнечная ", "Каменная ", "Лысая ", "Большая ", "Малая ", "Северная ",
+			"Южная ", "Высокая ", "Белая ", "Красная ", "Ай-", "Кара-", "Бель-"
+	};
+	private static final String[] NAME_SUFFIXES = {
+			"гора", "скала", "сопка", "гряда", "вершина", "поляна", "Петри", "Тау", "Даг", "Кая"
+	};
+	private static final String[] SEASONS = {"апрель-октябрь", "май-сентябрь", "круглый год", "июнь-август"};
+	private static final String[] POPULARITY = {"LOW", "MEDIUM", "HIGH"};
+	private static final PointType[] POINT_TYPES = PointType.values();
+	private static final WindDirection[] DIRECTIONS = WindDirection.values();
+
+	private final JdbcTemplate jdbc;
+	private final SplittableRandom random;
+	private final double softDeletedShare;
+
+	DatasetGenerator(JdbcTemplate jdbc, long seed, double softDeletedShare) {
+		this.jdbc = jdbc;
+		this.random = new SplittableRandom(seed);
+		this.softDeletedShare = softDeletedShare;
+	}
+
+	/**
+	 * Дописать spotCount спотов со всеми точками и ветрами
+	 *
+	 * @return сколько точек рельефа получилось
+	 */
+	long generate(int spotCount) {
+		long firstSpotId = nextId("spots");
+		long nextPointId = nextId("terrain_points");
+		long nextWindId = nextId("winds");
+		long points = 0;
+
+		List<Object[]> spots = new ArrayList<>(BATCH_SIZE);
+		List<Object[]> terrainPoints = new ArrayList<>(BATCH_SIZE * 30);
+		List<Object[]> winds = new ArrayList<>(BATCH_SIZE * 3);
+
+		for (int i = 0; i < spotCount; i++) {
+			long spotId = firstSpotId + i;
+			Region region = REGIONS[pickRegion()];
+			double latitude = region.latitude() + gaussian() * region.spread();
+			double longitude = region.longitude() + gaussian() * region.spread();
+			double elevation = Math.max(50, region.baseElevation() + gaussian() * region.baseElevation() * 0.3);
+			boolean spotEnabled = random.nextDouble() >= softDeletedShare;
+			int difficulty = 1 + Math.min(4, (int) (elevation / 700));
+
+			spots.add(new Object[]{
+					spotId, spotEnabled, spotName(region, spotId), latitude, longitude, round(elevation),
+					"SW, W", difficulty, 1 + random.nextInt(5),
+					POPULARITY[random.nextInt(POPULARITY.length)], SEASONS[random.nextInt(SEASONS.length)],
+					"Подъезд по грунтовке, последние " + (1 + random.nextInt(5)) + " км пешком",
+					description(region)
+			});
+
+			int pointCount = 10 + random.nextInt(41);
+			for (int p = 0; p < pointCount; p++) {
+				PointType type = p == 0 ? PointType.TAKEOFF : POINT_TYPES[random.nextInt(POINT_TYPES.length)];
+				double drop = type == PointType.LANDING_ZONE ? 300 + random.nextInt(700) : random.nextInt(400);
+				terrainPoints.add(new Object[]{
+						nextPointId++,
+						spotEnabled && random.nextDouble() >= softDeletedShare,
+						type.name().toLowerCase() + " " + (p + 1),
+						type.ordinal(),
+						latitude + gaussian() * 0.02,
+						longitude + gaussian() * 0.02,
+						round(Math.max(0, elevation - drop)),
+						p % 3 == 0 ? "Ориентир виден с воздуха, рядом линия ЛЭП" : null,
+						spotId
+				});
+			}
+			points += pointCount;
+
+			int windCount = 1 + random.nextInt(4);
+			int firstDirection = random.nextInt(DIRECTIONS.length);
+			for (int w = 0; w < windCount; w++) {
+				int minSpeed = 1 + random.nextInt(3);
+				winds.add(new Object[]{
+						nextWindId++,
+						DIRECTIONS[(firstDirection + w) % DIRECTIONS.length].name(),
+						minSpeed,
+						minSpeed + 3 + random.nextInt(5),
+						spotId
+				});
+			}
+
+			if (spots.size() == BATCH_SIZE || i == spotCount - 1) {
+				flush(spots, terrainPoints, winds);
+			}
+		}
+
+		resetIdentity("spots");
+		resetIdentity("terrain_points");
+		resetIdentity("winds");
+		jdbc.execute("ANALYZE spots");
+		jdbc.execute("ANALYZE terrain_points");
+		jdbc.execute("ANALYZE winds");
+		return points;
+	}
+
+	private void flush(List<Object[]> spots, List<Object[]> terrainPoints, List<Object[]> winds) {
+		jdbc.batchUpdate("INSERT INTO spots (id, is_enabled, name, latitude, longitude, elevation, suitable_winds, "
+				+ "xc_difficulty, learning_difficulty, popularity, best_season, accessibility, description) "
+				+ "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", spots);
+		jdbc.batchUpdate("INSERT INTO terrain_points (id, is_enabled, name, type, latitude, longitude, elevation, "
+				+ "description, spot_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", terrainPoints);
+		jdbc.batchUpdate("INSERT INTO winds (id, direction, min_speed, max_speed, spot_id) VALUES (?, ?, ?, ?, ?)", winds);
+		spots.clear();
+		terrainPoints.clear();
+		winds.clear();
+	}
+
+	/**
+	 * Районы неравномерно популярны: первые в списке встречаются чаще (примерно по Ципфу)
+	 */
+	private int pickRegion() {
+		double u = random.nextDouble();
+		return Math.min(REGIONS.length - 1, (int) (REGIONS.length * u * u));
+	}
+
+	private String spotName(Region region, long id) {
+		String name = NAME_PARTS[random.nextInt(NAME_PARTS.length)] + NAME_SUFFIXES[random.nextInt(NAME_SUFFIXES.length)];
+		// небольшая доля одноимённых спотов в разных районах, как в реальных данных
+		return random.nextInt(20) == 0 ? name : name + " (" + region.name() + ", " + id + ")";
+	}
+
+	private String description(Region region) {
+		int sentences = random.nextInt(6);
+		StringBuilder sb = new StringBuilder("Старт в районе ").append(region.name()).append('.');
+		for (int i = 0; i < sentences; i++) {
+			sb.append(" Термики после ").append(11 + random.nextInt(4)).append(":00, сильный ветер роторит за гребнем.");
+		}
+		return sb.toString();
+	}
+
+	private double gaussian() {
+		// сумма трёх равномерных — достаточно колоколообразно и без Random#nextGaussian
+		return (random.nextDouble() + random.nextDouble() + random.nextDouble() - 1.5) / 0.5;
+	}
+
+	private static double round(double value) {
+		return Math.round(value * 10) / 10.0;
+	}
+
+	private long nextId(String table) {
+		Long max = jdbc.queryForObject("SELECT max(id) FROM " + table, Long.class);
+		return max == null ? 1 : max + 1;
+	}
+
+	private void resetIdentity(String table) {
+		jdbc.execute("SELECT setval(pg_get_serial_sequence('" + table + "', 'id'), (SELECT coalesce(max(id), 1) FROM " + table + "))");
+	}
+
+	public static void main(String[] args) {
+		if (args.length < 4) {
+			System.err.println("usage: DatasetGenerator <jdbc-url> <user> <password> <spots> [seed] [soft-deleted-share]");
+			return;
+		}
+		JdbcTemplate jdbc = new JdbcTemplate(new DriverManagerDataSource(args[0], args[1], args[2]));
+		long seed = args.length > 4 ? Long.parseLong(args[4]) : 42;
+		double softDeleted = args.length > 5 ? Double.parseDouble(args[5]) : 0.05;
+		long start = System.nanoTime();
+		long points = new DatasetGenerator(jdbc, seed, softDeleted).generate(Integer.parseInt(args[3]));
+		System.out.printf("Generated %s spots, %d terrain points in %d s%n",
+				args[3], points, (System.nanoTime() - start) / 1_000_000_000L);
+	}
+}
@@ -0,0 +1,114 @@
+package org.bin.parahub.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.bin.parahub.repository.JsonStreamRepository;
+import org.bin.parahub.service.SpotService;
+import org.bin.parahub.service.TerrainPointService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * JSON из JsonStreamRepository совпадает с сериализацией DTO через Hibernate на том же наборе данных
+ * (порядок элементов в массивах не сравнивается — у Hibernate он не определён)
+ */
+@Tag("load")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@SpringBootTest(
+		webEnvironment = SpringBootTest.WebEnvironment.NONE,
+		properties = {
+				"spring.config.on-not-found=ignore",
+				"spring.jpa.hibernate.ddl-auto=create-drop",
+				"spring.jpa.show-sql=false",
+				"spring.mail.test-connection=false"
+		})
+class JsonStreamingParityTest {
+
+	@Autowired
+	JsonStreamRepository jsonStreamRepository;
+
+	@Autowired
+	SpotService spotService;
+
+	@Autowired
+	TerrainPointService terrainPointService;
+
+	@Autowired
+	ObjectMapper objectMapper;
+
+	@Autowired
+	JdbcTemplate jdbc;
+
+	@Autowired
+	PlatformTransactionManager transactionManager;
+
+	@DynamicPropertySource
+	static void infrastructure(DynamicPropertyRegistry registry) {
+		LoadTestInfrastructure.registerProperties(registry);
+	}
+
+	@BeforeAll
+	void generateDataset() {
+		new DatasetGenerator(jdbc, 7, 0.2).generate(300);
+	}
+
+	@Test
+	void spotsMatchDtoSerialization() throws Exception {
+		ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+		jsonStreamRepository.writeEnabledSpots(streamed);
+
+		// как в запросе с open-in-view: ленивые коллекции грузятся в той же сессии
+		JsonNode expected = new TransactionTemplate(transactionManager)
+				.execute(status -> objectMapper.valueToTree(spotService.getAllSpots()));
+
+		assertEquals(normalize(expected), normalize(objectMapper.readTree(streamed.toByteArray())));
+	}
+
+	@Test
+	void terrainPointsMatchDtoSerialization() throws Exception {
+		ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+		jsonStreamRepository.writeEnabledTerrainPoints(streamed);
+
+		JsonNode expected = new TransactionTemplate(transactionManager)
+				.execute(status -> objectMapper.valueToTree(terrainPointService.getAllTerrainPoints()));
+
+		assertEquals(normalize(expected), normalize(objectMapper.readTree(streamed.toByteArray())));
+	}
+
+	/**
+	 * Массивы объектов сортируются по id, рекурсивно
+	 */
+	private JsonNode normalize(JsonNode node) {
+		if (node.isArray()) {
+			List<JsonNode> items = new ArrayList<>();
+			node.forEach(item -> items.add(normalize(item)));
+			items.sort(Comparator.comparingLong(item -> item.path("id").asLong()));
+			ArrayNode sorted = objectMapper.createArrayNode();
+			items.forEach(sorted::add);
+			return sorted;
+		}
+		if (node.isObject()) {
+			node.properties().forEach(entry -> ((ObjectNode) node)
+					.set(entry.getKey(), normalize(entry.getValue())));
+		}
+		return node;
+	}
+}
@@ -0,0 +1,66 @@
+package org.bin.parahub.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Итог прогона: задержки в миллисекундах, пропускная способность в запросах в секунду,
+ * timeouts — запросы без ответа за таймаут HttpRequest или к концу ожидания хвоста (входят и в errors),
+ * queriesPerRequest — среднее число SQL на запрос по SqlStatsRegistry (-1, если эндпоинт не записан)
+ */
+record LoadReport(double targetRps, double elapsedSeconds, List<Endpoint> endpoints) {
+
+	record Endpoint(
+			String endpoint,
+			long requests,
+			long errors,
+			long timeouts,
+			double throughput,
+			double p50Ms,
+			double p99Ms,
+			double p999Ms,
+			double maxMs,
+			double queriesPerRequest) {
+
+		double errorRate() {
+			return requests == 0 ? 0 : (double) errors / requests;
+		}
+	}
+
+	long totalRequests() {
+		return endpoints.stream().mapToLong(Endpoint::requests).sum();
+	}
+
+	long totalErrors() {
+		return endpoints.stream().mapToLong(Endpoint::errors).sum();
+	}
+
+	long totalTimeouts() {
+		return endpoints.stream().mapToLong(Endpoint::timeouts).sum();
+	}
+
+	String toTable() {
+		StringBuilder sb = new StringBuilder(String.format(Locale.ROOT,
+				"Load test: target %.0f rps, achieved %.1f rps over %.1f s, %d errors (%d timeouts)%n",
+				targetRps, totalRequests() / elapsedSeconds, elapsedSeconds, totalErrors(), totalTimeouts()));
+		sb.append(String.format(Locale.ROOT, "%-45s %8s %6s %8s %8s %9s %9s %9s %9s %7s%n",
+				"endpoint", "requests", "errors", "timeouts", "rps", "p50 ms", "p99 ms", "p999 ms", "max ms", "sql/req"));
+		for (Endpoint e : endpoints) {
+			sb.append(String.format(Locale.ROOT, "%-45s %8d %6d %8d %8.1f %9.2f %9.2f %9.2f %9.2f %7.1f%n",
+					e.endpoint(), e.requests(), e.errors(), e.timeouts(), e.throughput(),
+					e.p50Ms(), e.p99Ms(), e.p999Ms(), e.maxMs(), e.queriesPerRequest()));
+		}
+		return sb.toString();
+	}
+
+	void writeJson(Path file) throws IOException {
+		Files.createDirectories(file.getParent());
+		new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), this);
+	}
+}
@@ -0,0 +1,69 @@
+package org.bin.parahub.load;
+
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.test.context.DynamicPropertyRegistry;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * PostgreSQL (бинарники из maven-артефакта zonky, без Docker) и фейковый SMTP (GreenMail)
+ * на случайных портах. Поднимаются один раз на JVM и гасятся shutdown-хуком.
+ * Кроме нагрузочных тестов, ими пользуются интеграционные тесты на PostgreSQL-специфичном SQL из других пакетов.
+ */
+public final class LoadTestInfrastructure {
+
+	private static EmbeddedPostgres postgres;
+	private static GreenMail smtp;
+
+	private LoadTestInfrastructure() {
+	}
+
+	public static synchronized void registerProperties(DynamicPropertyRegistry registry) {
+		properties().forEach((name, value) -> registry.add(name, () -> value));
+	}
+
+	/**
+	 * Те же свойства для приложения в отдельном процессе (-Dname=value)
+	 */
+	static synchronized Map<String, String> properties() {
+		start();
+		Map<String, String> properties = new LinkedHashMap<>();
+		properties.put("spring.datasource.url", postgres.getJdbcUrl("postgres", "postgres"));
+		properties.put("spring.datasource.username", "postgres");
+		properties.put("spring.datasource.password", "postgres");
+		properties.put("spring.mail.host", "127.0.0.1");
+		properties.put("spring.mail.port", String.valueOf(smtp.getSmtp().getPort()));
+		return properties;
+	}
+
+	static synchronized int receivedMessages() {
+		return smtp.getReceivedMessages().length;
+	}
+
+	private static void start() {
+		if (postgres != null) {
+			return;
+		}
+		try {
+			postgres = EmbeddedPostgres.builder().start();
+		} catch (IOException e) {
+			throw new UncheckedIOException("Не удалось запустить embedded PostgreSQL", e);
+		}
+		smtp = new GreenMail(ServerSetupTest.SMTP.dynamicPort());
+		smtp.start();
+
+		Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+			smtp.stop();
+			try {
+				postgres.close();
+			} catch (IOException ignored) {
+				// процесс всё равно завершается
+			}
+		}, "load-test-infrastructure-shutdown"));
+	}
+}
@@ -0,0 +1,187 @@
+package org.bin.parahub.load;
+
+import org.bin.parahub.profiling.LongHistogram;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpTimeoutException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.IntFunction;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Нагрузка с открытой моделью: запросы уходят по расписанию с фиксированным RPS, не дожидаясь ответов.
+ *
+ * Задержка считается от запланированного момента отправки, а не от фактического, поэтому
+ * если сервер или клиент подтормаживают, ожидание в очереди попадает в перцентили
+ * (нет coordinated omission, как у замкнутого цикла "отправил — дождался — отправил").
+ */
+final class OpenLoopLoadGenerator {
+
+	private final HttpClient client;
+	private final ExecutorService executor;
+	private final List<Operation> operations = new ArrayList<>();
+	private final Map<String, EndpointStats> stats = new LinkedHashMap<>();
+	private final ToDoubleFunction<String> queriesPerRequest;
+	private int totalWeight;
+
+	/**
+	 * @param queriesPerRequest среднее число SQL на запрос эндпоинта за прогон (-1, если неизвестно)
+	 */
+	OpenLoopLoadGenerator(ToDoubleFunction<String> queriesPerRequest) {
+		this.queriesPerRequest = queriesPerRequest;
+		this.executor = Executors.newVirtualThreadPerTaskExecutor();
+		this.client = HttpClient.newBuilder()
+				.executor(executor)
+				.connectTimeout(Duration.ofSeconds(5))
+				.build();
+	}
+
+	/**
+	 * @param endpoint имя в отчёте, совпадает с шаблоном маппинга ("GET /api/spots/id/{id}")
+	 * @param weight   доля в смеси относительно остальных операций
+	 * @param request  запрос по порядковому номеру (для уникальных email, id и т.п.)
+	 */
+	OpenLoopLoadGenerator operation(String endpoint, int weight, IntFunction<HttpRequest> request) {
+		operations.add(new Operation(endpoint, weight, request));
+		stats.putIfAbsent(endpoint, new EndpointStats());
+		totalWeight += weight;
+		return this;
+	}
+
+	/**
+	 * Прогнать смесь с заданным RPS; статистика за прошлые прогоны (например, прогрев) сбрасывается
+	 */
+	LoadReport run(double targetRps, Duration duration) throws InterruptedException {
+		stats.values().forEach(EndpointStats::reset);
+		SplittableRandom random = new SplittableRandom(42);
+		long intervalNanos = (long) (1_000_000_000L / targetRps);
+		long total = duration.toNanos() / intervalNanos;
+		List<Sent> inFlight = new ArrayList<>();
+
+		long start = System.nanoTime();
+		for (int i = 0; i < total; i++) {
+			long intendedStart = start + i * intervalNanos;
+			long wait = intendedStart - System.nanoTime();
+			if (wait > 0) {
+				LockSupport.parkNanos(wait);
+			}
+			Operation operation = pick(random.nextInt(totalWeight));
+			Sent sent = new Sent(stats.get(operation.endpoint()), intendedStart);
+			sent.future = client.sendAsync(operation.request().apply(i), HttpResponse.BodyHandlers.discarding());
+			sent.future.whenComplete((response, error) -> sent.complete(
+					error != null || response.statusCode() >= 400,
+					error instanceof HttpTimeoutException || error != null && error.getCause() instanceof HttpTimeoutException));
+			inFlight.add(sent);
+		}
+		try {
+			CompletableFuture.allOf(inFlight.stream().map(sent -> sent.future).toArray(CompletableFuture[]::new))
+					.exceptionally(e -> null)
+					.get(30, TimeUnit.SECONDS);
+		} catch (TimeoutException | java.util.concurrent.ExecutionException e) {
+			// хвост не дождались — ниже такие запросы учитываются таймаутами
+		}
+		long elapsed = System.nanoTime() - start;
+		// незавершённый запрос — ошибка с задержкой не меньше той, что он уже прождал; иначе хвост пропадёт из p99
+		for (Sent sent : inFlight) {
+			if (sent.complete(true, true)) {
+				sent.future.cancel(true);
+			}
+		}
+
+		List<LoadReport.Endpoint> endpoints = new ArrayList<>();
+		stats.forEach((endpoint, s) -> endpoints.add(s.report(endpoint, elapsed, queriesPerRequest.applyAsDouble(endpoint))));
+		return new LoadReport(targetRps, elapsed / 1e9, endpoints);
+	}
+
+	void close() {
+		executor.shutdownNow();
+	}
+
+	private Operation pick(int ticket) {
+		for (Operation operation : operations) {
+			ticket -= operation.weight();
+			if (ticket < 0) {
+				return operation;
+			}
+		}
+		return operations.get(operations.size() - 1);
+	}
+
+	private record Operation(String endpoint, int weight, IntFunction<HttpRequest> request) {
+	}
+
+	/**
+	 * Отправленный запрос; учитывается ровно один раз — ответом или как незавершённый после ожидания хвоста
+	 */
+	private static final class Sent {
+		private final EndpointStats stats;
+		private final long intendedStart;
+		private final AtomicBoolean recorded = new AtomicBoolean();
+		private CompletableFuture<HttpResponse<Void>> future;
+
+		Sent(EndpointStats stats, long intendedStart) {
+			this.stats = stats;
+			this.intendedStart = intendedStart;
+		}
+
+		boolean complete(boolean failed, boolean timedOut) {
+			if (!recorded.compareAndSet(false, true)) {
+				return false;
+			}
+			stats.record(System.nanoTime() - intendedStart, failed, timedOut);
+			return true;
+		}
+	}
+
+	private static final class EndpointStats {
+		private final LongHistogram latency = new LongHistogram();
+		private final LongAdder errors = new LongAdder();
+		private final LongAdder timeouts = new LongAdder();
+
+		void record(long latencyNanos, boolean failed, boolean timedOut) {
+			latency.record(latencyNanos);
+			if (failed) {
+				errors.increment();
+			}
+			if (timedOut) {
+				timeouts.increment();
+			}
+		}
+
+		void reset() {
+			latency.reset();
+			errors.reset();
+			timeouts.reset();
+		}
+
+		LoadReport.Endpoint report(String endpoint, long elapsedNanos, double queriesPerRequest) {
+			LongHistogram.Snapshot snapshot = latency.snapshot();
+			return new LoadReport.Endpoint(
+					endpoint,
+					snapshot.getCount(),
+					errors.sum(),
+					timeouts.sum(),
+					snapshot.getCount() / (elapsedNanos / 1e9),
+					snapshot.getValueAtPercentile(50) / 1e6,
+					snapshot.getValueAtPercentile(99) / 1e6,
+					snapshot.getValueAtPercentile(99.9) / 1e6,
+					snapshot.getMax() / 1e6,
+					queriesPerRequest);
+		}
+	}
+}
@@ -0,0 +1,38 @@
+package org.bin.parahub.load;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Перехватывает SQL Hibernate для замеров репозиториев: {@link #startCapture()} / {@link #stopCapture()}.
+ * Подключается через hibernate.session_factory.statement_inspector. JDBC мимо Hibernate (JsonStreamRepository,
+ * пакетные записи) он не видит — SQL по HTTP-эндпоинтам считает datasource-proxy (SqlStatsRegistry).
+ */
+public class QueryCountingInspector implements StatementInspector {
+
+	private static final ThreadLocal<List<String>> CAPTURED = new ThreadLocal<>();
+
+	@Override
+	public String inspect(String sql) {
+		List<String> captured = CAPTURED.get();
+		if (captured != null) {
+			captured.add(sql);
+		}
+		return sql;
+	}
+
+	static void startCapture() {
+		CAPTURED.set(new ArrayList<>());
+	}
+
+	/**
+	 * @return SQL, выполненный текущим потоком с момента {@link #startCapture()}
+	 */
+	static List<String> stopCapture() {
+		List<String> captured = CAPTURED.get();
+		CAPTURED.remove();
+		return captured != null ? captured : List.of();
+	}
+}
@@ -0,0 +1,297 @@
+package org.bin.parahub.load;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.bin.parahub.dto.BulkUpdateDTO;
+import org.bin.parahub.profiling.LongHistogram;
+import org.bin.parahub.repository.BulkUpdateRepository;
+import org.bin.parahub.repository.SpotRepository;
+import org.bin.parahub.repository.TerrainPointRepository;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Запросы SpotRepository и TerrainPointRepository на синтетическом наборе (см. DatasetGenerator).
+ *
+ * В обычном mvn test: сколько SQL выполняет Hibernate (ловит N+1 и лишние EAGER-выборки) и план
+ * EXPLAIN ANALYZE сгенерированного SQL (ловит пропавшие индексы) — регресс плана роняет сборку.
+ * Набор по умолчанию маленький, поэтому план строится с enable_seqscan = off: без подходящего индекса
+ * в нём всё равно останется Seq Scan. Задержки p50/p99 (@Tag("load")) — только в профиле load-test,
+ * там набор 20 000 спотов ≈ 600 000 точек.
+ * Планы пишутся в target/query-plans/, сводка задержек — в target/query-benchmarks.txt.
+ * Размер набора — системные свойства dataset.spots (по умолчанию 2 000 спотов) и dataset.iterations.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@SpringBootTest(
+		webEnvironment = SpringBootTest.WebEnvironment.NONE,
+		properties = {
+				"spring.config.on-not-found=ignore",
+				"spring.jpa.hibernate.ddl-auto=create-drop",
+				"spring.jpa.show-sql=false",
+				"spring.jpa.properties.hibernate.session_factory.statement_inspector=org.bin.parahub.load.QueryCountingInspector",
+				"spring.datasource.hikari.data-source-properties.reWriteBatchedInserts=true",
+				"spring.mail.test-connection=false",
+				"logging.level.PROFILING=WARN",
+				"logging.level.org.bin.parahub.aspect.ProfilingAspect=WARN"
+		})
+class RepositoryQueryBenchmarkTest {
+
+	private static final Path PLANS = Path.of("target", "query-plans");
+
+	@Autowired
+	SpotRepository spotRepository;
+
+	@Autowired
+	TerrainPointRepository terrainPointRepository;
+
+	@Autowired
+	BulkUpdateRepository bulkUpdateRepository;
+
+	@Autowired
+	JdbcTemplate jdbc;
+
+	@Autowired
+	PlatformTransactionManager transactionManager;
+
+	@Autowired
+	EntityManagerFactory entityManagerFactory;
+
+	private TransactionTemplate readOnly;
+	private int spots;
+	private List<String> uniqueNames;
+	private final StringBuilder summary = new StringBuilder();
+
+	@DynamicPropertySource
+	static void infrastructure(DynamicPropertyRegistry registry) {
+		LoadTestInfrastructure.registerProperties(registry);
+	}
+
+	@BeforeAll
+	void generateDataset() throws IOException {
+		// JCache CacheManager общий для всех контекстов JVM, а схема пересоздаётся (create-drop) с теми же id
+		entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+		readOnly = new TransactionTemplate(transactionManager);
+		readOnly.setReadOnly(true);
+
+		spots = Integer.getInteger("dataset.spots", 2_000);
+		long start = System.nanoTime();
+		long points = new DatasetGenerator(jdbc, 42, 0.05).generate(spots);
+		System.out.printf("Dataset: %d spots, %d terrain points in %.1f s%n", spots, points, (System.nanoTime() - start) / 1e9);
+
+		// findByName возвращает Optional — берём только имена без дублей
+		uniqueNames = jdbc.queryForList(
+				"SELECT name FROM spots GROUP BY name HAVING count(*) = 1 ORDER BY min(id) LIMIT 500", String.class);
+		Files.createDirectories(PLANS);
+	}
+
+	@TestFactory
+	Stream<DynamicTest> repositoryQueryPlans() {
+		return queryCases().stream().map(c -> DynamicTest.dynamicTest(c.name(), () -> checkPlan(c)));
+	}
+
+	@Tag("load")
+	@TestFactory
+	Stream<DynamicTest> repositoryQueryLatencies() {
+		return queryCases().stream().map(c -> DynamicTest.dynamicTest(c.name(), () -> measureLatency(c)));
+	}
+
+	private List<QueryCase> queryCases() {
+		return List.of(
+				new QueryCase("SpotRepository.findById", 1,
+						i -> spotRepository.findById(spotId(i)), i -> new Object[]{spotId(i)},
+						List.of("spots_pkey"), List.of("Seq Scan")),
+				new QueryCase("SpotRepository.findByName", 1,
+						i -> spotRepository.findByName(name(i)), i -> new Object[]{name(i)},
+						List.of("idx_spots_name"), List.of("Seq Scan")),
+				// upper(name) LIKE '%…%' b-tree индекс не использует: последовательное чтение здесь ожидаемо,
+				// следим только за числом запросов
+				new QueryCase("SpotRepository.findByNameContainingIgnoreCase", 1,
+						i -> spotRepository.findByNameContainingIgnoreCase(searchTerm(i)), i -> new Object[]{"%" + searchTerm(i) + "%"},
+						List.of(), List.of()),
+				new QueryCase("TerrainPointRepository.findBySpotId", 1,
+						i -> terrainPointRepository.findBySpotId(spotId(i)), i -> new Object[]{spotId(i)},
+						List.of("idx_terrain_points_spot_id"), List.of("Seq Scan on terrain_points")),
+				new QueryCase("TerrainPointRepository.findBySpotName", 1,
+						i -> terrainPointRepository.findBySpotName(name(i)), i -> new Object[]{name(i)},
+						List.of("idx_spots_name", "idx_terrain_points_spot_id"), List.of("Seq Scan")),
+				new QueryCase("TerrainPointRepository.findTerrainPointById", 1,
+						i -> terrainPointRepository.findTerrainPointById((long) (1 + i * 7919L % (spots * 10L))),
+						i -> new Object[]{(long) (1 + i * 7919L % (spots * 10L))},
+						List.of("terrain_points_pkey"), List.of("Seq Scan"))
+		);
+	}
+
+	/**
+	 * Повторные findById/findByName/findBySpotId в новых транзакциях обслуживаются кэшем второго уровня без SQL;
+	 * запись через Hibernate сбрасывает query cache
+	 */
+	@Test
+	void secondLevelCacheServesRepeatedLookups() {
+		long spotId = jdbc.queryForObject("SELECT max(spot_id) FROM terrain_points", Long.class);
+		String name = uniqueNames.get(uniqueNames.size() - 1);
+		Runnable lookups = () -> {
+			spotRepository.findById(spotId).orElseThrow().getWinds().size();
+			spotRepository.findByName(name).orElseThrow();
+			terrainPointRepository.findBySpotId(spotId).size();
+		};
+		readOnly.executeWithoutResult(status -> lookups.run());
+
+		List<String> cached = readOnly.execute(status -> {
+			QueryCountingInspector.startCapture();
+			lookups.run();
+			return QueryCountingInspector.stopCapture();
+		});
+		assertEquals(List.of(), cached);
+
+		TransactionTemplate write = new TransactionTemplate(transactionManager);
+		write.executeWithoutResult(status -> terrainPointRepository.findBySpotId(spotId).forEach(point ->
+				point.setDescription(point.getDescription() + " ")));
+		List<String> afterWrite = readOnly.execute(status -> {
+			QueryCountingInspector.startCapture();
+			terrainPointRepository.findBySpotId(spotId);
+			return QueryCountingInspector.stopCapture();
+		});
+		assertEquals(1, afterWrite.size(), afterWrite.toString());
+	}
+
+	/**
+	 * Выключение точек по прямоугольнику и их восстановление по списку id — по одному UPDATE на всю выборку;
+	 * повтор не переписывает уже выключенные строки
+	 */
+	@Test
+	void bulkUpdateIsSingleStatement() {
+		Map<String, Object> center = jdbc.queryForMap("SELECT latitude, longitude FROM spots ORDER BY id LIMIT 1");
+		double lat = (Double) center.get("latitude");
+		double lon = (Double) center.get("longitude");
+		List<Long> enabled = jdbc.queryForList(
+				"SELECT id FROM terrain_points WHERE is_enabled AND latitude BETWEEN ? AND ? AND longitude BETWEEN ? AND ?",
+				Long.class, lat - 0.5, lat + 0.5, lon - 0.5, lon + 0.5);
+		assertFalse(enabled.isEmpty());
+
+		BulkUpdateDTO disable = new BulkUpdateDTO();
+		disable.setMinLat(lat - 0.5);
+		disable.setMaxLat(lat + 0.5);
+		disable.setMinLon(lon - 0.5);
+		disable.setMaxLon(lon + 0.5);
+		disable.setIsEnabled(false);
+		BulkUpdateDTO restore = new BulkUpdateDTO();
+		restore.setIds(enabled);
+		restore.setIsEnabled(true);
+
+		TransactionTemplate write = new TransactionTemplate(transactionManager);
+		int[] updated = new int[3];
+		List<String> statements = write.execute(status -> {
+			QueryCountingInspector.startCapture();
+			updated[0] = bulkUpdateRepository.updateTerrainPoints(disable);
+			updated[1] = bulkUpdateRepository.updateTerrainPoints(disable);
+			updated[2] = bulkUpdateRepository.updateTerrainPoints(restore);
+			return QueryCountingInspector.stopCapture();
+		});
+		assertEquals(3, statements.size(), statements.toString());
+		assertEquals(enabled.size(), updated[0]);
+		assertEquals(0, updated[1]);
+		assertEquals(enabled.size(), updated[2]);
+	}
+
+	private void checkPlan(QueryCase queryCase) throws IOException {
+		// 1. сколько SQL уходит в базу за один вызов репозитория
+		List<String> statements = capture(queryCase);
+		assertFalse(statements.isEmpty(), queryCase.name() + ": запрос не дошёл до базы");
+		assertTrue(statements.size() <= queryCase.maxStatements(),
+				queryCase.name() + ": " + statements.size() + " SQL вместо " + queryCase.maxStatements() + ": " + statements);
+
+		// 2. план того SQL, который реально сгенерировал Hibernate; SET LOCAL действует до конца транзакции
+		String plan = readOnly.execute(status -> {
+			jdbc.execute("SET LOCAL enable_seqscan = off");
+			return String.join("\n", jdbc.queryForList(
+					"EXPLAIN (ANALYZE, BUFFERS) " + statements.get(0), String.class, queryCase.explainParams().apply(0)));
+		});
+		Files.writeString(PLANS.resolve(queryCase.name() + ".txt"), statements.get(0) + "\n\n" + plan + "\n");
+		for (String required : queryCase.requiredInPlan()) {
+			assertTrue(plan.contains(required), queryCase.name() + ": в плане нет " + required + "\n" + plan);
+		}
+		for (String forbidden : queryCase.forbiddenInPlan()) {
+			assertFalse(plan.contains(forbidden), queryCase.name() + ": в плане есть " + forbidden + "\n" + plan);
+		}
+	}
+
+	/**
+	 * Задержки вызова репозитория целиком (SQL + гидратация сущностей)
+	 */
+	private void measureLatency(QueryCase queryCase) throws IOException {
+		List<String> statements = capture(queryCase);
+		int iterations = Integer.getInteger("dataset.iterations", 200);
+		LongHistogram latency = new LongHistogram();
+		for (int i = 0; i < iterations * 2; i++) {
+			int arg = i;
+			long start = System.nanoTime();
+			readOnly.executeWithoutResult(status -> queryCase.call().apply(arg));
+			if (i >= iterations) {
+				latency.record(System.nanoTime() - start);
+			}
+		}
+		LongHistogram.Snapshot snapshot = latency.snapshot();
+		String line = String.format(Locale.ROOT, "%-50s sql=%d p50=%.3f ms p99=%.3f ms max=%.3f ms",
+				queryCase.name(), statements.size(),
+				snapshot.getValueAtPercentile(50) / 1e6, snapshot.getValueAtPercentile(99) / 1e6, snapshot.getMax() / 1e6);
+		System.out.println(line);
+		summary.append(line).append('\n');
+		Files.writeString(Path.of("target", "query-benchmarks.txt"), summary);
+	}
+
+	private List<String> capture(QueryCase queryCase) {
+		return readOnly.execute(status -> {
+			QueryCountingInspector.startCapture();
+			queryCase.call().apply(0);
+			return QueryCountingInspector.stopCapture();
+		});
+	}
+
+	private long spotId(int i) {
+		return 1 + (i * 7919L) % spots;
+	}
+
+	private String name(int i) {
+		return uniqueNames.get(i % uniqueNames.size());
+	}
+
+	private String searchTerm(int i) {
+		return ", " + spotId(i) + ")";
+	}
+
+	/**
+	 * @param explainParams параметры для первого SQL из вызова — в том же порядке, что "?" в нём
+	 */
+	private record QueryCase(
+			String name,
+			int maxStatements,
+			IntFunction<Object> call,
+			IntFunction<Object[]> explainParams,
+			List<String> requiredInPlan,
+			List<String> forbiddenInPlan) {
+	}
+}
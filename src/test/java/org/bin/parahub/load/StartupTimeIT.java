@@ -0,0 +1,144 @@
+package org.bin.parahub.load;
+
+import org.bin.parahub.profiling.LongHistogram;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Время от запуска процесса до первого обслуженного запроса (POST /api/auth/register: база + SMTP),
+ * для собранного jar в профиле prod — как есть и с AOT-обработкой и AOT-кэшем JVM.
+ *
+ * Запускается failsafe'ом в профиле fast-startup после сборки архива:
+ * mvn -Pfast-startup verify [-Dstartup.runs=5 -Dstartup.budget-ms=1000].
+ * Бюджет проверяется по медиане варианта с AOT-кэшем; сводка — в target/startup-report.txt.
+ */
+class StartupTimeIT {
+
+	private static final Duration TIMEOUT = Duration.ofSeconds(60);
+
+	private final Path jar = Path.of(System.getProperty("startup.jar"));
+	private final Path aotCache = Path.of(System.getProperty("startup.aot-cache"));
+	private final int runs = Integer.getInteger("startup.runs", 5);
+	private final long budgetMs = Long.getLong("startup.budget-ms", 1000);
+
+	private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+	private int registrations;
+
+	@Test
+	void reachesFirstRequestWithinBudget() throws Exception {
+		assertTrue(Files.exists(jar), "нет " + jar + ": нужен mvn -Pfast-startup verify");
+		assertTrue(Files.exists(aotCache), "нет " + aotCache);
+		createSchema();
+
+		LongHistogram.Snapshot plain = measure(List.of());
+		LongHistogram.Snapshot optimized = measure(List.of("-XX:AOTCache=" + aotCache, "-Dspring.aot.enabled=true"));
+
+		String report = String.format(Locale.ROOT, "%-24s p50=%d ms max=%d ms%n%-24s p50=%d ms max=%d ms%n",
+				"prod", plain.getValueAtPercentile(50) / 1_000_000, plain.getMax() / 1_000_000,
+				"prod + AOT + AOT cache", optimized.getValueAtPercentile(50) / 1_000_000, optimized.getMax() / 1_000_000);
+		System.out.print(report);
+		Files.writeString(Path.of("target", "startup-report.txt"), report);
+
+		assertTrue(optimized.getValueAtPercentile(50) <= budgetMs * 1_000_000,
+				"время до первого запроса больше " + budgetMs + " мс:\n" + report);
+	}
+
+	/**
+	 * Схема в prod не создаётся приложением: один раз поднимаем его с ddl-auto=create и сразу гасим
+	 */
+	private void createSchema() throws Exception {
+		List<String> command = command(List.of(
+				"-Dspring.jpa.hibernate.ddl-auto=create",
+				"-Dspring.jpa.properties.hibernate.boot.allow_jdbc_metadata_access=true",
+				"-Dspring.context.exit=onRefresh"), freePort());
+		Process process = new ProcessBuilder(command).inheritIO().start();
+		assertTrue(process.waitFor(TIMEOUT.toSeconds(), TimeUnit.SECONDS) && process.exitValue() == 0,
+				"не удалось создать схему");
+	}
+
+	private LongHistogram.Snapshot measure(List<String> jvmOptions) throws Exception {
+		LongHistogram latency = new LongHistogram();
+		for (int i = 0; i < runs; i++) {
+			int port = freePort();
+			long start = System.nanoTime();
+			Process process = new ProcessBuilder(command(jvmOptions, port))
+					.redirectErrorStream(true)
+					.redirectOutput(Path.of("target", "startup-" + i + ".log").toFile())
+					.start();
+			try {
+				awaitFirstRequest(process, port);
+				latency.record(System.nanoTime() - start);
+			} finally {
+				process.destroy();
+				if (!process.waitFor(10, TimeUnit.SECONDS)) {
+					process.destroyForcibly();
+				}
+			}
+		}
+		return latency.snapshot();
+	}
+
+	private void awaitFirstRequest(Process process, int port) throws Exception {
+		String body = String.format("{\"username\":\"pilot%1$d\",\"email\":\"pilot%1$d@startup.test\",\"password\":\"startup-test\"}",
+				registrations++);
+		HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + "/api/auth/register"))
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString(body))
+				.build();
+		long deadline = System.nanoTime() + TIMEOUT.toNanos();
+		while (System.nanoTime() < deadline) {
+			assertTrue(process.isAlive(), "приложение завершилось при старте, см. target/startup-*.log");
+			try {
+				HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+				assertTrue(response.statusCode() == 200, "первый запрос: " + response.statusCode() + " " + response.body());
+				return;
+			} catch (ConnectException e) {
+				Thread.sleep(5);
+			}
+		}
+		throw new AssertionError("нет ответа за " + TIMEOUT);
+	}
+
+	private List<String> command(List<String> jvmOptions, int port) {
+		List<String> command = new ArrayList<>();
+		command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+		command.addAll(jvmOptions);
+		command.add("-Dspring.profiles.active=prod");
+		command.add("-Dserver.port=" + port);
+		for (Map.Entry<String, String> property : LoadTestInfrastructure.properties().entrySet()) {
+			command.add("-D" + property.getKey() + "=" + property.getValue());
+		}
+		command.add("-Dspring.mail.username=");
+		command.add("-Dspring.mail.password=");
+		command.add("-Dspring.mail.properties.mail.smtp.auth=false");
+		command.add("-Dspring.mail.properties.mail.smtp.starttls.enable=false");
+		// хеширование паролей здесь не предмет замера
+		command.add("-Dsecurity.password.strength=4");
+		command.add("-jar");
+		command.add(jar.toString());
+		return command;
+	}
+
+	private static int freePort() throws IOException {
+		try (ServerSocket socket = new ServerSocket(0)) {
+			return socket.getLocalPort();
+		}
+	}
+}
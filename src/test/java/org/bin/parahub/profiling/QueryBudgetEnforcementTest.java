@@ -0,0 +1,199 @@
+package org.bin.parahub.profiling;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.bin.parahub.annotation.QueryBudget;
+import org.bin.parahub.entity.User;
+import org.bin.parahub.enums.UserRole;
+import org.bin.parahub.load.LoadTestInfrastructure;
+import org.bin.parahub.repository.UserRepository;
+import org.bin.parahub.security.JwtUtil;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.StringWriter;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * parahub.sql.budget.enforce на живом сервере: превышение @QueryBudget и N+1 дают 500, эндпоинты с бюджетом
+ * в него укладываются, а SQL потокового GET /api/spots (поток MVC-исполнителя) попадает в SqlStatsRegistry.
+ */
+@SpringBootTest(
+		webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+		properties = {
+				"spring.config.on-not-found=ignore",
+				"spring.jpa.hibernate.ddl-auto=create-drop",
+				"spring.jpa.show-sql=false",
+				"spring.mail.test-connection=false",
+				"logging.level.PROFILING=WARN",
+				"logging.level.org.bin.parahub.aspect.ProfilingAspect=WARN",
+				"parahub.sql.enabled=true",
+				"parahub.sql.budget.enforce=true",
+				"parahub.sql.n-plus-one-threshold=5",
+				"parahub.api.json-streaming.enabled=true"
+		})
+@Import(QueryBudgetEnforcementTest.BudgetedController.class)
+class QueryBudgetEnforcementTest {
+
+	private static final String EMAIL = "budget@sql.test";
+	private static final HttpClient CLIENT = HttpClient.newHttpClient();
+
+	@LocalServerPort
+	int port;
+
+	@Autowired
+	JdbcTemplate jdbc;
+
+	@Autowired
+	UserRepository userRepository;
+
+	@Autowired
+	JwtUtil jwtUtil;
+
+	@Autowired
+	SqlStatsRegistry sqlStatsRegistry;
+
+	@Autowired
+	EntityManagerFactory entityManagerFactory;
+
+	private String token;
+
+	@DynamicPropertySource
+	static void infrastructure(DynamicPropertyRegistry registry) {
+		LoadTestInfrastructure.registerProperties(registry);
+	}
+
+	/**
+	 * Под /api/public, чтобы в счёт не шёл запрос пользователя из JwtAuthFilter
+	 */
+	@RestController
+	static class BudgetedController {
+
+		private final JdbcTemplate jdbc;
+
+		BudgetedController(JdbcTemplate jdbc) {
+			this.jdbc = jdbc;
+		}
+
+		@GetMapping("/api/public/test/budget")
+		@QueryBudget(2)
+		public Map<String, Integer> budget(@RequestParam int selects) {
+			for (int i = 0; i < selects; i++) {
+				jdbc.queryForObject("SELECT CAST(? AS integer)", Integer.class, i);
+			}
+			return Map.of("selects", selects);
+		}
+
+		@GetMapping("/api/public/test/n-plus-one")
+		public Map<String, Integer> nPlusOne(@RequestParam int selects) {
+			return budget(selects);
+		}
+	}
+
+	@BeforeEach
+	void seed() {
+		// JCache CacheManager общий для всех контекстов JVM, а схема пересоздаётся (create-drop) с теми же id
+		entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+		if (userRepository.findDTOByEmail(EMAIL).isEmpty()) {
+			userRepository.save(User.builder()
+					.email(EMAIL)
+					.username("budget-pilot")
+					.password("-")
+					.role(UserRole.USER)
+					.enabled(true)
+					.createdAt(LocalDateTime.now())
+					.build());
+		}
+		token = jwtUtil.generateToken(EMAIL, UserRole.USER.name());
+		sqlStatsRegistry.reset();
+	}
+
+	@Test
+	void overBudgetResponseIsReplacedWith500() throws Exception {
+		assertEquals(200, get("/api/public/test/budget?selects=2", false).statusCode());
+		HttpResponse<String> over = get("/api/public/test/budget?selects=3", false);
+		assertEquals(500, over.statusCode());
+		assertTrue(over.body().contains("3 SQL > 2"), over.body());
+	}
+
+	@Test
+	void repeatedSelectIsReplacedWith500() throws Exception {
+		assertEquals(200, get("/api/public/test/n-plus-one?selects=4", false).statusCode());
+		HttpResponse<String> repeated = get("/api/public/test/n-plus-one?selects=5", false);
+		assertEquals(500, repeated.statusCode());
+		assertTrue(repeated.body().contains("N+1"), repeated.body());
+	}
+
+	@Test
+	void budgetedEndpointsStayWithinBudget() throws Exception {
+		long spotId = jdbc.queryForObject("""
+				INSERT INTO spots (is_enabled, name, latitude, longitude, view_count, search_hits)
+				VALUES (true, ?, 44.5, 34.2, 0, 0) RETURNING id""", Long.class, "Budget " + System.nanoTime());
+		jdbc.update("""
+				INSERT INTO terrain_points (is_enabled, name, type, latitude, longitude, elevation, spot_id)
+				VALUES (true, 'takeoff', 0, 44.5, 34.2, 300, ?)""", spotId);
+
+		// холодный кэш — худший случай для бюджета
+		assertEquals(200, get("/api/spots/id/" + spotId, true).statusCode());
+		assertEquals(200, get("/api/terrain_points/spotID/" + spotId, true).statusCode());
+	}
+
+	@Test
+	void streamedResponseSqlIsRecorded() throws Exception {
+		jdbc.update("""
+				INSERT INTO spots (is_enabled, name, latitude, longitude, view_count, search_hits)
+				VALUES (true, ?, 44.5, 34.2, 0, 0)""", "Streamed " + System.nanoTime());
+
+		HttpResponse<String> spots = get("/api/spots", true);
+		assertEquals(200, spots.statusCode());
+		assertTrue(spots.body().contains("Streamed"), spots.body());
+
+		// запрос пользователя (JwtAuthFilter) + SELECT спотов в потоке исполнителя; запись — по завершении async
+		long deadline = System.currentTimeMillis() + 5_000;
+		long statements = recordedStatements("GET /api/spots");
+		while (statements < 2 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(20);
+			statements = recordedStatements("GET /api/spots");
+		}
+		assertTrue(statements >= 2, "SQL of GET /api/spots: " + statements);
+	}
+
+	private HttpResponse<String> get(String path, boolean authenticated) throws Exception {
+		HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).GET();
+		if (authenticated) {
+			request.header("Authorization", "Bearer " + token);
+		}
+		return CLIENT.send(request.build(), HttpResponse.BodyHandlers.ofString());
+	}
+
+	/**
+	 * parahub_sql_statements_per_request_sum эндпоинта из выгрузки реестра, 0 — если запрос не записан
+	 */
+	private long recordedStatements(String endpoint) {
+		StringWriter out = new StringWriter();
+		sqlStatsRegistry.writePrometheus(out);
+		Matcher sum = Pattern.compile("parahub_sql_statements_per_request_sum\\{endpoint=\"" + Pattern.quote(endpoint)
+				+ "\"} (\\d+)").matcher(out.toString());
+		return sum.find() ? Long.parseLong(sum.group(1)) : 0;
+	}
+}
@@ -0,0 +1,56 @@
+package org.bin.parahub.profiling;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SqlStatsTest {
+
+	@Test
+	void flagsRepeatedSelectShapesAsNPlusOne() {
+		SqlStats stats = new SqlStats();
+		query(stats, "select s1_0.id,s1_0.name from spots s1_0 where s1_0.id=?");
+		for (int i = 0; i < 6; i++) {
+			// ленивая коллекция каждого спота: одна форма, разные параметры
+			query(stats, "select w1_0.spot_id,w1_0.id\n    from winds w1_0\n    where w1_0.spot_id=?");
+		}
+		for (int i = 0; i < 4; i++) {
+			query(stats, "select t1_0.id from terrain_points t1_0 where t1_0.spot_id=?");
+		}
+
+		List<String> repeated = stats.repeatedSelects(5);
+
+		assertEquals(11, stats.getStatements());
+		assertEquals(List.of("6× select w1_0.spot_id,w1_0.id from winds w1_0 where w1_0.spot_id=?"), repeated);
+	}
+
+	@Test
+	void inListsOfAnyLengthShareOneShape() {
+		assertEquals(
+				SqlStats.shape("select * from spots where id in (?, ?)"),
+				SqlStats.shape("SELECT *  FROM spots WHERE id IN (?,?,?,?)"));
+	}
+
+	@Test
+	void writesAndBatchesAreCountedButNeverNPlusOne() {
+		SqlStats stats = new SqlStats();
+		for (int i = 0; i < 10; i++) {
+			query(stats, "insert into flights (id, spot_id) values (?, ?)");
+		}
+		query(stats, "  update spots set view_count = view_count + ? where id = ?");
+		stats.addRow();
+
+		assertEquals(11, stats.getStatements());
+		assertEquals(1, stats.getRows());
+		assertTrue(stats.repeatedSelects(5).isEmpty());
+		assertTrue(stats.getJdbcNanos() >= 0);
+	}
+
+	private static void query(SqlStats stats, String sql) {
+		stats.beforeQuery();
+		stats.afterQuery(sql);
+	}
+}
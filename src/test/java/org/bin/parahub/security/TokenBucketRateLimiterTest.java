@@ -0,0 +1,49 @@
+package org.bin.parahub.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketRateLimiterTest {
+
+	@Test
+	void allowsBurstThenRejectsUntilRefill() {
+		AtomicLong clock = new AtomicLong(0);
+		TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(3, 60, 100, clock::get);
+
+		assertEquals(0, limiter.tryAcquire("ip:1"));
+		assertEquals(0, limiter.tryAcquire("ip:1"));
+		assertEquals(0, limiter.tryAcquire("ip:1"));
+		long wait = limiter.tryAcquire("ip:1");
+		assertTrue(wait > 0 && wait <= TimeUnit.SECONDS.toNanos(1));
+
+		// другой ключ не затронут
+		assertEquals(0, limiter.tryAcquire("ip:2"));
+
+		clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+		assertEquals(0, limiter.tryAcquire("ip:1"));
+	}
+
+	@Test
+	void evictsIdleBucketsAndBoundsMemory() {
+		AtomicLong clock = new AtomicLong(0);
+		TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 60, 2, clock::get);
+
+		limiter.tryAcquire("a");
+		clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+		limiter.tryAcquire("b");
+		// переполнение: вытесняется самый старый "a", "c" получает свой бакет, "b" по-прежнему ограничен
+		assertEquals(0, limiter.tryAcquire("c"));
+		assertEquals(2, limiter.size());
+		assertTrue(limiter.tryAcquire("b") > 0);
+		assertTrue(limiter.tryAcquire("c") > 0);
+
+		clock.addAndGet(TimeUnit.SECONDS.toNanos(2));
+		limiter.evictIdle();
+		assertEquals(0, limiter.size());
+	}
+}
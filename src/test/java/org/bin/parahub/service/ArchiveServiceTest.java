@@ -0,0 +1,217 @@
+package org.bin.parahub.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.bin.parahub.entity.TerrainPoint;
+import org.bin.parahub.load.LoadTestInfrastructure;
+import org.bin.parahub.repository.SpotRepository;
+import org.bin.parahub.repository.TerrainPointRepository;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * ArchiveService и SQL ArchiveRepository на embedded PostgreSQL: перенос в *_archive по сроку хранения,
+ * восстановление по archived_at, споты и точки с полётами, сброс кэша второго уровня и query cache.
+ * Данные пишутся JDBC напрямую, disabled_at — в прошлое на нужное число дней (срок хранения по умолчанию — 30).
+ * Свойства контекста те же, что у TerrainPointBatchControllerTest: одна схема и один кэш второго уровня на оба.
+ */
+@SpringBootTest(properties = {
+		"spring.config.on-not-found=ignore",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.jpa.show-sql=false",
+		"spring.mail.test-connection=false",
+		"logging.level.PROFILING=WARN",
+		"logging.level.org.bin.parahub.aspect.ProfilingAspect=WARN"
+})
+class ArchiveServiceTest {
+
+	private static final int EXPIRED_DAYS = 40;
+
+	@Autowired
+	ArchiveService archiveService;
+
+	@Autowired
+	SpotRepository spotRepository;
+
+	@Autowired
+	TerrainPointRepository terrainPointRepository;
+
+	@Autowired
+	JdbcTemplate jdbc;
+
+	@Autowired
+	PlatformTransactionManager transactionManager;
+
+	@Autowired
+	EntityManagerFactory entityManagerFactory;
+
+	@DynamicPropertySource
+	static void infrastructure(DynamicPropertyRegistry registry) {
+		LoadTestInfrastructure.registerProperties(registry);
+	}
+
+	/**
+	 * JCache CacheManager общий для всех контекстов JVM, а схема пересоздаётся (create-drop) с теми же id
+	 */
+	@BeforeEach
+	void clearSecondLevelCache() {
+		entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+	}
+
+	@Test
+	void archivedSpotIsRestoredWithItsPointsAndWinds() {
+		long spotId = spot("expired", false, EXPIRED_DAYS);
+		long enabledPoint = point(spotId, true, null);
+		long disabledPoint = point(spotId, false, EXPIRED_DAYS);
+		long wind = wind(spotId);
+		long recentSpotId = spot("recent", false, 1);
+
+		archiveService.archive();
+
+		assertFalse(exists("spots", spotId));
+		assertTrue(exists("spots_archive", spotId));
+		assertEquals(List.of(enabledPoint, disabledPoint), ids("terrain_points_archive", spotId));
+		assertEquals(List.of(wind), ids("winds_archive", spotId));
+		assertEquals(List.of(), ids("terrain_points", spotId));
+		assertTrue(exists("spots", recentSpotId), "срок хранения ещё не вышел");
+
+		archiveService.restoreSpot(spotId);
+
+		assertEquals(Boolean.TRUE, jdbc.queryForObject("SELECT is_enabled FROM spots WHERE id = ?", Boolean.class, spotId));
+		assertEquals(List.of(enabledPoint, disabledPoint), ids("terrain_points", spotId));
+		assertEquals(List.of(wind), ids("winds", spotId));
+		assertFalse(exists("spots_archive", spotId));
+		assertEquals(List.of(), ids("terrain_points_archive", spotId));
+		assertEquals(List.of(), ids("winds_archive", spotId));
+
+		// выключенная точка вернулась выключенной, но со свежим disabled_at — следующий запуск её не заберёт
+		Timestamp disabledAt = jdbc.queryForObject(
+				"SELECT disabled_at FROM terrain_points WHERE id = ?", Timestamp.class, disabledPoint);
+		assertTrue(disabledAt.toInstant().isAfter(Instant.now().minus(Duration.ofDays(1))));
+		archiveService.archive();
+		assertTrue(exists("terrain_points", disabledPoint));
+	}
+
+	@Test
+	void pointArchivedOnItsOwnStaysArchivedWhenSpotIsRestored() {
+		long spotId = spot("live", true, null);
+		long expiredPoint = point(spotId, false, EXPIRED_DAYS);
+		long livePoint = point(spotId, true, null);
+
+		archiveService.archive();
+		assertTrue(exists("spots", spotId));
+		assertEquals(List.of(expiredPoint), ids("terrain_points_archive", spotId));
+
+		jdbc.update("UPDATE spots SET is_enabled = false, disabled_at = ? WHERE id = ?", daysAgo(EXPIRED_DAYS), spotId);
+		archiveService.archive();
+		assertEquals(List.of(expiredPoint, livePoint), ids("terrain_points_archive", spotId));
+
+		archiveService.restoreSpot(spotId);
+
+		assertEquals(List.of(livePoint), ids("terrain_points", spotId));
+		assertEquals(List.of(expiredPoint), ids("terrain_points_archive", spotId));
+	}
+
+	@Test
+	void spotsAndPointsWithFlightsStayInPlace() {
+		long flownSpotId = spot("flown", false, EXPIRED_DAYS);
+		long flownSpotPoint = point(flownSpotId, false, EXPIRED_DAYS);
+		flight(flownSpotId, null);
+		long liveSpotId = spot("takeoff", true, null);
+		long takeoff = point(liveSpotId, false, EXPIRED_DAYS);
+		flight(liveSpotId, takeoff);
+
+		archiveService.archive();
+
+		assertTrue(exists("spots", flownSpotId));
+		assertFalse(exists("spots_archive", flownSpotId));
+		// точка спота с полётами — без своих полётов — уходит отдельно
+		assertEquals(List.of(flownSpotPoint), ids("terrain_points_archive", flownSpotId));
+		assertTrue(exists("terrain_points", takeoff));
+		assertEquals(List.of(), ids("terrain_points_archive", liveSpotId));
+	}
+
+	@Test
+	void cachedLookupsDoNotReturnArchivedRows() {
+		long expiredSpotId = spot("cached", false, EXPIRED_DAYS);
+		long liveSpotId = spot("cached-live", true, null);
+		long expiredPoint = point(liveSpotId, false, EXPIRED_DAYS);
+		long livePoint = point(liveSpotId, true, null);
+
+		TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+		readOnly.setReadOnly(true);
+		// кладём в кэш второго уровня и в query cache
+		readOnly.executeWithoutResult(status -> {
+			assertTrue(spotRepository.findById(expiredSpotId).isPresent());
+			assertEquals(List.of(expiredPoint, livePoint), pointIds(terrainPointRepository.findBySpotId(liveSpotId)));
+		});
+
+		archiveService.archive();
+
+		readOnly.executeWithoutResult(status -> {
+			assertTrue(spotRepository.findById(expiredSpotId).isEmpty());
+			assertNull(terrainPointRepository.findById(expiredPoint).orElse(null));
+			assertEquals(List.of(livePoint), pointIds(terrainPointRepository.findBySpotId(liveSpotId)));
+		});
+	}
+
+	private long spot(String name, boolean enabled, Integer disabledDaysAgo) {
+		return jdbc.queryForObject("""
+				INSERT INTO spots (is_enabled, name, latitude, longitude, view_count, search_hits, disabled_at)
+				VALUES (?, ?, 44.5, 34.2, 0, 0, ?) RETURNING id""",
+				Long.class, enabled, "Archive " + name + " " + System.nanoTime(), daysAgo(disabledDaysAgo));
+	}
+
+	private long point(long spotId, boolean enabled, Integer disabledDaysAgo) {
+		return jdbc.queryForObject("""
+				INSERT INTO terrain_points (is_enabled, name, type, latitude, longitude, spot_id, disabled_at)
+				VALUES (?, 'point', 0, 44.5, 34.2, ?, ?) RETURNING id""",
+				Long.class, enabled, spotId, daysAgo(disabledDaysAgo));
+	}
+
+	private long wind(long spotId) {
+		return jdbc.queryForObject(
+				"INSERT INTO winds (direction, min_speed, max_speed, spot_id) VALUES ('SW', 3, 7, ?) RETURNING id",
+				Long.class, spotId);
+	}
+
+	private void flight(long spotId, Long takeoffId) {
+		jdbc.update("""
+				INSERT INTO flights (id, spot_id, takeoff_id, flight_date, start_time, end_time, uploaded_at)
+				VALUES (nextval('flights_seq'), ?, ?, current_date, now(), now(), now())""", spotId, takeoffId);
+	}
+
+	private boolean exists(String table, long id) {
+		return Boolean.TRUE.equals(jdbc.queryForObject(
+				"SELECT EXISTS (SELECT 1 FROM " + table + " WHERE id = ?)", Boolean.class, id));
+	}
+
+	private List<Long> ids(String table, long spotId) {
+		return jdbc.queryForList("SELECT id FROM " + table + " WHERE spot_id = ? ORDER BY id", Long.class, spotId);
+	}
+
+	private static List<Long> pointIds(List<TerrainPoint> points) {
+		return points.stream().map(TerrainPoint::getId).sorted().toList();
+	}
+
+	private static Timestamp daysAgo(Integer days) {
+		return days == null ? null : Timestamp.from(Instant.now().minus(Duration.ofDays(days)));
+	}
+}
@@ -0,0 +1,78 @@
+package org.bin.parahub.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ElevationServiceTest {
+
+	private static final short NO_DATA = Short.MIN_VALUE;
+
+	@TempDir
+	Path dem;
+
+	@Test
+	void interpolatesBetweenGridNodes() throws Exception {
+		// 3×3, строки с севера на юг: на севере 300 м, на юге 100 м
+		writeTile("N44E034.hgt", new short[]{
+				300, 300, 300,
+				200, 200, 200,
+				100, 100, 100
+		});
+		ElevationService service = new ElevationService(dem.toString(), 4);
+
+		assertEquals(100.0, service.getElevation(44.0, 34.0), 1e-9);
+		assertEquals(299.8, service.getElevation(44.999, 34.0), 1e-6);
+		assertEquals(200.0, service.getElevation(44.5, 34.3), 1e-9);
+		assertEquals(150.0, service.getElevation(44.25, 34.9), 1e-9);
+	}
+
+	@Test
+	void skipsVoidNodesAndMissingTiles() throws Exception {
+		writeTile("N44E034.hgt", new short[]{
+				NO_DATA, 400, 400,
+				400, 400, 400,
+				400, 400, NO_DATA
+		});
+		ElevationService service = new ElevationService(dem.toString(), 4);
+
+		assertEquals(400.0, service.getElevation(44.9, 34.1), 1e-9);
+		assertNull(service.getElevation(45.5, 34.5));
+		assertNull(service.getElevation(91, 0));
+		assertNull(service.getElevation(Double.NaN, 34.5));
+		assertNull(service.getElevation(44.5, Double.NaN));
+	}
+
+	@Test
+	void evictedTilesAreReopenedOnDemand() throws Exception {
+		writeTile("N44E034.hgt", new short[]{100, 100, 100, 100});
+		writeTile("N45E034.hgt", new short[]{200, 200, 200, 200});
+		ElevationService service = new ElevationService(dem.toString(), 1);
+
+		for (int i = 0; i < 3; i++) {
+			assertEquals(100.0, service.getElevation(44.5, 34.5), 1e-9);
+			assertEquals(200.0, service.getElevation(45.5, 34.5), 1e-9);
+			assertNull(service.getElevation(46.5, 34.5));
+		}
+	}
+
+	@Test
+	void namesTilesBySouthWestCorner() {
+		assertEquals("N44E034.hgt", ElevationService.tileName(44, 34));
+		assertEquals("S01W071.hgt", ElevationService.tileName(-1, -71));
+	}
+
+	private void writeTile(String name, short[] samples) throws Exception {
+		ByteBuffer buffer = ByteBuffer.allocate(samples.length * 2);
+		for (short sample : samples) {
+			buffer.putShort(sample);
+		}
+		Files.write(dem.resolve(name), buffer.array());
+	}
+}
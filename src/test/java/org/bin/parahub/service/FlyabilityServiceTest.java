@@ -0,0 +1,152 @@
+package org.bin.parahub.service;
+
+import org.bin.parahub.dto.FlyabilityDTO;
+import org.bin.parahub.entity.Spot;
+import org.bin.parahub.entity.Wind;
+import org.bin.parahub.enums.WindDirection;
+import org.bin.parahub.event.SpotsChangedEvent;
+import org.bin.parahub.exception.ForecastNotAvailableException;
+import org.bin.parahub.forecast.FlyabilityScorer;
+import org.bin.parahub.repository.SpotRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FlyabilityServiceTest {
+
+	private static final double S = Math.sqrt(0.5);
+
+	@TempDir
+	Path forecasts;
+
+	private SpotRepository spotRepository;
+	private FlyabilityService service;
+
+	@BeforeEach
+	void setUp() {
+		spotRepository = mock(SpotRepository.class);
+		when(spotRepository.findByIsEnabledTrue()).thenReturn(List.of(
+				spot(1L, "Северный", 44.5, 34.5, 2, wind(WindDirection.N, 3, 7)),
+				spot(2L, "Восточный", 44.5, 34.5, 4, wind(WindDirection.E, 3, 7)),
+				spot(3L, "Далёкий", 50.0, 40.0, 1, wind(WindDirection.N, 3, 7))));
+		when(spotRepository.existsById(3L)).thenReturn(true);
+		service = new FlyabilityService(spotRepository, forecasts.toString(), "UTC", 0, 23, 0.6);
+	}
+
+	@Test
+	void scoresDirectionBetweenSectorsAndSpeedOutsideRange() {
+		// с севера 5 м/с, с 22.5° 5 м/с, с севера 8 м/с (на 1 м/с выше диапазона), с юга
+		float[] speed = {5, 5, 8, 5};
+		float[] direction = {0, 22.5f, 0, 180};
+		float[] min = new float[FlyabilityScorer.SECTORS];
+		float[] max = new float[FlyabilityScorer.SECTORS];
+		Arrays.fill(min, Float.NaN);
+		min[WindDirection.N.ordinal()] = 3;
+		max[WindDirection.N.ordinal()] = 7;
+		float[] scores = new float[4];
+
+		FlyabilityScorer.score(1, 4, speed, direction, min, max, scores);
+
+		assertEquals(1.0, scores[0], 1e-6);
+		assertEquals(0.5, scores[1], 1e-6);
+		assertEquals(0.5, scores[2], 1e-6);
+		assertEquals(0.0, scores[3], 1e-6);
+	}
+
+	@Test
+	void ranksSpotsForTheDayAndPicksUpNewerRuns() throws Exception {
+		// час 0 — с севера 5 м/с, час 1 — с востока 5 м/с
+		writeForecast("gfs-00.csv", "2026-10-19T00:00:00Z", new double[][]{{0, -5}, {-5, 0}}, 1);
+		service.refresh();
+
+		FlyabilityDTO north = service.getSpotFlyability(1L);
+		assertEquals(2, north.getHours().size());
+		assertEquals(WindDirection.N, north.getHours().get(0).getWindDirection());
+		assertEquals(1.0, north.getHours().get(0).getScore(), 1e-6);
+		assertEquals(0.0, north.getHours().get(1).getScore(), 1e-6);
+
+		List<FlyabilityDTO.DayBest> best = service.getBestSpots(LocalDate.of(2026, 10, 19), 10, null);
+		assertEquals(2, best.size());
+		assertEquals(Instant.parse("2026-10-19T00:00:00Z"), best.stream()
+				.filter(day -> day.getSpotId() == 1L).findFirst().orElseThrow().getBestTime());
+		assertEquals(List.of(1L), service.getBestSpots(LocalDate.of(2026, 10, 19), 10, 3).stream()
+				.map(FlyabilityDTO.DayBest::getSpotId).toList());
+		assertThrows(ForecastNotAvailableException.class, () -> service.getSpotFlyability(3L));
+
+		// более свежий запуск: весь день с северо-востока
+		writeForecast("gfs-06.csv", "2026-10-19T06:00:00Z", new double[][]{{-5 * S, -5 * S}}, 2);
+		service.refresh();
+
+		FlyabilityDTO updated = service.getSpotFlyability(2L);
+		assertEquals(Instant.parse("2026-10-19T06:00:00Z"), updated.getForecastRun());
+		assertEquals(0.0, updated.getHours().get(0).getScore(), 1e-6);
+	}
+
+	@Test
+	void rescoresWhenSpotWindsChange() throws Exception {
+		writeForecast("gfs-00.csv", "2026-10-19T00:00:00Z", new double[][]{{-5, 0}}, 1);
+		service.refresh();
+		assertEquals(0.0, service.getSpotFlyability(1L).getHours().get(0).getScore(), 1e-6);
+
+		when(spotRepository.findByIsEnabledTrue()).thenReturn(List.of(
+				spot(1L, "Северный", 44.5, 34.5, 2, wind(WindDirection.N, 3, 7), wind(WindDirection.E, 4, 6))));
+		service.onSpotsChanged(new SpotsChangedEvent(1L));
+		service.refresh();
+
+		assertEquals(1.0, service.getSpotFlyability(1L).getHours().get(0).getScore(), 1e-6);
+		assertTrue(service.getBestSpots(LocalDate.of(2026, 10, 19), 10, null).stream()
+				.noneMatch(day -> day.getSpotId() == 2L));
+	}
+
+	/**
+	 * Сетка 2×2 вокруг 44.5, 34.5, одинаковый ветер во всех узлах; uv[hour] = {u, v}
+	 */
+	private void writeForecast(String name, String run, double[][] uv, long modified) throws Exception {
+		StringBuilder csv = new StringBuilder("# run=" + run + " lat0=44 lon0=34 step=1 rows=2 cols=2 hours=" + uv.length + "\n")
+				.append("hour,lat,lon,u,v\n");
+		for (int hour = 0; hour < uv.length; hour++) {
+			for (int lat = 44; lat <= 45; lat++) {
+				for (int lon = 34; lon <= 35; lon++) {
+					csv.append(hour).append(',').append(lat).append(',').append(lon).append(',')
+							.append(uv[hour][0]).append(',').append(uv[hour][1]).append('\n');
+				}
+			}
+		}
+		Path file = forecasts.resolve(name);
+		Files.writeString(file, csv);
+		Files.setLastModifiedTime(file, FileTime.fromMillis(modified * 1000));
+	}
+
+	private static Spot spot(long id, String name, double lat, double lon, int xcDifficulty, Wind... winds) {
+		Spot spot = new Spot();
+		spot.setId(id);
+		spot.setName(name);
+		spot.setLatitude(lat);
+		spot.setLongitude(lon);
+		spot.setXcDifficulty(xcDifficulty);
+		spot.setWinds(List.of(winds));
+		return spot;
+	}
+
+	private static Wind wind(WindDirection direction, int min, int max) {
+		Wind wind = new Wind();
+		wind.setDirection(direction);
+		wind.setMinSpeed(min);
+		wind.setMaxSpeed(max);
+		return wind;
+	}
+}
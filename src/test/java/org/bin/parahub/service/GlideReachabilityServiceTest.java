@@ -0,0 +1,139 @@
+package org.bin.parahub.service;
+
+import org.bin.parahub.dto.GlideReachabilityDTO;
+import org.bin.parahub.entity.Spot;
+import org.bin.parahub.entity.TerrainPoint;
+import org.bin.parahub.enums.PointType;
+import org.bin.parahub.enums.WindDirection;
+import org.bin.parahub.event.TerrainPointsChangedEvent;
+import org.bin.parahub.exception.RegionTooLargeException;
+import org.bin.parahub.exception.SpotNotFoundException;
+import org.bin.parahub.repository.SpotRepository;
+import org.bin.parahub.repository.TerrainPointRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Без тайлов ЦМР рельеф — уровень моря, так что дальность считается аналитически
+ */
+class GlideReachabilityServiceTest {
+
+	private static final double METERS_PER_DEGREE = 111_320;
+
+	@TempDir
+	Path emptyDem;
+
+	private SpotRepository spotRepository;
+	private TerrainPointRepository terrainPointRepository;
+	private GlideReachabilityService service;
+
+	@BeforeEach
+	void setUp() {
+		spotRepository = mock(SpotRepository.class);
+		terrainPointRepository = mock(TerrainPointRepository.class);
+		when(spotRepository.findById(1L)).thenReturn(Optional.of(spot(1L, true)));
+		when(spotRepository.findById(2L)).thenReturn(Optional.of(spot(2L, false)));
+		when(terrainPointRepository.findBySpotId(1L)).thenReturn(List.of(
+				point(10L, PointType.TAKEOFF, 0, 0, 1000),
+				// 5 км на юг и 9 км на север
+				point(20L, PointType.LANDING_ZONE, -5000 / METERS_PER_DEGREE, 0, 100),
+				point(30L, PointType.LANDING_ZONE, 9000 / METERS_PER_DEGREE, 0, 0)));
+
+		service = new GlideReachabilityService(spotRepository, terrainPointRepository,
+				new ElevationService(emptyDem.toString(), 4), 2, 8, 100, 30, 10, 60, 100, 2);
+	}
+
+	@AfterEach
+	void tearDown() {
+		service.shutdown();
+	}
+
+	@Test
+	void stillAirReachIsLimitedByGlideAndClearance() {
+		GlideReachabilityDTO result = service.getReachability(1L, 8, 0, WindDirection.N);
+
+		GlideReachabilityDTO.Takeoff takeoff = result.getTakeoffs().get(0);
+		// 1000 м - 30 м запаса при качестве 8 → 7760 м, шаг 100 м
+		double northReach = takeoff.getReachablePolygon().get(0)[0] * METERS_PER_DEGREE;
+		assertEquals(7700, northReach, 1);
+
+		GlideReachabilityDTO.LandingZone south = takeoff.getLandingZones().get(0);
+		assertTrue(south.isReachable());
+		assertEquals(1000 - 5000 / 8.0 - 100, south.getArrivalHeight(), 1);
+		assertFalse(takeoff.getLandingZones().get(1).isReachable());
+	}
+
+	@Test
+	void tailwindExtendsAndHeadwindShortensReach() {
+		// северный ветер дует на юг
+		GlideReachabilityDTO.Takeoff takeoff = service.getReachability(1L, 8, 5, WindDirection.N).getTakeoffs().get(0);
+
+		double northReach = takeoff.getReachablePolygon().get(0)[0] * METERS_PER_DEGREE;
+		double southReach = -takeoff.getReachablePolygon().get(4)[0] * METERS_PER_DEGREE;
+		assertEquals(3800, northReach, 1);
+		assertEquals(11600, southReach, 1);
+	}
+
+	@Test
+	void resultIsCachedUntilTerrainPointsChange() {
+		GlideReachabilityDTO first = service.getReachability(1L, 8, 0, WindDirection.N);
+		assertSame(first, service.getReachability(1L, 8, 0, WindDirection.N));
+
+		service.onTerrainPointsChanged(new TerrainPointsChangedEvent(1L));
+		assertNotSame(first, service.getReachability(1L, 8, 0, WindDirection.N));
+	}
+
+	@Test
+	void nearbyParametersShareCachedResult() {
+		GlideReachabilityDTO first = service.getReachability(1L, 8, 2, WindDirection.N);
+		assertSame(first, service.getReachability(1L, 8.1, 2.2, WindDirection.N));
+		assertEquals(8, first.getGlideRatio(), 1e-9);
+	}
+
+	@Test
+	void disabledSpotIsNotFound() {
+		assertThrows(SpotNotFoundException.class, () -> service.getReachability(2L, 8, 0, WindDirection.N));
+	}
+
+	@Test
+	void regionWithTooManySpotsIsRejected() {
+		when(spotRepository.findByIsEnabledTrueAndLatitudeBetweenAndLongitudeBetween(-1, 1, -1, 1))
+				.thenReturn(List.of(spot(1L, true), spot(3L, true), spot(4L, true)));
+
+		assertThrows(RegionTooLargeException.class,
+				() -> service.getRegionReachability(-1, 1, -1, 1, 8, 0, WindDirection.N));
+	}
+
+	private static Spot spot(Long id, boolean enabled) {
+		Spot spot = new Spot();
+		spot.setId(id);
+		spot.setIsEnabled(enabled);
+		return spot;
+	}
+
+	private static TerrainPoint point(Long id, PointType type, double latitude, double longitude, double elevation) {
+		TerrainPoint point = new TerrainPoint();
+		point.setId(id);
+		point.setName(type + " " + id);
+		point.setType(type);
+		point.setLatitude(latitude);
+		point.setLongitude(longitude);
+		point.setElevation(elevation);
+		return point;
+	}
+}
@@ -0,0 +1,125 @@
+package org.bin.parahub.service;
+
+import org.bin.parahub.dto.TrendingSpotDTO;
+import org.bin.parahub.entity.Spot;
+import org.bin.parahub.repository.SpotPopularityRepository;
+import org.bin.parahub.repository.SpotRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SpotPopularityServiceTest {
+
+	private static final long HOUR = 3_600_000;
+
+	private SpotPopularityRepository popularityRepository;
+	private SpotPopularityService service;
+
+	@BeforeEach
+	void setUp() {
+		SpotRepository spotRepository = mock(SpotRepository.class);
+		when(spotRepository.findAllById(any())).thenAnswer(invocation -> {
+			Iterable<Long> ids = invocation.getArgument(0);
+			List<Spot> spots = new ArrayList<>();
+			for (Long id : ids) {
+				Spot spot = new Spot();
+				spot.setId(id);
+				spot.setName("Старт " + id);
+				spot.setIsEnabled(id != 4L);
+				spots.add(spot);
+			}
+			return spots;
+		});
+		popularityRepository = mock(SpotPopularityRepository.class);
+		service = new SpotPopularityService(spotRepository, popularityRepository, 10, 0.2, 24);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void flushesIncrementsInOneBatchAndRanksByWeight() {
+		view(1L, 3);
+		view(2L, 1);
+		for (int i = 0; i < 10; i++) {
+			service.recordSearchHits(List.of(3L));
+		}
+		assertTrue(service.getTrending(10).isEmpty());
+
+		service.flush(0);
+
+		ArgumentCaptor<List<long[]>> batch = ArgumentCaptor.forClass(List.class);
+		verify(popularityRepository).addCounts(batch.capture());
+		List<long[]> deltas = batch.getValue().stream().sorted(Comparator.comparingLong((long[] delta) -> delta[0])).toList();
+		assertEquals(3, deltas.size());
+		assertEquals(List.of(1L, 3L, 0L), List.of(deltas.get(0)[0], deltas.get(0)[1], deltas.get(0)[2]));
+		assertEquals(List.of(3L, 0L, 10L), List.of(deltas.get(2)[0], deltas.get(2)[1], deltas.get(2)[2]));
+
+		assertEquals(List.of(1L, 3L, 2L), ids(service.getTrending(10)));
+		assertEquals(3.0, service.getTrending(10).get(0).getScore(), 1e-9);
+		assertEquals(List.of(1L), ids(service.getTrending(1)));
+
+		// без новых событий батч не отправляется
+		reset(popularityRepository);
+		service.flush(HOUR);
+		verify(popularityRepository, never()).addCounts(anyList());
+	}
+
+	@Test
+	void olderViewsDecayWithHalfLife() {
+		view(1L, 3);
+		view(2L, 1);
+		service.flush(0);
+
+		view(2L, 4);
+		service.flush(24 * HOUR);
+
+		List<TrendingSpotDTO> trending = service.getTrending(10);
+		assertEquals(List.of(2L, 1L), ids(trending));
+		assertEquals(4.5, trending.get(0).getScore(), 1e-9);
+		assertEquals(1.5, trending.get(1).getScore(), 1e-9);
+
+		// через много периодов всё забывается, в том числе после смены точки отсчёта
+		service.flush(2_000 * HOUR);
+		assertTrue(service.getTrending(10).isEmpty());
+	}
+
+	@Test
+	void keepsIncrementsWhenBatchFailsAndSkipsDisabledSpots() {
+		view(1L, 2);
+		view(4L, 5);
+		doThrow(new IllegalStateException("db down")).when(popularityRepository).addCounts(anyList());
+		service.flush(0);
+		assertTrue(service.getTrending(10).isEmpty());
+
+		reset(popularityRepository);
+		service.flush(1);
+
+		verify(popularityRepository).addCounts(anyList());
+		assertEquals(List.of(1L), ids(service.getTrending(10)));
+		assertEquals(2.0, service.getTrending(10).get(0).getScore(), 1e-6);
+	}
+
+	private void view(long spotId, int times) {
+		for (int i = 0; i < times; i++) {
+			service.recordView(spotId);
+		}
+	}
+
+	private static List<Long> ids(List<TrendingSpotDTO> trending) {
+		return trending.stream().map(TrendingSpotDTO::getSpotId).toList();
+	}
+}
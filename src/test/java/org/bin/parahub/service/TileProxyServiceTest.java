@@ -0,0 +1,164 @@
+package org.bin.parahub.service;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class TileProxyServiceTest {
+
+	@TempDir
+	Path cache;
+
+	private HttpServer upstream;
+	private final AtomicInteger requests = new AtomicInteger();
+	private volatile String cacheControl = "max-age=3600";
+	private volatile long delayMs;
+
+	@BeforeEach
+	void startUpstream() throws Exception {
+		upstream = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		upstream.setExecutor(Executors.newCachedThreadPool());
+		upstream.createContext("/", exchange -> {
+			requests.incrementAndGet();
+			try {
+				Thread.sleep(delayMs);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			// тайлы с чётным x одинаковые ("море"), остальные уникальные
+			String[] path = exchange.getRequestURI().getPath().split("/");
+			int x = Integer.parseInt(path[2]);
+			byte[] body = (x % 2 == 0 ? "sea" : "tile " + exchange.getRequestURI().getPath())
+					.getBytes(StandardCharsets.UTF_8);
+			exchange.getResponseHeaders().add("Content-Type", "image/png");
+			exchange.getResponseHeaders().add("Cache-Control", cacheControl);
+			exchange.sendResponseHeaders(200, body.length);
+			exchange.getResponseBody().write(body);
+			exchange.close();
+		});
+		upstream.start();
+	}
+
+	@AfterEach
+	void stopUpstream() {
+		upstream.stop(0);
+	}
+
+	@Test
+	void servesRepeatedRequestsFromDisk() throws Exception {
+		TileProxyService service = service(1024 * 1024);
+
+		TileProxyService.Tile first = service.getTile("standard", 3, 1, 2);
+		TileProxyService.Tile second = service.getTile("standard", 3, 1, 2);
+
+		assertEquals(1, requests.get());
+		assertEquals(first.file(), second.file());
+		assertArrayEquals("tile /3/1/2".getBytes(StandardCharsets.UTF_8), Files.readAllBytes(second.file()));
+
+		// индекс восстанавливается с диска
+		TileProxyService restarted = service(1024 * 1024);
+		restarted.getTile("standard", 3, 1, 2);
+		assertEquals(1, requests.get());
+	}
+
+	@Test
+	void collapsesConcurrentMissesIntoOneUpstreamRequest() throws Exception {
+		TileProxyService service = service(1024 * 1024);
+		delayMs = 200;
+
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<TileProxyService.Tile>> results = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			results.add(pool.submit(() -> {
+				start.await();
+				return service.getTile("topo", 5, 3, 7);
+			}));
+		}
+		start.countDown();
+		for (Future<TileProxyService.Tile> result : results) {
+			assertNotNull(result.get().file());
+		}
+		pool.shutdown();
+
+		assertEquals(1, requests.get());
+	}
+
+	@Test
+	void doesNotCacheNoStoreResponses() {
+		TileProxyService service = service(1024 * 1024);
+		cacheControl = "no-store";
+
+		TileProxyService.Tile tile = service.getTile("standard", 3, 1, 2);
+		service.getTile("standard", 3, 1, 2);
+
+		assertNull(tile.file());
+		assertEquals(2, requests.get());
+		assertEquals(0, service.getEntryCount());
+	}
+
+	@Test
+	void deduplicatesIdenticalTilesAndEvictsLeastRecentlyUsed() {
+		// "sea" — 3 байта, уникальные тайлы "tile /z/x/y" — 11 байт; лимит вмещает море и два уникальных
+		TileProxyService service = service(3 + 2 * 11);
+
+		service.getTile("standard", 3, 0, 0);
+		service.getTile("standard", 3, 2, 0);
+		service.getTile("standard", 3, 4, 0);
+		assertEquals(3, service.getEntryCount());
+		assertEquals(3, service.getTotalBytes());
+
+		service.getTile("standard", 3, 1, 0);
+		service.getTile("standard", 3, 3, 0);
+		service.getTile("standard", 3, 0, 0);
+		assertEquals(25, service.getTotalBytes());
+
+		// третий уникальный тайл вытесняет самый давно запрошенный (3/1/0)
+		service.getTile("standard", 3, 5, 0);
+		assertEquals(25, service.getTotalBytes());
+		int before = requests.get();
+		service.getTile("standard", 3, 3, 0);
+		assertEquals(before, requests.get());
+		service.getTile("standard", 3, 1, 0);
+		assertEquals(before + 1, requests.get());
+	}
+
+	@Test
+	void evictedFileStaysReadableForAlreadyIssuedTiles() throws Exception {
+		TileProxyService service = service(11);
+
+		TileProxyService.Tile issued = service.getTile("standard", 3, 1, 0);
+		// вытесняет 3/1/0, но выданный путь ещё можно открыть
+		service.getTile("standard", 3, 3, 0);
+		assertEquals(11, service.getTotalBytes());
+		assertArrayEquals("tile /3/1/0".getBytes(StandardCharsets.UTF_8), Files.readAllBytes(issued.file()));
+	}
+
+	private TileProxyService service(long maxBytes) {
+		String base = "http://127.0.0.1:" + upstream.getAddress().getPort();
+		return new TileProxyService(
+				Map.of("standard", base + "/{z}/{x}/{y}", "topo", base + "/{z}/{x}/{y}"),
+				cache, maxBytes, Duration.ofHours(1), Duration.ofSeconds(5), "test");
+	}
+}
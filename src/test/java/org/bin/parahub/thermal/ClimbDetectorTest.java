@@ -0,0 +1,110 @@
+package org.bin.parahub.thermal;
+
+import org.bin.parahub.igc.TrackCodec;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClimbDetectorTest {
+
+	private static final double CELL = 0.005;
+
+	// 44.4012° / 34.2012° в единицах IGC (1/60000°)
+	private static final int LATITUDE = 2_664_072;
+	private static final int LONGITUDE = 2_052_072;
+
+	private final ClimbDetector detector = new ClimbDetector(CELL, 15, 0.5, 30);
+
+	@Test
+	void findsThermalAndAveragesClimbInItsCell() {
+		List<TrackCodec.Fix> fixes = new ArrayList<>();
+		int altitude = 1500;
+		// планирование к потоку, 60 с набора по 2 м/с в одной ячейке, уход
+		altitude = glide(fixes, 0, 120, altitude, 2_000);
+		for (int t = 120; t < 180; t++) {
+			altitude += 2;
+			fixes.add(fix(t, LATITUDE, LONGITUDE, altitude));
+		}
+		glide(fixes, 180, 120, altitude, LONGITUDE + 6_000);
+
+		ThermalGrid grid = detector.detect(fixes);
+		int thermalRow = grid.row(44.4012);
+		int thermalCol = grid.col(34.2012);
+		long[] thermal = new long[2];
+		long[] elsewhere = new long[1];
+		grid.forEachIn(44, 45, 34, 35, (row, col, samples, climbSum, maxClimb, thermals) -> {
+			if (row != thermalRow || col != thermalCol) {
+				// хвост окна вариометра на выходе из потока
+				elsewhere[0] += samples;
+				return;
+			}
+			thermal[0] = samples;
+			thermal[1] = thermals;
+			assertTrue(climbSum / samples > 1 && climbSum / samples <= 2.0001, "average " + climbSum / samples);
+			assertEquals(2, maxClimb, 1e-6);
+		});
+
+		assertTrue(thermal[0] >= 50, "samples " + thermal[0]);
+		assertTrue(elsewhere[0] < 15, "outside " + elsewhere[0]);
+		assertEquals(1, thermal[1]);
+	}
+
+	@Test
+	void ignoresShortBumps() {
+		List<TrackCodec.Fix> fixes = new ArrayList<>();
+		int altitude = glide(fixes, 0, 60, 1500, 0);
+		for (int t = 60; t < 75; t++) {
+			altitude += 3;
+			fixes.add(fix(t, LATITUDE, LONGITUDE, altitude));
+		}
+		glide(fixes, 75, 60, altitude, 0);
+
+		assertEquals(0, detector.detect(fixes).size());
+	}
+
+	@Test
+	void mergeSumsCellsAndGrowsTable() {
+		ThermalGrid total = new ThermalGrid(CELL, 0);
+		for (int i = 0; i < 1000; i++) {
+			ThermalGrid partial = new ThermalGrid(CELL, 0);
+			partial.add(ThermalGrid.key(i, i), 10, 15, 2, 1);
+			partial.add(ThermalGrid.key(0, 0), 1, 1, i, 1);
+			total.merge(partial);
+		}
+
+		assertEquals(1000, total.size());
+		long[] origin = new long[2];
+		// маленький прямоугольник — поиск по ключам
+		total.forEachIn(-90, -90, -180, -180, (row, col, samples, climbSum, maxClimb, thermals) -> {
+			origin[0] = samples;
+			origin[1] = thermals;
+			assertEquals(999, maxClimb, 0);
+		});
+		assertEquals(1010, origin[0]);
+		assertEquals(1001, origin[1]);
+
+		// большой — полный обход
+		int[] count = new int[1];
+		total.forEachIn(-90, 90, -180, 180, (row, col, samples, climbSum, maxClimb, thermals) -> count[0]++);
+		assertEquals(1000, count[0]);
+	}
+
+	/**
+	 * Снижение 1 м/с с уходом по долготе на shift; возвращает высоту в конце
+	 */
+	private static int glide(List<TrackCodec.Fix> fixes, int from, int seconds, int altitude, int shift) {
+		for (int i = 0; i < seconds; i++) {
+			altitude -= 1;
+			fixes.add(fix(from + i, LATITUDE, LONGITUDE + shift * (i + 1) / seconds, altitude));
+		}
+		return altitude;
+	}
+
+	private static TrackCodec.Fix fix(long time, int latitude, int longitude, int altitude) {
+		return new TrackCodec.Fix(time, latitude, longitude, altitude, altitude + 20);
+	}
+}